@@ -20,6 +20,7 @@ import org.bson.types.ObjectId;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.math.BigDecimal;
 
 import javax.validation.Valid;
@@ -42,6 +43,11 @@ public class RollingStockReviews {
 
     private final static RollingStockReviews DEFAULT = new RollingStockReviews();
 
+    /**
+     * The maximum rating for a {@code Review}.
+     */
+    public final static int MAX_RATING = 5;
+
     @Id
     private ObjectId id;
 
@@ -60,6 +66,8 @@ public class RollingStockReviews {
     @Range(min = 0, message = "reviews.totalRating.range.notmet")
     private int totalRating;
 
+    private Map<String, Integer> ratings;
+
     /**
      * Creates a new empty {@code RollingStockReviews}.
      */
@@ -230,6 +238,59 @@ public class RollingStockReviews {
         this.totalRating = totalRating;
     }
 
+    /**
+     * Returns the number of reviews by rating.
+     * <p>
+     * The counters are maintained along with the total rating, the
+     * map keys are the rating values (ie {@code "4"}).
+     * </p>
+     *
+     * @return the counters map
+     */
+    public Map<String, Integer> getRatings() {
+        if (ratings == null) {
+            return Collections.emptyMap();
+        }
+        return ratings;
+    }
+
+    /**
+     * Sets the number of reviews by rating.
+     *
+     * @param ratings the counters map
+     */
+    public void setRatings(Map<String, Integer> ratings) {
+        this.ratings = ratings;
+    }
+
+    /**
+     * Returns the rating histogram for the {@code RollingStock}.
+     * <p>
+     * The array element with index {@code n} contains the number of
+     * reviews rated {@code n}.
+     * </p>
+     *
+     * @return the rating histogram
+     */
+    public int[] getHistogram() {
+        int[] histogram = new int[MAX_RATING + 1];
+        for (int r = 0; r <= MAX_RATING; r++) {
+            Integer count = getRatings().get(getRatingKey(r));
+            histogram[r] = count != null ? count : 0;
+        }
+        return histogram;
+    }
+
+    /**
+     * Returns the key for the rating counters map.
+     *
+     * @param rating the rating value
+     * @return the map key
+     */
+    public static String getRatingKey(int rating) {
+        return String.valueOf(rating);
+    }
+
     /**
      * Returns the average rating for the {@code RollingStock} currently under review.
      * <p>
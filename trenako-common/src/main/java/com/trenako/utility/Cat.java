@@ -17,7 +17,9 @@ package com.trenako.utility;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.context.MessageSource;
 
@@ -34,22 +36,32 @@ import com.trenako.values.PowerMethod;
  */
 public class Cat {
 
+    // the unlocalized values, by their string representation
+    private static final Map<String, Cat> CATS = buildCats();
+
     private final LocalizedEnum<PowerMethod> powerMethod;
     private final LocalizedEnum<Category> category;
+    private final String key;
 
     private Cat(LocalizedEnum<PowerMethod> powerMethod, LocalizedEnum<Category> category) {
         this.powerMethod = powerMethod;
         this.category = category;
+        this.key = new StringBuilder()
+                .append(powerMethod.getKey())
+                .append("-")
+                .append(category.getKey())
+                .toString();
     }
 
     private Cat(PowerMethod powerMethod, Category category) {
-        this(new LocalizedEnum<>(powerMethod), new LocalizedEnum<>(category));
+        this(LocalizedEnum.of(powerMethod, null), LocalizedEnum.of(category, null));
     }
 
     /**
      * Parses the string argument as a {@code Cat}.
      * <p>
-     * The allowed format is {@code PowerMethod + '-' + Category}.
+     * The allowed format is {@code PowerMethod + '-' + Category}; the valid
+     * values are looked up in a precomputed table.
      * </p>
      *
      * @param s the string containing the {@code Cat} representation
@@ -60,6 +72,11 @@ public class Cat {
             throw new IllegalArgumentException("Input string is null");
         }
 
+        Cat cat = CATS.get(s);
+        if (cat != null) {
+            return cat;
+        }
+
         if (s.length() < 4) {
             throw new CatFormatException("'" + s + "' is too short");
         }
@@ -88,8 +105,8 @@ public class Cat {
 
     public static Cat buildCat(PowerMethod powerMethod, Category category, MessageSource messageSource) {
         return new Cat(
-                new LocalizedEnum<>(powerMethod, messageSource, null),
-                new LocalizedEnum<>(category, messageSource, null));
+                LocalizedEnum.of(powerMethod, messageSource),
+                LocalizedEnum.of(category, messageSource));
     }
 
     /**
@@ -203,11 +220,7 @@ public class Cat {
      */
     @Override
     public String toString() {
-        return new StringBuilder()
-                .append(powerMethod.getKey())
-                .append("-")
-                .append(category.getKey())
-                .toString();
+        return key;
     }
 
     private static void validate(String pm, String c) {
@@ -219,4 +232,15 @@ public class Cat {
             throw new CatFormatException("'" + pm + "' illegal value for power method");
         }
     }
+
+    private static Map<String, Cat> buildCats() {
+        Map<String, Cat> cats = new HashMap<>();
+        for (PowerMethod pm : PowerMethod.values()) {
+            for (Category c : Category.values()) {
+                Cat cat = new Cat(pm, c);
+                cats.put(cat.toString(), cat);
+            }
+        }
+        return Collections.unmodifiableMap(cats);
+    }
 }
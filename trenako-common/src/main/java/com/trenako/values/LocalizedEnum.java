@@ -15,10 +15,6 @@
  */
 package com.trenako.values;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-
 import org.springframework.context.MessageSource;
 import org.springframework.util.StringUtils;
 
@@ -77,25 +73,57 @@ public class LocalizedEnum<T extends Enum<T>> {
 
     /**
      * Returns the label for the provided {@code enum} value.
+     * <p>
+     * The keys are looked up in the cached values table; the other valid
+     * constant names are parsed as usual.
+     * </p>
      *
      * @param str      the string to be parsed
      * @param enumType the {@code enum} type
      * @return a value if {@code str} is valid constant name
      */
     public static <T extends Enum<T>> T parseString(String str, Class<T> enumType) {
+        LocalizedEnum<T> value = LocalizedEnumTable.of(enumType, null, null).get(str);
+        if (value != null) {
+            return value.getValue();
+        }
         return T.valueOf(enumType, str.toUpperCase().replace('-', '_'));
     }
 
     /**
      * Returns the label for the provided {@code enum} value.
+     * <p>
+     * The localized values are taken from the cached table for the
+     * {@code enum} type.
+     * </p>
      *
      * @param str      the string to be parsed
      * @param enumType the {@code enum} type
      * @return a value if {@code str} is valid constant name
      */
     public static <T extends Enum<T>> LocalizedEnum<T> parseString(String str, MessageSource ms, Class<T> enumType) {
+        LocalizedEnumTable<T> table = LocalizedEnumTable.of(enumType, ms, null);
+        LocalizedEnum<T> value = table.get(str);
+        if (value != null) {
+            return value;
+        }
+
         T val = T.valueOf(enumType, str.toUpperCase().replace('-', '_'));
-        return new LocalizedEnum<T>(val, ms, null);
+        return table.get(val);
+    }
+
+    /**
+     * Returns the localized value for the provided {@code enum} constant.
+     * <p>
+     * The value is taken from the cached table for the {@code enum} type.
+     * </p>
+     *
+     * @param val the {@code enum} value
+     * @param ms  the {@code MessageSource} to localize the text strings
+     * @return the localized value
+     */
+    public static <T extends Enum<T>> LocalizedEnum<T> of(T val, MessageSource ms) {
+        return LocalizedEnumTable.of(val.getDeclaringClass(), ms, null).get(val);
     }
 
     /**
@@ -110,6 +138,10 @@ public class LocalizedEnum<T extends Enum<T>> {
 
     /**
      * Builds the list with the provided {@code enum} values.
+     * <p>
+     * The values are computed once for every {@code enum} type and locale, the
+     * following calls return the same immutable list until the message source is reloaded.
+     * </p>
      *
      * @param enumType      the {@code enum} type
      * @param messageSource the {@code MessageSource} to localize the text strings
@@ -125,14 +157,7 @@ public class LocalizedEnum<T extends Enum<T>> {
             throw new IllegalArgumentException("The provided type is not an enum");
         }
 
-        T[] consts = enumType.getEnumConstants();
-        List<LocalizedEnum<T>> items = new ArrayList<LocalizedEnum<T>>(consts.length);
-
-        for (T val : consts) {
-            items.add(new LocalizedEnum<T>(val, messageSource, failback));
-        }
-
-        return Collections.unmodifiableList(items);
+        return LocalizedEnumTable.of(enumType, messageSource, failback).values();
     }
 
     /**
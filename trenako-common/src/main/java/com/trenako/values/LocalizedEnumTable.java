@@ -0,0 +1,207 @@
+/*
+ * Copyright 2012 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.trenako.values;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.context.MessageSource;
+
+import com.trenako.values.LocalizedEnum.MessageFailback;
+
+/**
+ * It represents the immutable table of the localized values for an {@code enum} type.
+ * <p>
+ * The tables are computed once for every {@code enum} type and locale, then they are
+ * cached. The cache is held by the {@code MessageSource}, with weak references: when the
+ * application context (and its message source) is reloaded the new message source
+ * starts with empty tables, while the old ones are garbage collected.
+ * </p>
+ * <p>
+ * The failback messages are assumed to depend only on the failback class.
+ * </p>
+ *
+ * @param <T> the {@code enum} type
+ * @author Carlo Micieli
+ */
+final class LocalizedEnumTable<T extends Enum<T>> {
+
+    private static final ConcurrentMap<TableKey, LocalizedEnumTable<?>> UNLOCALIZED_TABLES =
+            new ConcurrentHashMap<TableKey, LocalizedEnumTable<?>>();
+    private static final Map<MessageSource, ConcurrentMap<TableKey, LocalizedEnumTable<?>>> LOCALIZED_TABLES =
+            Collections.synchronizedMap(new WeakHashMap<MessageSource, ConcurrentMap<TableKey, LocalizedEnumTable<?>>>());
+
+    // the tables for the last message source used, to skip the synchronized lookup
+    private static volatile SourceTables lastTables;
+
+    private final List<LocalizedEnum<T>> values;
+    private final Map<String, LocalizedEnum<T>> valuesByKey;
+
+    private LocalizedEnumTable(Class<T> enumType, MessageSource messageSource, MessageFailback<T> failback) {
+        T[] consts = enumType.getEnumConstants();
+
+        List<LocalizedEnum<T>> values = new ArrayList<LocalizedEnum<T>>(consts.length);
+        Map<String, LocalizedEnum<T>> valuesByKey = new HashMap<String, LocalizedEnum<T>>(consts.length * 2);
+        for (T val : consts) {
+            LocalizedEnum<T> value = new LocalizedEnum<T>(val, messageSource, failback);
+            values.add(value);
+            valuesByKey.put(value.getKey(), value);
+        }
+
+        this.values = Collections.unmodifiableList(values);
+        this.valuesByKey = Collections.unmodifiableMap(valuesByKey);
+    }
+
+    /**
+     * Returns the table for the provided {@code enum} type.
+     * <p>
+     * The messages are resolved without an explicit locale, as the message
+     * source does for the default locale; therefore the tables are
+     * cached by the current default locale.
+     * </p>
+     *
+     * @param enumType      the {@code enum} type
+     * @param messageSource the {@code MessageSource} to localize the text strings
+     * @param failback      the failback interface to produce default messages
+     * @return the table
+     */
+    @SuppressWarnings("unchecked")
+    static <T extends Enum<T>> LocalizedEnumTable<T> of(Class<T> enumType,
+            MessageSource messageSource,
+            MessageFailback<T> failback) {
+
+        ConcurrentMap<TableKey, LocalizedEnumTable<?>> tables = tables(messageSource);
+        TableKey key = new TableKey(enumType, failback, Locale.getDefault());
+
+        LocalizedEnumTable<?> table = tables.get(key);
+        if (table == null) {
+            table = new LocalizedEnumTable<T>(enumType, messageSource, failback);
+            LocalizedEnumTable<?> existing = tables.putIfAbsent(key, table);
+            if (existing != null) {
+                table = existing;
+            }
+        }
+        return (LocalizedEnumTable<T>) table;
+    }
+
+    /**
+     * Removes all the cached tables.
+     */
+    static void clear() {
+        UNLOCALIZED_TABLES.clear();
+        LOCALIZED_TABLES.clear();
+        lastTables = null;
+    }
+
+    /**
+     * Returns the localized values, in the {@code enum} constants order.
+     *
+     * @return the values
+     */
+    List<LocalizedEnum<T>> values() {
+        return values;
+    }
+
+    /**
+     * Returns the localized value for the provided constant.
+     *
+     * @param val the {@code enum} constant
+     * @return the localized value
+     */
+    LocalizedEnum<T> get(T val) {
+        return values.get(val.ordinal());
+    }
+
+    /**
+     * Returns the localized value for the provided key.
+     *
+     * @param key the value key
+     * @return the localized value, or {@code null} if the key is not valid
+     */
+    LocalizedEnum<T> get(String key) {
+        return valuesByKey.get(key);
+    }
+
+    private static ConcurrentMap<TableKey, LocalizedEnumTable<?>> tables(MessageSource messageSource) {
+        if (messageSource == null) {
+            return UNLOCALIZED_TABLES;
+        }
+
+        SourceTables last = lastTables;
+        if (last != null && last.messageSource == messageSource) {
+            return last.tables;
+        }
+
+        ConcurrentMap<TableKey, LocalizedEnumTable<?>> tables;
+        synchronized (LOCALIZED_TABLES) {
+            tables = LOCALIZED_TABLES.get(messageSource);
+            if (tables == null) {
+                tables = new ConcurrentHashMap<TableKey, LocalizedEnumTable<?>>();
+                LOCALIZED_TABLES.put(messageSource, tables);
+            }
+        }
+
+        lastTables = new SourceTables(messageSource, tables);
+        return tables;
+    }
+
+    private static final class SourceTables {
+        private final MessageSource messageSource;
+        private final ConcurrentMap<TableKey, LocalizedEnumTable<?>> tables;
+
+        SourceTables(MessageSource messageSource, ConcurrentMap<TableKey, LocalizedEnumTable<?>> tables) {
+            this.messageSource = messageSource;
+            this.tables = tables;
+        }
+    }
+
+    private static final class TableKey {
+        private final Class<?> enumType;
+        private final Class<?> failbackType;
+        private final Locale locale;
+
+        TableKey(Class<?> enumType, MessageFailback<?> failback, Locale locale) {
+            this.enumType = enumType;
+            this.failbackType = failback != null ? failback.getClass() : null;
+            this.locale = locale;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) return true;
+            if (!(obj instanceof TableKey)) return false;
+
+            TableKey other = (TableKey) obj;
+            return this.enumType.equals(other.enumType) &&
+                    (this.failbackType == null ? other.failbackType == null : this.failbackType.equals(other.failbackType)) &&
+                    this.locale.equals(other.locale);
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = enumType.hashCode();
+            hash = 31 * hash + (failbackType != null ? failbackType.hashCode() : 0);
+            return 31 * hash + locale.hashCode();
+        }
+    }
+}
@@ -21,6 +21,8 @@ import static org.junit.Assert.*;
 import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 
 import org.junit.Test;
 
@@ -88,6 +90,21 @@ public class RollingStockReviewsTests {
 		assertEquals(BigDecimal.valueOf(4.5), rsReviews.getRating());
 	}
 	
+	@Test
+	public void shouldReturnTheRatingHistogram() {
+		Map<String, Integer> ratings = new HashMap<String, Integer>();
+		ratings.put(RollingStockReviews.getRatingKey(5), 3);
+		ratings.put(RollingStockReviews.getRatingKey(2), 1);
+		rsReviews.setRatings(ratings);
+		
+		assertEquals("[0, 0, 1, 0, 0, 3]", Arrays.toString(rsReviews.getHistogram()));
+	}
+	
+	@Test
+	public void shouldReturnEmptyHistogramsWhenNoReviewWasPosted() {
+		assertEquals("[0, 0, 0, 0, 0, 0]", Arrays.toString(new RollingStockReviews().getHistogram()));
+	}
+	
 	@Test
 	public void shouldCheckWhetherTwoRollingStockReviewListsAreEquals() {
 		RollingStockReviews x = new RollingStockReviews(rs, 3, 12);
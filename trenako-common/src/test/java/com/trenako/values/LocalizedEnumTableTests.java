@@ -0,0 +1,114 @@
+/*
+ * Copyright 2012 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.trenako.values;
+
+import java.util.Locale;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.context.MessageSource;
+
+import com.trenako.utility.Cat;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 
+ * @author Carlo Micieli
+ *
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class LocalizedEnumTableTests {
+
+	@Mock MessageSource ms;
+	
+	@Before
+	public void setup() {
+		MockitoAnnotations.initMocks(this);
+		when(ms.getMessage(eq("era.iii.label"), (Object[]) eq(null), eq("iii"), (Locale) eq(null)))
+			.thenReturn("III");
+	}
+	
+	@After
+	public void cleanup() {
+		LocalizedEnumTable.clear();
+	}
+	
+	@Test
+	public void shouldReturnTheSameValuesForTheSameMessageSource() {
+		Iterable<LocalizedEnum<Era>> first = LocalizedEnum.list(Era.class, ms, null);
+		Iterable<LocalizedEnum<Era>> second = LocalizedEnum.list(Era.class, ms, null);
+		
+		assertSame(first, second);
+		verify(ms, times(1))
+			.getMessage(eq("era.iii.label"), (Object[]) eq(null), eq("iii"), (Locale) eq(null));
+	}
+	
+	@Test
+	public void shouldComputeNewValuesForAnotherMessageSource() {
+		MessageSource reloaded = mock(MessageSource.class);
+		when(reloaded.getMessage(eq("era.iii.label"), (Object[]) eq(null), eq("iii"), (Locale) eq(null)))
+			.thenReturn("Era III");
+		
+		LocalizedEnum<Era> before = LocalizedEnum.of(Era.III, ms);
+		LocalizedEnum<Era> after = LocalizedEnum.of(Era.III, reloaded);
+		
+		assertEquals("III", before.getLabel());
+		assertEquals("Era III", after.getLabel());
+		assertSame(before, LocalizedEnum.of(Era.III, ms));
+	}
+	
+	@Test
+	public void shouldKeepDifferentValuesForTheFailbacks() {
+		Iterable<LocalizedEnum<Era>> withFailback = LocalizedEnum.list(Era.class, null, new LocalizedEnum.EraMessageFailback());
+		Iterable<LocalizedEnum<Era>> withoutFailback = LocalizedEnum.list(Era.class);
+		
+		assertNotSame(withFailback, withoutFailback);
+		assertEquals("I", withFailback.iterator().next().getLabel());
+		assertEquals("i", withoutFailback.iterator().next().getLabel());
+	}
+	
+	@Test
+	public void shouldParseValuesFromTheTable() {
+		LocalizedEnum<Era> value = LocalizedEnum.parseString("iii", ms, Era.class);
+		
+		assertEquals(Era.III, value.getValue());
+		assertEquals("III", value.getLabel());
+		assertSame(value, LocalizedEnum.parseString("iii", ms, Era.class));
+	}
+	
+	@Test
+	public void shouldParseConstantNamesNotInTheTable() {
+		assertEquals(Category.ELECTRIC_LOCOMOTIVES, LocalizedEnum.parseString("ELECTRIC_LOCOMOTIVES", Category.class));
+		assertEquals(Era.III, LocalizedEnum.parseString("III", ms, Era.class).getValue());
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldThrowExceptionParsingInvalidValues() {
+		LocalizedEnum.parseString("not-an-era", Era.class);
+	}
+	
+	@Test
+	public void shouldReturnTheSameCatForTheSameString() {
+		assertSame(Cat.parseString("dc-electric-locomotives"), Cat.parseString("dc-electric-locomotives"));
+	}
+}
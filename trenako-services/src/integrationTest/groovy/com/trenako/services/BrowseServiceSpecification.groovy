@@ -22,6 +22,8 @@ import spock.lang.*
 
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.data.domain.Sort
+import org.springframework.data.domain.Sort.Direction
 import com.trenako.values.Category
 import com.trenako.values.DeliveryDate
 import com.trenako.values.Era
@@ -538,4 +540,19 @@ class BrowseServiceSpecification extends MongoSpecification {
 		results.hasPreviousPage() == false
 		results.hasNextPage() == true
 	}
+	
+	def "should not repeat rolling stocks in the next page when sorting by an unsupported property"() {
+		given:
+		def criteria = new SearchRequest()
+		def sort = new Sort(Direction.ASC, 'totalLength')
+		def first = service.findByCriteria(criteria, new RangeRequest(size: 5, sort: sort))
+		
+		when:
+		def second = service.findByCriteria(criteria, new RangeRequest(size: 5, sort: sort, since: first.range.since))
+		
+		then:
+		first.items.size() == 5
+		second.items.size() == 5
+		first.items.collect { it.slug }.intersect(second.items.collect { it.slug }).isEmpty()
+	}
 }
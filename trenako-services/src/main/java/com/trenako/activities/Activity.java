@@ -25,6 +25,8 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.bson.types.ObjectId;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -54,6 +56,9 @@ import com.trenako.mapping.WeakDbRef;
  * @author Carlo Micieli
  */
 @Document(collection = "activityStream")
+@CompoundIndexes({
+        @CompoundIndex(name = "actor_recorded_idx", def = "{'actor': 1, 'recorded': -1}")
+})
 public class Activity {
     private final static Map<String, String> verbColors = initColors();
 
@@ -61,7 +66,6 @@ public class Activity {
     private ObjectId id;
 
     @NotNull(message = "activity.actor.required")
-    @Indexed
     private String actor;
 
     @NotNull(message = "activity.verb.required")
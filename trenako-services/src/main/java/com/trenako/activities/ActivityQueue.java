@@ -0,0 +1,289 @@
+/*
+ * Copyright 2012 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.trenako.activities;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+/**
+ * It represents the write-behind queue for the activity stream.
+ * <p>
+ * The activities are recorded by the request threads without waiting for the database:
+ * a background thread inserts them in the {@code activityStream} collection in batches,
+ * every {@code flushInterval} milliseconds or as soon as a batch is full.
+ * </p>
+ * <p>
+ * The queue is bounded: when it is full the activity is saved by the calling thread,
+ * therefore the requests are slowed down instead of losing activities. The queue
+ * is drained when the application is stopped. Until the queue is started, and
+ * once it is stopped, the activities are saved by the calling thread.
+ * </p>
+ *
+ * @author Carlo Micieli
+ */
+@Component("activityQueue")
+@ManagedResource(objectName = "trenako:type=Activities,name=activityQueue",
+        description = "The write-behind queue for the activity stream")
+public class ActivityQueue {
+
+    private static final Logger log = LoggerFactory.getLogger("com.trenako.activities");
+
+    private final MongoTemplate mongo;
+    private final BlockingQueue<Activity> queue;
+    private final int batchSize;
+    private final long flushInterval;
+
+    private final AtomicBoolean flushPending = new AtomicBoolean();
+    private final AtomicLong flushed = new AtomicLong();
+    private final AtomicLong savedByCaller = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile long lastFlushLatency = 0;
+    private volatile long maxFlushLatency = 0;
+    private volatile Date lastFlush;
+
+    private volatile ThreadPoolTaskScheduler scheduler;
+    private volatile boolean stopped = false;
+
+    private final Runnable flushTask = new Runnable() {
+        @Override
+        public void run() {
+            flushPending.set(false);
+            flush();
+        }
+    };
+
+    /**
+     * Creates a new {@code ActivityQueue}.
+     *
+     * @param mongo         the mongo template
+     * @param capacity      the max number of activities waiting to be saved
+     * @param batchSize     the max number of activities saved with a single insert
+     * @param flushInterval the interval between two flushes in milliseconds
+     */
+    @Autowired
+    public ActivityQueue(MongoTemplate mongo,
+                         @Value("${activities.queue.capacity:1000}") int capacity,
+                         @Value("${activities.queue.batchSize:50}") int batchSize,
+                         @Value("${activities.queue.flushInterval:1000}") long flushInterval) {
+        Assert.isTrue(capacity > 0, "Queue capacity must be positive");
+        Assert.isTrue(batchSize > 0, "Batch size must be positive");
+        Assert.isTrue(flushInterval > 0, "Flush interval must be positive");
+
+        this.mongo = mongo;
+        this.queue = new LinkedBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+    }
+
+    /**
+     * Schedules the periodic flushes.
+     */
+    @PostConstruct
+    public void start() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("activities-");
+        scheduler.setDaemon(true);
+        scheduler.initialize();
+
+        stopped = false;
+        this.scheduler = scheduler;
+        scheduler.scheduleWithFixedDelay(flushTask,
+                new Date(System.currentTimeMillis() + flushInterval), flushInterval);
+    }
+
+    /**
+     * Stops the periodic flushes, saving the activities still in the queue.
+     */
+    @PreDestroy
+    public void stop() {
+        // the activities added from now on are saved by the calling thread
+        stopped = true;
+
+        ThreadPoolTaskScheduler scheduler = this.scheduler;
+        if (scheduler != null) {
+            scheduler.shutdown();
+            try {
+                scheduler.getScheduledExecutor().awaitTermination(flushInterval, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            this.scheduler = null;
+        }
+        flush();
+    }
+
+    /**
+     * Adds the activity to the queue.
+     *
+     * @param activity the activity
+     */
+    public void add(Activity activity) {
+        ThreadPoolTaskScheduler scheduler = this.scheduler;
+        if (scheduler == null || stopped) {
+            insert(Collections.singletonList(activity));
+            return;
+        }
+
+        if (!queue.offer(activity)) {
+            // the queue is full: the caller pays the insert
+            if (insert(Collections.singletonList(activity))) {
+                savedByCaller.incrementAndGet();
+            }
+            return;
+        }
+
+        if (stopped) {
+            // stop() could have drained the queue before the offer
+            flush();
+            return;
+        }
+
+        if (queue.size() >= batchSize && flushPending.compareAndSet(false, true)) {
+            try {
+                scheduler.execute(flushTask);
+            } catch (TaskRejectedException ex) {
+                // the queue is going to be drained by stop()
+                flushPending.set(false);
+            }
+        }
+    }
+
+    /**
+     * Saves all the activities in the queue.
+     */
+    @ManagedOperation(description = "Saves all the activities in the queue")
+    public synchronized void flush() {
+        List<Activity> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            long start = System.nanoTime();
+            if (insert(batch)) {
+                flushed.addAndGet(batch.size());
+            }
+
+            long latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            lastFlushLatency = latency;
+            maxFlushLatency = Math.max(maxFlushLatency, latency);
+            lastFlush = new Date();
+            batch = new ArrayList<>(batchSize);
+        }
+    }
+
+    /**
+     * Returns the number of activities waiting to be saved.
+     *
+     * @return the queue depth
+     */
+    @ManagedAttribute(description = "The number of activities waiting to be saved")
+    public int getDepth() {
+        return queue.size();
+    }
+
+    /**
+     * Returns the number of activities saved by the background flushes.
+     *
+     * @return the number of activities
+     */
+    @ManagedAttribute(description = "The number of activities saved in batches")
+    public long getFlushed() {
+        return flushed.get();
+    }
+
+    /**
+     * Returns the number of activities saved by the calling thread while the queue was full.
+     *
+     * @return the number of activities
+     */
+    @ManagedAttribute(description = "The number of activities saved by the request threads while the queue was full")
+    public long getSavedByCaller() {
+        return savedByCaller.get();
+    }
+
+    /**
+     * Returns the number of activities which were not saved for an error.
+     *
+     * @return the number of activities
+     */
+    @ManagedAttribute(description = "The number of activities lost for an error")
+    public long getFailed() {
+        return failed.get();
+    }
+
+    /**
+     * Returns the time spent by the last batch insert in milliseconds.
+     *
+     * @return the latency
+     */
+    @ManagedAttribute(description = "The time spent by the last batch insert in milliseconds")
+    public long getLastFlushLatency() {
+        return lastFlushLatency;
+    }
+
+    /**
+     * Returns the max time spent by a batch insert in milliseconds.
+     *
+     * @return the latency
+     */
+    @ManagedAttribute(description = "The max time spent by a batch insert in milliseconds")
+    public long getMaxFlushLatency() {
+        return maxFlushLatency;
+    }
+
+    /**
+     * Returns the last flush timestamp.
+     *
+     * @return the timestamp, or {@code null} if nothing was flushed
+     */
+    @ManagedAttribute(description = "The last flush timestamp")
+    public Date getLastFlush() {
+        return lastFlush;
+    }
+
+    private boolean insert(List<Activity> activities) {
+        try {
+            mongo.insert(activities, Activity.class);
+            return true;
+        } catch (DataAccessException ex) {
+            failed.addAndGet(activities.size());
+            log.error("Unable to save " + activities.size() + " activities", ex);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2012 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.trenako.activities;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A fixed-size ring with the latest activities.
+ * <p>
+ * The writers claim a slot incrementing the sequence, therefore neither the writes
+ * nor the reads take a lock; a reader could miss an activity whose slot is being
+ * written, it will be returned by the next read.
+ * </p>
+ *
+ * @author Carlo Micieli
+ */
+final class ActivityRing {
+
+    static final Comparator<Activity> LATEST_FIRST = new Comparator<Activity>() {
+        @Override
+        public int compare(Activity a, Activity b) {
+            return b.getRecorded().compareTo(a.getRecorded());
+        }
+    };
+
+    private final AtomicReferenceArray<Activity> slots;
+    private final AtomicLong sequence = new AtomicLong();
+
+    ActivityRing(int capacity) {
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    int capacity() {
+        return slots.length();
+    }
+
+    void add(Activity activity) {
+        long seq = sequence.getAndIncrement();
+        slots.set((int) (seq % slots.length()), activity);
+    }
+
+    /**
+     * Adds the activities, from the oldest to the latest.
+     */
+    void addAll(List<Activity> activities) {
+        for (int i = activities.size() - 1; i >= 0; i--) {
+            add(activities.get(i));
+        }
+    }
+
+    /**
+     * Returns the latest activities, sorted by the recorded timestamp.
+     */
+    List<Activity> latest(int numberOfItems) {
+        long last = sequence.get();
+        int count = (int) Math.min(Math.min(numberOfItems, slots.length()), last);
+
+        List<Activity> items = new ArrayList<>(count);
+        Set<Activity> seen = Collections.newSetFromMap(new IdentityHashMap<Activity, Boolean>());
+        for (long seq = last - 1; seq >= last - count; seq--) {
+            // a slot overwritten during the read contains a newer activity
+            Activity activity = slots.get((int) (seq % slots.length()));
+            if (activity != null && activity.getRecorded() != null && seen.add(activity)) {
+                items.add(activity);
+            }
+        }
+        Collections.sort(items, LATEST_FIRST);
+        return items;
+    }
+}
@@ -16,6 +16,7 @@
 package com.trenako.activities;
 
 import java.util.Collections;
+import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -42,51 +43,60 @@ import com.trenako.repositories.ActivityRepository;
 public class ActivityStreamImpl implements ActivityStream {
 
     private final ActivityRepository repo;
+    private final ActivityQueue queue;
+    private final RecentActivities recent;
 
     @Autowired
-    public ActivityStreamImpl(ActivityRepository repo) {
+    public ActivityStreamImpl(ActivityRepository repo, ActivityQueue queue, RecentActivities recent) {
         this.repo = repo;
+        this.queue = queue;
+        this.recent = recent;
     }
 
     @Override
     public void comment(RollingStock rs, Comment comment) {
         Activity act = Activity.buildForComment(comment, WeakDbRef.buildRef(rs));
-        repo.save(act);
+        record(act);
     }
 
     @Override
     public void review(RollingStock rs, Review review) {
         Activity act = Activity.buildForReview(review, WeakDbRef.buildRef(rs));
-        repo.save(act);
+        record(act);
     }
 
     @Override
     public void createRollingStock(RollingStock rs) {
         Activity act = Activity.buildForRsCreate(rs);
-        repo.save(act);
+        record(act);
     }
 
     @Override
     public void changeRollingStock(RollingStock rs) {
         Activity act = Activity.buildForRsChange(rs);
-        repo.save(act);
+        record(act);
     }
 
     @Override
     public void wishList(WishList wishList, WishListItem item) {
         Activity act = Activity.buildForWishList(wishList, item);
-        repo.save(act);
+        record(act);
     }
 
     @Override
     public void collection(Account owner, CollectionItem item) {
         Collection collection = new Collection(owner);
         Activity act = Activity.buildForCollection(collection, item);
-        repo.save(act);
+        record(act);
     }
 
     @Override
     public Iterable<Activity> recentActivity(int numberOfItems) {
+        List<Activity> latest = recent.latest(numberOfItems);
+        if (latest != null) {
+            return latest;
+        }
+
         Pageable pageable = new PageRequest(0, numberOfItems, Direction.DESC, "recorded");
         Page<Activity> results = repo.findAll(pageable);
 
@@ -99,7 +109,17 @@ public class ActivityStreamImpl implements ActivityStream {
 
     @Override
     public Iterable<Activity> userActivity(Account user, int numberOfItems) {
+        List<Activity> latest = recent.latestByActor(user.getSlug(), numberOfItems);
+        if (latest != null) {
+            return latest;
+        }
+
         Pageable pageable = new PageRequest(0, numberOfItems, Direction.DESC, "recorded");
         return repo.findByActor(user.getSlug(), pageable);
     }
+
+    private void record(Activity act) {
+        recent.add(act);
+        queue.add(act);
+    }
 }
@@ -0,0 +1,308 @@
+/*
+ * Copyright 2012 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.trenako.activities;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+import com.trenako.repositories.ActivityRepository;
+
+/**
+ * It keeps the latest activities in memory, for the home page and the user profiles.
+ * <p>
+ * The latest {@code capacity} activities are stored in a ring loaded from the
+ * database at startup; every actor has a smaller ring, loaded with the
+ * {@code (actor, recorded)} index the first time the actor activity is read.
+ * Every recorded activity is appended to the rings, even before it is saved
+ * by the {@link ActivityQueue}: the queue is flushed before the activities are
+ * read from the database, so that the activities waiting to be saved are not lost.
+ * </p>
+ * <p>
+ * The reads for more activities than the rings capacity are not served from memory.
+ * </p>
+ *
+ * @author Carlo Micieli
+ */
+@Component("recentActivities")
+@ManagedResource(objectName = "trenako:type=Activities,name=recentActivities",
+        description = "The latest activities in memory")
+public class RecentActivities {
+
+    private static final Logger log = LoggerFactory.getLogger("com.trenako.activities");
+
+    private final ActivityRepository repo;
+    private final ActivityQueue queue;
+    private final int capacity;
+    private final int actorCapacity;
+    private final int maxActors;
+
+    private final ConcurrentMap<String, ActorRing> actors = new ConcurrentHashMap<>();
+    private final AtomicLong actorLoads = new AtomicLong();
+    private volatile ActivityRing latest;
+
+    /**
+     * Creates a new {@code RecentActivities}.
+     *
+     * @param repo          the activities repository
+     * @param queue         the activities write-behind queue
+     * @param capacity      the number of latest activities in memory
+     * @param actorCapacity the number of latest activities in memory for every actor
+     * @param maxActors     the max number of actors in memory
+     */
+    @Autowired
+    public RecentActivities(ActivityRepository repo,
+                            ActivityQueue queue,
+                            @Value("${activities.recent.capacity:100}") int capacity,
+                            @Value("${activities.recent.actorCapacity:20}") int actorCapacity,
+                            @Value("${activities.recent.maxActors:1000}") int maxActors) {
+        Assert.isTrue(capacity > 0, "Capacity must be positive");
+        Assert.isTrue(actorCapacity > 0, "Actor capacity must be positive");
+        Assert.isTrue(maxActors > 0, "Max number of actors must be positive");
+
+        this.repo = repo;
+        this.queue = queue;
+        this.capacity = capacity;
+        this.actorCapacity = actorCapacity;
+        this.maxActors = maxActors;
+    }
+
+    /**
+     * Loads the latest activities from the database.
+     * <p>
+     * A failure is logged without stopping the application startup, the
+     * activities are read from the database until the next reload.
+     * The activities appended during the reload are kept.
+     * </p>
+     */
+    @PostConstruct
+    @ManagedOperation(description = "Loads the latest activities from the database")
+    public void reload() {
+        try {
+            queue.flush();
+            List<Activity> loaded = repo.findAll(latestFirst(capacity)).getContent();
+            ActivityRing ring = new ActivityRing(capacity);
+            ring.addAll(loaded);
+
+            ActivityRing previous = latest;
+            actors.clear();
+            latest = ring;
+            if (previous != null) {
+                appendNewer(ring, previous, loaded);
+            }
+            log.info("Loaded the latest {} activities", capacity);
+        } catch (DataAccessException ex) {
+            latest = null;
+            log.error("Error occurred loading the latest activities", ex);
+        }
+    }
+
+    /**
+     * Appends a new activity.
+     *
+     * @param activity the activity
+     */
+    public void add(Activity activity) {
+        ActivityRing ring = latest;
+        if (ring != null) {
+            ring.add(activity);
+        }
+        actorRing(activity.getActor()).add(activity);
+    }
+
+    /**
+     * Returns the latest activities.
+     *
+     * @param numberOfItems the number of activities
+     * @return the activities, or {@code null} if they are not in memory
+     */
+    public List<Activity> latest(int numberOfItems) {
+        ActivityRing ring = latest;
+        if (ring == null || numberOfItems > capacity) {
+            return null;
+        }
+        return ring.latest(numberOfItems);
+    }
+
+    /**
+     * Returns the latest activities for the provided actor.
+     *
+     * @param actor         the actor slug
+     * @param numberOfItems the number of activities
+     * @return the activities, or {@code null} if they are not in memory
+     */
+    public List<Activity> latestByActor(String actor, int numberOfItems) {
+        if (numberOfItems > actorCapacity) {
+            return null;
+        }
+
+        ActorRing ring = actorRing(actor);
+        if (!ring.loaded) {
+            synchronized (ring) {
+                if (!ring.loaded) {
+                    load(actor, ring);
+                }
+            }
+        }
+        return ring.latest(numberOfItems);
+    }
+
+    /**
+     * Returns the number of actors in memory.
+     *
+     * @return the number of actors
+     */
+    @ManagedAttribute(description = "The number of actors in memory")
+    public int getActors() {
+        return actors.size();
+    }
+
+    /**
+     * Returns the number of actor activities loaded from the database.
+     *
+     * @return the number of loads
+     */
+    @ManagedAttribute(description = "The number of actor activities loaded from the database")
+    public long getActorLoads() {
+        return actorLoads.get();
+    }
+
+    /**
+     * Checks whether the latest activities are served from memory.
+     *
+     * @return {@code true} if the activities are loaded; {@code false} otherwise
+     */
+    @ManagedAttribute(description = "Whether the latest activities are served from memory")
+    public boolean isReady() {
+        return latest != null;
+    }
+
+    private ActorRing actorRing(String actor) {
+        ActorRing ring = actors.get(actor);
+        if (ring != null) {
+            return ring;
+        }
+
+        if (actors.size() >= maxActors) {
+            // any actor is fine: it is loaded again the next time
+            Iterator<String> it = actors.keySet().iterator();
+            if (it.hasNext()) {
+                actors.remove(it.next());
+            }
+        }
+
+        ActorRing newRing = new ActorRing(actorCapacity);
+        ring = actors.putIfAbsent(actor, newRing);
+        return ring != null ? ring : newRing;
+    }
+
+    private void load(String actor, ActorRing ring) {
+        // the activities appended since the ring was created are newer
+        List<Activity> appended = ring.latest(actorCapacity);
+        // the actor activities could be waiting in the queue
+        queue.flush();
+        List<Activity> loaded = new ArrayList<>(repo.findByActor(actor, latestFirst(actorCapacity)));
+        actorLoads.incrementAndGet();
+
+        for (Activity activity : appended) {
+            if (!contains(loaded, activity)) {
+                loaded.add(activity);
+            }
+        }
+        Collections.sort(loaded, ActivityRing.LATEST_FIRST);
+
+        ActivityRing seeded = new ActivityRing(actorCapacity);
+        seeded.addAll(loaded.subList(0, Math.min(loaded.size(), actorCapacity)));
+        ring.seed(seeded);
+    }
+
+    // the activities appended to the previous ring while the snapshot was loaded
+    private static void appendNewer(ActivityRing ring, ActivityRing previous, List<Activity> snapshot) {
+        Date newest = snapshot.isEmpty() ? null : snapshot.get(0).getRecorded();
+        List<Activity> appended = previous.latest(previous.capacity());
+        for (int i = appended.size() - 1; i >= 0; i--) {
+            Activity activity = appended.get(i);
+            if ((newest == null || !activity.getRecorded().before(newest)) && !contains(snapshot, activity)) {
+                ring.add(activity);
+            }
+        }
+    }
+
+    private static boolean contains(List<Activity> activities, Activity activity) {
+        for (Activity a : activities) {
+            if (a.equals(activity) && a.getRecorded().equals(activity.getRecorded())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Pageable latestFirst(int size) {
+        return new PageRequest(0, size, Direction.DESC, "recorded");
+    }
+
+    // the ring for a single actor, loaded on the first read: until then
+    // the appends wait for the loading thread, so that they are not lost
+    private static final class ActorRing {
+        private volatile ActivityRing ring;
+        private volatile boolean loaded;
+
+        ActorRing(int capacity) {
+            this.ring = new ActivityRing(capacity);
+        }
+
+        void add(Activity activity) {
+            if (loaded) {
+                ring.add(activity);
+                return;
+            }
+            synchronized (this) {
+                ring.add(activity);
+            }
+        }
+
+        List<Activity> latest(int numberOfItems) {
+            return ring.latest(numberOfItems);
+        }
+
+        // called holding the ring monitor
+        void seed(ActivityRing seeded) {
+            ring = seeded;
+            loaded = true;
+        }
+    }
+}
@@ -0,0 +1,281 @@
+/*
+ * Copyright 2012 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.trenako.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+
+import com.trenako.entities.Brand;
+import com.trenako.entities.Railway;
+import com.trenako.entities.Scale;
+import com.trenako.repositories.BrowseRepository;
+
+/**
+ * It represents a read-through cache for the reference data ({@code Brand},
+ * {@code Railway} and {@code Scale}).
+ * <p>
+ * The cache is loaded lazily from the {@code BrowseRepository}; every entity type
+ * has its own region with at most {@code maxSize} entries. The regions are invalidated
+ * by the mongodb event listeners every time an entity is saved and by the services
+ * every time an entity is removed.
+ * </p>
+ *
+ * @author Carlo Micieli
+ */
+@Component("referenceDataCache")
+@ManagedResource(objectName = "trenako:type=Cache,name=referenceDataCache",
+        description = "The reference data cache")
+public class ReferenceDataCache {
+
+    /**
+     * The default max number of entries for each cache region.
+     */
+    public static final int DEFAULT_MAX_SIZE = 256;
+
+    // the key for the whole list, slugs are never empty
+    private static final String ALL_KEY = "";
+
+    private final BrowseRepository repo;
+    private final Map<Class<?>, Region> regions;
+
+    /**
+     * Creates a new {@code ReferenceDataCache}.
+     *
+     * @param repo the repository
+     */
+    @Autowired
+    public ReferenceDataCache(BrowseRepository repo) {
+        this(repo, DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Creates a new {@code ReferenceDataCache}.
+     *
+     * @param repo    the repository
+     * @param maxSize the max number of entries for each region
+     */
+    public ReferenceDataCache(BrowseRepository repo, int maxSize) {
+        this.repo = repo;
+
+        Map<Class<?>, Region> regions = new HashMap<>();
+        regions.put(Brand.class, new Region(maxSize));
+        regions.put(Railway.class, new Region(maxSize));
+        regions.put(Scale.class, new Region(maxSize));
+        this.regions = Collections.unmodifiableMap(regions);
+    }
+
+    /**
+     * Returns the list of {@code Brand}s, sorted by name.
+     *
+     * @return a list of {@code Brand}s
+     */
+    public Iterable<Brand> brands() {
+        Region region = region(Brand.class);
+        Iterable<Brand> brands = region.getAll();
+        if (brands == null) {
+            long generation = region.generation();
+            brands = region.putAll(repo.getBrands(), generation);
+        }
+        return brands;
+    }
+
+    /**
+     * Returns the list of {@code Railway}s, sorted by name.
+     *
+     * @return a list of {@code Railway}s
+     */
+    public Iterable<Railway> railways() {
+        Region region = region(Railway.class);
+        Iterable<Railway> railways = region.getAll();
+        if (railways == null) {
+            long generation = region.generation();
+            railways = region.putAll(repo.getRailways(), generation);
+        }
+        return railways;
+    }
+
+    /**
+     * Returns the list of {@code Scale}s, sorted by name.
+     *
+     * @return a list of {@code Scale}s
+     */
+    public Iterable<Scale> scales() {
+        Region region = region(Scale.class);
+        Iterable<Scale> scales = region.getAll();
+        if (scales == null) {
+            long generation = region.generation();
+            scales = region.putAll(repo.getScales(), generation);
+        }
+        return scales;
+    }
+
+    /**
+     * Returns the entity with the provided {@code slug}.
+     * <p>
+     * The lookups for types without a cache region go straight to the repository.
+     * </p>
+     *
+     * @param slug the entity slug
+     * @param type the entity type
+     * @return the entity if found; {@code null} otherwise
+     */
+    public <T> T findBySlug(String slug, Class<T> type) {
+        Region region = region(type);
+        if (region == null || StringUtils.isBlank(slug)) {
+            return repo.findBySlug(slug, type);
+        }
+
+        T value = region.get(slug, type);
+        if (value == null) {
+            long generation = region.generation();
+            value = repo.findBySlug(slug, type);
+            region.put(slug, value, generation);
+        }
+        return value;
+    }
+
+    /**
+     * Removes all the cached values for the provided entity type.
+     *
+     * @param type the entity type
+     */
+    public void evict(Class<?> type) {
+        Region region = region(type);
+        if (region != null) {
+            region.clear();
+        }
+    }
+
+    /**
+     * Removes all the cached values.
+     */
+    @ManagedOperation(description = "Removes all the cached values")
+    public void clear() {
+        for (Region region : regions.values()) {
+            region.clear();
+        }
+    }
+
+    /**
+     * Returns the number of lookups that found a cached value.
+     *
+     * @return the number of hits
+     */
+    @ManagedAttribute(description = "The number of cache hits")
+    public long getHits() {
+        long hits = 0;
+        for (Region region : regions.values()) {
+            hits += region.entries.getHits();
+        }
+        return hits;
+    }
+
+    /**
+     * Returns the number of lookups that didn't find a cached value.
+     *
+     * @return the number of misses
+     */
+    @ManagedAttribute(description = "The number of cache misses")
+    public long getMisses() {
+        long misses = 0;
+        for (Region region : regions.values()) {
+            misses += region.entries.getMisses();
+        }
+        return misses;
+    }
+
+    /**
+     * Returns the current number of cached values.
+     *
+     * @return the number of entries
+     */
+    @ManagedAttribute(description = "The number of cached values")
+    public int getSize() {
+        int size = 0;
+        for (Region region : regions.values()) {
+            size += region.entries.size();
+        }
+        return size;
+    }
+
+    private Region region(Class<?> type) {
+        return regions.get(type);
+    }
+
+    /**
+     * A cache region for a single entity type.
+     * <p>
+     * Every invalidation increments the region generation; values loaded
+     * while an invalidation was in progress are not stored, in order to avoid
+     * caching stale values.
+     * </p>
+     */
+    private static class Region {
+        private final BoundedCache<String, Object> entries;
+        private long generation = 0;
+
+        Region(int maxSize) {
+            this.entries = new BoundedCache<>(maxSize);
+        }
+
+        synchronized long generation() {
+            return generation;
+        }
+
+        synchronized void clear() {
+            generation++;
+            entries.clear();
+        }
+
+        synchronized void put(String key, Object value, long generation) {
+            if (this.generation == generation) {
+                entries.put(key, value);
+            }
+        }
+
+        <T> T get(String key, Class<T> type) {
+            return type.cast(entries.get(key));
+        }
+
+        @SuppressWarnings("unchecked")
+        <T> Iterable<T> getAll() {
+            return (Iterable<T>) entries.get(ALL_KEY);
+        }
+
+        <T> Iterable<T> putAll(Iterable<T> values, long generation) {
+            List<T> list = new ArrayList<>();
+            if (values != null) {
+                for (T value : values) {
+                    list.add(value);
+                }
+            }
+
+            List<T> items = Collections.unmodifiableList(list);
+            put(ALL_KEY, items, generation);
+            return items;
+        }
+    }
+}
@@ -65,12 +65,19 @@ public enum Criteria {
     /**
      * The criterion by rolling stocks {@code Category}.
      */
-    CATEGORY(Category.class);
+    CATEGORY(Category.class),
+
+    /**
+     * The criterion by rolling stocks full-text search.
+     */
+    TEXT(String.class);
 
     private final Class<?> criterionType;
+    private final String criterionName;
 
     Criteria(Class<?> type) {
         criterionType = type;
+        criterionName = name().replace("_", "").toLowerCase();
     }
 
     public Class<?> getCriterionType() {
@@ -88,7 +95,7 @@ public enum Criteria {
     }
 
     public String criterionName() {
-        return name().replace("_", "").toLowerCase();
+        return criterionName;
     }
 
     public static Iterable<String> keys() {
@@ -27,6 +27,7 @@ import org.apache.commons.lang3.StringUtils;
 import com.trenako.entities.Brand;
 import com.trenako.entities.Railway;
 import com.trenako.entities.Scale;
+import com.trenako.search.TextAnalyzer;
 import com.trenako.utility.Cat;
 import com.trenako.values.Category;
 import com.trenako.values.Era;
@@ -228,6 +229,26 @@ public class SearchCriteria {
             return this;
         }
 
+        /**
+         * Sets the full-text search criteria.
+         * <p>
+         * The text is stored as the dash separated list of its search terms,
+         * to be used as path segment in the search urls.
+         * If the provided parameter is {@code null} then the value
+         * is safely ignored by the builder.
+         * </p>
+         *
+         * @param text the search text
+         * @return a builder
+         */
+        public Builder text(String text) {
+            if (text != null) {
+                String key = TextAnalyzer.normalize(text);
+                add(Criteria.TEXT, key, key.replace('-', ' '));
+            }
+            return this;
+        }
+
         /**
          * Builds a new {@code SearchCriteria} objects.
          *
@@ -413,6 +434,28 @@ public class SearchCriteria {
         return values.containsKey(Criteria.RAILWAY);
     }
 
+    /**
+     * Returns the full-text search criteria.
+     * <p>
+     * The appropriate way to check whether a text is provided is using
+     * the {@link SearchCriteria#hasText()} method.
+     * </p>
+     *
+     * @return the criteria value
+     */
+    public String getText() {
+        return getValue(Criteria.TEXT);
+    }
+
+    /**
+     * Checks whether a full-text search criteria is set.
+     *
+     * @return {@code true} if a criteria exists; {@code false} otherwise
+     */
+    public boolean hasText() {
+        return values.containsKey(Criteria.TEXT);
+    }
+
     /**
      * Indicates whether the current object has a criteria
      * for the provided key.
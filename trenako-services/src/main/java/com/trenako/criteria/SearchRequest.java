@@ -131,6 +131,15 @@ public class SearchRequest {
         railway(railway);
     }
 
+    /**
+     * Sets the full-text search criteria.
+     *
+     * @param text the search text
+     */
+    public void setText(String text) {
+        text(text);
+    }
+
     /**
      * Checks whether the current {@code SearchRequest} contains
      * the provided search criterion.
@@ -227,4 +236,8 @@ public class SearchRequest {
     private void category(String category) {
         put(Criteria.CATEGORY, category);
     }
+
+    private void text(String text) {
+        put(Criteria.TEXT, text);
+    }
 }
@@ -0,0 +1,449 @@
+/*
+ * Copyright 2012 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.trenako.facets;
+
+import static org.springframework.data.mongodb.core.query.Criteria.*;
+import static org.springframework.data.mongodb.core.query.Query.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PostConstruct;
+
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBCollection;
+import com.mongodb.DBCursor;
+import com.mongodb.DBObject;
+import com.mongodb.MongoException;
+import com.trenako.criteria.SearchCriteria;
+import com.trenako.entities.RollingStock;
+
+/**
+ * It represents the materialized facet counts for the rolling stocks.
+ * <p>
+ * The counts are stored in the {@code rollingStockFacets} collection, a cube with a
+ * document for every ({@code brand}, {@code scale}, {@code railway}, {@code era},
+ * {@code category}, {@code powerMethod}) combination. The cube is updated incrementally
+ * every time a rolling stock is saved or removed, and it can be rebuilt in batch from
+ * the {@code rollingStocks} collection. At startup the cube is rebuilt when its total
+ * does not match the number of rolling stocks.
+ * </p>
+ * <p>
+ * A rebuild writes the new cube in a temporary collection, then renames it over the
+ * previous one. The counts updates are not applied while the cube is rebuilt: the
+ * changed rolling stocks are read again, and their counts are moved in the new cube.
+ * </p>
+ * <p>
+ * The cube is rolled up in memory the first time a count is requested: every count
+ * for a combination of facets is then read with a single lookup. The in-memory counts
+ * are only updated by the changes made by this application instance; they can be reloaded
+ * through JMX.
+ * </p>
+ *
+ * @author Carlo Micieli
+ */
+@Component("facetCounts")
+@ManagedResource(objectName = "trenako:type=Cache,name=facetCounts",
+        description = "The rolling stock facet counts")
+public class FacetCounts {
+
+    /**
+     * The collection name for the facet counts cube.
+     */
+    public static final String COLLECTION = "rollingStockFacets";
+
+    /**
+     * The temporary collection for the cube rebuild.
+     */
+    static final String REBUILD_COLLECTION = "rollingStockFacetsRebuild";
+
+    private static final Logger log = LoggerFactory.getLogger("com.trenako.facets");
+
+    private static final String[] FIELDS = {"brand.slug", "scale.slug", "railway.slug", "era", "category", "powerMethod"};
+    private static final String COUNT = "count";
+
+    private final MongoTemplate mongo;
+    private volatile ConcurrentMap<String, AtomicInteger> counts;
+
+    // the cube updates and the rebuilds are serialized
+    private final Object cubeLock = new Object();
+    // the rolling stocks changed while the cube is rebuilt
+    private volatile Set<ObjectId> rebuildChanges;
+
+    /**
+     * Creates a new {@code FacetCounts}.
+     *
+     * @param mongo the mongo template
+     */
+    @Autowired
+    public FacetCounts(MongoTemplate mongo) {
+        this.mongo = mongo;
+    }
+
+    /**
+     * Loads the counts, rebuilding the cube when it is missing or
+     * out of step with the {@code rollingStocks} collection.
+     */
+    @PostConstruct
+    public void start() {
+        try {
+            ConcurrentMap<String, AtomicInteger> c = load();
+            AtomicInteger total = c.get(FacetKey.of().toString());
+            long rollingStocks = rollingStocks().count();
+            if ((total == null ? 0 : total.get()) != rollingStocks) {
+                log.info("Facet counts cube is out of step with {} rolling stocks", rollingStocks);
+                rebuild();
+            } else {
+                counts = c;
+            }
+        } catch (DataAccessException | MongoException ex) {
+            log.warn("Unable to load the facet counts cube", ex);
+        }
+    }
+
+    /**
+     * Returns the number of rolling stocks for the provided facets.
+     *
+     * @param key the facets
+     * @return the number of rolling stocks
+     */
+    public int count(FacetKey key) {
+        AtomicInteger count = counts().get(key.toString());
+        return count == null ? 0 : Math.max(count.get(), 0);
+    }
+
+    /**
+     * Returns the number of rolling stocks for the provided search criteria.
+     *
+     * @param sc the search criteria
+     * @return the number of rolling stocks
+     */
+    public int count(SearchCriteria sc) {
+        return count(FacetKey.of(sc));
+    }
+
+    /**
+     * Returns the stored facets for a rolling stock.
+     * <p>
+     * This method must be called before the rolling stock is saved or removed,
+     * the counts are then updated once the change is written.
+     * </p>
+     *
+     * @param rs the rolling stock
+     * @return the stored facets, or {@code null} for new rolling stocks
+     */
+    public FacetKey storedKey(RollingStock rs) {
+        return rs.getId() != null ? findStoredKey(rs.getId()) : null;
+    }
+
+    /**
+     * Updates the counts for a saved rolling stock.
+     * <p>
+     * For the rolling stocks already in the database, the counts are moved
+     * from the previous facets to the new ones.
+     * </p>
+     *
+     * @param rs     the rolling stock
+     * @param oldKey the facets before the rolling stock was saved
+     * @see #storedKey(RollingStock)
+     */
+    public void onSave(RollingStock rs, FacetKey oldKey) {
+        FacetKey newKey = FacetKey.of(rs);
+        if (newKey.equals(oldKey)) {
+            return;
+        }
+
+        move(rs.getId(), oldKey, newKey);
+    }
+
+    /**
+     * Updates the counts for a removed rolling stock.
+     *
+     * @param rs     the rolling stock
+     * @param oldKey the facets before the rolling stock was removed
+     * @see #storedKey(RollingStock)
+     */
+    public void onRemove(RollingStock rs, FacetKey oldKey) {
+        if (oldKey != null) {
+            move(rs.getId(), oldKey, null);
+        }
+    }
+
+    /**
+     * Rebuilds the facet counts cube from the {@code rollingStocks} collection.
+     */
+    @ManagedOperation(description = "Rebuilds the facet counts cube from the rolling stocks")
+    public void rebuild() {
+        synchronized (cubeLock) {
+            Set<ObjectId> changes = new HashSet<>();
+            rebuildChanges = changes;
+
+            Map<ObjectId, FacetKey> keys = new HashMap<>();
+            try {
+                DBCursor cursor = rollingStocks().find(new BasicDBObject(), fields());
+                try {
+                    for (DBObject dbo : cursor) {
+                        keys.put((ObjectId) dbo.get("_id"), keyOf(dbo));
+                    }
+                } finally {
+                    cursor.close();
+                }
+
+                // the rolling stocks changed during the scan are read again
+                for (ObjectId id : drain(changes, false)) {
+                    FacetKey key = findStoredKey(id);
+                    if (key == null) {
+                        keys.remove(id);
+                    } else {
+                        keys.put(id, key);
+                    }
+                }
+
+                replaceCube(keys.values());
+                reload();
+            } catch (RuntimeException ex) {
+                // the changes are lost, the cube is out of step
+                // until the next rebuild
+                drain(changes, true);
+                throw ex;
+            }
+
+            // the rolling stocks changed while the new cube was written
+            // are moved to their current cells
+            for (ObjectId id : drain(changes, true)) {
+                FacetKey oldKey = keys.get(id);
+                FacetKey newKey = findStoredKey(id);
+                if (oldKey != null && !oldKey.equals(newKey)) {
+                    update(oldKey, -1);
+                }
+                if (newKey != null && !newKey.equals(oldKey)) {
+                    update(newKey, 1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reloads the in-memory counts from the facet counts cube.
+     */
+    @ManagedOperation(description = "Reloads the in-memory counts from the cube")
+    public synchronized void reload() {
+        counts = load();
+    }
+
+    @ManagedAttribute(description = "The number of in-memory counts")
+    public int getSize() {
+        return counts().size();
+    }
+
+    @ManagedAttribute(description = "The total number of rolling stocks")
+    public int getTotal() {
+        return count(FacetKey.of());
+    }
+
+    private ConcurrentMap<String, AtomicInteger> counts() {
+        ConcurrentMap<String, AtomicInteger> c = counts;
+        if (c == null) {
+            synchronized (this) {
+                if (counts == null) {
+                    counts = load();
+                }
+                c = counts;
+            }
+        }
+        return c;
+    }
+
+    private ConcurrentMap<String, AtomicInteger> load() {
+        ConcurrentMap<String, AtomicInteger> c = new ConcurrentHashMap<>();
+
+        DBCursor cursor = mongo.getCollection(COLLECTION).find();
+        try {
+            for (DBObject dbo : cursor) {
+                FacetKey key = keyOf(dbo);
+                Number count = (Number) dbo.get(COUNT);
+                rollup(c, key, count == null ? 0 : count.intValue());
+            }
+        } finally {
+            cursor.close();
+        }
+        return c;
+    }
+
+    private List<ObjectId> drain(Set<ObjectId> changes, boolean close) {
+        synchronized (changes) {
+            if (close) {
+                rebuildChanges = null;
+            }
+            List<ObjectId> ids = new ArrayList<>(changes);
+            changes.clear();
+            return ids;
+        }
+    }
+
+    // writes the new cube aside, then it replaces the current one
+    private void replaceCube(Iterable<FacetKey> keys) {
+        Map<FacetKey, Integer> cells = new HashMap<>();
+        for (FacetKey key : keys) {
+            Integer count = cells.get(key);
+            cells.put(key, count == null ? 1 : count + 1);
+        }
+
+        List<DBObject> docs = new ArrayList<>(cells.size());
+        for (Map.Entry<FacetKey, Integer> cell : cells.entrySet()) {
+            docs.add(cellOf(cell.getKey()).append(COUNT, cell.getValue()));
+        }
+
+        mongo.dropCollection(REBUILD_COLLECTION);
+        if (docs.isEmpty()) {
+            mongo.dropCollection(COLLECTION);
+        } else {
+            DBCollection rebuilt = mongo.getCollection(REBUILD_COLLECTION);
+            rebuilt.insert(docs);
+            rebuilt.rename(COLLECTION, true);
+        }
+        log.info("Facet counts cube rebuilt with {} cells", docs.size());
+    }
+
+    private void move(ObjectId id, FacetKey oldKey, FacetKey newKey) {
+        // during a rebuild the rolling stock is read again instead
+        Set<ObjectId> changes = rebuildChanges;
+        if (changes != null) {
+            synchronized (changes) {
+                if (changes == rebuildChanges) {
+                    changes.add(id);
+                    return;
+                }
+            }
+        }
+
+        synchronized (cubeLock) {
+            if (oldKey != null) {
+                update(oldKey, -1);
+            }
+            if (newKey != null) {
+                update(newKey, 1);
+            }
+        }
+    }
+
+    private void update(FacetKey cell, int delta) {
+        Update upd = new Update().inc(COUNT, delta);
+        for (int i = 0; i < FIELDS.length; i++) {
+            upd.set(FIELDS[i], cell.get(i));
+        }
+        mongo.upsert(query(where("_id").is(cell.toString())), upd, COLLECTION);
+
+        ConcurrentMap<String, AtomicInteger> c = counts;
+        if (c != null) {
+            rollup(c, cell, delta);
+        }
+    }
+
+    private static void rollup(ConcurrentMap<String, AtomicInteger> c, FacetKey cell, int delta) {
+        for (FacetKey key : cell.rollups()) {
+            AtomicInteger count = c.get(key.toString());
+            if (count == null) {
+                AtomicInteger newCount = new AtomicInteger();
+                count = c.putIfAbsent(key.toString(), newCount);
+                if (count == null) {
+                    count = newCount;
+                }
+            }
+            count.addAndGet(delta);
+        }
+    }
+
+    private FacetKey findStoredKey(ObjectId id) {
+        DBObject dbo = rollingStocks().findOne(new BasicDBObject("_id", id), fields());
+        return dbo == null ? null : keyOf(dbo);
+    }
+
+    private DBCollection rollingStocks() {
+        return mongo.getCollection(mongo.getCollectionName(RollingStock.class));
+    }
+
+    private static DBObject fields() {
+        BasicDBObject fields = new BasicDBObject();
+        for (String field : FIELDS) {
+            fields.append(field, 1);
+        }
+        return fields;
+    }
+
+    private static BasicDBObject cellOf(FacetKey key) {
+        BasicDBObject dbo = new BasicDBObject("_id", key.toString());
+        for (int i = 0; i < FIELDS.length; i++) {
+            put(dbo, FIELDS[i], key.get(i));
+        }
+        return dbo;
+    }
+
+    private static FacetKey keyOf(DBObject dbo) {
+        String[] values = new String[FIELDS.length];
+        for (int i = 0; i < FIELDS.length; i++) {
+            values[i] = get(dbo, FIELDS[i]);
+        }
+        return FacetKey.of(values);
+    }
+
+    // reads the (possibly nested) field value
+    private static String get(DBObject dbo, String field) {
+        Object value = dbo;
+        for (String name : field.split("\\.")) {
+            if (!(value instanceof DBObject)) {
+                return null;
+            }
+            value = ((DBObject) value).get(name);
+        }
+        return value == null ? null : value.toString();
+    }
+
+    private static void put(BasicDBObject dbo, String field, String value) {
+        int dot = field.indexOf('.');
+        if (dot < 0) {
+            dbo.append(field, value);
+            return;
+        }
+
+        String name = field.substring(0, dot);
+        BasicDBObject nested = (BasicDBObject) dbo.get(name);
+        if (nested == null) {
+            nested = new BasicDBObject();
+            dbo.append(name, nested);
+        }
+        nested.append(field.substring(dot + 1), value);
+    }
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright 2012 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.trenako.facets;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.trenako.criteria.Criteria;
+import com.trenako.criteria.SearchCriteria;
+import com.trenako.criteria.SearchRequest;
+import com.trenako.entities.RollingStock;
+import com.trenako.utility.Cat;
+
+/**
+ * It represents an immutable key for the rolling stock facet counts.
+ * <p>
+ * A key has a value (or none) for each one of the facets: {@code brand}, {@code scale},
+ * {@code railway}, {@code era}, {@code category} and {@code powerMethod}. The keys with
+ * all the values are the cells for the count cube; the other keys are the roll-ups
+ * for the cells.
+ * </p>
+ *
+ * @author Carlo Micieli
+ */
+public final class FacetKey {
+
+    /**
+     * The facet names, in the same order used for the key values.
+     */
+    public static final List<String> FACETS = Collections.unmodifiableList(
+            Arrays.asList("brand", "scale", "railway", "era", "category", "powerMethod"));
+
+    private static final int BRAND = 0;
+    private static final int SCALE = 1;
+    private static final int RAILWAY = 2;
+    private static final int ERA = 3;
+    private static final int CATEGORY = 4;
+    private static final int POWER_METHOD = 5;
+
+    private final String[] values;
+    private final String key;
+
+    private FacetKey(String[] values) {
+        this.values = values;
+        this.key = buildKey(values);
+    }
+
+    /**
+     * Creates a new {@code FacetKey} with the provided values.
+     *
+     * @param values the values, in the {@link FacetKey#FACETS} order
+     * @return a {@code FacetKey}
+     */
+    public static FacetKey of(String... values) {
+        String[] v = new String[FACETS.size()];
+        for (int i = 0; i < v.length && i < values.length; i++) {
+            v[i] = StringUtils.isBlank(values[i]) ? null : values[i];
+        }
+        return new FacetKey(v);
+    }
+
+    /**
+     * Creates the cell key for the provided rolling stock.
+     *
+     * @param rs the rolling stock
+     * @return a {@code FacetKey}
+     */
+    public static FacetKey of(RollingStock rs) {
+        return of(rs.getBrand() != null ? rs.getBrand().getSlug() : null,
+                rs.getScale() != null ? rs.getScale().getSlug() : null,
+                rs.getRailway() != null ? rs.getRailway().getSlug() : null,
+                rs.getEra(),
+                rs.getCategory(),
+                rs.getPowerMethod());
+    }
+
+    /**
+     * Creates the key for the provided search criteria.
+     *
+     * @param sc the search criteria
+     * @return a {@code FacetKey}
+     */
+    public static FacetKey of(SearchCriteria sc) {
+        FacetKey key = of();
+        for (Criteria criterion : sc.criteria()) {
+            key = key.with(criterion, sc.get(criterion).getKey());
+        }
+        return key;
+    }
+
+    /**
+     * Creates the key for the provided search request.
+     *
+     * @param sc the search request
+     * @return a {@code FacetKey}
+     */
+    public static FacetKey of(SearchRequest sc) {
+        FacetKey key = of();
+        for (Criteria criterion : Criteria.values()) {
+            if (sc.has(criterion)) {
+                key = key.with(criterion, sc.get(criterion));
+            }
+        }
+        return key;
+    }
+
+    /**
+     * Returns a copy of this key with the value for the provided criterion.
+     * <p>
+     * The {@code cat} criterion is setting both the {@code category} and the
+     * {@code powerMethod} values.
+     * </p>
+     *
+     * @param criterion the criterion
+     * @param value     the criterion value
+     * @return a {@code FacetKey}
+     */
+    public FacetKey with(Criteria criterion, String value) {
+        String[] v = values.clone();
+        switch (criterion) {
+            case BRAND:
+                v[BRAND] = value;
+                break;
+            case SCALE:
+                v[SCALE] = value;
+                break;
+            case RAILWAY:
+                v[RAILWAY] = value;
+                break;
+            case ERA:
+                v[ERA] = value;
+                break;
+            case CATEGORY:
+                v[CATEGORY] = value;
+                break;
+            case POWER_METHOD:
+                v[POWER_METHOD] = value;
+                break;
+            case CAT:
+                Cat cat = Cat.parseString(value);
+                v[CATEGORY] = cat.category();
+                v[POWER_METHOD] = cat.powerMethod();
+                break;
+        }
+        return new FacetKey(v);
+    }
+
+    /**
+     * Returns the value for the provided facet.
+     *
+     * @param facet the facet index, in the {@link FacetKey#FACETS} order
+     * @return the value, or {@code null} if not set
+     */
+    public String get(int facet) {
+        return values[facet];
+    }
+
+    /**
+     * Returns the roll-up keys for this key.
+     * <p>
+     * The roll-ups are all the keys with a subset of the values for this key,
+     * including the key itself and the empty key for the grand total.
+     * </p>
+     *
+     * @return the roll-up keys
+     */
+    public List<FacetKey> rollups() {
+        List<Integer> set = new ArrayList<>();
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                set.add(i);
+            }
+        }
+
+        List<FacetKey> keys = new ArrayList<>(1 << set.size());
+        for (int mask = 0; mask < (1 << set.size()); mask++) {
+            String[] v = new String[values.length];
+            for (int bit = 0; bit < set.size(); bit++) {
+                if ((mask & (1 << bit)) != 0) {
+                    int facet = set.get(bit);
+                    v[facet] = values[facet];
+                }
+            }
+            keys.add(new FacetKey(v));
+        }
+        return keys;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) return true;
+        if (!(obj instanceof FacetKey)) return false;
+
+        FacetKey other = (FacetKey) obj;
+        return this.key.equals(other.key);
+    }
+
+    @Override
+    public int hashCode() {
+        return key.hashCode();
+    }
+
+    /**
+     * Returns the string representation for this key.
+     * <p>
+     * Only the facets with a value are included, ie {@code brand=acme;scale=h0}.
+     * </p>
+     *
+     * @return the key
+     */
+    @Override
+    public String toString() {
+        return key;
+    }
+
+    private static String buildKey(String[] values) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == null) {
+                continue;
+            }
+            if (sb.length() > 0) {
+                sb.append(';');
+            }
+            sb.append(FACETS.get(i)).append('=').append(values[i]);
+        }
+        return sb.toString();
+    }
+}
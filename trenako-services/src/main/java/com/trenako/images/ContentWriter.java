@@ -0,0 +1,38 @@
+/*
+ * Copyright 2012 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.trenako.images;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * The interface for the {@link UploadFile} contents that are generated
+ * while they are stored, without being buffered in memory.
+ *
+ * @author Carlo Micieli
+ */
+public interface ContentWriter {
+    /**
+     * Writes the content to the provided output stream.
+     * <p>
+     * The implementations are not required to close the stream.
+     * </p>
+     *
+     * @param out the output stream
+     * @throws IOException if an I/O exception of some sort has occurred
+     */
+    void writeTo(OutputStream out) throws IOException;
+}
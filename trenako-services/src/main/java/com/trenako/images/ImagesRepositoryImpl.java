@@ -15,6 +15,9 @@
  */
 package com.trenako.images;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.Map;
 
 import static org.springframework.data.mongodb.core.query.Query.*;
@@ -28,6 +31,8 @@ import com.mongodb.gridfs.GridFSInputFile;
 
 import com.trenako.images.UploadFile;
 
+import org.bson.types.ObjectId;
+import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.data.mongodb.MongoDbFactory;
 import org.springframework.data.mongodb.gridfs.GridFsTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -64,11 +69,18 @@ public class ImagesRepositoryImpl implements ImagesRepository {
     public void store(UploadFile file) {
         DBObject metadata = fillMetadata(file.getMetadata());
 
-        GridFSInputFile f = getGridFs().createFile(file.getContent());
+        GridFSInputFile f = file.getWriter() == null ?
+                getGridFs().createFile(file.getContent()) :
+                getGridFs().createFile();
         f.setFilename(file.getFilename());
         f.setMetaData(metadata);
         f.setContentType(file.getContentType());
-        f.save();
+
+        if (file.getWriter() == null) {
+            save(f, file.getContent());
+        } else {
+            write(f, file.getWriter());
+        }
     }
 
     @Override
@@ -76,6 +88,50 @@ public class ImagesRepositoryImpl implements ImagesRepository {
         gridFsTemplate.delete(query(whereMetaData("slug").is(slug)));
     }
 
+    private void save(GridFSInputFile f, InputStream content) {
+        // GridFS doesn't close the content stream
+        try {
+            f.save();
+        } catch (RuntimeException ex) {
+            removeChunks(f);
+            throw ex;
+        } finally {
+            close(content);
+        }
+    }
+
+    private void write(GridFSInputFile f, ContentWriter writer) {
+        // the file is saved when its output stream is closed
+        OutputStream out = f.getOutputStream();
+        try {
+            writer.writeTo(out);
+            out.close();
+        } catch (IOException ioEx) {
+            removeChunks(f);
+            throw new DataAccessResourceFailureException("Error occurred writing the file.", ioEx);
+        } catch (RuntimeException ex) {
+            removeChunks(f);
+            throw ex;
+        }
+    }
+
+    private static void close(InputStream content) {
+        if (content == null) {
+            return;
+        }
+
+        try {
+            content.close();
+        } catch (IOException ioEx) {
+            // nothing to do
+        }
+    }
+
+    // removes the chunks already written
+    private void removeChunks(GridFSInputFile f) {
+        getGridFs().remove((ObjectId) f.getId());
+    }
+
     private GridFS getGridFs() {
         return new GridFS(dbFactory.getDb());
     }
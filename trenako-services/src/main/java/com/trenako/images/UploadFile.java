@@ -18,13 +18,20 @@ package com.trenako.images;
 import java.io.InputStream;
 import java.util.Map;
 
+import org.apache.commons.lang3.ObjectUtils;
+
 /**
  * This class represents an immutable container for uploaded files.
+ * <p>
+ * The file content is provided either as a stream to be copied or as a
+ * {@link ContentWriter} that writes the content straight to the storage.
+ * </p>
  *
  * @author Carlo Micieli
  */
 public class UploadFile {
     private final InputStream content;
+    private final ContentWriter writer;
     private final String contentType;
     private final String filename;
     private final Map<String, String> metadata;
@@ -42,6 +49,26 @@ public class UploadFile {
                       String filename,
                       Map<String, String> metadata) {
         this.content = content;
+        this.writer = null;
+        this.contentType = contentType;
+        this.filename = filename;
+        this.metadata = metadata;
+    }
+
+    /**
+     * Creates a new {@code UploadFile} with a generated content.
+     *
+     * @param writer      the file content writer
+     * @param contentType the file content type
+     * @param filename    the filename
+     * @param metadata    the file metadata
+     */
+    public UploadFile(ContentWriter writer,
+                      String contentType,
+                      String filename,
+                      Map<String, String> metadata) {
+        this.content = null;
+        this.writer = writer;
         this.contentType = contentType;
         this.filename = filename;
         this.metadata = metadata;
@@ -49,6 +76,9 @@ public class UploadFile {
 
     /**
      * Returns the {@code UploadFile} content.
+     * <p>
+     * This value is {@code null} when the content is generated by a {@link ContentWriter}.
+     * </p>
      *
      * @return the content
      */
@@ -56,6 +86,15 @@ public class UploadFile {
         return content;
     }
 
+    /**
+     * Returns the {@code UploadFile} content writer.
+     *
+     * @return the content writer, or {@code null} if the content is a stream
+     */
+    public ContentWriter getWriter() {
+        return writer;
+    }
+
     /**
      * Returns the {@code UploadFile} content type.
      *
@@ -89,7 +128,8 @@ public class UploadFile {
         if (!(obj instanceof UploadFile)) return false;
 
         UploadFile other = (UploadFile) obj;
-        return this.content.equals(other.content) &&
+        return ObjectUtils.equals(this.content, other.content) &&
+                ObjectUtils.equals(this.writer, other.writer) &&
                 this.filename.equals(other.filename) &&
                 this.metadata.equals(other.metadata);
     }
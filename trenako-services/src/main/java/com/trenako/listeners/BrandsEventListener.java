@@ -17,23 +17,42 @@ package com.trenako.listeners;
 
 import java.util.Date;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
 import org.springframework.stereotype.Component;
 
 import com.mongodb.DBObject;
+import com.trenako.cache.ReferenceDataCache;
 import com.trenako.entities.Brand;
+import com.trenako.search.AutocompleteIndex;
 
 /**
- * The listener to change the document just before the brands are saved.
+ * The listener to change the document just before the brands are saved
+ * and to invalidate the cached brands and update the autocomplete index after they are saved.
  *
  * @author Carlo P. Micieli
  */
 @Component
 public class BrandsEventListener extends AbstractMongoEventListener<Brand> {
 
+    private final ReferenceDataCache cache;
+    private final AutocompleteIndex autocomplete;
+
+    @Autowired
+    public BrandsEventListener(ReferenceDataCache cache, AutocompleteIndex autocomplete) {
+        this.cache = cache;
+        this.autocomplete = autocomplete;
+    }
+
     @Override
     public void onBeforeSave(Brand brand, DBObject dbo) {
         dbo.put("lastModified", new Date());
         dbo.put("slug", brand.getSlug());
     }
+
+    @Override
+    public void onAfterSave(Brand source, DBObject dbo) {
+        cache.evict(Brand.class);
+        autocomplete.index(source);
+    }
 }
@@ -17,24 +17,43 @@ package com.trenako.listeners;
 
 import java.util.Date;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
 import org.springframework.stereotype.Component;
 
 import com.mongodb.DBObject;
+import com.trenako.cache.ReferenceDataCache;
 import com.trenako.entities.Railway;
+import com.trenako.search.AutocompleteIndex;
 import com.trenako.utility.Slug;
 
 /**
- * The listener to change the document just before the railways are saved.
+ * The listener to change the document just before the railways are saved
+ * and to invalidate the cached railways and update the autocomplete index after they are saved.
  *
  * @author Carlo Micieli
  */
 @Component
 public class RailwaysEventListener extends AbstractMongoEventListener<Railway> {
 
+    private final ReferenceDataCache cache;
+    private final AutocompleteIndex autocomplete;
+
+    @Autowired
+    public RailwaysEventListener(ReferenceDataCache cache, AutocompleteIndex autocomplete) {
+        this.cache = cache;
+        this.autocomplete = autocomplete;
+    }
+
     @Override
     public void onBeforeSave(Railway railway, DBObject dbo) {
         dbo.put("lastModified", new Date());
         dbo.put("slug", Slug.encode(railway.getName()));
     }
+
+    @Override
+    public void onAfterSave(Railway source, DBObject dbo) {
+        cache.evict(Railway.class);
+        autocomplete.index(source);
+    }
 }
@@ -17,23 +17,70 @@ package com.trenako.listeners;
 
 import java.util.Date;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
 import org.springframework.stereotype.Component;
 
 import com.mongodb.DBObject;
 import com.trenako.entities.RollingStock;
+import com.trenako.facets.FacetCounts;
+import com.trenako.facets.FacetKey;
+import com.trenako.search.AutocompleteIndex;
+import com.trenako.search.RollingStockTextIndex;
 
 /**
- * The listener to change the document just before the rolling stocks are saved.
+ * The listener to change the document just before the rolling stocks are saved
+ * and to update the facet counts, the full-text index and the autocomplete index
+ * for the saved rolling stocks.
  *
  * @author Carlo Micieli
  */
 @Component
 public class RollingStocksEventListener extends AbstractMongoEventListener<RollingStock> {
 
+    private final FacetCounts facetCounts;
+    private final RollingStockTextIndex textIndex;
+    private final AutocompleteIndex autocomplete;
+
+    // the facets before the save in progress on the current thread
+    private final ThreadLocal<PendingSave> pending = new ThreadLocal<>();
+
+    @Autowired
+    public RollingStocksEventListener(FacetCounts facetCounts,
+                                      RollingStockTextIndex textIndex,
+                                      AutocompleteIndex autocomplete) {
+        this.facetCounts = facetCounts;
+        this.textIndex = textIndex;
+        this.autocomplete = autocomplete;
+    }
+
     @Override
     public void onBeforeSave(RollingStock rs, DBObject dbo) {
+        // the counts are updated only once the rolling stock is saved
+        pending.set(new PendingSave(rs, facetCounts.storedKey(rs)));
         dbo.put("lastModified", new Date());
         dbo.put("slug", rs.getSlug());
     }
+
+    @Override
+    public void onAfterSave(RollingStock rs, DBObject dbo) {
+        PendingSave save = pending.get();
+        pending.remove();
+        if (save != null && save.rs == rs) {
+            facetCounts.onSave(rs, save.oldKey);
+        }
+
+        textIndex.index(rs);
+        autocomplete.index(rs);
+    }
+
+    private static class PendingSave {
+        private final RollingStock rs;
+        private final FacetKey oldKey;
+
+        PendingSave(RollingStock rs, FacetKey oldKey) {
+            this.rs = rs;
+            this.oldKey = oldKey;
+        }
+    }
 }
@@ -17,23 +17,42 @@ package com.trenako.listeners;
 
 import java.util.Date;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
 import org.springframework.stereotype.Component;
 
 import com.mongodb.DBObject;
+import com.trenako.cache.ReferenceDataCache;
 import com.trenako.entities.Scale;
+import com.trenako.search.AutocompleteIndex;
 
 /**
- * The listener to change the document just before the scales are saved.
+ * The listener to change the document just before the scales are saved
+ * and to invalidate the cached scales and update the autocomplete index after they are saved.
  *
  * @author Carlo Micieli
  */
 @Component
 public class ScalesEventListener extends AbstractMongoEventListener<Scale> {
 
+    private final ReferenceDataCache cache;
+    private final AutocompleteIndex autocomplete;
+
+    @Autowired
+    public ScalesEventListener(ReferenceDataCache cache, AutocompleteIndex autocomplete) {
+        this.cache = cache;
+        this.autocomplete = autocomplete;
+    }
+
     @Override
     public void onBeforeSave(Scale source, DBObject dbo) {
         dbo.put("lastModified", new Date());
         dbo.put("slug", source.getSlug());
     }
+
+    @Override
+    public void onAfterSave(Scale source, DBObject dbo) {
+        cache.evict(Scale.class);
+        autocomplete.index(source);
+    }
 }
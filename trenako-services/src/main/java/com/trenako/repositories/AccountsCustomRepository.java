@@ -15,6 +15,12 @@
  */
 package com.trenako.repositories;
 
+import java.util.Collection;
+import java.util.List;
+
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Pageable;
+
 import com.trenako.entities.Account;
 
 /**
@@ -23,4 +29,36 @@ import com.trenako.entities.Account;
 public interface AccountsCustomRepository {
 
     void updateChanges(Account account);
+
+    /**
+     * Returns the {@code Account}s with the provided slugs.
+     * <p>
+     * This method performs a single query; the accounts returned are
+     * loaded with just the {@code slug}, {@code displayName} and
+     * {@code emailAddress} fields.
+     * </p>
+     *
+     * @param slugs the account slugs
+     * @return the {@code Account}s found
+     */
+    List<Account> findBySlugs(Collection<String> slugs);
+
+    /**
+     * Returns a page of {@code Account}s.
+     * <p>
+     * When the paging information has no sort and one of the {@code since}
+     * or {@code max} cursors is provided the page is loaded by range on the
+     * account {@code id}, without skipping the previous accounts; otherwise
+     * the page is loaded by offset.
+     * </p>
+     * <p>
+     * This method never counts the accounts.
+     * </p>
+     *
+     * @param pageable the paging information
+     * @param since    the last account {@code id} in the previous page
+     * @param max      the first account {@code id} in the next page
+     * @return the {@code Account}s in the page
+     */
+    List<Account> findPage(Pageable pageable, ObjectId since, ObjectId max);
 }
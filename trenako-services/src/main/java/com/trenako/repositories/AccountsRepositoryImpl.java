@@ -18,8 +18,17 @@ package com.trenako.repositories;
 import static org.springframework.data.mongodb.core.query.Query.*;
 import static org.springframework.data.mongodb.core.query.Criteria.*;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.data.repository.NoRepositoryBean;
 
@@ -49,4 +58,42 @@ public class AccountsRepositoryImpl implements AccountsCustomRepository {
 
         mongoTemplate.updateFirst(query(where("slug").is(account.getSlug())), upd, Account.class);
     }
+
+    @Override
+    public List<Account> findBySlugs(Collection<String> slugs) {
+        Query query = query(where("slug").in(slugs));
+        query.fields()
+                .include("slug")
+                .include("displayName")
+                .include("emailAddress");
+
+        return mongoTemplate.find(query, Account.class);
+    }
+
+    @Override
+    public List<Account> findPage(Pageable pageable, ObjectId since, ObjectId max) {
+        if (pageable.getSort() != null) {
+            return mongoTemplate.find(new Query().with(pageable), Account.class);
+        }
+
+        Query query = new Query().limit(pageable.getPageSize());
+        if (since != null) {
+            query.addCriteria(where("_id").gt(since))
+                    .with(new Sort(Direction.ASC, "_id"));
+            return mongoTemplate.find(query, Account.class);
+        }
+
+        if (max != null) {
+            // loads the previous page backward, then restores the ascending order
+            query.addCriteria(where("_id").lt(max))
+                    .with(new Sort(Direction.DESC, "_id"));
+            List<Account> accounts = mongoTemplate.find(query, Account.class);
+            Collections.reverse(accounts);
+            return accounts;
+        }
+
+        query.skip(pageable.getOffset())
+                .with(new Sort(Direction.ASC, "_id"));
+        return mongoTemplate.find(query, Account.class);
+    }
 }
@@ -15,13 +15,17 @@
  */
 package com.trenako.repositories;
 
+import java.util.List;
+import java.util.Locale;
+
 import com.trenako.criteria.SearchCriteria;
 import com.trenako.entities.Brand;
 import com.trenako.entities.Railway;
-import com.trenako.entities.RollingStock;
 import com.trenako.entities.Scale;
 import com.trenako.results.PaginatedResults;
 import com.trenako.results.RangeRequest;
+import com.trenako.results.RollingStockSummary;
+import com.trenako.search.TextHit;
 
 /**
  * It represents the repository for the rolling stocks browsing.
@@ -54,20 +58,41 @@ public interface BrowseRepository {
     /**
      * Returns the {@code RollingStock} list according the provided search criteria.
      *
-     * @param sc    the search criteria
-     * @param range the {@code RangeRequest} information
-     * @return a {@code RollingStock} list
+     * @param sc     the search criteria
+     * @param range  the {@code RangeRequest} information
+     * @param locale the user's {@code Locale}
+     * @return a {@code RollingStockSummary} list
+     */
+    PaginatedResults<RollingStockSummary> findByCriteria(SearchCriteria sc, RangeRequest range, Locale locale);
+
+    /**
+     * Returns the {@code RollingStock} list for the provided full-text search hits,
+     * filtered by the search criteria.
+     * <p>
+     * The rolling stocks are returned in the hits order; the range cursors
+     * are built with the hit scores. The search criteria are applied to all
+     * the hits, so the matching rolling stocks are found even when they are
+     * ranked far from the top.
+     * </p>
+     *
+     * @param sc     the search criteria
+     * @param hits   the full-text search hits, ordered by descending score
+     * @param range  the {@code RangeRequest} information
+     * @param locale the user's {@code Locale}
+     * @return a {@code RollingStockSummary} list
      */
-    PaginatedResults<RollingStock> findByCriteria(SearchCriteria sc, RangeRequest range);
+    PaginatedResults<RollingStockSummary> findByHits(SearchCriteria sc, List<TextHit> hits, RangeRequest range,
+                                                     Locale locale);
 
     /**
      * Returns the {@code RollingStock} list with the provided tag.
      *
-     * @param tag   the tag value
-     * @param range the {@code RangeRequest} information
-     * @return a {@code RollingStock} list
+     * @param tag    the tag value
+     * @param range  the {@code RangeRequest} information
+     * @param locale the user's {@code Locale}
+     * @return a {@code RollingStockSummary} list
      */
-    PaginatedResults<RollingStock> findByTag(String tag, RangeRequest range);
+    PaginatedResults<RollingStockSummary> findByTag(String tag, RangeRequest range, Locale locale);
 
     /**
      * Returns the entity with the provided {@code slug}.
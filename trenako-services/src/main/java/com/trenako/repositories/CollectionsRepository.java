@@ -16,6 +16,8 @@
 package com.trenako.repositories;
 
 import org.bson.types.ObjectId;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 
 import com.trenako.entities.Account;
 import com.trenako.entities.Collection;
@@ -53,6 +55,45 @@ public interface CollectionsRepository {
      */
     Collection findByOwner(Account owner);
 
+    /**
+     * Finds the {@code Collection} summary with the provided slug.
+     * <p>
+     * The summary includes the owner, the visibility and the counters by category,
+     * but only the latest {@code numberOfItems} items (the most recently added first).
+     * </p>
+     *
+     * @param slug          the collection slug
+     * @param numberOfItems the number of items to be loaded
+     * @return a {@code Collection} if found; {@code null} otherwise
+     */
+    Collection findSummaryBySlug(String slug, int numberOfItems);
+
+    /**
+     * Finds the {@code Collection} summary with the provided owner.
+     *
+     * @param owner         the collection's owner
+     * @param numberOfItems the number of items to be loaded
+     * @return a {@code Collection} if found; {@code null} otherwise
+     * @see CollectionsRepository#findSummaryBySlug(String, int)
+     */
+    Collection findSummaryByOwner(Account owner, int numberOfItems);
+
+    /**
+     * Returns a page of the items for the {@code Collection} with the provided slug.
+     * <p>
+     * The items are returned the most recently added first, unless the {@code paging}
+     * includes a different sort order ({@code addedAt}, {@code price}, {@code category}
+     * or {@code condition}).
+     * </p>
+     *
+     * @param slug      the collection slug
+     * @param category  the category filter, or {@code null} for every category
+     * @param condition the condition filter, or {@code null} for every condition
+     * @param paging    the paging information
+     * @return a page of {@code CollectionItem}
+     */
+    Page<CollectionItem> findItems(String slug, String category, String condition, Pageable paging);
+
     /**
      * Returns whether the {@code Collection} for this owner's name contains the provided rolling stock.
      * <p/>
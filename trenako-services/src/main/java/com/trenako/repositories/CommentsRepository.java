@@ -37,6 +37,17 @@ public interface CommentsRepository {
      */
     RollingStockComments findByRollingStock(RollingStock rollingStock);
 
+    /**
+     * Finds the list of comments for a rolling stock, loading
+     * only a page of the comments (without counting the answers).
+     *
+     * @param rollingStock the rolling stock
+     * @param skip         the number of comments to skip
+     * @param limit        the maximum number of comments
+     * @return the list of comments
+     */
+    RollingStockComments findByRollingStock(RollingStock rollingStock, int skip, int limit);
+
     /**
      * Creates a new {@code Comment}.
      *
@@ -52,6 +52,21 @@ public interface ReviewsRepository {
      */
     RollingStockReviews findByRollingStock(RollingStock rollingStock);
 
+    /**
+     * Finds the {@code RollingStockReviews} for the provided {@code RollingStock},
+     * loading only a page of the reviews.
+     * <p>
+     * The counters (and the rating histogram) are always loaded, when {@code limit}
+     * is {@code 0} the reviews are not loaded at all.
+     * </p>
+     *
+     * @param rollingStock the rolling stock
+     * @param skip         the number of reviews to skip
+     * @param limit        the maximum number of reviews
+     * @return the list of reviews
+     */
+    RollingStockReviews findByRollingStock(RollingStock rollingStock, int skip, int limit);
+
     /**
      * Adds a new user review to the provided {@code RollingStock}.
      *
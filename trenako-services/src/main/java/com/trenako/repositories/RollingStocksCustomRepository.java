@@ -0,0 +1,35 @@
+/*
+ * Copyright 2012 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.trenako.repositories;
+
+import java.util.Locale;
+
+import com.trenako.results.RollingStockSummary;
+
+/**
+ * @author Carlo Micieli
+ */
+public interface RollingStocksCustomRepository {
+
+    /**
+     * Returns the latest modified rolling stocks summaries.
+     *
+     * @param numberOfItems the maximum number of returned items
+     * @param locale        the user's {@code Locale}
+     * @return the rolling stocks summaries
+     */
+    Iterable<RollingStockSummary> findLatestModified(int numberOfItems, Locale locale);
+}
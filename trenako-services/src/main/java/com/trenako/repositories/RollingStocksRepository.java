@@ -25,7 +25,7 @@ import com.trenako.entities.RollingStock;
  *
  * @author Carlo Micieli
  */
-public interface RollingStocksRepository extends MongoRepository<RollingStock, ObjectId> {
+public interface RollingStocksRepository extends MongoRepository<RollingStock, ObjectId>, RollingStocksCustomRepository {
 
     /**
      * Finds the rolling stock document in the collection by slug.
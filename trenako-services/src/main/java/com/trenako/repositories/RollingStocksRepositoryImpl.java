@@ -0,0 +1,59 @@
+/*
+ * Copyright 2012 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.trenako.repositories;
+
+import static com.trenako.repositories.mongo.RollingStockQueryBuilder.summaryFields;
+
+import java.util.Locale;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.repository.NoRepositoryBean;
+
+import com.trenako.entities.RollingStock;
+import com.trenako.results.RollingStockSummary;
+
+/**
+ * This class implements custom methods for the {@code RollingStocksRepository}.
+ *
+ * @author Carlo Micieli
+ */
+@NoRepositoryBean
+public class RollingStocksRepositoryImpl implements RollingStocksCustomRepository {
+
+    private static final Sort LAST_MODIFIED_SORT = new Sort(Direction.DESC, "lastModified");
+
+    private final MongoTemplate mongoTemplate;
+
+    @Autowired
+    public RollingStocksRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Iterable<RollingStockSummary> findLatestModified(int numberOfItems, Locale locale) {
+        Query query = new Query()
+                .with(LAST_MODIFIED_SORT)
+                .limit(numberOfItems);
+
+        return mongoTemplate.find(summaryFields(query, locale),
+                RollingStockSummary.class,
+                mongoTemplate.getCollectionName(RollingStock.class));
+    }
+}
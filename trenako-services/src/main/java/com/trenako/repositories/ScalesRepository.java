@@ -15,6 +15,9 @@
  */
 package com.trenako.repositories;
 
+import java.util.Collection;
+import java.util.List;
+
 import org.bson.types.ObjectId;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
@@ -41,4 +44,16 @@ public interface ScalesRepository extends MongoRepository<Scale, ObjectId> {
      * @return a {@code Scale} if found; {@code null} otherwise
      */
     Scale findBySlug(String slug);
+
+    /**
+     * Returns the {@code Scale}s with the provided slugs.
+     * <p>
+     * This method performs a single query (using the {@code $in} operator),
+     * no matter how many slugs are provided.
+     * </p>
+     *
+     * @param slugs the {@code Scale} slugs
+     * @return the {@code Scale}s found
+     */
+    List<Scale> findBySlugIn(Collection<String> slugs);
 }
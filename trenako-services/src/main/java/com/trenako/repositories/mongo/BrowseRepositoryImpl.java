@@ -16,10 +16,18 @@
 package com.trenako.repositories.mongo;
 
 import static com.trenako.repositories.mongo.RollingStockQueryBuilder.buildQuery;
+import static com.trenako.repositories.mongo.RollingStockQueryBuilder.summaryFields;
 import static org.springframework.data.mongodb.core.query.Criteria.where;
 import static org.springframework.data.mongodb.core.query.Query.query;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.bson.types.ObjectId;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Sort;
@@ -36,8 +44,11 @@ import com.trenako.entities.RollingStock;
 import com.trenako.entities.Scale;
 import com.trenako.repositories.BrowseRepository;
 import com.trenako.results.PaginatedResults;
+import com.trenako.results.RangeCursor;
 import com.trenako.results.RangeRequest;
 import com.trenako.results.RollingStockResults;
+import com.trenako.results.RollingStockSummary;
+import com.trenako.search.TextHit;
 
 /**
  * The concrete implementation for the browse repository.
@@ -47,16 +58,22 @@ import com.trenako.results.RollingStockResults;
 @Repository("browseRepository")
 public class BrowseRepositoryImpl implements BrowseRepository {
 
+    // the max number of hits loaded with a single query
+    private static final int MAX_HITS_CHUNK = 1000;
+
     private final MongoTemplate mongo;
+    private final SearchIndexesManager indexes;
 
     /**
      * Creates a new {@code BrowseRepositoryImpl}.
      *
-     * @param mongo the mongo template
+     * @param mongo   the mongo template
+     * @param indexes the search indexes manager
      */
     @Autowired
-    public BrowseRepositoryImpl(MongoTemplate mongo) {
+    public BrowseRepositoryImpl(MongoTemplate mongo, SearchIndexesManager indexes) {
         this.mongo = mongo;
+        this.indexes = indexes;
     }
 
     @Override
@@ -75,13 +92,53 @@ public class BrowseRepositoryImpl implements BrowseRepository {
     }
 
     @Override
-    public PaginatedResults<RollingStock> findByCriteria(SearchCriteria sc, RangeRequest range) {
-        return runRangeQuery(MongoSearchCriteria.buildCriteria(sc), sc, range);
+    public PaginatedResults<RollingStockSummary> findByCriteria(SearchCriteria sc, RangeRequest range, Locale locale) {
+        return runRangeQuery(MongoSearchCriteria.buildCriteria(sc), sc, range, locale);
+    }
+
+    @Override
+    public PaginatedResults<RollingStockSummary> findByHits(SearchCriteria sc, List<TextHit> hits, RangeRequest range,
+                                                            Locale locale) {
+        List<TextHit> candidates = candidates(hits, range);
+
+        // the hits are loaded in chunks, until the page is filled; the chunks
+        // grow when the search criteria filter out most of the hits
+        int limit = range.getSize() + 1;
+        List<RollingStockSummary> results = new ArrayList<>(limit);
+        Map<ObjectId, Double> scores = new HashMap<>();
+        int i = 0;
+        int chunkSize = limit;
+        while (i < candidates.size() && results.size() < limit) {
+            List<TextHit> chunk = candidates.subList(i, Math.min(i + chunkSize, candidates.size()));
+            i += chunk.size();
+            chunkSize = Math.min(chunkSize * 2, MAX_HITS_CHUNK);
+
+            List<ObjectId> ids = new ArrayList<>(chunk.size());
+            for (TextHit hit : chunk) {
+                ids.add(hit.getId());
+            }
+
+            Criteria criteria = MongoSearchCriteria.buildCriteria(sc).and("_id").in(ids);
+            Map<ObjectId, RollingStockSummary> found = new HashMap<>();
+            for (RollingStockSummary rs : findSummaries(query(criteria), locale)) {
+                found.put(rs.getId(), rs);
+            }
+
+            for (TextHit hit : chunk) {
+                RollingStockSummary rs = found.get(hit.getId());
+                if (rs != null && results.size() < limit) {
+                    results.add(rs);
+                    scores.put(hit.getId(), hit.getScore());
+                }
+            }
+        }
+
+        return new RollingStockResults(results, sc, range, scores);
     }
 
     @Override
-    public PaginatedResults<RollingStock> findByTag(String tag, RangeRequest range) {
-        return runRangeQuery(where("tag").is(tag), new SearchCriteria(), range);
+    public PaginatedResults<RollingStockSummary> findByTag(String tag, RangeRequest range, Locale locale) {
+        return runRangeQuery(where("tag").is(tag), new SearchCriteria(), range, locale);
     }
 
     @Override
@@ -89,12 +146,38 @@ public class BrowseRepositoryImpl implements BrowseRepository {
         return mongo.findOne(query(where("slug").is(slug)), entityClass);
     }
 
-    private RollingStockResults runRangeQuery(Criteria criteria, SearchCriteria sc, RangeRequest range) {
+    private RollingStockResults runRangeQuery(Criteria criteria, SearchCriteria sc, RangeRequest range, Locale locale) {
         final Query query = buildQuery(criteria, range);
-        final List<RollingStock> results = mongo.find(query, RollingStock.class);
+        indexes.explain(query);
+        final List<RollingStockSummary> results = findSummaries(query, locale);
         return new RollingStockResults(results, sc, range);
     }
 
+    // the listings only load the summary fields
+    private List<RollingStockSummary> findSummaries(Query query, Locale locale) {
+        return mongo.find(summaryFields(query, locale),
+                RollingStockSummary.class,
+                mongo.getCollectionName(RollingStock.class));
+    }
+
+    // the hits after the range cursor, in reverse order when moving backward
+    private static List<TextHit> candidates(List<TextHit> hits, RangeRequest range) {
+        RangeCursor cursor = RangeCursor.valueOf(range.isBackward() ? range.getMax() : range.getSince());
+        if (cursor == null || !(cursor.getValue() instanceof Number)) {
+            return hits;
+        }
+
+        TextHit cursorHit = new TextHit(cursor.getId(), ((Number) cursor.getValue()).doubleValue());
+        int index = Collections.binarySearch(hits, cursorHit);
+        if (range.isBackward()) {
+            List<TextHit> before = new ArrayList<>(hits.subList(0, index >= 0 ? index : -index - 1));
+            Collections.reverse(before);
+            return before;
+        }
+
+        return hits.subList(index >= 0 ? index + 1 : -index - 1, hits.size());
+    }
+
     private static final Sort NAME_SORT = new Sort(Direction.ASC, "name");
 
     private <T> Iterable<T> findAll(Class<T> clazz) {
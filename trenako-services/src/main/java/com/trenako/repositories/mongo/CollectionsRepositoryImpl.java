@@ -18,16 +18,27 @@ package com.trenako.repositories.mongo;
 import static org.springframework.data.mongodb.core.query.Query.*;
 import static org.springframework.data.mongodb.core.query.Criteria.*;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
 
 import org.apache.commons.lang3.StringUtils;
 import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Repository;
 
+import com.mongodb.AggregationOutput;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBCollection;
+import com.mongodb.DBObject;
 import com.trenako.entities.Account;
 import com.trenako.entities.CategoriesCount;
 import com.trenako.entities.Collection;
@@ -45,6 +56,8 @@ import com.trenako.values.Visibility;
 @Repository("collectionsRepository")
 public class CollectionsRepositoryImpl implements CollectionsRepository {
 
+    private static final String ITEMS = "items";
+
     private final MongoTemplate mongo;
 
     @Autowired
@@ -83,6 +96,149 @@ public class CollectionsRepositoryImpl implements CollectionsRepository {
         return mongo.findOne(query, Collection.class);
     }
 
+    @Override
+    public Collection findSummaryBySlug(String slug, int numberOfItems) {
+        return findSummary(query(where("slug").is(slug)), numberOfItems);
+    }
+
+    @Override
+    public Collection findSummaryByOwner(Account owner, int numberOfItems) {
+        return findSummary(query(where("owner").is(owner.getSlug())), numberOfItems);
+    }
+
+    private Collection findSummary(Query query, int numberOfItems) {
+        if (numberOfItems > 0) {
+            query.fields().slice(ITEMS, -numberOfItems);
+        } else {
+            query.fields().exclude(ITEMS);
+        }
+
+        Collection collection = mongo.findOne(query, Collection.class);
+        if (collection != null) {
+            collection.setItems(latestFirst(collection.getItems()));
+        }
+        return collection;
+    }
+
+    @Override
+    public Page<CollectionItem> findItems(String slug, String category, String condition, Pageable paging) {
+        if (category == null && condition == null && paging.getSort() == null) {
+            return sliceItems(slug, paging);
+        }
+        return aggregateItems(slug, category, condition, paging);
+    }
+
+    // the items are appended to the array as they are added to the collection,
+    // the page is a window counted from the end of the array and the total comes
+    // from the categories counters stored in the same document
+    private Page<CollectionItem> sliceItems(String slug, Pageable paging) {
+        int offset = paging.getOffset();
+        int size = paging.getPageSize();
+
+        Query query = query(where("slug").is(slug));
+        query.fields().slice(ITEMS, -(offset + size), size);
+
+        Collection collection = mongo.findOne(query, Collection.class);
+        if (collection == null) {
+            return new PageImpl<CollectionItem>(Collections.<CollectionItem>emptyList(), paging, 0);
+        }
+
+        int total = collection.getCategories().getTotalCount();
+        List<CollectionItem> items = collection.getItems();
+
+        // when the window goes past the first item the slice starts from the
+        // beginning of the array, the items after the page end must be dropped
+        int available = total - offset;
+        if (available <= 0) {
+            items = Collections.emptyList();
+        } else if (available < items.size()) {
+            items = items.subList(0, available);
+        }
+
+        return new PageImpl<CollectionItem>(latestFirst(items), paging, total);
+    }
+
+    // $slice can neither filter nor sort the array elements, for filtered or sorted
+    // pages the items are unwound with the aggregation framework
+    private Page<CollectionItem> aggregateItems(String slug, String category, String condition, Pageable paging) {
+        DBObject matchCollection = new BasicDBObject("$match", new BasicDBObject("slug", slug));
+        DBObject unwind = new BasicDBObject("$unwind", "$" + ITEMS);
+
+        BasicDBObject filter = new BasicDBObject();
+        if (category != null) {
+            filter.append("items.category", category);
+        }
+        if (condition != null) {
+            filter.append("items.condition", condition);
+        }
+        DBObject matchItems = new BasicDBObject("$match", filter);
+
+        DBCollection coll = mongo.getCollection(mongo.getCollectionName(Collection.class));
+
+        AggregationOutput count = coll.aggregate(matchCollection, unwind, matchItems,
+                new BasicDBObject("$group", new BasicDBObject("_id", null)
+                        .append("count", new BasicDBObject("$sum", 1))));
+
+        long total = 0;
+        for (DBObject dbo : count.results()) {
+            total = ((Number) dbo.get("count")).longValue();
+        }
+
+        if (total <= paging.getOffset()) {
+            return new PageImpl<CollectionItem>(Collections.<CollectionItem>emptyList(), paging, total);
+        }
+
+        AggregationOutput output = coll.aggregate(matchCollection, unwind, matchItems,
+                new BasicDBObject("$sort", itemsSort(paging.getSort())),
+                new BasicDBObject("$skip", paging.getOffset()),
+                new BasicDBObject("$limit", paging.getPageSize()));
+
+        List<CollectionItem> items = new ArrayList<CollectionItem>(paging.getPageSize());
+        for (DBObject dbo : output.results()) {
+            items.add(mongo.getConverter().read(CollectionItem.class, (DBObject) dbo.get(ITEMS)));
+        }
+
+        return new PageImpl<CollectionItem>(items, paging, total);
+    }
+
+    private static DBObject itemsSort(Sort sort) {
+        BasicDBObject dbo = new BasicDBObject();
+        if (sort != null) {
+            for (Sort.Order order : sort) {
+                String field = itemsSortField(order.getProperty());
+                if (field != null) {
+                    dbo.append(field, order.isAscending() ? 1 : -1);
+                }
+            }
+        }
+
+        if (dbo.isEmpty()) {
+            dbo.append("items.addedAt", -1);
+        }
+        return dbo;
+    }
+
+    private static String itemsSortField(String property) {
+        switch (property) {
+            case "addedAt":
+                return "items.addedAt";
+            case "price":
+                return "items.price.val";
+            case "category":
+                return "items.category";
+            case "condition":
+                return "items.condition";
+            default:
+                return null;
+        }
+    }
+
+    private static List<CollectionItem> latestFirst(List<CollectionItem> items) {
+        List<CollectionItem> reversed = new ArrayList<CollectionItem>(items);
+        Collections.reverse(reversed);
+        return reversed;
+    }
+
     @Override
     public boolean containsRollingStock(Account owner, RollingStock rollingStock) {
         Query query = query(where("owner").is(owner.getSlug())
@@ -71,6 +71,13 @@ public class CommentsRepositoryImpl implements CommentsRepository {
         return mongo.findOne(query, RollingStockComments.class);
     }
 
+    @Override
+    public RollingStockComments findByRollingStock(RollingStock rollingStock, int skip, int limit) {
+        Query query = query(where("slug").is(rollingStock.getSlug()));
+        query.fields().slice("items", skip, limit);
+        return mongo.findOne(query, RollingStockComments.class);
+    }
+
     @Override
     public void createNew(RollingStock rs, Comment comment) {
         RollingStockComments rsc = new RollingStockComments(rs);
@@ -22,6 +22,11 @@ import com.trenako.utility.Cat;
 
 /**
  * It converts a {@link SearchCriteria} object to MongoDB criteria.
+ * <p>
+ * The common filter combinations have a matching compound index, ending with
+ * the range pagination keys, created by the {@link SearchIndexesManager}. The new
+ * filters should be added together with their indexes.
+ * </p>
  *
  * @author Carlo Micieli
  */
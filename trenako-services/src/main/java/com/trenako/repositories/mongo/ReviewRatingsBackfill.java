@@ -0,0 +1,148 @@
+/*
+ * Copyright 2012 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.trenako.repositories.mongo;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBCollection;
+import com.mongodb.DBCursor;
+import com.mongodb.DBObject;
+import com.mongodb.MongoException;
+import com.mongodb.WriteResult;
+import com.trenako.entities.RollingStockReviews;
+
+/**
+ * It fills the rating counters for the rolling stock reviews.
+ * <p>
+ * The reviews posted before the {@code ratings} counters were introduced are not
+ * counted: at startup the counters are computed again from the stored reviews for
+ * every document where they do not match. A document changed while the counters
+ * are computed is skipped, its counters are filled the next time.
+ * </p>
+ *
+ * @author Carlo Micieli
+ */
+@Component("reviewRatingsBackfill")
+@ManagedResource(objectName = "trenako:type=Mongo,name=reviewRatingsBackfill",
+        description = "The rolling stock reviews rating counters")
+public class ReviewRatingsBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger("com.trenako.repositories");
+
+    private final MongoTemplate mongo;
+
+    /**
+     * Creates a new {@code ReviewRatingsBackfill}.
+     *
+     * @param mongo the mongo template
+     */
+    @Autowired
+    public ReviewRatingsBackfill(MongoTemplate mongo) {
+        this.mongo = mongo;
+    }
+
+    /**
+     * Fills the rating counters from the stored reviews.
+     * <p>
+     * A failure is logged without stopping the application startup.
+     * </p>
+     *
+     * @return the number of updated documents
+     */
+    @PostConstruct
+    @ManagedOperation(description = "Fills the rating counters from the stored reviews")
+    public int backfill() {
+        try {
+            DBCollection reviews = mongo.getCollection(mongo.getCollectionName(RollingStockReviews.class));
+            DBObject fields = new BasicDBObject("numberOfReviews", 1)
+                    .append("ratings", 1)
+                    .append("items.rating", 1);
+
+            int updated = 0;
+            DBCursor cursor = reviews.find(new BasicDBObject(), fields);
+            try {
+                for (DBObject dbo : cursor) {
+                    Map<String, Integer> ratings = countRatings(dbo.get("items"));
+                    if (ratings.equals(storedRatings(dbo.get("ratings")))) {
+                        continue;
+                    }
+
+                    // the counters are only written when no review was posted in the meantime
+                    DBObject query = new BasicDBObject("_id", dbo.get("_id"))
+                            .append("numberOfReviews", dbo.get("numberOfReviews"));
+                    WriteResult result = reviews.update(query,
+                            new BasicDBObject("$set", new BasicDBObject("ratings", new BasicDBObject(ratings))));
+                    updated += result.getN();
+                }
+            } finally {
+                cursor.close();
+            }
+
+            log.info("Rating counters filled for {} rolling stock reviews", updated);
+            return updated;
+        } catch (DataAccessException | MongoException ex) {
+            log.error("Error occurred filling the rating counters", ex);
+            return 0;
+        }
+    }
+
+    private static Map<String, Integer> countRatings(Object items) {
+        Map<String, Integer> ratings = new HashMap<>();
+        if (!(items instanceof Iterable)) {
+            return ratings;
+        }
+
+        for (Object item : (Iterable<?>) items) {
+            Object rating = item instanceof DBObject ? ((DBObject) item).get("rating") : null;
+            if (rating instanceof Number) {
+                String key = RollingStockReviews.getRatingKey(((Number) rating).intValue());
+                Integer count = ratings.get(key);
+                ratings.put(key, count == null ? 1 : count + 1);
+            }
+        }
+        return ratings;
+    }
+
+    // the counters left to zero are ignored
+    private static Map<String, Integer> storedRatings(Object value) {
+        Map<String, Integer> ratings = new HashMap<>();
+        if (!(value instanceof DBObject)) {
+            return ratings;
+        }
+
+        DBObject dbo = (DBObject) value;
+        for (String key : dbo.keySet()) {
+            Object count = dbo.get(key);
+            if (count instanceof Number && ((Number) count).intValue() != 0) {
+                ratings.put(key, ((Number) count).intValue());
+            }
+        }
+        return ratings;
+    }
+}
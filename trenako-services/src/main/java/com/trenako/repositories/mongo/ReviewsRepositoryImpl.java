@@ -20,6 +20,7 @@ import java.util.Map;
 import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Repository;
 
@@ -69,13 +70,25 @@ public class ReviewsRepositoryImpl implements ReviewsRepository {
                 RollingStockReviews.class);
     }
 
+    @Override
+    public RollingStockReviews findByRollingStock(RollingStock rollingStock, int skip, int limit) {
+        Query query = query(where("rollingStock.slug").is(rollingStock.getSlug()));
+        if (limit > 0) {
+            query.fields().slice("items", skip, limit);
+        } else {
+            query.fields().exclude("items");
+        }
+        return mongo.findOne(query, RollingStockReviews.class);
+    }
+
     @Override
     public void addReview(RollingStock rs, Review review) {
         Update upd = new Update()
                 .set("rollingStock", WeakDbRef.buildRef(rs))
                 .push("items", review)
                 .inc("numberOfReviews", 1)
-                .inc("totalRating", review.getRating());
+                .inc("totalRating", review.getRating())
+                .inc(ratingCounter(review), 1);
         mongo.upsert(query(where("slug").is(rs.getSlug())), upd, RollingStockReviews.class);
     }
 
@@ -86,10 +99,15 @@ public class ReviewsRepositoryImpl implements ReviewsRepository {
         Update upd = new Update()
                 .pull("items", m)
                 .inc("numberOfReviews", -1)
-                .inc("totalRating", -1 * review.getRating());
+                .inc("totalRating", -1 * review.getRating())
+                .inc(ratingCounter(review), -1);
         mongo.updateFirst(query(where("slug").is(rs.getSlug())), upd, RollingStockReviews.class);
     }
 
+    private static String ratingCounter(Review review) {
+        return "ratings." + RollingStockReviews.getRatingKey(review.getRating());
+    }
+
     @Override
     public void save(RollingStockReviews rsReviews) {
         mongo.save(rsReviews);
@@ -15,20 +15,51 @@
  */
 package com.trenako.repositories.mongo;
 
+import static org.springframework.data.mongodb.core.query.Criteria.*;
 import static org.springframework.data.mongodb.core.query.Query.*;
 
+import java.util.Locale;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
 import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Field;
 import org.springframework.data.mongodb.core.query.Query;
 
+import com.trenako.AppGlobals;
+import com.trenako.mapping.LocalizedField;
+import com.trenako.results.RangeCursor;
 import com.trenako.results.RangeRequest;
 
 /**
  * It represents a {@code Query} builder for range requests.
+ * <p>
+ * The results are paginated with a compound keyset, the sort property
+ * and the document {@code id}: every page starts right after the cursor
+ * in the sort order, even if more documents have the same sort value.
+ * </p>
+ * <p>
+ * The ranges are moving forward from the {@code since} cursor; when only the {@code max}
+ * cursor is provided the query is moving backward and the results are returned in
+ * reverse order.
+ * </p>
+ * <p>
+ * The cursors have no value for the sort properties not supported by
+ * {@link RangeCursor#isSortable(String)}, these requests are sorted and
+ * paginated by {@code id} only.
+ * </p>
  *
  * @author Carlo Micieli
  */
 public class RollingStockQueryBuilder {
 
+    private static final String ID = "_id";
+
+    private static final String[] SUMMARY_FIELDS = {
+            "slug", "brand", "railway", "scale", "itemNumber",
+            "era", "category", "powerMethod", "lastModified"
+    };
+
     /**
      * Builds a new query applying the range request to the
      * provided selection criteria.
@@ -38,20 +69,103 @@ public class RollingStockQueryBuilder {
      * @return a {@code Query}
      */
     public static Query buildQuery(Criteria criteria, RangeRequest range) {
-        String prop = range.getSortProperty();
-
-        if (range.getSince() != null && range.getMax() != null) {
-            criteria.and(prop).lt(range.getSince()).gt(range.getMax());
-        } else if (range.getSince() != null) {
-            criteria.and(prop).lt(range.getSince());
-        } else if (range.getMax() != null) {
-            criteria.and(prop).gt(range.getMax());
+        String prop = RangeCursor.isSortable(range.getSortProperty()) ?
+                range.getSortProperty() : ID;
+
+        Direction dir = range.getFirstOrder().getDirection();
+        RangeCursor cursor = RangeCursor.valueOf(range.getSince());
+        if (range.isBackward()) {
+            dir = reverse(dir);
+            cursor = RangeCursor.valueOf(range.getMax());
+        }
+
+        if (cursor != null) {
+            after(criteria, prop, dir, cursor);
         }
 
         final Query q = query(criteria);
         q.limit(range.getSize() + 1);
-        q.with(range.getSort());
+        q.with(sort(prop, dir));
 
         return q;
     }
+
+    /**
+     * Restricts the query to the fields for the {@code RollingStockSummary}.
+     * <p>
+     * The {@code description} is loaded only in the default language
+     * and in the user's language.
+     * </p>
+     *
+     * @param query  the {@code Query}
+     * @param locale the user's {@code Locale}; the default language only if {@code null}
+     * @return the same {@code Query}
+     */
+    public static Query summaryFields(Query query, Locale locale) {
+        Field fields = query.fields();
+        for (String field : SUMMARY_FIELDS) {
+            fields.include(field);
+        }
+
+        Locale current = locale != null ? locale : AppGlobals.DEFAULT_LOCALE;
+        for (Locale lang : LocalizedField.locales(current)) {
+            fields.include("description." + lang.getLanguage());
+        }
+        return query;
+    }
+
+    private static void after(Criteria criteria, String prop, Direction dir, RangeCursor cursor) {
+        boolean asc = dir == Direction.ASC;
+        Object value = cursor.getValue();
+
+        if (isId(prop)) {
+            idAfter(criteria, asc, cursor);
+        } else if (value == null) {
+            // null values come first in ascending order
+            if (asc) {
+                criteria.norOperator(where(prop).is(null).and(ID).lte(cursor.getId()));
+            } else {
+                criteria.and(prop).is(null);
+                idAfter(criteria, asc, cursor);
+            }
+        } else {
+            // a bounded range on the sort property, the ties are broken by id
+            if (asc) {
+                criteria.and(prop).gte(value);
+            } else {
+                criteria.and(prop).not().gt(value);
+            }
+
+            Criteria tie = where(prop).is(value);
+            if (asc) {
+                tie.and(ID).lte(cursor.getId());
+            } else {
+                tie.and(ID).gte(cursor.getId());
+            }
+            criteria.norOperator(tie);
+        }
+    }
+
+    private static void idAfter(Criteria criteria, boolean asc, RangeCursor cursor) {
+        if (asc) {
+            criteria.and(ID).gt(cursor.getId());
+        } else {
+            criteria.and(ID).lt(cursor.getId());
+        }
+    }
+
+    private static Sort sort(String prop, Direction dir) {
+        if (isId(prop)) {
+            return new Sort(dir, ID);
+        }
+        return new Sort(dir, prop).and(new Sort(dir, ID));
+    }
+
+    private static boolean isId(String prop) {
+        return "id".equals(prop) || ID.equals(prop);
+    }
+
+    private static Direction reverse(Direction dir) {
+        return dir == Direction.ASC ? Direction.DESC : Direction.ASC;
+    }
 }
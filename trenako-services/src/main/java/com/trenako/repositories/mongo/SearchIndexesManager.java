@@ -0,0 +1,275 @@
+/*
+ * Copyright 2012 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.trenako.repositories.mongo;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.IndexOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Order;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBCursor;
+import com.mongodb.DBObject;
+import com.mongodb.MongoException;
+import com.trenako.entities.RollingStock;
+
+/**
+ * It manages the indexes for the rolling stock searches.
+ * <p>
+ * At startup it creates the compound indexes for the common {@link MongoSearchCriteria}
+ * filters, every index is ending with the range pagination keys ({@code lastModified}
+ * and {@code id}), so that each page of results is read with a bounded index range scan.
+ * </p>
+ * <p>
+ * In diagnostic mode the {@code explain()} plan for every search is logged; the
+ * queries not using an index, or sorting the results in memory, are flagged with a warning.
+ * The diagnostic mode can be switched on from the {@code mongo.search.diagnosticMode}
+ * application property or through JMX.
+ * </p>
+ *
+ * @author Carlo Micieli
+ */
+@Component("searchIndexesManager")
+@ManagedResource(objectName = "trenako:type=Mongo,name=searchIndexesManager",
+        description = "The rolling stock search indexes")
+public class SearchIndexesManager {
+
+    private static final Logger log = LoggerFactory.getLogger("com.trenako.repositories");
+
+    private static final List<Index> INDEXES = Collections.unmodifiableList(Arrays.asList(
+            rangeIndex("range_idx"),
+            rangeIndex("brand_range_idx", "brand.slug"),
+            rangeIndex("railway_range_idx", "railway.slug"),
+            rangeIndex("scale_range_idx", "scale.slug"),
+            rangeIndex("era_range_idx", "era"),
+            rangeIndex("category_range_idx", "category"),
+            rangeIndex("powerMethod_range_idx", "powerMethod"),
+            rangeIndex("cat_range_idx", "category", "powerMethod"),
+            rangeIndex("brand_scale_range_idx", "brand.slug", "scale.slug"),
+            rangeIndex("railway_scale_range_idx", "railway.slug", "scale.slug"),
+            rangeIndex("scale_cat_range_idx", "scale.slug", "category", "powerMethod")));
+
+    private final MongoTemplate mongo;
+    private volatile boolean diagnosticMode;
+
+    private final AtomicLong explainedQueries = new AtomicLong();
+    private final AtomicLong unindexedQueries = new AtomicLong();
+    private final AtomicLong inMemorySorts = new AtomicLong();
+
+    /**
+     * Creates a new {@code SearchIndexesManager}.
+     *
+     * @param mongo          the mongo template
+     * @param diagnosticMode whether the search plans are logged
+     */
+    @Autowired
+    public SearchIndexesManager(MongoTemplate mongo,
+                                @Value("${mongo.search.diagnosticMode:false}") boolean diagnosticMode) {
+        this.mongo = mongo;
+        this.diagnosticMode = diagnosticMode;
+    }
+
+    /**
+     * Returns the compound indexes for the rolling stock searches.
+     *
+     * @return the indexes
+     */
+    public static List<Index> getIndexes() {
+        return INDEXES;
+    }
+
+    /**
+     * Creates the compound indexes for the rolling stock searches.
+     * <p>
+     * The indexes already in the database are not changed; a failure is
+     * logged without stopping the application startup.
+     * </p>
+     */
+    @PostConstruct
+    @ManagedOperation(description = "Creates the missing search indexes")
+    public void ensureIndexes() {
+        try {
+            IndexOperations ops = mongo.indexOps(RollingStock.class);
+            for (Index index : INDEXES) {
+                ops.ensureIndex(index);
+            }
+            log.info("Ensured {} rolling stock search indexes", INDEXES.size());
+        } catch (DataAccessException ex) {
+            log.error("Error occurred creating the rolling stock search indexes", ex);
+        }
+    }
+
+    /**
+     * Logs the {@code explain()} plan for the provided rolling stock query.
+     * <p>
+     * This method does nothing unless the diagnostic mode is on.
+     * </p>
+     *
+     * @param query the query
+     */
+    public void explain(Query query) {
+        if (!diagnosticMode) {
+            return;
+        }
+
+        try {
+            QueryPlan plan = QueryPlan.parse(runExplain(query));
+            explainedQueries.incrementAndGet();
+
+            if (!plan.usesIndex()) {
+                unindexedQueries.incrementAndGet();
+                log.warn("Search not using an index: {} sort {}",
+                        query.getQueryObject(), query.getSortObject());
+            }
+            if (plan.sortsInMemory()) {
+                inMemorySorts.incrementAndGet();
+                log.warn("Search sorting the results in memory: {} sort {}",
+                        query.getQueryObject(), query.getSortObject());
+            }
+            log.info("Search plan for {} sort {}: {}",
+                    new Object[]{query.getQueryObject(), query.getSortObject(), plan.getPlan()});
+        } catch (DataAccessException | MongoException ex) {
+            log.warn("Error occurred explaining the search: {}", ex.toString());
+        }
+    }
+
+    @ManagedAttribute(description = "Whether the search plans are logged")
+    public boolean isDiagnosticMode() {
+        return diagnosticMode;
+    }
+
+    @ManagedAttribute(description = "Whether the search plans are logged")
+    public void setDiagnosticMode(boolean diagnosticMode) {
+        this.diagnosticMode = diagnosticMode;
+    }
+
+    @ManagedAttribute(description = "The number of explained searches")
+    public long getExplainedQueries() {
+        return explainedQueries.get();
+    }
+
+    @ManagedAttribute(description = "The number of explained searches not using an index")
+    public long getUnindexedQueries() {
+        return unindexedQueries.get();
+    }
+
+    @ManagedAttribute(description = "The number of explained searches sorting the results in memory")
+    public long getInMemorySorts() {
+        return inMemorySorts.get();
+    }
+
+    DBObject runExplain(Query query) {
+        DBCursor cursor = mongo.getCollection(mongo.getCollectionName(RollingStock.class))
+                .find(query.getQueryObject())
+                .sort(query.getSortObject());
+        if (query.getLimit() > 0) {
+            cursor.limit(query.getLimit());
+        }
+        return cursor.explain();
+    }
+
+    private static Index rangeIndex(String name, String... filters) {
+        Index index = new Index();
+        for (String filter : filters) {
+            index.on(filter, Order.ASCENDING);
+        }
+        return index.on("lastModified", Order.DESCENDING)
+                .on("_id", Order.DESCENDING)
+                .named(name);
+    }
+
+    /**
+     * It represents the relevant information from an {@code explain()} plan.
+     * <p>
+     * Both the legacy ({@code BasicCursor}, {@code scanAndOrder}) and
+     * the query planner ({@code COLLSCAN}, {@code SORT} stages) formats are supported.
+     * </p>
+     *
+     * @author Carlo Micieli
+     */
+    static class QueryPlan {
+        private final DBObject plan;
+        private boolean collectionScan;
+        private boolean inMemorySort;
+
+        private QueryPlan(DBObject plan) {
+            this.plan = plan;
+        }
+
+        static QueryPlan parse(DBObject plan) {
+            QueryPlan qp = new QueryPlan(plan == null ? new BasicDBObject() : plan);
+            qp.visit(qp.plan);
+            return qp;
+        }
+
+        DBObject getPlan() {
+            return plan;
+        }
+
+        boolean usesIndex() {
+            return !collectionScan;
+        }
+
+        boolean sortsInMemory() {
+            return inMemorySort;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void visit(Object node) {
+            if (node instanceof List) {
+                for (Object child : (List<Object>) node) {
+                    visit(child);
+                }
+            } else if (node instanceof DBObject) {
+                Map<String, Object> map = ((DBObject) node).toMap();
+                for (Map.Entry<String, Object> entry : map.entrySet()) {
+                    inspect(entry.getKey(), entry.getValue());
+                    visit(entry.getValue());
+                }
+            }
+        }
+
+        private void inspect(String key, Object value) {
+            if ("cursor".equals(key) && String.valueOf(value).startsWith("BasicCursor")) {
+                collectionScan = true;
+            } else if ("stage".equals(key) && "COLLSCAN".equals(value)) {
+                collectionScan = true;
+            } else if ("stage".equals(key) && "SORT".equals(value)) {
+                inMemorySort = true;
+            } else if ("scanAndOrder".equals(key) && Boolean.TRUE.equals(value)) {
+                inMemorySort = true;
+            }
+        }
+    }
+}
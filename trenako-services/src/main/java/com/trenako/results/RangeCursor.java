@@ -0,0 +1,257 @@
+/*
+ * Copyright 2012 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.trenako.results;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.xml.bind.DatatypeConverter;
+
+import org.apache.commons.lang3.ObjectUtils;
+import org.bson.types.ObjectId;
+
+
+/**
+ * It represents an immutable compound cursor for keyset pagination.
+ * <p>
+ * A cursor is the pair of the sort property value and the {@code id} for a rolling stock;
+ * the {@code id} breaks the ties between rolling stocks with the same sort value, therefore
+ * no item is skipped or repeated between two pages.
+ * </p>
+ * <p>
+ * The cursors are exchanged with the clients as opaque, url safe tokens.
+ * </p>
+ *
+ * @author Carlo Micieli
+ */
+public final class RangeCursor {
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+    private static final int ID_LENGTH = 24;
+
+    private static final char NULL_VALUE = 'n';
+    private static final char DATE_VALUE = 'd';
+    private static final char NUMBER_VALUE = 'f';
+    private static final char OBJECT_ID_VALUE = 'o';
+    private static final char STRING_VALUE = 's';
+
+    private static final Set<String> SORT_PROPERTIES = new HashSet<>(Arrays.asList(
+            "lastModified", "slug", "itemNumber", "era", "category", "powerMethod", "id", "_id"));
+
+    private final Object value;
+    private final ObjectId id;
+
+    /**
+     * Creates a new {@code RangeCursor}.
+     *
+     * @param value the sort property value
+     * @param id    the rolling stock {@code id}
+     */
+    public RangeCursor(Object value, ObjectId id) {
+        this.value = value;
+        this.id = id;
+    }
+
+    /**
+     * Creates the cursor for the provided rolling stock.
+     * <p>
+     * The sort property value is extracted without reflection; the values
+     * for the properties not supported by {@link #isSortable(String)} are
+     * always {@code null}.
+     * </p>
+     *
+     * @param rs           the rolling stock
+     * @param sortProperty the sort property name
+     * @return the {@code RangeCursor}
+     */
+    public static RangeCursor of(RollingStockSummary rs, String sortProperty) {
+        return new RangeCursor(sortValue(rs, sortProperty), rs.getId());
+    }
+
+    /**
+     * Checks whether the rolling stocks can be paginated by the provided sort property.
+     * <p>
+     * The cursors hold a value only for these properties; the query builder
+     * paginates the other sort requests by {@code id} only.
+     * </p>
+     *
+     * @param sortProperty the sort property name
+     * @return {@code true} if the property is supported; {@code false} otherwise
+     */
+    public static boolean isSortable(String sortProperty) {
+        return sortProperty != null && SORT_PROPERTIES.contains(sortProperty);
+    }
+
+    /**
+     * Returns the cursor for the provided value.
+     * <p>
+     * The value can be a {@code RangeCursor} or its token.
+     * </p>
+     *
+     * @param value the value
+     * @return a {@code RangeCursor}, or {@code null} if the value is not a valid cursor
+     */
+    public static RangeCursor valueOf(Object value) {
+        if (value instanceof RangeCursor) {
+            return (RangeCursor) value;
+        }
+        if (value instanceof String) {
+            return parse((String) value);
+        }
+        return null;
+    }
+
+    /**
+     * Parses a cursor token.
+     *
+     * @param token the token
+     * @return a {@code RangeCursor}, or {@code null} if the token is not valid
+     */
+    public static RangeCursor parse(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+
+        try {
+            String s = new String(DatatypeConverter.parseBase64Binary(fromUrlSafe(token)), UTF8);
+            if (s.length() <= ID_LENGTH || !ObjectId.isValid(s.substring(0, ID_LENGTH))) {
+                return null;
+            }
+
+            ObjectId id = new ObjectId(s.substring(0, ID_LENGTH));
+            String value = s.substring(ID_LENGTH + 1);
+            switch (s.charAt(ID_LENGTH)) {
+                case NULL_VALUE:
+                    return new RangeCursor(null, id);
+                case DATE_VALUE:
+                    return new RangeCursor(new Date(Long.parseLong(value)), id);
+                case NUMBER_VALUE:
+                    return new RangeCursor(Double.valueOf(value), id);
+                case OBJECT_ID_VALUE:
+                    return new RangeCursor(new ObjectId(value), id);
+                case STRING_VALUE:
+                    return new RangeCursor(value, id);
+                default:
+                    return null;
+            }
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the sort property value.
+     *
+     * @return the value
+     */
+    public Object getValue() {
+        return value;
+    }
+
+    /**
+     * Returns the rolling stock {@code id}.
+     *
+     * @return the {@code id}
+     */
+    public ObjectId getId() {
+        return id;
+    }
+
+    /**
+     * Encodes this cursor as an opaque token.
+     *
+     * @return the token
+     */
+    public String encode() {
+        StringBuilder sb = new StringBuilder()
+                .append(id.toString());
+
+        if (value == null) {
+            sb.append(NULL_VALUE);
+        } else if (value instanceof Date) {
+            sb.append(DATE_VALUE).append(((Date) value).getTime());
+        } else if (value instanceof Number) {
+            sb.append(NUMBER_VALUE).append(((Number) value).doubleValue());
+        } else if (value instanceof ObjectId) {
+            sb.append(OBJECT_ID_VALUE).append(value.toString());
+        } else {
+            sb.append(STRING_VALUE).append(value.toString());
+        }
+
+        return toUrlSafe(DatatypeConverter.printBase64Binary(sb.toString().getBytes(UTF8)));
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) return true;
+        if (!(obj instanceof RangeCursor)) return false;
+
+        RangeCursor other = (RangeCursor) obj;
+        return ObjectUtils.equals(this.value, other.value) &&
+                ObjectUtils.equals(this.id, other.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * ObjectUtils.hashCode(value) + ObjectUtils.hashCode(id);
+    }
+
+    @Override
+    public String toString() {
+        return encode();
+    }
+
+    private static Object sortValue(RollingStockSummary rs, String sortProperty) {
+        switch (sortProperty) {
+            case "lastModified":
+                return rs.getLastModified();
+            case "slug":
+                return rs.getSlug();
+            case "itemNumber":
+                return rs.getItemNumber();
+            case "era":
+                return rs.getEra();
+            case "category":
+                return rs.getCategory();
+            case "powerMethod":
+                return rs.getPowerMethod();
+            case "id":
+            case "_id":
+                return rs.getId();
+            default:
+                return null;
+        }
+    }
+
+    private static String toUrlSafe(String base64) {
+        int end = base64.length();
+        while (end > 0 && base64.charAt(end - 1) == '=') {
+            end--;
+        }
+        return base64.substring(0, end).replace('+', '-').replace('/', '_');
+    }
+
+    private static String fromUrlSafe(String token) {
+        StringBuilder sb = new StringBuilder(token.replace('-', '+').replace('_', '/'));
+        while (sb.length() % 4 != 0) {
+            sb.append('=');
+        }
+        return sb.toString();
+    }
+}
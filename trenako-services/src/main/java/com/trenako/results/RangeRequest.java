@@ -134,6 +134,16 @@ public class RangeRequest {
         this.max = maxId;
     }
 
+    /**
+     * Checks whether the current range is moving backward, from the
+     * {@code max} cursor to the previous page.
+     *
+     * @return {@code true} if the range is moving backward; {@code false} otherwise
+     */
+    public boolean isBackward() {
+        return getSince() == null && getMax() != null;
+    }
+
     /**
      * Returns the first {@code Sort} set for the current range.
      *
@@ -15,13 +15,14 @@
  */
 package com.trenako.results;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
-import org.apache.commons.beanutils.BeanUtilsBean;
-import org.apache.commons.beanutils.PropertyUtilsBean;
+import org.bson.types.ObjectId;
 
 import com.trenako.criteria.SearchCriteria;
-import com.trenako.entities.RollingStock;
 
 /**
  * The concrete implementation for MongoDB of the {@code PaginatedResults}.
@@ -35,10 +36,20 @@ import com.trenako.entities.RollingStock;
  * Although the objects for this class contain the fields
  * {@code RollingStockResults#getSinceId()} and {@code RollingStockResults#getMaxId()}
  * they don't contain the values from the {@code RangeRequest} instance used to build the
- * object. They are filled with the first and the last element in the results set.
+ * object. They are filled with the {@link RangeCursor} for the last and the first
+ * element in the results set, respectively.
  * The clients should use these two fields to implement the pagination.
  * </p>
  * <p>
+ * When the range request is moving backward (ie only the {@code max} cursor is provided)
+ * the results are expected in reverse order, as returned by the query built with
+ * {@code RollingStockQueryBuilder}.
+ * </p>
+ * <p>
+ * The full-text search results are ranked by score rather than by a rolling stock
+ * property; their cursors are built with the score for each item.
+ * </p>
+ * <p>
  * This implementation of {@code PaginatedResults} doesn't provide a meaningful
  * implementation for the {@code PaginatedResults#getTotalSize()} method.
  * The client classes must not depend on this value.
@@ -46,9 +57,9 @@ import com.trenako.entities.RollingStock;
  *
  * @author Carlo Micieli
  */
-public class RollingStockResults implements PaginatedResults<RollingStock> {
+public class RollingStockResults implements PaginatedResults<RollingStockSummary> {
 
-    private final List<RollingStock> results;
+    private final List<RollingStockSummary> results;
     private final SearchRange range;
     private final SearchCriteria criteria;
 
@@ -61,30 +72,52 @@ public class RollingStockResults implements PaginatedResults<RollingStock> {
      * @param results the result items
      * @param range   the result range
      */
-    public RollingStockResults(List<RollingStock> results, SearchCriteria criteria, RangeRequest range) {
+    public RollingStockResults(List<RollingStockSummary> results, SearchCriteria criteria, RangeRequest range) {
+        this(results, criteria, range, null);
+    }
+
+    /**
+     * Creates a new {@code RollingStockResults} for ranked results.
+     *
+     * @param results the result items
+     * @param range   the result range
+     * @param scores  the scores by rolling stock {@code id}
+     */
+    public RollingStockResults(List<RollingStockSummary> results, SearchCriteria criteria, RangeRequest range,
+                               Map<ObjectId, Double> scores) {
 
         int size = results.size() > range.getSize()
                 ? range.getSize() : results.size();
 
-        this.results = results.subList(0, size);
+        List<RollingStockSummary> items = new ArrayList<RollingStockSummary>(results.subList(0, size));
+        if (range.isBackward()) {
+            Collections.reverse(items);
+        }
+
+        this.results = items;
         this.criteria = criteria;
 
         if (!isEmpty()) {
-            final RollingStock minRs = results.get(0);
-            final RollingStock maxRs = results.get(size - 1);
-
-            Object since, max;
-            if (range.getDirection().equals("desc")) {
-                since = safeGetProperty(maxRs, range.getSortProperty());
-                max = safeGetProperty(minRs, range.getSortProperty());
+            final RollingStockSummary first = items.get(0);
+            final RollingStockSummary last = items.get(size - 1);
+
+            String sortProperty = range.getSortProperty();
+            RangeCursor since = scores != null ?
+                    new RangeCursor(scores.get(last.getId()), last.getId()) :
+                    RangeCursor.of(last, sortProperty);
+            RangeCursor max = scores != null ?
+                    new RangeCursor(scores.get(first.getId()), first.getId()) :
+                    RangeCursor.of(first, sortProperty);
+
+            boolean hasMore = results.size() > range.getSize();
+            if (range.isBackward()) {
+                this.hasPrevious = hasMore;
+                this.hasNext = true;
             } else {
-                since = safeGetProperty(minRs, range.getSortProperty());
-                max = safeGetProperty(maxRs, range.getSortProperty());
+                this.hasPrevious = range.getSince() != null;
+                this.hasNext = hasMore;
             }
 
-            this.hasPrevious = range.getSince() != null;
-            this.hasNext = results.size() > range.getSize();
-
             this.range = new SearchRange(range.getSize(), range.getSort(), since, max);
         } else {
             this.range = null;
@@ -104,7 +137,7 @@ public class RollingStockResults implements PaginatedResults<RollingStock> {
     }
 
     @Override
-    public Iterable<RollingStock> getItems() {
+    public Iterable<RollingStockSummary> getItems() {
         return results;
     }
 
@@ -122,13 +155,4 @@ public class RollingStockResults implements PaginatedResults<RollingStock> {
     public boolean isEmpty() {
         return (results == null || results.size() == 0);
     }
-
-    protected Object safeGetProperty(Object bean, String name) {
-        try {
-            PropertyUtilsBean pb = BeanUtilsBean.getInstance().getPropertyUtils();
-            return pb.getProperty(bean, name);
-        } catch (Exception e) {
-            return null;
-        }
-    }
 }
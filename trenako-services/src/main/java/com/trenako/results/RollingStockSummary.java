@@ -0,0 +1,243 @@
+/*
+ * Copyright 2012 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.trenako.results;
+
+import java.util.Date;
+import java.util.Locale;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.bson.types.ObjectId;
+
+import com.trenako.entities.Brand;
+import com.trenako.entities.Railway;
+import com.trenako.entities.RollingStock;
+import com.trenako.entities.Scale;
+import com.trenako.mapping.LocalizedField;
+import com.trenako.mapping.WeakDbRef;
+
+/**
+ * It represents the read model for the rolling stock listings.
+ * <p>
+ * The summaries contain only the fields shown by the results and home pages, plus
+ * the fields used to sort the results. They are loaded from the {@code rollingStocks}
+ * collection with a field projection: the {@code description} contains only
+ * the default language and the user's language, while the {@code details},
+ * the {@code options}, the {@code tags} and the delivery information are never loaded.
+ * </p>
+ *
+ * @author Carlo Micieli
+ */
+public class RollingStockSummary {
+
+    private ObjectId id;
+    private String slug;
+    private WeakDbRef<Brand> brand;
+    private WeakDbRef<Railway> railway;
+    private WeakDbRef<Scale> scale;
+    private String itemNumber;
+    private LocalizedField<String> description;
+    private String era;
+    private String category;
+    private String powerMethod;
+    private Date lastModified;
+
+    // used by the mongodb mapping
+    RollingStockSummary() {
+    }
+
+    /**
+     * Creates a new {@code RollingStockSummary} for the provided rolling stock.
+     * <p>
+     * The summary description contains all the rolling stock languages.
+     * </p>
+     *
+     * @param rs the rolling stock
+     */
+    public RollingStockSummary(RollingStock rs) {
+        this(rs, null);
+    }
+
+    /**
+     * Creates a new {@code RollingStockSummary} for the provided rolling stock.
+     *
+     * @param rs     the rolling stock
+     * @param locale the user's {@code Locale}; all the languages if {@code null}
+     */
+    public RollingStockSummary(RollingStock rs, Locale locale) {
+        this.id = rs.getId();
+        this.slug = rs.getBrand() != null ? rs.getSlug() : null;
+        this.brand = rs.getBrand();
+        this.railway = rs.getRailway();
+        this.scale = rs.getScale();
+        this.itemNumber = rs.getItemNumber();
+        this.description = localize(rs.getDescription(), locale);
+        this.era = rs.getEra();
+        this.category = rs.getCategory();
+        this.powerMethod = rs.getPowerMethod();
+        this.lastModified = rs.getLastModified();
+    }
+
+    /**
+     * Returns the rolling stock {@code id}.
+     *
+     * @return the {@code id}
+     */
+    public ObjectId getId() {
+        return id;
+    }
+
+    /**
+     * Returns the rolling stock slug.
+     *
+     * @return the slug
+     */
+    public String getSlug() {
+        return slug;
+    }
+
+    /**
+     * Returns the rolling stock label.
+     *
+     * @return the label
+     */
+    public String getLabel() {
+        return brand.getLabel() + " " + itemNumber;
+    }
+
+    /**
+     * Returns the brand.
+     *
+     * @return the brand
+     */
+    public WeakDbRef<Brand> getBrand() {
+        return brand;
+    }
+
+    /**
+     * Returns the railway.
+     *
+     * @return the railway
+     */
+    public WeakDbRef<Railway> getRailway() {
+        return railway;
+    }
+
+    /**
+     * Returns the scale.
+     *
+     * @return the scale
+     */
+    public WeakDbRef<Scale> getScale() {
+        return scale;
+    }
+
+    /**
+     * Returns the item number.
+     *
+     * @return the item number
+     */
+    public String getItemNumber() {
+        return itemNumber;
+    }
+
+    /**
+     * Returns the description, in the default language and in the user's language.
+     *
+     * @return the description
+     */
+    public LocalizedField<String> getDescription() {
+        return description;
+    }
+
+    /**
+     * Returns the era.
+     *
+     * @return the era
+     */
+    public String getEra() {
+        return era;
+    }
+
+    /**
+     * Returns the category.
+     *
+     * @return the category
+     */
+    public String getCategory() {
+        return category;
+    }
+
+    /**
+     * Returns the power method.
+     *
+     * @return the power method
+     */
+    public String getPowerMethod() {
+        return powerMethod;
+    }
+
+    /**
+     * Returns the last modified timestamp.
+     *
+     * @return the timestamp
+     */
+    public Date getLastModified() {
+        return lastModified;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) return true;
+        if (!(obj instanceof RollingStockSummary)) return false;
+
+        RollingStockSummary other = (RollingStockSummary) obj;
+        return new EqualsBuilder()
+                .append(id == null ? slug : id, other.id == null ? other.slug : other.id)
+                .isEquals();
+    }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder(17, 37)
+                .append(id == null ? slug : id)
+                .toHashCode();
+    }
+
+    @Override
+    public String toString() {
+        return new StringBuilder()
+                .append("rollingStockSummary{id: ").append(id)
+                .append(", slug: ").append(slug)
+                .append("}")
+                .toString();
+    }
+
+    private static LocalizedField<String> localize(LocalizedField<String> field, Locale locale) {
+        if (field == null || locale == null) {
+            return field;
+        }
+
+        LocalizedField<String> value = new LocalizedField<>();
+        for (Locale lang : LocalizedField.locales(locale)) {
+            String text = field.get(lang);
+            if (text != null) {
+                value.put(lang, text);
+            }
+        }
+        return value;
+    }
+}
@@ -42,8 +42,8 @@ public final class SearchRange {
      *
      * @param pageSize the page size
      * @param sort     the sorting information
-     * @param since    the first item in the result set
-     * @param max      the last item in the result set
+     * @param since    the cursor for the next page
+     * @param max      the cursor for the previous page
      */
     public SearchRange(int pageSize, Sort sort, Object since, Object max) {
         this.pageSize = pageSize;
@@ -53,18 +53,24 @@ public final class SearchRange {
     }
 
     /**
-     * Returns the minimum {@code id} in the result page.
+     * Returns the cursor for the next page.
+     * <p>
+     * Its string value is the opaque token used as request parameter.
+     * </p>
      *
-     * @return the minimum {@code id}
+     * @return the cursor for the next page
      */
     public Object getSince() {
         return since;
     }
 
     /**
-     * Returns the maximum {@code id} in the result page.
+     * Returns the cursor for the previous page.
+     * <p>
+     * Its string value is the opaque token used as request parameter.
+     * </p>
      *
-     * @return the maximum {@code id}
+     * @return the cursor for the previous page
      */
     public Object getMax() {
         return max;
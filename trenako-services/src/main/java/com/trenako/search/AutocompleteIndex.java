@@ -0,0 +1,359 @@
+/*
+ * Copyright 2012 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.trenako.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.apache.commons.lang3.StringUtils;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBCursor;
+import com.mongodb.DBObject;
+import com.trenako.entities.Brand;
+import com.trenako.entities.Railway;
+import com.trenako.entities.RollingStock;
+import com.trenako.entities.Scale;
+import com.trenako.repositories.BrowseRepository;
+import com.trenako.search.PrefixIndex.Entry;
+
+/**
+ * It represents the in-memory prefix index for the autocomplete suggestions.
+ * <p>
+ * There is a separate index for every suggestion type: the brand, railway and scale
+ * names, and the rolling stock item numbers and UPC codes. The keys are normalized
+ * as the full-text search terms without the separators, therefore {@code "60-444"}
+ * and {@code "60444"} are the same key; every word in the names is a key as well,
+ * in order to suggest {@code "Ferrovie dello Stato"} for {@code "sta"}.
+ * </p>
+ * <p>
+ * The index is loaded in background at startup, and then it is updated
+ * by the mongodb event listeners every time an entity is saved and by the services
+ * every time an entity is removed.
+ * </p>
+ *
+ * @author Carlo Micieli
+ */
+@Component("autocompleteIndex")
+@ManagedResource(objectName = "trenako:type=Search,name=autocompleteIndex",
+        description = "The autocomplete prefix index")
+public class AutocompleteIndex {
+
+    private static final Logger log = LoggerFactory.getLogger("com.trenako.search");
+
+    /**
+     * The default max number of suggestions for each type.
+     */
+    public static final int DEFAULT_LIMIT = 10;
+
+    private final BrowseRepository repo;
+    private final MongoTemplate mongo;
+    private final Map<Suggestion.Type, PrefixIndex> indexes;
+
+    private volatile boolean ready = false;
+    private ThreadPoolTaskExecutor executor;
+
+    /**
+     * Creates a new {@code AutocompleteIndex}.
+     *
+     * @param repo  the repository for the reference data
+     * @param mongo the mongo template
+     */
+    @Autowired
+    public AutocompleteIndex(BrowseRepository repo, MongoTemplate mongo) {
+        this.repo = repo;
+        this.mongo = mongo;
+
+        Map<Suggestion.Type, PrefixIndex> indexes = new EnumMap<>(Suggestion.Type.class);
+        for (Suggestion.Type type : Suggestion.Type.values()) {
+            indexes.put(type, new PrefixIndex());
+        }
+        this.indexes = Collections.unmodifiableMap(indexes);
+    }
+
+    /**
+     * Loads the index in background.
+     */
+    @PostConstruct
+    public void start() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setThreadNamePrefix("autocomplete-");
+        executor.setDaemon(true);
+        executor.initialize();
+
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                load();
+            }
+        });
+    }
+
+    /**
+     * Stops the background loading.
+     */
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Returns the suggestions of the provided type for the text.
+     *
+     * @param text  the text typed by the user
+     * @param type  the suggestion type
+     * @param limit the max number of suggestions
+     * @return the suggestions, sorted by key
+     */
+    public List<Suggestion> suggest(String text, Suggestion.Type type, int limit) {
+        String prefix = key(text);
+        if (prefix.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return indexes.get(type).find(prefix, limit);
+    }
+
+    /**
+     * Returns the suggestions of every type for the text.
+     *
+     * @param text  the text typed by the user
+     * @param limit the max number of suggestions for each type
+     * @return the suggestions, grouped by type
+     */
+    public List<Suggestion> suggest(String text, int limit) {
+        List<Suggestion> suggestions = new ArrayList<>();
+        for (Suggestion.Type type : Suggestion.Type.values()) {
+            suggestions.addAll(suggest(text, type, limit));
+        }
+        return suggestions;
+    }
+
+    /**
+     * Indexes the provided brand, replacing its previous keys.
+     *
+     * @param brand the brand
+     */
+    public void index(Brand brand) {
+        indexes.get(Suggestion.Type.BRAND).put(brand.getId().toString(),
+                keys(brand.getName(), brand.getCompanyName()),
+                new Suggestion(Suggestion.Type.BRAND, brand.getSlug(), brand.getLabel()));
+    }
+
+    /**
+     * Indexes the provided railway, replacing its previous keys.
+     *
+     * @param railway the railway
+     */
+    public void index(Railway railway) {
+        indexes.get(Suggestion.Type.RAILWAY).put(railway.getId().toString(),
+                keys(railway.getName(), railway.getCompanyName()),
+                new Suggestion(Suggestion.Type.RAILWAY, railway.getSlug(), railway.getLabel()));
+    }
+
+    /**
+     * Indexes the provided scale, replacing its previous keys.
+     *
+     * @param scale the scale
+     */
+    public void index(Scale scale) {
+        indexes.get(Suggestion.Type.SCALE).put(scale.getId().toString(),
+                keys(scale.getName()),
+                new Suggestion(Suggestion.Type.SCALE, scale.getSlug(), scale.getLabel()));
+    }
+
+    /**
+     * Indexes the provided rolling stock, replacing its previous keys.
+     *
+     * @param rs the rolling stock
+     */
+    public void index(RollingStock rs) {
+        indexes.get(Suggestion.Type.ROLLING_STOCK).put(rs.getId().toString(),
+                codes(rs.getItemNumber(), rs.getUpcCode()),
+                new Suggestion(Suggestion.Type.ROLLING_STOCK, rs.getSlug(), rs.getLabel()));
+    }
+
+    /**
+     * Removes the provided entity from the index.
+     *
+     * @param type the suggestion type
+     * @param id   the entity {@code id}
+     */
+    public void remove(Suggestion.Type type, ObjectId id) {
+        indexes.get(type).remove(id.toString());
+    }
+
+    /**
+     * Loads the index again from the database.
+     */
+    @ManagedOperation(description = "Loads the index again from the database")
+    public void rebuild() {
+        load();
+    }
+
+    /**
+     * Checks whether the index loading is completed.
+     *
+     * @return {@code true} if the index is loaded; {@code false} otherwise
+     */
+    @ManagedAttribute(description = "The index loading is completed")
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Returns the number of keys in the index.
+     *
+     * @return the number of keys
+     */
+    @ManagedAttribute(description = "The number of keys")
+    public int getSize() {
+        int size = 0;
+        for (PrefixIndex index : indexes.values()) {
+            size += index.size();
+        }
+        return size;
+    }
+
+    void load() {
+        try {
+            List<Entry> brands = begin(Suggestion.Type.BRAND);
+            for (Brand brand : repo.getBrands()) {
+                PrefixIndex.addEntries(brands, brand.getId().toString(),
+                        keys(brand.getName(), brand.getCompanyName()),
+                        new Suggestion(Suggestion.Type.BRAND, brand.getSlug(), brand.getLabel()));
+            }
+            end(Suggestion.Type.BRAND, brands);
+
+            List<Entry> railways = begin(Suggestion.Type.RAILWAY);
+            for (Railway railway : repo.getRailways()) {
+                PrefixIndex.addEntries(railways, railway.getId().toString(),
+                        keys(railway.getName(), railway.getCompanyName()),
+                        new Suggestion(Suggestion.Type.RAILWAY, railway.getSlug(), railway.getLabel()));
+            }
+            end(Suggestion.Type.RAILWAY, railways);
+
+            List<Entry> scales = begin(Suggestion.Type.SCALE);
+            for (Scale scale : repo.getScales()) {
+                PrefixIndex.addEntries(scales, scale.getId().toString(),
+                        keys(scale.getName()),
+                        new Suggestion(Suggestion.Type.SCALE, scale.getSlug(), scale.getLabel()));
+            }
+            end(Suggestion.Type.SCALE, scales);
+
+            List<Entry> rollingStocks = begin(Suggestion.Type.ROLLING_STOCK);
+            loadRollingStocks(rollingStocks);
+            end(Suggestion.Type.ROLLING_STOCK, rollingStocks);
+
+            log.info("Autocomplete index loaded: {} keys", getSize());
+        } catch (DataAccessException ex) {
+            log.warn("Unable to load the autocomplete index", ex);
+        }
+        ready = true;
+    }
+
+    // only the fields for the suggestions are loaded
+    private void loadRollingStocks(List<Entry> entries) {
+        BasicDBObject fields = new BasicDBObject("brand", 1)
+                .append("itemNumber", 1)
+                .append("upcCode", 1)
+                .append("slug", 1);
+
+        DBCursor cursor = mongo.getCollection(mongo.getCollectionName(RollingStock.class))
+                .find(new BasicDBObject(), fields);
+        try {
+            for (DBObject dbo : cursor) {
+                DBObject brand = (DBObject) dbo.get("brand");
+                String itemNumber = (String) dbo.get("itemNumber");
+                if (brand == null || itemNumber == null) {
+                    continue;
+                }
+
+                String label = brand.get("label") + " " + itemNumber;
+                PrefixIndex.addEntries(entries, dbo.get("_id").toString(),
+                        codes(itemNumber, (String) dbo.get("upcCode")),
+                        new Suggestion(Suggestion.Type.ROLLING_STOCK, (String) dbo.get("slug"), label));
+            }
+        } finally {
+            cursor.close();
+        }
+    }
+
+    private List<Entry> begin(Suggestion.Type type) {
+        indexes.get(type).beginLoad();
+        return new ArrayList<>();
+    }
+
+    private void end(Suggestion.Type type, List<Entry> entries) {
+        indexes.get(type).endLoad(entries);
+    }
+
+    /**
+     * Returns the normalized key for the provided text.
+     *
+     * @param text the text
+     * @return the key
+     */
+    static String key(String text) {
+        return StringUtils.join(TextAnalyzer.terms(text), "");
+    }
+
+    // the names are also suggested starting from every word
+    static Set<String> keys(String... names) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (String name : names) {
+            List<String> terms = TextAnalyzer.terms(name);
+            for (int i = 0; i < terms.size(); i++) {
+                keys.add(StringUtils.join(terms.subList(i, terms.size()), ""));
+            }
+        }
+        return keys;
+    }
+
+    // the codes are only suggested from the start
+    static Set<String> codes(String... codes) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (String code : codes) {
+            String key = key(code);
+            if (!key.isEmpty()) {
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+}
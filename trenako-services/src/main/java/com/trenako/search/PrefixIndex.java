@@ -0,0 +1,192 @@
+/*
+ * Copyright 2012 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.trenako.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A prefix index for the autocomplete suggestions.
+ * <p>
+ * The keys are stored in a sorted array, the lookups are a binary search for the first
+ * key with the provided prefix followed by a scan of the next keys. The lookups never lock,
+ * while the changes are copy-on-write under the index lock: they are expected to be
+ * much less frequent than the lookups.
+ * </p>
+ *
+ * @author Carlo Micieli
+ */
+final class PrefixIndex {
+
+    private volatile Entry[] entries = new Entry[0];
+
+    // the entities changed while the index is loading
+    private Set<String> touched;
+
+    /**
+     * Returns the suggestions for the keys starting with the provided prefix.
+     *
+     * @param prefix the normalized prefix
+     * @param limit  the max number of suggestions
+     * @return the suggestions, sorted by key
+     */
+    List<Suggestion> find(String prefix, int limit) {
+        Entry[] entries = this.entries;
+
+        int i = Arrays.binarySearch(entries, new Entry(prefix, "", null));
+        if (i < 0) {
+            i = -(i + 1);
+        }
+
+        // the same entity can match more than one key
+        Set<Suggestion> results = new LinkedHashSet<>();
+        for (; i < entries.length && results.size() < limit; i++) {
+            if (!entries[i].key.startsWith(prefix)) {
+                break;
+            }
+            results.add(entries[i].value);
+        }
+        return new ArrayList<>(results);
+    }
+
+    /**
+     * Adds the keys for the provided entity, replacing its previous keys.
+     *
+     * @param id    the entity id
+     * @param keys  the normalized keys
+     * @param value the suggestion
+     */
+    synchronized void put(String id, Collection<String> keys, Suggestion value) {
+        List<Entry> list = without(entries, id);
+        for (String key : keys) {
+            Entry entry = new Entry(key, id, value);
+            int i = Collections.binarySearch(list, entry);
+            list.add(i < 0 ? -(i + 1) : i, entry);
+        }
+        entries = list.toArray(new Entry[list.size()]);
+        touch(id);
+    }
+
+    /**
+     * Removes the keys for the provided entity.
+     *
+     * @param id the entity id
+     */
+    synchronized void remove(String id) {
+        List<Entry> list = without(entries, id);
+        entries = list.toArray(new Entry[list.size()]);
+        touch(id);
+    }
+
+    /**
+     * Starts loading the index; the entities changed from now on
+     * will not be replaced by the loaded values.
+     */
+    synchronized void beginLoad() {
+        touched = new HashSet<>();
+    }
+
+    /**
+     * Completes the index loading.
+     *
+     * @param loaded the loaded entries
+     */
+    synchronized void endLoad(List<Entry> loaded) {
+        List<Entry> list = new ArrayList<>(loaded.size() + entries.length);
+        for (Entry e : loaded) {
+            if (!touched.contains(e.id)) {
+                list.add(e);
+            }
+        }
+        // the entities changed during the loading keep their current entries
+        for (Entry e : entries) {
+            if (touched.contains(e.id)) {
+                list.add(e);
+            }
+        }
+        touched = null;
+
+        Entry[] sorted = list.toArray(new Entry[list.size()]);
+        Arrays.sort(sorted);
+        entries = sorted;
+    }
+
+    /**
+     * Returns the number of keys.
+     *
+     * @return the number of keys
+     */
+    int size() {
+        return entries.length;
+    }
+
+    /**
+     * Adds the entries for the provided entity to the list.
+     *
+     * @param entries the list of entries
+     * @param id      the entity id
+     * @param keys    the normalized keys
+     * @param value   the suggestion
+     */
+    static void addEntries(List<Entry> entries, String id, Collection<String> keys, Suggestion value) {
+        for (String key : keys) {
+            entries.add(new Entry(key, id, value));
+        }
+    }
+
+    private void touch(String id) {
+        if (touched != null) {
+            touched.add(id);
+        }
+    }
+
+    private static List<Entry> without(Entry[] entries, String id) {
+        List<Entry> list = new ArrayList<>(entries.length + 4);
+        for (Entry e : entries) {
+            if (!e.id.equals(id)) {
+                list.add(e);
+            }
+        }
+        return list;
+    }
+
+    /**
+     * An index entry, sorted by key and entity id.
+     */
+    static final class Entry implements Comparable<Entry> {
+        private final String key;
+        private final String id;
+        private final Suggestion value;
+
+        Entry(String key, String id, Suggestion value) {
+            this.key = key;
+            this.id = id;
+            this.value = value;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            int cmp = key.compareTo(other.key);
+            return cmp != 0 ? cmp : id.compareTo(other.id);
+        }
+    }
+}
@@ -0,0 +1,629 @@
+/*
+ * Copyright 2012 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.trenako.search;
+
+import static org.springframework.data.mongodb.core.query.Criteria.*;
+import static org.springframework.data.mongodb.core.query.Query.*;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.apache.commons.lang3.StringUtils;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBCursor;
+import com.mongodb.DBObject;
+import com.trenako.AppGlobals;
+import com.trenako.entities.RollingStock;
+import com.trenako.mapping.LocalizedField;
+
+/**
+ * It represents the in-process full-text index for the rolling stocks.
+ * <p>
+ * The index is an inverted index, from the terms to the rolling stocks, with a separate
+ * set of terms for every language: the localized {@code description} and {@code details}
+ * are indexed under their own language, while the {@code itemNumber} and the {@code tags}
+ * are indexed for all the languages. The searches look for the terms in the user's language,
+ * in the default language and in the language neutral fields; every term must be found,
+ * and the last one is also matched as a prefix.
+ * </p>
+ * <p>
+ * The hits are ranked by the sum of the field weights for the matching terms,
+ * multiplied by the inverse document frequency for each term.
+ * </p>
+ * <p>
+ * The index is updated every time a rolling stock is saved or removed, and it is
+ * periodically saved as a snapshot on disk. At startup the snapshot is loaded in background
+ * and only the rolling stocks changed after the snapshot are indexed again.
+ * </p>
+ *
+ * @author Carlo Micieli
+ */
+@Component("rollingStockTextIndex")
+@ManagedResource(objectName = "trenako:type=Search,name=rollingStockTextIndex",
+        description = "The rolling stock full-text index")
+public class RollingStockTextIndex {
+
+    private static final Logger log = LoggerFactory.getLogger("com.trenako.search");
+
+    /**
+     * The language for the language neutral fields.
+     */
+    static final String NEUTRAL = "";
+
+    static final int ITEM_NUMBER_WEIGHT = 4;
+    static final int TAGS_WEIGHT = 3;
+    static final int DESCRIPTION_WEIGHT = 2;
+    static final int DETAILS_WEIGHT = 1;
+
+    private static final double PREFIX_PENALTY = 0.5;
+    private static final int MAX_PREFIX_TERMS = 50;
+    private static final int BATCH_SIZE = 500;
+
+    private static final int SNAPSHOT_VERSION = 1;
+    // the saves which were in progress while the snapshot was taken
+    private static final long SNAPSHOT_MARGIN = 60000;
+
+    private final MongoTemplate mongo;
+    private final File snapshotFile;
+    private final long snapshotInterval;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<ObjectId, Map<String, Map<String, Integer>>> documents = new HashMap<>();
+    private final Map<String, NavigableMap<String, Map<ObjectId, Integer>>> postings = new HashMap<>();
+
+    private final AtomicLong changes = new AtomicLong();
+    private volatile boolean ready = false;
+    private volatile long lastSnapshot = 0;
+
+    private ThreadPoolTaskScheduler scheduler;
+
+    /**
+     * Creates a new {@code RollingStockTextIndex}.
+     *
+     * @param mongo            the mongo template
+     * @param snapshotFile     the snapshot file name
+     * @param snapshotInterval the interval between two snapshots in milliseconds
+     */
+    @Autowired
+    public RollingStockTextIndex(MongoTemplate mongo,
+                                 @Value("${search.index.snapshotFile:}") String snapshotFile,
+                                 @Value("${search.index.snapshotInterval:300000}") long snapshotInterval) {
+        this(mongo, StringUtils.isBlank(snapshotFile) ?
+                new File(System.getProperty("java.io.tmpdir"), "trenako-search.idx") :
+                new File(snapshotFile),
+                snapshotInterval);
+    }
+
+    RollingStockTextIndex(MongoTemplate mongo, File snapshotFile, long snapshotInterval) {
+        Assert.isTrue(snapshotInterval > 0, "Snapshot interval must be positive");
+
+        this.mongo = mongo;
+        this.snapshotFile = snapshotFile;
+        this.snapshotInterval = snapshotInterval;
+    }
+
+    /**
+     * Loads the index in background and schedules the snapshots.
+     */
+    @PostConstruct
+    public void start() {
+        scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("search-index-");
+        scheduler.setDaemon(true);
+        scheduler.initialize();
+
+        scheduler.execute(new Runnable() {
+            @Override
+            public void run() {
+                load();
+            }
+        });
+        scheduler.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                if (ready && changes.get() > 0) {
+                    snapshot();
+                }
+            }
+        }, new Date(System.currentTimeMillis() + snapshotInterval), snapshotInterval);
+    }
+
+    /**
+     * Stops the background tasks, saving the last changes.
+     */
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+        if (ready && changes.get() > 0) {
+            snapshot();
+        }
+    }
+
+    /**
+     * Indexes the provided rolling stock, replacing its previous terms.
+     *
+     * @param rs the rolling stock
+     */
+    public void index(RollingStock rs) {
+        Assert.notNull(rs.getId(), "Rolling stock id is required");
+
+        Map<String, Map<String, Integer>> terms = analyze(rs);
+        lock.writeLock().lock();
+        try {
+            removeDocument(rs.getId());
+            addDocument(rs.getId(), terms);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        changes.incrementAndGet();
+    }
+
+    /**
+     * Removes the provided rolling stock from the index.
+     *
+     * @param id the rolling stock {@code id}
+     */
+    public void remove(ObjectId id) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        changes.incrementAndGet();
+    }
+
+    /**
+     * Searches the rolling stocks for the provided text.
+     *
+     * @param text   the search text
+     * @param locale the user's {@code Locale}
+     * @return all the hits, ordered by descending score
+     */
+    public List<TextHit> search(String text, Locale locale) {
+        List<String> terms = TextAnalyzer.terms(text);
+        if (terms.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Set<String> languages = new LinkedHashSet<>();
+        languages.add(NEUTRAL);
+        languages.add(AppGlobals.DEFAULT_LANGUAGE);
+        if (locale != null) {
+            languages.add(locale.getLanguage());
+        }
+
+        Map<ObjectId, Double> scores = null;
+        lock.readLock().lock();
+        try {
+            int count = documents.size();
+            for (int i = 0; i < terms.size(); i++) {
+                boolean prefix = i == terms.size() - 1;
+                Map<ObjectId, Double> termScores = score(terms.get(i), prefix, languages, count);
+
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    retainAndAdd(scores, termScores);
+                }
+
+                if (scores.isEmpty()) {
+                    return Collections.emptyList();
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<TextHit> hits = new ArrayList<>(scores.size());
+        for (Map.Entry<ObjectId, Double> e : scores.entrySet()) {
+            hits.add(new TextHit(e.getKey(), e.getValue()));
+        }
+        Collections.sort(hits);
+        return hits;
+    }
+
+    /**
+     * Rebuilds the index from the {@code rollingStocks} collection.
+     */
+    @ManagedOperation(description = "Rebuilds the index from the rolling stocks")
+    public void rebuild() {
+        ready = false;
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            postings.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        synchronize(0);
+        ready = true;
+    }
+
+    /**
+     * Saves the index snapshot on disk.
+     */
+    @ManagedOperation(description = "Saves the index snapshot on disk")
+    public void snapshot() {
+        long time = System.currentTimeMillis();
+        long saved = changes.get();
+
+        Map<ObjectId, Map<String, Map<String, Integer>>> copy;
+        lock.readLock().lock();
+        try {
+            // the terms maps are never changed once indexed
+            copy = new HashMap<>(documents);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        try {
+            writeSnapshot(copy, time);
+            changes.addAndGet(-saved);
+            lastSnapshot = time;
+            log.info("Search index snapshot saved with {} rolling stocks", copy.size());
+        } catch (IOException ex) {
+            log.warn("Unable to save the search index snapshot", ex);
+        }
+    }
+
+    @ManagedAttribute(description = "Whether the index is loaded")
+    public boolean isReady() {
+        return ready;
+    }
+
+    @ManagedAttribute(description = "The number of indexed rolling stocks")
+    public int getDocuments() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @ManagedAttribute(description = "The number of indexed terms")
+    public int getTerms() {
+        lock.readLock().lock();
+        try {
+            int terms = 0;
+            for (NavigableMap<String, Map<ObjectId, Integer>> p : postings.values()) {
+                terms += p.size();
+            }
+            return terms;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @ManagedAttribute(description = "The changes after the last snapshot")
+    public long getPendingChanges() {
+        return changes.get();
+    }
+
+    @ManagedAttribute(description = "The last snapshot time")
+    public Date getLastSnapshot() {
+        return lastSnapshot > 0 ? new Date(lastSnapshot) : null;
+    }
+
+    void load() {
+        long since = 0;
+        if (snapshotFile.exists()) {
+            try {
+                since = readSnapshot() - SNAPSHOT_MARGIN;
+            } catch (IOException ex) {
+                log.warn("Unable to load the search index snapshot", ex);
+                since = 0;
+            }
+        }
+
+        try {
+            synchronize(since);
+        } catch (DataAccessException ex) {
+            log.warn("Unable to load the rolling stocks in the search index", ex);
+        }
+        ready = true;
+    }
+
+    // indexes the rolling stocks changed after the provided time,
+    // and removes the ones no longer in the database
+    private void synchronize(long since) {
+        Set<ObjectId> missing;
+        lock.readLock().lock();
+        try {
+            missing = new HashSet<>(documents.keySet());
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<ObjectId> changed = new ArrayList<>();
+        DBCursor cursor = mongo.getCollection(mongo.getCollectionName(RollingStock.class))
+                .find(new BasicDBObject(), new BasicDBObject("lastModified", 1));
+        try {
+            for (DBObject dbo : cursor) {
+                ObjectId id = (ObjectId) dbo.get("_id");
+                Date lastModified = (Date) dbo.get("lastModified");
+
+                boolean indexed = missing.remove(id);
+                if (!indexed || lastModified == null || lastModified.getTime() > since) {
+                    changed.add(id);
+                }
+            }
+        } finally {
+            cursor.close();
+        }
+
+        for (ObjectId id : missing) {
+            remove(id);
+        }
+
+        for (int i = 0; i < changed.size(); i += BATCH_SIZE) {
+            List<ObjectId> batch = changed.subList(i, Math.min(i + BATCH_SIZE, changed.size()));
+            for (RollingStock rs : mongo.find(query(where("_id").in(batch)), RollingStock.class)) {
+                index(rs);
+            }
+        }
+
+        log.info("Search index loaded: {} rolling stocks indexed, {} removed", changed.size(), missing.size());
+    }
+
+    private Map<ObjectId, Double> score(String term, boolean prefix, Set<String> languages, int count) {
+        Map<ObjectId, Double> scores = new HashMap<>();
+        for (String lang : languages) {
+            NavigableMap<String, Map<ObjectId, Integer>> p = postings.get(lang);
+            if (p == null) {
+                continue;
+            }
+
+            if (!prefix) {
+                Map<ObjectId, Integer> docs = p.get(term);
+                if (docs != null) {
+                    addScores(scores, docs, count, 1.0);
+                }
+                continue;
+            }
+
+            int matches = 0;
+            for (Map.Entry<String, Map<ObjectId, Integer>> e : p.tailMap(term, true).entrySet()) {
+                if (!e.getKey().startsWith(term) || matches++ == MAX_PREFIX_TERMS) {
+                    break;
+                }
+                addScores(scores, e.getValue(), count, e.getKey().equals(term) ? 1.0 : PREFIX_PENALTY);
+            }
+        }
+        return scores;
+    }
+
+    private static void addScores(Map<ObjectId, Double> scores, Map<ObjectId, Integer> docs, int count, double boost) {
+        double idf = Math.log(1.0 + (double) count / docs.size());
+        for (Map.Entry<ObjectId, Integer> e : docs.entrySet()) {
+            Double score = scores.get(e.getKey());
+            double s = e.getValue() * idf * boost;
+            scores.put(e.getKey(), score == null ? s : score + s);
+        }
+    }
+
+    private static void retainAndAdd(Map<ObjectId, Double> scores, Map<ObjectId, Double> termScores) {
+        Iterator<Map.Entry<ObjectId, Double>> it = scores.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<ObjectId, Double> e = it.next();
+            Double s = termScores.get(e.getKey());
+            if (s == null) {
+                it.remove();
+            } else {
+                e.setValue(e.getValue() + s);
+            }
+        }
+    }
+
+    static Map<String, Map<String, Integer>> analyze(RollingStock rs) {
+        Map<String, Map<String, Integer>> terms = new HashMap<>();
+
+        String itemNumber = rs.getItemNumber();
+        addTerms(terms, NEUTRAL, itemNumber, ITEM_NUMBER_WEIGHT);
+        String compact = TextAnalyzer.normalize(itemNumber).replace("-", "");
+        if (!compact.isEmpty()) {
+            addTerm(terms, NEUTRAL, compact, ITEM_NUMBER_WEIGHT);
+        }
+
+        if (rs.getTags() != null) {
+            for (String tag : rs.getTags()) {
+                addTerms(terms, NEUTRAL, tag, TAGS_WEIGHT);
+            }
+        }
+
+        addLocalizedTerms(terms, rs.getDescription(), DESCRIPTION_WEIGHT);
+        addLocalizedTerms(terms, rs.getDetails(), DETAILS_WEIGHT);
+        return terms;
+    }
+
+    private static void addLocalizedTerms(Map<String, Map<String, Integer>> terms,
+                                          LocalizedField<String> field, int weight) {
+        if (field == null) {
+            return;
+        }
+        for (Map.Entry<String, String> e : field.entrySet()) {
+            addTerms(terms, e.getKey(), e.getValue(), weight);
+        }
+    }
+
+    private static void addTerms(Map<String, Map<String, Integer>> terms, String lang, String text, int weight) {
+        for (String term : TextAnalyzer.terms(text)) {
+            addTerm(terms, lang, term, weight);
+        }
+    }
+
+    private static void addTerm(Map<String, Map<String, Integer>> terms, String lang, String term, int weight) {
+        Map<String, Integer> langTerms = terms.get(lang);
+        if (langTerms == null) {
+            langTerms = new HashMap<>();
+            terms.put(lang, langTerms);
+        }
+        Integer w = langTerms.get(term);
+        langTerms.put(term, w == null ? weight : w + weight);
+    }
+
+    // must be called with the write lock
+    private void addDocument(ObjectId id, Map<String, Map<String, Integer>> terms) {
+        documents.put(id, terms);
+        for (Map.Entry<String, Map<String, Integer>> lang : terms.entrySet()) {
+            NavigableMap<String, Map<ObjectId, Integer>> p = postings.get(lang.getKey());
+            if (p == null) {
+                p = new TreeMap<>();
+                postings.put(lang.getKey(), p);
+            }
+
+            for (Map.Entry<String, Integer> term : lang.getValue().entrySet()) {
+                Map<ObjectId, Integer> docs = p.get(term.getKey());
+                if (docs == null) {
+                    docs = new HashMap<>();
+                    p.put(term.getKey(), docs);
+                }
+                docs.put(id, term.getValue());
+            }
+        }
+    }
+
+    // must be called with the write lock
+    private void removeDocument(ObjectId id) {
+        Map<String, Map<String, Integer>> terms = documents.remove(id);
+        if (terms == null) {
+            return;
+        }
+
+        for (Map.Entry<String, Map<String, Integer>> lang : terms.entrySet()) {
+            NavigableMap<String, Map<ObjectId, Integer>> p = postings.get(lang.getKey());
+            for (String term : lang.getValue().keySet()) {
+                Map<ObjectId, Integer> docs = p.get(term);
+                docs.remove(id);
+                if (docs.isEmpty()) {
+                    p.remove(term);
+                }
+            }
+        }
+    }
+
+    private void writeSnapshot(Map<ObjectId, Map<String, Map<String, Integer>>> docs, long time) throws IOException {
+        File tmp = new File(snapshotFile.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new GZIPOutputStream(new FileOutputStream(tmp))))) {
+
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeLong(time);
+            out.writeInt(docs.size());
+            for (Map.Entry<ObjectId, Map<String, Map<String, Integer>>> doc : docs.entrySet()) {
+                out.writeUTF(doc.getKey().toString());
+                out.writeInt(doc.getValue().size());
+                for (Map.Entry<String, Map<String, Integer>> lang : doc.getValue().entrySet()) {
+                    out.writeUTF(lang.getKey());
+                    out.writeInt(lang.getValue().size());
+                    for (Map.Entry<String, Integer> term : lang.getValue().entrySet()) {
+                        out.writeUTF(term.getKey());
+                        out.writeInt(term.getValue());
+                    }
+                }
+            }
+        }
+
+        Files.move(tmp.toPath(), snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    // returns the snapshot time
+    private long readSnapshot() throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(new FileInputStream(snapshotFile))))) {
+
+            if (in.readInt() != SNAPSHOT_VERSION) {
+                throw new IOException("Unsupported search index snapshot version");
+            }
+
+            long time = in.readLong();
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                ObjectId id = new ObjectId(in.readUTF());
+                Map<String, Map<String, Integer>> terms = new HashMap<>();
+                int langs = in.readInt();
+                for (int j = 0; j < langs; j++) {
+                    String lang = in.readUTF();
+                    int size = in.readInt();
+                    Map<String, Integer> langTerms = new HashMap<>(size * 2);
+                    for (int k = 0; k < size; k++) {
+                        langTerms.put(in.readUTF(), in.readInt());
+                    }
+                    terms.put(lang, langTerms);
+                }
+
+                lock.writeLock().lock();
+                try {
+                    removeDocument(id);
+                    addDocument(id, terms);
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+
+            lastSnapshot = time;
+            return time;
+        }
+    }
+}
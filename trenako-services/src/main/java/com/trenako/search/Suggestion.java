@@ -0,0 +1,131 @@
+/*
+ * Copyright 2012 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.trenako.search;
+
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+
+/**
+ * It represents an autocomplete suggestion.
+ *
+ * @author Carlo Micieli
+ */
+public final class Suggestion {
+
+    /**
+     * The suggested entity types.
+     */
+    public enum Type {
+        BRAND, RAILWAY, SCALE, ROLLING_STOCK;
+
+        /**
+         * Returns the key for this suggestion type.
+         *
+         * @return the key
+         */
+        public String key() {
+            return name().replace("_", "").toLowerCase();
+        }
+
+        /**
+         * Returns the suggestion type for the provided key.
+         *
+         * @param key the type key
+         * @return the suggestion type if found; {@code null} otherwise
+         */
+        public static Type parse(String key) {
+            for (Type type : values()) {
+                if (type.key().equals(key)) {
+                    return type;
+                }
+            }
+            return null;
+        }
+    }
+
+    private final Type type;
+    private final String slug;
+    private final String label;
+
+    /**
+     * Creates a new {@code Suggestion}.
+     *
+     * @param type  the entity type
+     * @param slug  the entity slug
+     * @param label the entity label
+     */
+    public Suggestion(Type type, String slug, String label) {
+        this.type = type;
+        this.slug = slug;
+        this.label = label;
+    }
+
+    /**
+     * Returns the suggested entity type.
+     *
+     * @return the type
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Returns the suggested entity slug.
+     *
+     * @return the slug
+     */
+    public String getSlug() {
+        return slug;
+    }
+
+    /**
+     * Returns the suggested entity label.
+     *
+     * @return the label
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) return true;
+        if (!(obj instanceof Suggestion)) return false;
+
+        Suggestion other = (Suggestion) obj;
+        return this.type == other.type &&
+                this.slug.equals(other.slug) &&
+                this.label.equals(other.label);
+    }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder(17, 37)
+                .append(type)
+                .append(slug)
+                .append(label)
+                .toHashCode();
+    }
+
+    @Override
+    public String toString() {
+        return new StringBuilder()
+                .append("suggestion{type: ").append(type.key())
+                .append(", slug: ").append(slug)
+                .append(", label: ").append(label)
+                .append("}")
+                .toString();
+    }
+}
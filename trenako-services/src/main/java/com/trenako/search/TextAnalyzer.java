@@ -0,0 +1,78 @@
+/*
+ * Copyright 2012 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.trenako.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * It represents the text analyzer for the full-text search.
+ * <p>
+ * The text is split in terms on every character which is not a letter or a digit;
+ * the terms are converted to lower case and the diacritical marks are removed
+ * (ie {@code "Rhätische Bahn"} is analyzed as {@code ["rhatische", "bahn"]}).
+ * </p>
+ *
+ * @author Carlo Micieli
+ */
+public final class TextAnalyzer {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{InCombiningDiacriticalMarks}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private TextAnalyzer() {
+    }
+
+    /**
+     * Returns the search terms for the provided text.
+     *
+     * @param text the text
+     * @return the terms list
+     */
+    public static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        if (StringUtils.isBlank(text)) {
+            return terms;
+        }
+
+        String s = Normalizer.normalize(text, Normalizer.Form.NFD);
+        s = DIACRITICS.matcher(s).replaceAll("").toLowerCase(Locale.ENGLISH);
+        for (String term : SEPARATORS.split(s)) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Returns the normalized form for the provided text.
+     * <p>
+     * The normalized form is the dash separated list of the text terms.
+     * </p>
+     *
+     * @param text the text
+     * @return the normalized text
+     */
+    public static String normalize(String text) {
+        return StringUtils.join(terms(text), '-');
+    }
+}
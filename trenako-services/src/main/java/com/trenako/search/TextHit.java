@@ -0,0 +1,92 @@
+/*
+ * Copyright 2012 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.trenako.search;
+
+import org.bson.types.ObjectId;
+
+/**
+ * It represents a full-text search hit.
+ * <p>
+ * The hits are ordered by descending score; the hits with the same score
+ * are ordered by descending rolling stock {@code id}.
+ * </p>
+ *
+ * @author Carlo Micieli
+ */
+public final class TextHit implements Comparable<TextHit> {
+
+    private final ObjectId id;
+    private final double score;
+
+    /**
+     * Creates a new {@code TextHit}.
+     *
+     * @param id    the rolling stock {@code id}
+     * @param score the score
+     */
+    public TextHit(ObjectId id, double score) {
+        this.id = id;
+        this.score = score;
+    }
+
+    /**
+     * Returns the rolling stock {@code id}.
+     *
+     * @return the {@code id}
+     */
+    public ObjectId getId() {
+        return id;
+    }
+
+    /**
+     * Returns the score.
+     *
+     * @return the score
+     */
+    public double getScore() {
+        return score;
+    }
+
+    @Override
+    public int compareTo(TextHit other) {
+        int cmp = Double.compare(other.score, this.score);
+        if (cmp != 0) {
+            return cmp;
+        }
+        return other.id.compareTo(this.id);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) return true;
+        if (!(obj instanceof TextHit)) return false;
+
+        TextHit other = (TextHit) obj;
+        return this.id.equals(other.id) &&
+                Double.compare(this.score, other.score) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        long bits = Double.doubleToLongBits(score);
+        return 31 * id.hashCode() + (int) (bits ^ (bits >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        return id + ":" + score;
+    }
+}
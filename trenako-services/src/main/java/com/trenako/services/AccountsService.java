@@ -15,6 +15,9 @@
  */
 package com.trenako.services;
 
+import java.util.Collection;
+import java.util.Map;
+
 import org.bson.types.ObjectId;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -30,6 +33,7 @@ import com.trenako.entities.Account;
  * <li>finds the {@code Account} by id;</li>
  * <li>finds the {@code Account} by email address;</li>
  * <li>finds the {@code Account} by slug (unique, URL friendly value);</li>
+ * <li>finds the {@code Account}s for a list of slugs;</li>
  * <li>saves/removes an {@code Account}.</li>
  * </ul>
  * </p>
@@ -48,6 +52,22 @@ public interface AccountsService {
      */
     Page<Account> findAll(Pageable pageable);
 
+    /**
+     * Returns the {@code Account} list.
+     * <p>
+     * The {@code since} and {@code max} cursors are the account {@code id}s at the
+     * boundaries of the current page: moving to the next (or previous) page with them
+     * avoids skipping all the previous accounts. The total number of accounts
+     * is cached for a short time, therefore it can be slightly out of date.
+     * </p>
+     *
+     * @param pageable the paging information
+     * @param since    the last account {@code id} in the previous page
+     * @param max      the first account {@code id} in the next page
+     * @return the {@code Account} list
+     */
+    Page<Account> findAll(Pageable pageable, ObjectId since, ObjectId max);
+
     /**
      * Finds the {@link Account} with the provided id.
      *
@@ -73,6 +93,19 @@ public interface AccountsService {
      */
     Account findBySlug(String slug);
 
+    /**
+     * Finds the {@link Account}s with the provided slugs.
+     * <p>
+     * The accounts are loaded with one query, and they only include the
+     * fields needed to display an user (slug, display name and email address).
+     * The slugs without a matching {@code Account} are not included in the results.
+     * </p>
+     *
+     * @param slugs the user slugs
+     * @return the {@code Account}s indexed by slug
+     */
+    Map<String, Account> findBySlugs(Collection<String> slugs);
+
     /**
      * This method will update only roles and flag for a given account.
      *
@@ -15,11 +15,20 @@
  */
 package com.trenako.services;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
 
 import com.trenako.entities.Account;
 import com.trenako.repositories.AccountsRepository;
@@ -33,10 +42,23 @@ import com.trenako.repositories.AccountsRepository;
 public class AccountsServiceImpl implements AccountsService {
 
     private final AccountsRepository repo;
+    private final long countTimeToLive;
+
+    private volatile long count;
+    private volatile long countExpiration;
 
+    /**
+     * Creates a new {@code AccountsServiceImpl}.
+     *
+     * @param repo            the accounts repository
+     * @param countTimeToLive the time, in milliseconds, the total number of accounts is cached
+     */
     @Autowired
-    public AccountsServiceImpl(AccountsRepository repo) {
+    public AccountsServiceImpl(AccountsRepository repo,
+                               @Value("${admin.paging.countTimeToLive:30000}") long countTimeToLive) {
+        Assert.isTrue(countTimeToLive >= 0, "Count time to live must be non negative");
         this.repo = repo;
+        this.countTimeToLive = countTimeToLive;
     }
 
     @Override
@@ -54,14 +76,29 @@ public class AccountsServiceImpl implements AccountsService {
         return repo.findBySlug(slug);
     }
 
+    @Override
+    public Map<String, Account> findBySlugs(Collection<String> slugs) {
+        if (slugs == null || slugs.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        Map<String, Account> accounts = new HashMap<>();
+        for (Account account : repo.findBySlugs(slugs)) {
+            accounts.put(account.getSlug(), account);
+        }
+        return accounts;
+    }
+
     @Override
     public void save(Account account) {
         repo.save(account);
+        expireCount();
     }
 
     @Override
     public void remove(Account account) {
         repo.delete(account);
+        expireCount();
     }
 
     @Override
@@ -71,6 +108,25 @@ public class AccountsServiceImpl implements AccountsService {
 
     @Override
     public Page<Account> findAll(Pageable pageable) {
-        return repo.findAll(pageable);
+        return findAll(pageable, null, null);
+    }
+
+    @Override
+    public Page<Account> findAll(Pageable pageable, ObjectId since, ObjectId max) {
+        List<Account> accounts = repo.findPage(pageable, since, max);
+        return new PageImpl<>(accounts, pageable, count());
+    }
+
+    private long count() {
+        long now = System.currentTimeMillis();
+        if (now >= countExpiration) {
+            count = repo.count();
+            countExpiration = now + countTimeToLive;
+        }
+        return count;
+    }
+
+    private void expireCount() {
+        countExpiration = 0;
     }
 }
@@ -24,8 +24,11 @@ import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Sort.Direction;
 import org.springframework.stereotype.Service;
 
+import com.trenako.cache.ReferenceDataCache;
 import com.trenako.entities.Brand;
 import com.trenako.repositories.BrandsRepository;
+import com.trenako.search.AutocompleteIndex;
+import com.trenako.search.Suggestion;
 
 /**
  * A concrete implementation for the brands service for mongodb.
@@ -37,10 +40,14 @@ public class BrandsServiceImpl implements BrandsService {
 
     private final Sort NAME_SORT = new Sort(Direction.ASC, "name");
     private BrandsRepository repo;
+    private ReferenceDataCache cache;
+    private AutocompleteIndex autocomplete;
 
     @Autowired
-    public BrandsServiceImpl(BrandsRepository repo) {
+    public BrandsServiceImpl(BrandsRepository repo, ReferenceDataCache cache, AutocompleteIndex autocomplete) {
         this.repo = repo;
+        this.cache = cache;
+        this.autocomplete = autocomplete;
     }
 
     @Override
@@ -70,6 +77,9 @@ public class BrandsServiceImpl implements BrandsService {
     @Override
     public void remove(Brand brand) {
         repo.delete(brand);
+        // deletes don't raise mongodb events
+        cache.evict(Brand.class);
+        autocomplete.remove(Suggestion.Type.BRAND, brand.getId());
     }
 
     @Override
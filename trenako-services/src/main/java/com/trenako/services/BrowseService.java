@@ -15,13 +15,17 @@
  */
 package com.trenako.services;
 
+import java.util.Locale;
+import java.util.Map;
+
+import com.trenako.criteria.Criteria;
 import com.trenako.criteria.SearchRequest;
 import com.trenako.entities.Brand;
 import com.trenako.entities.Railway;
-import com.trenako.entities.RollingStock;
 import com.trenako.entities.Scale;
 import com.trenako.results.PaginatedResults;
 import com.trenako.results.RangeRequest;
+import com.trenako.results.RollingStockSummary;
 import com.trenako.values.Category;
 import com.trenako.values.Era;
 import com.trenako.values.LocalizedEnum;
@@ -81,9 +85,37 @@ public interface BrowseService {
      *
      * @param sc    the search criteria
      * @param range the {@code RangeRequest} information
-     * @return a {@code RollingStock} list
+     * @return a {@code RollingStockSummary} list
+     */
+    PaginatedResults<RollingStockSummary> findByCriteria(SearchRequest sc, RangeRequest range);
+
+    /**
+     * Returns the {@code RollingStock} list according the provided search criteria.
+     * <p>
+     * When the search criteria include a full-text search, the results are ranked
+     * by relevance; the text is searched in the user's language and in the default one.
+     * </p>
+     *
+     * @param sc     the search criteria
+     * @param range  the {@code RangeRequest} information
+     * @param locale the user's {@code Locale}
+     * @return a {@code RollingStockSummary} list
+     */
+    PaginatedResults<RollingStockSummary> findByCriteria(SearchRequest sc, RangeRequest range, Locale locale);
+
+    /**
+     * Returns the number of rolling stocks for each value of the provided facet,
+     * among the rolling stocks matching the search criteria.
+     * <p>
+     * The values are the {@code Brand}, {@code Railway} and {@code Scale} slugs or
+     * the {@code Era}, {@code Category} and {@code PowerMethod} keys.
+     * </p>
+     *
+     * @param facet the facet
+     * @param sc    the search criteria
+     * @return the rolling stocks number for each facet value
      */
-    PaginatedResults<RollingStock> findByCriteria(SearchRequest sc, RangeRequest range);
+    Map<String, Integer> countRollingStocks(Criteria facet, SearchRequest sc);
 
     /**
      * Returns the {@code Brand} with the provided slug.
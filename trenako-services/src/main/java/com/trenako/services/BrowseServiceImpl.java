@@ -15,21 +15,33 @@
  */
 package com.trenako.services;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.MessageSource;
 import org.springframework.stereotype.Service;
 
+import com.trenako.cache.ReferenceDataCache;
 import com.trenako.criteria.Criteria;
 import com.trenako.criteria.SearchCriteria;
 import com.trenako.criteria.SearchRequest;
 import com.trenako.entities.Brand;
 import com.trenako.entities.Railway;
-import com.trenako.entities.RollingStock;
 import com.trenako.entities.Scale;
+import com.trenako.mapping.DbReferenceable;
+import com.trenako.facets.FacetCounts;
+import com.trenako.facets.FacetKey;
 import com.trenako.repositories.BrowseRepository;
 import com.trenako.results.PaginatedResults;
 import com.trenako.results.RangeRequest;
+import com.trenako.results.RollingStockSummary;
+import com.trenako.search.RollingStockTextIndex;
+import com.trenako.search.TextHit;
 import com.trenako.values.Category;
 import com.trenako.values.Era;
 import com.trenako.values.LocalizedEnum;
@@ -46,15 +58,38 @@ public class BrowseServiceImpl implements BrowseService {
     MessageSource messageSource;
 
     private final BrowseRepository repo;
+    private final ReferenceDataCache cache;
+    private final FacetCounts facetCounts;
+    private final RollingStockTextIndex textIndex;
+
+    /**
+     * Creates a new {@code BrowseServiceImpl}.
+     *
+     * @param repo        the repository
+     * @param facetCounts the rolling stock facet counts
+     * @param textIndex   the rolling stock full-text index
+     */
+    public BrowseServiceImpl(BrowseRepository repo, FacetCounts facetCounts, RollingStockTextIndex textIndex) {
+        this(repo, new ReferenceDataCache(repo), facetCounts, textIndex);
+    }
 
     /**
      * Creates a new {@code BrowseServiceImpl}.
      *
-     * @param repo the repository
+     * @param repo        the repository
+     * @param cache       the reference data cache
+     * @param facetCounts the rolling stock facet counts
+     * @param textIndex   the rolling stock full-text index
      */
     @Autowired
-    public BrowseServiceImpl(BrowseRepository repo) {
+    public BrowseServiceImpl(BrowseRepository repo,
+                             ReferenceDataCache cache,
+                             FacetCounts facetCounts,
+                             RollingStockTextIndex textIndex) {
         this.repo = repo;
+        this.cache = cache;
+        this.facetCounts = facetCounts;
+        this.textIndex = textIndex;
     }
 
     @Override
@@ -74,32 +109,32 @@ public class BrowseServiceImpl implements BrowseService {
 
     @Override
     public Iterable<Scale> scales() {
-        return repo.getScales();
+        return cache.scales();
     }
 
     @Override
     public Iterable<Railway> railways() {
-        return repo.getRailways();
+        return cache.railways();
     }
 
     @Override
     public Iterable<Brand> brands() {
-        return repo.getBrands();
+        return cache.brands();
     }
 
     @Override
     public Brand findBrand(String slug) {
-        return repo.findBySlug(slug, Brand.class);
+        return cache.findBySlug(slug, Brand.class);
     }
 
     @Override
     public Railway findRailway(String slug) {
-        return repo.findBySlug(slug, Railway.class);
+        return cache.findBySlug(slug, Railway.class);
     }
 
     @Override
     public Scale findScale(String slug) {
-        return repo.findBySlug(slug, Scale.class);
+        return cache.findBySlug(slug, Scale.class);
     }
 
     @Override
@@ -125,9 +160,64 @@ public class BrowseServiceImpl implements BrowseService {
     }
 
     @Override
-    public PaginatedResults<RollingStock> findByCriteria(SearchRequest sc, RangeRequest range) {
+    public PaginatedResults<RollingStockSummary> findByCriteria(SearchRequest sc, RangeRequest range) {
+        return findByCriteria(sc, range, null);
+    }
+
+    @Override
+    public PaginatedResults<RollingStockSummary> findByCriteria(SearchRequest sc, RangeRequest range, Locale locale) {
         SearchCriteria searchCriteria = loadSearchCriteria(sc);
-        return repo.findByCriteria(searchCriteria, range);
+        if (searchCriteria.hasText()) {
+            List<TextHit> hits = textIndex.search(searchCriteria.getText(), locale);
+            return repo.findByHits(searchCriteria, hits, range, locale);
+        }
+        return repo.findByCriteria(searchCriteria, range, locale);
+    }
+
+    @Override
+    public Map<String, Integer> countRollingStocks(Criteria facet, SearchRequest sc) {
+        FacetKey key = FacetKey.of(sc);
+
+        Map<String, Integer> counts = new HashMap<>();
+        for (String value : facetValues(facet)) {
+            counts.put(value, facetCounts.count(key.with(facet, value)));
+        }
+        return counts;
+    }
+
+    private Iterable<String> facetValues(Criteria facet) {
+        switch (facet) {
+            case BRAND:
+                return slugs(brands());
+            case SCALE:
+                return slugs(scales());
+            case RAILWAY:
+                return slugs(railways());
+            case ERA:
+                return keys(eras());
+            case CATEGORY:
+                return keys(categories());
+            case POWER_METHOD:
+                return keys(powerMethods());
+            default:
+                throw new IllegalArgumentException("Facet counts are not available for " + facet);
+        }
+    }
+
+    private static Iterable<String> slugs(Iterable<? extends DbReferenceable> items) {
+        List<String> slugs = new ArrayList<>();
+        for (DbReferenceable item : items) {
+            slugs.add(item.getSlug());
+        }
+        return slugs;
+    }
+
+    private static <T extends Enum<T>> Iterable<String> keys(Iterable<LocalizedEnum<T>> items) {
+        List<String> keys = new ArrayList<>();
+        for (LocalizedEnum<T> item : items) {
+            keys.add(item.getKey());
+        }
+        return keys;
     }
 
     private SearchCriteria loadSearchCriteria(SearchRequest sc) {
@@ -140,6 +230,7 @@ public class BrowseServiceImpl implements BrowseService {
                 .era(resolveEnum(sc, Era.class))
                 .category(resolveEnum(sc, Category.class))
                 .powerMethod(resolveEnum(sc, PowerMethod.class))
+                .text(sc.get(Criteria.TEXT))
                 .buildImmutable();
     }
 
@@ -149,7 +240,7 @@ public class BrowseServiceImpl implements BrowseService {
             return null;
         }
 
-        return repo.findBySlug(key, criterionType);
+        return cache.findBySlug(key, criterionType);
     }
 
     private <T extends Enum<T>> LocalizedEnum<T> resolveEnum(SearchRequest sc, Class<T> criterionType) {
@@ -16,6 +16,8 @@
 package com.trenako.services;
 
 import org.bson.types.ObjectId;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 
 import com.trenako.entities.Account;
 import com.trenako.entities.Collection;
@@ -33,6 +35,7 @@ import com.trenako.values.Visibility;
  * <ul>
  * <li>finds a {@code Collection} by id;</li>
  * <li>finds a {@code Collection} list by owner;</li>
+ * <li>finds a {@code Collection} summary and pages through its items;</li>
  * <li>checks whether the {@code Collection} contains a {@link RollingStock};</li>
  * <li>adds new {@link RollingStock} to a {@code Collection};</li>
  * <li>saves/removes a {@code Collection}.</li>
@@ -72,6 +75,43 @@ public interface CollectionsService {
      */
     Collection findByOwner(Account owner);
 
+    /**
+     * Finds the {@code Collection} summary with the provided slug.
+     * <p>
+     * The summary includes the collection header and only the latest
+     * {@code numberOfItems} items, the most recently added first.
+     * </p>
+     *
+     * @param slug          the collection's slug
+     * @param numberOfItems the number of items to be loaded
+     * @return a {@code Collection} if found; {@code null} otherwise
+     */
+    Collection findSummaryBySlug(String slug, int numberOfItems);
+
+    /**
+     * Finds the {@code Collection} summary with the provided owner.
+     * <p>
+     * If the provided user has no collection yet then this method will
+     * return the {@link Collection#defaultCollection()} instead of {@code null}.
+     * </p>
+     *
+     * @param owner         the collection's owner
+     * @param numberOfItems the number of items to be loaded
+     * @return a {@code Collection} if found; the default collection otherwise
+     */
+    Collection findSummaryByOwner(Account owner, int numberOfItems);
+
+    /**
+     * Returns a page of the {@code Collection} items.
+     *
+     * @param collection the collection
+     * @param category   the category filter, or {@code null} for every category
+     * @param condition  the condition filter, or {@code null} for every condition
+     * @param paging     the paging information
+     * @return a page of {@code CollectionItem}
+     */
+    Page<CollectionItem> findItems(Collection collection, String category, String condition, Pageable paging);
+
     /**
      * Checks whether the {@code Collection} for this owner's name contains the provided rolling stock.
      * <p>
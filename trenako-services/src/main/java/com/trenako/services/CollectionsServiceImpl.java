@@ -15,9 +15,14 @@
  */
 package com.trenako.services;
 
+import java.util.Collections;
+
 import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.MessageSource;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import com.trenako.entities.Account;
@@ -66,6 +71,28 @@ public class CollectionsServiceImpl implements CollectionsService {
         return coll;
     }
 
+    @Override
+    public Collection findSummaryBySlug(String slug, int numberOfItems) {
+        return repo.findSummaryBySlug(slug, numberOfItems);
+    }
+
+    @Override
+    public Collection findSummaryByOwner(Account owner, int numberOfItems) {
+        Collection coll = repo.findSummaryByOwner(owner, numberOfItems);
+        if (coll == null) {
+            return Collection.defaultCollection();
+        }
+        return coll;
+    }
+
+    @Override
+    public Page<CollectionItem> findItems(Collection collection, String category, String condition, Pageable paging) {
+        if (collection.getSlug() == null) {
+            return new PageImpl<CollectionItem>(Collections.<CollectionItem>emptyList(), paging, 0);
+        }
+        return repo.findItems(collection.getSlug(), category, condition, paging);
+    }
+
     @Override
     public boolean containsRollingStock(Account owner, RollingStock rollingStock) {
         return repo.containsRollingStock(owner, rollingStock);
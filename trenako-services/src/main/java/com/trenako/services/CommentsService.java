@@ -34,6 +34,17 @@ public interface CommentsService {
      */
     RollingStockComments findByRollingStock(RollingStock rollingStock);
 
+    /**
+     * Returns the list of {@link Comment} for the same rolling stock id,
+     * loading only a page of the comments.
+     *
+     * @param rollingStock the rolling stock
+     * @param skip         the number of comments to skip
+     * @param limit        the maximum number of comments
+     * @return the list of comments
+     */
+    RollingStockComments findByRollingStock(RollingStock rollingStock, int skip, int limit);
+
     /**
      * Posts a new {@code Comment} for the provided rolling stock.
      *
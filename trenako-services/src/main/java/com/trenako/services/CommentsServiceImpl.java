@@ -48,6 +48,16 @@ public class CommentsServiceImpl implements CommentsService {
         return rsc;
     }
 
+    @Override
+    public RollingStockComments findByRollingStock(RollingStock rollingStock, int skip, int limit) {
+        RollingStockComments rsc = repo.findByRollingStock(rollingStock, skip, limit);
+        if (rsc == null) {
+            return RollingStockComments.defaultRollingStockComments();
+        }
+
+        return rsc;
+    }
+
     @Override
     public void postComment(RollingStock rs, Comment comment) {
         repo.createNew(rs, comment);
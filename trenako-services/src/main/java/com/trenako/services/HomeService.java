@@ -15,6 +15,8 @@
  */
 package com.trenako.services;
 
+import java.util.Locale;
+
 import com.trenako.entities.Account;
 import com.trenako.services.options.HomepageOptions;
 import com.trenako.services.view.HomeView;
@@ -34,9 +36,10 @@ public interface HomeService {
      * </p>
      *
      * @param loggedUser the logged user, can be {@code null}
+     * @param locale     the user's {@code Locale}
      * @return the homepage content
      */
-    HomeView getHomeContent(Account loggedUser);
+    HomeView getHomeContent(Account loggedUser, Locale locale);
 
     /**
      * Returns the content for the homepage.
@@ -47,8 +50,9 @@ public interface HomeService {
      *
      * @param loggedUser the logged user, can be {@code null}
      * @param options    the home content options
+     * @param locale     the user's {@code Locale}
      * @return the homepage content
      */
-    HomeView getHomeContent(Account loggedUser, HomepageOptions options);
+    HomeView getHomeContent(Account loggedUser, HomepageOptions options, Locale locale);
 
 }
@@ -15,15 +15,21 @@
  */
 package com.trenako.services;
 
+import java.util.Collections;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import com.trenako.activities.Activity;
 import com.trenako.activities.ActivityStream;
 import com.trenako.entities.Account;
-import com.trenako.entities.RollingStock;
+import com.trenako.results.RollingStockSummary;
 import com.trenako.services.options.HomepageOptions;
 import com.trenako.services.view.HomeView;
+import com.trenako.services.view.ViewAssembler;
+import com.trenako.services.view.ViewAssembler.Part;
 
 /**
  * The concrete implementation for the homepage service.
@@ -35,25 +41,41 @@ public class HomeServiceImpl implements HomeService {
 
     private final RollingStocksService rsService;
     private final ActivityStream activityStream;
+    private final ViewAssembler views;
 
     @Autowired
-    public HomeServiceImpl(RollingStocksService rsService, ActivityStream activityStream) {
+    public HomeServiceImpl(RollingStocksService rsService, ActivityStream activityStream, ViewAssembler views) {
         this.rsService = rsService;
         this.activityStream = activityStream;
+        this.views = views;
     }
 
     @Override
-    public HomeView getHomeContent(Account loggedUser) {
-        return getHomeContent(loggedUser, HomepageOptions.defaultHomepageOptions());
+    public HomeView getHomeContent(Account loggedUser, Locale locale) {
+        return getHomeContent(loggedUser, HomepageOptions.defaultHomepageOptions(), locale);
     }
 
     @Override
-    public HomeView getHomeContent(Account loggedUser, HomepageOptions options) {
+    public HomeView getHomeContent(Account loggedUser, final HomepageOptions options, final Locale locale) {
         boolean isLogged = loggedUser != null;
 
-        Iterable<RollingStock> rollingStocks = rsService.findLatestModified(options.getNumberOfRollingStocks());
-        Iterable<Activity> stream = activityStream.recentActivity(options.getActivityStreamSize());
+        Part<Iterable<RollingStockSummary>> rollingStocks = views.fork("latestRollingStocks",
+                new Callable<Iterable<RollingStockSummary>>() {
+                    @Override
+                    public Iterable<RollingStockSummary> call() {
+                        return rsService.findLatestModified(options.getNumberOfRollingStocks(), locale);
+                    }
+                });
+        Part<Iterable<Activity>> stream = views.fork("recentActivity",
+                new Callable<Iterable<Activity>>() {
+                    @Override
+                    public Iterable<Activity> call() {
+                        return activityStream.recentActivity(options.getActivityStreamSize());
+                    }
+                });
 
-        return new HomeView(isLogged, rollingStocks, stream);
+        return new HomeView(isLogged,
+                rollingStocks.get(Collections.<RollingStockSummary>emptyList()),
+                stream.get(Collections.<Activity>emptyList()));
     }
 }
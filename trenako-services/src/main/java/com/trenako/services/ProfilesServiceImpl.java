@@ -17,6 +17,7 @@ package com.trenako.services;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Callable;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -30,6 +31,8 @@ import com.trenako.repositories.CollectionsRepository;
 import com.trenako.repositories.WishListsRepository;
 import com.trenako.services.view.ProfileOptions;
 import com.trenako.services.view.ProfileView;
+import com.trenako.services.view.ViewAssembler;
+import com.trenako.services.view.ViewAssembler.Part;
 
 /**
  * It represents the concrete implementation for the {@code ProfileService} interface.
@@ -42,32 +45,56 @@ public class ProfilesServiceImpl implements ProfilesService {
     private final CollectionsRepository collections;
     private final WishListsRepository wishLists;
     private final ActivityStream activityStream;
+    private final ViewAssembler views;
 
     @Autowired
     public ProfilesServiceImpl(CollectionsRepository collections,
                                WishListsRepository wishLists,
-                               ActivityStream activityStream) {
+                               ActivityStream activityStream,
+                               ViewAssembler views) {
 
         this.collections = collections;
         this.wishLists = wishLists;
         this.activityStream = activityStream;
+        this.views = views;
     }
 
     @Override
-    public ProfileView findProfileView(Account owner) {
+    public ProfileView findProfileView(final Account owner) {
 
-        Iterable<Activity> userActivity = activityStream.userActivity(owner, 10);
+        Part<Iterable<Activity>> userActivity = views.fork("userActivity", new Callable<Iterable<Activity>>() {
+            @Override
+            public Iterable<Activity> call() {
+                return activityStream.userActivity(owner, 10);
+            }
+        });
+        Part<Collection> collection = views.fork("collection", new Callable<Collection>() {
+            @Override
+            public Collection call() {
+                return collections.findSummaryByOwner(owner,
+                        ProfileOptions.DEFAULT.getNumberOfItemsForCollections());
+            }
+        });
+        Part<List<WishList>> lists = views.fork("wishlists", new Callable<List<WishList>>() {
+            @Override
+            public List<WishList> call() {
+                return (List<WishList>) wishLists.findAllByOwner(owner, 10);
+            }
+        });
 
-        Collection collection = collections.findByOwner(owner);
-        if (collection == null) {
-            collection = new Collection(owner);
+        Collection ownerCollection = collection.get(null);
+        if (ownerCollection == null) {
+            ownerCollection = new Collection(owner);
         }
 
-        List<WishList> lists = (List<WishList>) wishLists.findAllByOwner(owner, 10);
-        if (lists == null) {
-            lists = Collections.emptyList();
+        List<WishList> ownerLists = lists.get(null);
+        if (ownerLists == null) {
+            ownerLists = Collections.emptyList();
         }
 
-        return new ProfileView(userActivity, collection, lists, ProfileOptions.DEFAULT);
+        return new ProfileView(userActivity.get(Collections.<Activity>emptyList()),
+                ownerCollection,
+                ownerLists,
+                ProfileOptions.DEFAULT);
     }
 }
@@ -21,8 +21,11 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import com.trenako.cache.ReferenceDataCache;
 import com.trenako.entities.Railway;
 import com.trenako.repositories.RailwaysRepository;
+import com.trenako.search.AutocompleteIndex;
+import com.trenako.search.Suggestion;
 
 /**
  * A concrete implementation for the railways service for mongodb.
@@ -33,10 +36,14 @@ import com.trenako.repositories.RailwaysRepository;
 public class RailwaysServiceImpl implements RailwaysService {
 
     private final RailwaysRepository repo;
+    private final ReferenceDataCache cache;
+    private final AutocompleteIndex autocomplete;
 
     @Autowired
-    public RailwaysServiceImpl(RailwaysRepository repo) {
+    public RailwaysServiceImpl(RailwaysRepository repo, ReferenceDataCache cache, AutocompleteIndex autocomplete) {
         this.repo = repo;
+        this.cache = cache;
+        this.autocomplete = autocomplete;
     }
 
     @Override
@@ -62,6 +69,9 @@ public class RailwaysServiceImpl implements RailwaysService {
     @Override
     public void remove(Railway railway) {
         repo.delete(railway);
+        // deletes don't raise mongodb events
+        cache.evict(Railway.class);
+        autocomplete.remove(Suggestion.Type.RAILWAY, railway.getId());
     }
 
     @Override
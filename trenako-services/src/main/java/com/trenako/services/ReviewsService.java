@@ -15,6 +15,8 @@
  */
 package com.trenako.services;
 
+import org.springframework.data.domain.Pageable;
+
 import com.trenako.entities.Review;
 import com.trenako.entities.RollingStock;
 import com.trenako.entities.RollingStockReviews;
@@ -42,6 +44,25 @@ public interface ReviewsService {
      */
     RollingStockReviews findByRollingStock(RollingStock rollingStock);
 
+    /**
+     * Returns the {@code RollingStockReviews} for the provided rolling stock,
+     * including only one page of reviews.
+     *
+     * @param rollingStock the rolling stock
+     * @param paging       the paging information
+     * @return a {@code RollingStockReviews} if found; the default reviews otherwise
+     */
+    RollingStockReviews findByRollingStock(RollingStock rollingStock, Pageable paging);
+
+    /**
+     * Returns the {@code RollingStockReviews} for the provided rolling stock,
+     * with the counters and the rating histogram but without the reviews.
+     *
+     * @param rollingStock the rolling stock
+     * @return a {@code RollingStockReviews} if found; the default reviews otherwise
+     */
+    RollingStockReviews findSummaryByRollingStock(RollingStock rollingStock);
+
     /**
      * Posts a new user review for the provided {@code RollingStock}.
      *
@@ -18,6 +18,7 @@ package com.trenako.services;
 import java.util.Date;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
 
@@ -56,6 +57,26 @@ public class ReviewsServiceImpl implements ReviewsService {
         return rsr;
     }
 
+    @Override
+    public RollingStockReviews findByRollingStock(RollingStock rollingStock, Pageable paging) {
+        RollingStockReviews rsr = repo.findByRollingStock(rollingStock, paging.getOffset(), paging.getPageSize());
+        if (rsr == null) {
+            return RollingStockReviews.defaultRollingStockReviews();
+        }
+
+        return rsr;
+    }
+
+    @Override
+    public RollingStockReviews findSummaryByRollingStock(RollingStock rollingStock) {
+        RollingStockReviews rsr = repo.findByRollingStock(rollingStock, 0, 0);
+        if (rsr == null) {
+            return RollingStockReviews.defaultRollingStockReviews();
+        }
+
+        return rsr;
+    }
+
     @Override
     public void postReview(RollingStock rs, Review review) {
         Assert.notNull(rs.getLabel(), "Rolling stock label required");
@@ -15,10 +15,14 @@
  */
 package com.trenako.services;
 
+import java.util.Locale;
+
 import org.bson.types.ObjectId;
+import org.springframework.data.domain.Pageable;
 
 import com.trenako.entities.Account;
 import com.trenako.entities.RollingStock;
+import com.trenako.results.RollingStockSummary;
 import com.trenako.services.view.RollingStockView;
 
 /**
@@ -46,9 +50,10 @@ public interface RollingStocksService {
      * Returns the latest modified rolling stocks list.
      *
      * @param numberOfItems the maximum number of returned items
-     * @return the rolling stocks list
+     * @param locale        the user's {@code Locale}
+     * @return the rolling stocks summaries
      */
-    Iterable<RollingStock> findLatestModified(int numberOfItems);
+    Iterable<RollingStockSummary> findLatestModified(int numberOfItems, Locale locale);
 
     /**
      * Finds the {@code RollingStock} with the provided id.
@@ -78,11 +83,17 @@ public interface RollingStocksService {
      * for the provided user.
      * </p>
      *
-     * @param slug       the {@code RollingStock} slug
-     * @param loggedUser the currently logged user; it might be {@code null}
+     * <p>
+     * The view includes only the counters for the reviews and only
+     * one page of comments.
+     * </p>
+     *
+     * @param slug           the {@code RollingStock} slug
+     * @param loggedUser     the currently logged user; it might be {@code null}
+     * @param commentsPaging the comments paging information
      * @return a view if {@code RollingStock} if found; {@code null} otherwise
      */
-    RollingStockView findRollingStockView(String slug, Account loggedUser);
+    RollingStockView findRollingStockView(String slug, Account loggedUser, Pageable commentsPaging);
 
     /**
      * Creates a new {@code RollingStock}.
@@ -15,11 +15,12 @@
  */
 package com.trenako.services;
 
+import java.util.Locale;
+import java.util.concurrent.Callable;
+
 import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort.Direction;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
 
@@ -28,8 +29,16 @@ import com.trenako.entities.RollingStock;
 import com.trenako.entities.RollingStockComments;
 import com.trenako.entities.RollingStockReviews;
 import com.trenako.entities.WishList;
+import com.trenako.facets.FacetCounts;
+import com.trenako.facets.FacetKey;
 import com.trenako.repositories.RollingStocksRepository;
+import com.trenako.results.RollingStockSummary;
+import com.trenako.search.AutocompleteIndex;
+import com.trenako.search.RollingStockTextIndex;
+import com.trenako.search.Suggestion;
 import com.trenako.services.view.RollingStockView;
+import com.trenako.services.view.ViewAssembler;
+import com.trenako.services.view.ViewAssembler.Part;
 
 /**
  * A concrete implementation for the {@code RollingStocks} service.
@@ -43,6 +52,10 @@ public class RollingStocksServiceImpl implements RollingStocksService {
     private final CommentsService comments;
     private final ReviewsService reviews;
     private final WishListsService wishLists;
+    private final FacetCounts facetCounts;
+    private final RollingStockTextIndex textIndex;
+    private final AutocompleteIndex autocomplete;
+    private final ViewAssembler views;
 
     /**
      * Creates a {@code RollingStocksServiceImpl}
@@ -51,17 +64,29 @@ public class RollingStocksServiceImpl implements RollingStocksService {
      * @param comments         the {@code Comment} service
      * @param reviews          the {@code Review} service
      * @param wishlistsService the {@code WishList} service
+     * @param facetCounts      the rolling stock facet counts
+     * @param textIndex        the rolling stock full-text index
+     * @param autocomplete     the autocomplete index
+     * @param views            the view parts loader
      */
     @Autowired
     public RollingStocksServiceImpl(RollingStocksRepository rollingStocks,
                                     CommentsService comments,
                                     ReviewsService reviews,
-                                    WishListsService wishLists) {
+                                    WishListsService wishLists,
+                                    FacetCounts facetCounts,
+                                    RollingStockTextIndex textIndex,
+                                    AutocompleteIndex autocomplete,
+                                    ViewAssembler views) {
 
         this.rollingStocks = rollingStocks;
         this.comments = comments;
         this.reviews = reviews;
         this.wishLists = wishLists;
+        this.facetCounts = facetCounts;
+        this.textIndex = textIndex;
+        this.autocomplete = autocomplete;
+        this.views = views;
     }
 
     @Override
@@ -75,21 +100,42 @@ public class RollingStocksServiceImpl implements RollingStocksService {
     }
 
     @Override
-    public RollingStockView findRollingStockView(String slug, Account loggedUser) {
-        RollingStock rs = rollingStocks.findBySlug(slug);
+    public RollingStockView findRollingStockView(String slug, final Account loggedUser, final Pageable commentsPaging) {
+        // the wishlists do not depend on the rolling stock
+        Part<Iterable<WishList>> wishlists = null;
+        if (loggedUser != null) {
+            wishlists = views.fork("wishlists", new Callable<Iterable<WishList>>() {
+                @Override
+                public Iterable<WishList> call() {
+                    return wishLists.findByOwner(loggedUser);
+                }
+            });
+        }
+
+        final RollingStock rs = rollingStocks.findBySlug(slug);
         if (rs == null) {
             return null;
         }
 
-        RollingStockComments rsComments = comments.findByRollingStock(rs);
-        RollingStockReviews rsReviews = reviews.findByRollingStock(rs);
-        Iterable<WishList> wishlists = loggedUser != null ?
-                wishLists.findByOwner(loggedUser) : null;
+        Part<RollingStockComments> rsComments = views.fork("comments", new Callable<RollingStockComments>() {
+            @Override
+            public RollingStockComments call() {
+                // one more comment to know whether the next page exists
+                return comments.findByRollingStock(rs, commentsPaging.getOffset(), commentsPaging.getPageSize() + 1);
+            }
+        });
+        Part<RollingStockReviews> rsReviews = views.fork("reviews", new Callable<RollingStockReviews>() {
+            @Override
+            public RollingStockReviews call() {
+                return reviews.findSummaryByRollingStock(rs);
+            }
+        });
 
         return new RollingStockView(rs,
-                rsComments,
-                rsReviews,
-                wishlists);
+                rsComments.get(RollingStockComments.defaultRollingStockComments()),
+                rsReviews.get(RollingStockReviews.defaultRollingStockReviews()),
+                wishlists != null ? wishlists.get(null) : null,
+                commentsPaging);
     }
 
     @Override
@@ -105,12 +151,16 @@ public class RollingStocksServiceImpl implements RollingStocksService {
 
     @Override
     public void remove(RollingStock rs) {
+        // the mapping events are not published on delete
+        FacetKey oldKey = facetCounts.storedKey(rs);
         rollingStocks.delete(rs);
+        facetCounts.onRemove(rs, oldKey);
+        textIndex.remove(rs.getId());
+        autocomplete.remove(Suggestion.Type.ROLLING_STOCK, rs.getId());
     }
 
     @Override
-    public Iterable<RollingStock> findLatestModified(int numberOfItems) {
-        Pageable pageable = new PageRequest(0, numberOfItems, Direction.DESC, "lastModified");
-        return rollingStocks.findAll(pageable).getContent();
+    public Iterable<RollingStockSummary> findLatestModified(int numberOfItems, Locale locale) {
+        return rollingStocks.findLatestModified(numberOfItems, locale);
     }
 }
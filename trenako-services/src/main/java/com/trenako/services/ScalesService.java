@@ -15,6 +15,9 @@
  */
 package com.trenako.services;
 
+import java.util.Collection;
+import java.util.Map;
+
 import org.bson.types.ObjectId;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -30,6 +33,7 @@ import com.trenako.entities.Scale;
  * <ul>
  * <li>finds a {@code Scale} by id;</li>
  * <li>finds a {@code Scale} by name;</li>
+ * <li>finds the {@code Scale}s for a list of slugs;</li>
  * <li>returns the {@code Scale} list;</li>
  * <li>returns the {@code Scale} list for narrow/standard gauges;</li>
  * <li>saves/removes a {@code Scale}.</li>
@@ -73,6 +77,18 @@ public interface ScalesService {
      */
     Scale findBySlug(String slug);
 
+    /**
+     * Finds the {@link Scale}s with the provided slugs.
+     * <p>
+     * The scales are loaded with just one query to the data store; the slugs
+     * without a matching {@code Scale} are not included in the results.
+     * </p>
+     *
+     * @param slugs the {@code Scale} slugs
+     * @return the {@code Scale}s indexed by slug
+     */
+    Map<String, Scale> findBySlugs(Collection<String> slugs);
+
     /**
      * Returns all {@link Scale} objects.
      * <p>
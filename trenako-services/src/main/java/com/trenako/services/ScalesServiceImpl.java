@@ -15,14 +15,22 @@
  */
 package com.trenako.services;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
 import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import com.trenako.cache.ReferenceDataCache;
 import com.trenako.entities.Scale;
 import com.trenako.repositories.ScalesRepository;
+import com.trenako.search.AutocompleteIndex;
+import com.trenako.search.Suggestion;
 
 /**
  * A concrete implementation for the scales service for mongodb.
@@ -33,10 +41,14 @@ import com.trenako.repositories.ScalesRepository;
 public class ScalesServiceImpl implements ScalesService {
 
     private ScalesRepository repo;
+    private ReferenceDataCache cache;
+    private AutocompleteIndex autocomplete;
 
     @Autowired
-    public ScalesServiceImpl(ScalesRepository repo) {
+    public ScalesServiceImpl(ScalesRepository repo, ReferenceDataCache cache, AutocompleteIndex autocomplete) {
         this.repo = repo;
+        this.cache = cache;
+        this.autocomplete = autocomplete;
     }
 
     @Override
@@ -59,6 +71,19 @@ public class ScalesServiceImpl implements ScalesService {
         return repo.findBySlug(slug);
     }
 
+    @Override
+    public Map<String, Scale> findBySlugs(Collection<String> slugs) {
+        if (slugs == null || slugs.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        Map<String, Scale> scales = new HashMap<>();
+        for (Scale scale : repo.findBySlugIn(slugs)) {
+            scales.put(scale.getSlug(), scale);
+        }
+        return scales;
+    }
+
     @Override
     public void save(Scale brand) {
         repo.save(brand);
@@ -67,6 +92,9 @@ public class ScalesServiceImpl implements ScalesService {
     @Override
     public void remove(Scale brand) {
         repo.delete(brand);
+        // deletes don't raise mongodb events
+        cache.evict(Scale.class);
+        autocomplete.remove(Suggestion.Type.SCALE, brand.getId());
     }
 
 }
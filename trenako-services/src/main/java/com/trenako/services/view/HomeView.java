@@ -18,7 +18,7 @@ package com.trenako.services.view;
 import org.apache.commons.lang3.builder.EqualsBuilder;
 
 import com.trenako.activities.Activity;
-import com.trenako.entities.RollingStock;
+import com.trenako.results.RollingStockSummary;
 
 /**
  * It represents the immutable content for the homepage.
@@ -27,11 +27,11 @@ import com.trenako.entities.RollingStock;
  */
 public class HomeView {
     private final boolean isLogged;
-    private final Iterable<RollingStock> rollingStocks;
+    private final Iterable<RollingStockSummary> rollingStocks;
     private final Iterable<Activity> activityStream;
 
     public HomeView(boolean isLogged,
-                    Iterable<RollingStock> rollingStocks,
+                    Iterable<RollingStockSummary> rollingStocks,
                     Iterable<Activity> activityStream) {
         this.isLogged = isLogged;
         this.rollingStocks = rollingStocks;
@@ -50,9 +50,9 @@ public class HomeView {
     /**
      * Returns the last updated {@code RollingStocks}.
      *
-     * @return the {@code RollingStock} list
+     * @return the {@code RollingStockSummary} list
      */
-    public Iterable<RollingStock> getRollingStocks() {
+    public Iterable<RollingStockSummary> getRollingStocks() {
         return rollingStocks;
     }
 
@@ -15,6 +15,11 @@
  */
 package com.trenako.services.view;
 
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+
 import com.trenako.entities.Comment;
 import com.trenako.entities.RollingStock;
 import com.trenako.entities.RollingStockComments;
@@ -32,6 +37,7 @@ public class RollingStockView {
     private final RollingStockComments comments;
     private final RollingStockReviews reviews;
     private final Iterable<WishList> wishLists;
+    private final Pageable commentsPaging;
 
     /**
      * Creates a new {@code RollingStockView}.
@@ -45,11 +51,33 @@ public class RollingStockView {
                             RollingStockComments comments,
                             RollingStockReviews reviews,
                             Iterable<WishList> wishLists) {
+        this(rs, comments, reviews, wishLists, null);
+    }
+
+    /**
+     * Creates a new {@code RollingStockView} with a page of comments.
+     * <p>
+     * The {@code comments} are expected to include, when it exists, the first
+     * comment of the next page (which is not returned by {@link #getComments()}).
+     * </p>
+     *
+     * @param rs             the rolling stock
+     * @param comments       the comments
+     * @param reviews        the reviews
+     * @param wishLists      the wish lists
+     * @param commentsPaging the comments paging information
+     */
+    public RollingStockView(RollingStock rs,
+                            RollingStockComments comments,
+                            RollingStockReviews reviews,
+                            Iterable<WishList> wishLists,
+                            Pageable commentsPaging) {
 
         this.rs = rs;
         this.comments = comments;
         this.reviews = reviews;
         this.wishLists = wishLists;
+        this.commentsPaging = commentsPaging;
     }
 
     /**
@@ -67,7 +95,46 @@ public class RollingStockView {
      * @return the comments list
      */
     public Iterable<Comment> getComments() {
-        return comments.getItems();
+        if (comments == null) {
+            return Collections.emptyList();
+        }
+
+        List<Comment> items = comments.getItems();
+        if (hasNextComments()) {
+            return items.subList(0, commentsPaging.getPageSize());
+        }
+        return items;
+    }
+
+    /**
+     * Returns the current comments page number (starting from {@code 1}).
+     *
+     * @return the page number
+     */
+    public int getCommentsPage() {
+        if (commentsPaging == null) {
+            return 1;
+        }
+        return commentsPaging.getPageNumber() + 1;
+    }
+
+    /**
+     * Indicates whether there are comments before the current page.
+     *
+     * @return {@code true} if a previous page exists; {@code false} otherwise
+     */
+    public boolean hasPreviousComments() {
+        return commentsPaging != null && commentsPaging.getPageNumber() > 0;
+    }
+
+    /**
+     * Indicates whether there are comments after the current page.
+     *
+     * @return {@code true} if a next page exists; {@code false} otherwise
+     */
+    public boolean hasNextComments() {
+        return commentsPaging != null && comments != null &&
+                comments.getItems().size() > commentsPaging.getPageSize();
     }
 
     /**
@@ -0,0 +1,228 @@
+/*
+ * Copyright 2012 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.trenako.services.view;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+/**
+ * It loads the independent parts of the view objects in parallel.
+ * <p>
+ * Every part is loaded by a bounded thread pool and it has its own deadline: when
+ * the query is not completed in time, or it fails, the view is rendered with the
+ * part fallback value (for instance without the comments) instead of failing
+ * the whole page. When the pool queue is full the part is loaded by the calling thread.
+ * </p>
+ * <p>
+ * Until the assembler is started the parts are loaded by the calling thread, one
+ * after another.
+ * </p>
+ *
+ * @author Carlo Micieli
+ */
+@Component("viewAssembler")
+@ManagedResource(objectName = "trenako:type=Views,name=viewAssembler",
+        description = "The parallel loader for the view objects")
+public class ViewAssembler {
+
+    private static final Logger log = LoggerFactory.getLogger("com.trenako.services");
+
+    private final int poolSize;
+    private final int queueCapacity;
+    private final long timeout;
+
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    private ThreadPoolTaskExecutor executor;
+
+    /**
+     * Creates a new {@code ViewAssembler}.
+     *
+     * @param poolSize      the max number of parts loaded at the same time
+     * @param queueCapacity the max number of parts waiting for a thread
+     * @param timeout       the default timeout for every part in milliseconds
+     */
+    @Autowired
+    public ViewAssembler(@Value("${views.assembler.poolSize:16}") int poolSize,
+                         @Value("${views.assembler.queueCapacity:64}") int queueCapacity,
+                         @Value("${views.assembler.timeout:1000}") long timeout) {
+        Assert.isTrue(poolSize > 0, "Pool size must be positive");
+        Assert.isTrue(timeout > 0, "Timeout must be positive");
+
+        this.poolSize = poolSize;
+        this.queueCapacity = queueCapacity;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Starts the thread pool.
+     */
+    @PostConstruct
+    public void start() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("views-");
+        executor.setDaemon(true);
+        executor.initialize();
+    }
+
+    /**
+     * Stops the thread pool.
+     */
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Starts loading a view part with the default timeout.
+     *
+     * @param name the part name, used by the log messages
+     * @param task the query for the part
+     * @return the part
+     */
+    public <T> Part<T> fork(String name, Callable<T> task) {
+        return fork(name, task, timeout);
+    }
+
+    /**
+     * Starts loading a view part.
+     *
+     * @param name    the part name, used by the log messages
+     * @param task    the query for the part
+     * @param timeout the part timeout in milliseconds
+     * @return the part
+     */
+    public <T> Part<T> fork(String name, Callable<T> task, long timeout) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+
+        Future<T> future;
+        if (executor == null) {
+            FutureTask<T> inline = new FutureTask<>(task);
+            inline.run();
+            future = inline;
+        } else {
+            future = executor.submit(task);
+        }
+        return new Part<>(name, future, deadline);
+    }
+
+    /**
+     * Returns the default timeout for every part in milliseconds.
+     *
+     * @return the timeout
+     */
+    @ManagedAttribute(description = "The default timeout for every part in milliseconds")
+    public long getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Returns the number of parts replaced by the fallback value after a timeout.
+     *
+     * @return the number of timeouts
+     */
+    @ManagedAttribute(description = "The number of parts not loaded in time")
+    public long getTimeouts() {
+        return timeouts.get();
+    }
+
+    /**
+     * Returns the number of parts replaced by the fallback value after an error.
+     *
+     * @return the number of failures
+     */
+    @ManagedAttribute(description = "The number of parts not loaded for an error")
+    public long getFailures() {
+        return failures.get();
+    }
+
+    /**
+     * Returns the number of parts which are loading.
+     *
+     * @return the number of active threads
+     */
+    @ManagedAttribute(description = "The number of parts which are loading")
+    public int getActiveCount() {
+        return executor != null ? executor.getActiveCount() : 0;
+    }
+
+    /**
+     * It represents a view part which is loading.
+     *
+     * @author Carlo Micieli
+     */
+    public final class Part<T> {
+        private final String name;
+        private final Future<T> future;
+        private final long deadline;
+
+        private Part(String name, Future<T> future, long deadline) {
+            this.name = name;
+            this.future = future;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Waits for the part until its deadline.
+         *
+         * @param fallback the value used when the part is not loaded in time or it fails
+         * @return the part value, or the fallback
+         */
+        public T get(T fallback) {
+            try {
+                long wait = Math.max(deadline - System.nanoTime(), 0);
+                return future.get(wait, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException ex) {
+                future.cancel(true);
+                timeouts.incrementAndGet();
+                log.warn("View part '{}' not loaded in time, using the fallback", name);
+            } catch (ExecutionException ex) {
+                failures.incrementAndGet();
+                log.error("View part '" + name + "' not loaded, using the fallback", ex.getCause());
+            } catch (InterruptedException ex) {
+                future.cancel(true);
+                Thread.currentThread().interrupt();
+            }
+            return fallback;
+        }
+    }
+}
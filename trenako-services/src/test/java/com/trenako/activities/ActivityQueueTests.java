@@ -0,0 +1,184 @@
+/*
+ * Copyright 2012 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.trenako.activities;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+/**
+ * 
+ * @author Carlo Micieli
+ *
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ActivityQueueTests {
+
+	private @Mock MongoTemplate mongo;
+	private @Captor ArgumentCaptor<Collection<Activity>> inserts;
+	private ActivityQueue queue;
+	
+	@Before
+	public void setup() {
+		MockitoAnnotations.initMocks(this);
+		queue = new ActivityQueue(mongo, 5, 2, 60000);
+	}
+	
+	@After
+	public void cleanUp() {
+		queue.stop();
+	}
+	
+	@Test
+	public void shouldSaveActivitiesImmediatelyUntilStarted() {
+		Activity act = new Activity();
+		
+		queue.add(act);
+		
+		verify(mongo, times(1)).insert(eq(Collections.singletonList(act)), eq(Activity.class));
+		assertEquals(0, queue.getDepth());
+	}
+	
+	@Test
+	public void shouldQueueActivitiesWhenStarted() {
+		queue.start();
+		
+		queue.add(new Activity());
+		
+		assertEquals(1, queue.getDepth());
+		verify(mongo, never()).insert(anyCollectionOf(Activity.class), eq(Activity.class));
+	}
+	
+	@Test
+	public void shouldSaveTheQueuedActivitiesInBatches() {
+		queue.start();
+		queue.add(new Activity());
+		queue.add(new Activity());
+		queue.add(new Activity());
+		
+		queue.flush();
+		
+		List<Collection<Activity>> batches = capturedInserts(2);
+		assertEquals(2, batches.get(0).size());
+		assertEquals(1, batches.get(1).size());
+		assertEquals(0, queue.getDepth());
+		assertEquals(3, queue.getFlushed());
+		assertNotNull(queue.getLastFlush());
+	}
+	
+	@Test
+	public void shouldFlushInBackgroundWhenABatchIsFull() {
+		queue.start();
+		queue.add(new Activity());
+		queue.add(new Activity());
+		
+		verify(mongo, timeout(1000).times(1)).insert(anyCollectionOf(Activity.class), eq(Activity.class));
+	}
+	
+	@Test
+	public void shouldSaveActivitiesInTheCallingThreadWhenTheQueueIsFull() throws InterruptedException {
+		queue = new ActivityQueue(mongo, 1, 10, 60000);
+		queue.start();
+		Activity first = new Activity();
+		Activity second = new Activity();
+		
+		queue.add(first);
+		queue.add(second);
+		
+		verify(mongo, times(1)).insert(eq(Collections.singletonList(second)), eq(Activity.class));
+		assertEquals(1, queue.getDepth());
+		assertEquals(1, queue.getSavedByCaller());
+	}
+	
+	@Test
+	public void shouldDrainTheQueueOnStop() {
+		queue.start();
+		queue.add(new Activity());
+		
+		queue.stop();
+		
+		verify(mongo, times(1)).insert(anyCollectionOf(Activity.class), eq(Activity.class));
+		assertEquals(0, queue.getDepth());
+	}
+	
+	@Test
+	public void shouldSaveActivitiesImmediatelyOnceStopped() {
+		queue.start();
+		queue.stop();
+		Activity act = new Activity();
+		
+		queue.add(act);
+		
+		verify(mongo, times(1)).insert(eq(Collections.singletonList(act)), eq(Activity.class));
+		assertEquals(0, queue.getDepth());
+	}
+	
+	@Test
+	public void shouldSaveActivitiesAddedWhileStopping() {
+		final Activity late = new Activity();
+		doAnswer(new Answer<Void>() {
+			@Override
+			public Void answer(InvocationOnMock invocation) {
+				// an activity recorded during the final flush
+				queue.add(late);
+				return null;
+			}
+		}).doNothing().when(mongo).insert(anyCollectionOf(Activity.class), eq(Activity.class));
+		queue.start();
+		queue.add(new Activity());
+		
+		queue.stop();
+		
+		List<Collection<Activity>> batches = capturedInserts(2);
+		assertSame(late, batches.get(1).iterator().next());
+		assertEquals(0, queue.getDepth());
+	}
+	
+	@Test
+	public void shouldCountTheActivitiesNotSaved() {
+		doThrow(new DataAccessResourceFailureException("down"))
+			.when(mongo).insert(anyCollectionOf(Activity.class), eq(Activity.class));
+		queue.start();
+		queue.add(new Activity());
+		
+		queue.flush();
+		
+		assertEquals(1, queue.getFailed());
+		assertEquals(0, queue.getFlushed());
+	}
+	
+	private List<Collection<Activity>> capturedInserts(int times) {
+		verify(mongo, times(times)).insert(inserts.capture(), eq(Activity.class));
+		return inserts.getAllValues();
+	}
+}
@@ -19,6 +19,7 @@ import static org.junit.Assert.*;
 import static com.trenako.test.TestDataBuilder.*;
 import static org.mockito.Mockito.*;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -55,6 +56,8 @@ public class ActivityStreamTests {
 	
 	private @Mock Page<Activity> results;
 	private @Mock ActivityRepository repo;
+	private @Mock ActivityQueue queue;
+	private @Mock RecentActivities recent;
 	private ActivityStream activityStream;
 	
 	private ArgumentCaptor<Activity> arg = ArgumentCaptor.forClass(Activity.class);
@@ -62,14 +65,14 @@ public class ActivityStreamTests {
 	@Before
 	public void setup() {
 		MockitoAnnotations.initMocks(this);
-		activityStream = new ActivityStreamImpl(repo);
+		activityStream = new ActivityStreamImpl(repo, queue, recent);
 	}
 	
 	@Test
 	public void shouldRecordActivityForCommentsPosting() {
 		activityStream.comment(rollingStock(), comment());
 		
-		verify(repo, times(1)).save(arg.capture());
+		verify(queue, times(1)).add(arg.capture());
 		Activity act = (Activity) arg.getValue();
 		assertEquals(Activity.buildForComment(comment(), rsRef()), act);
 	}
@@ -78,7 +81,7 @@ public class ActivityStreamTests {
 	public void shouldRecordActivityForReviewsPosting() {
 		activityStream.review(rollingStock(), review());
 		
-		verify(repo, times(1)).save(arg.capture());
+		verify(queue, times(1)).add(arg.capture());
 		Activity act = (Activity) arg.getValue();
 		assertEquals(Activity.buildForReview(review(), rsRef()), act);
 	}
@@ -87,7 +90,7 @@ public class ActivityStreamTests {
 	public void shouldRecordRollingStockCreation() {
 		activityStream.createRollingStock(rollingStock());
 		
-		verify(repo, times(1)).save(arg.capture());
+		verify(queue, times(1)).add(arg.capture());
 		Activity act = (Activity) arg.getValue();
 		assertEquals(Activity.buildForRsCreate(rollingStock()), act);
 	}
@@ -96,7 +99,7 @@ public class ActivityStreamTests {
 	public void shouldRecordRollingStockChanges() {
 		activityStream.changeRollingStock(rollingStock());
 		
-		verify(repo, times(1)).save(arg.capture());
+		verify(queue, times(1)).add(arg.capture());
 		Activity act = (Activity) arg.getValue();
 		assertEquals(Activity.buildForRsChange(rollingStock()), act);
 	}
@@ -105,7 +108,7 @@ public class ActivityStreamTests {
 	public void shouldRecordWishListChanges() {
 		activityStream.wishList(wishList(), wishListItem());
 		
-		verify(repo, times(1)).save(arg.capture());
+		verify(queue, times(1)).add(arg.capture());
 		Activity act = (Activity) arg.getValue();
 		assertEquals(Activity.buildForWishList(wishList(), wishListItem()), act);
 	}
@@ -114,14 +117,45 @@ public class ActivityStreamTests {
 	public void shouldRecordRollingStocksAddedToCollections() {
 		activityStream.collection(user(), collectionItem());
 		
-		verify(repo, times(1)).save(arg.capture());
+		verify(queue, times(1)).add(arg.capture());
 		Activity act = (Activity) arg.getValue();
 		assertEquals(Activity.buildForCollection(collection(), collectionItem()), act);
 	}
 	
+	@Test
+	public void shouldAppendTheRecordedActivitiesToTheRecentOnes() {
+		activityStream.comment(rollingStock(), comment());
+		
+		verify(recent, times(1)).add(arg.capture());
+		assertEquals(Activity.buildForComment(comment(), rsRef()), arg.getValue());
+	}
+	
+	@Test
+	public void shouldReturnTheLastRecordedActivitiesFromMemory() {
+		List<Activity> items = Arrays.asList(Activity.buildForComment(comment(), rsRef()));
+		when(recent.latest(eq(10))).thenReturn(items);
+		
+		Iterable<Activity> stream = activityStream.recentActivity(10);
+		
+		assertEquals(items, stream);
+		verify(repo, never()).findAll(isA(Pageable.class));
+	}
+	
+	@Test
+	public void shouldReturnTheLastRecordedActivitiesForTheProvidedActorFromMemory() {
+		List<Activity> items = Arrays.asList(Activity.buildForComment(comment(), rsRef()));
+		when(recent.latestByActor(eq(user().getSlug()), eq(10))).thenReturn(items);
+		
+		Iterable<Activity> stream = activityStream.userActivity(user(), 10);
+		
+		assertEquals(items, stream);
+		verify(repo, never()).findByActor(anyString(), isA(Pageable.class));
+	}
+	
 	@Test
 	public void shouldReturnTheLastRecordedActivities() {
 		int numberOfItems = 10;
+		when(recent.latest(eq(numberOfItems))).thenReturn(null);
 		Pageable paging = new PageRequest(0, numberOfItems, Direction.DESC, "recorded");
 		List<Activity> items = Collections.emptyList();
 		
@@ -143,6 +177,7 @@ public class ActivityStreamTests {
 	@Test
 	public void shouldReturnTheLastRecordedActivitiesForTheProvidedActor() {
 		int numberOfItems = 10;
+		when(recent.latestByActor(eq(user().getSlug()), eq(numberOfItems))).thenReturn(null);
 		Pageable paging = new PageRequest(0, numberOfItems, Direction.DESC, "recorded");
 		List<Activity> items = Collections.emptyList();
 		
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2012 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.trenako.activities;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import com.trenako.repositories.ActivityRepository;
+
+/**
+ * 
+ * @author Carlo Micieli
+ *
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class RecentActivitiesTests {
+
+	private @Mock ActivityRepository repo;
+	private @Mock ActivityQueue queue;
+	private RecentActivities recent;
+	
+	@Before
+	public void setup() {
+		MockitoAnnotations.initMocks(this);
+		recent = new RecentActivities(repo, queue, 3, 2, 10);
+	}
+	
+	@Test
+	public void shouldLoadTheLatestActivitiesFromTheDatabase() {
+		List<Activity> items = Arrays.asList(activity("bob", 3), activity("alice", 2), activity("bob", 1));
+		when(repo.findAll(isA(Pageable.class))).thenReturn(new PageImpl<Activity>(items));
+		
+		recent.reload();
+		
+		assertTrue(recent.isReady());
+		assertEquals(Arrays.asList(3, 2, 1), timestamps(recent.latest(3)));
+		assertEquals(Arrays.asList(3, 2), timestamps(recent.latest(2)));
+	}
+	
+	@Test
+	public void shouldFlushTheQueueBeforeLoadingTheLatestActivities() {
+		loadEmpty();
+		
+		InOrder inOrder = inOrder(queue, repo);
+		inOrder.verify(queue).flush();
+		inOrder.verify(repo).findAll(isA(Pageable.class));
+	}
+	
+	@Test
+	public void shouldKeepTheActivitiesAppendedDuringTheReload() {
+		loadEmpty();
+		recent.add(activity("alice", 1));
+		// the activity was not saved yet when the snapshot was loaded
+		recent.add(activity("bob", 3));
+		List<Activity> items = Arrays.asList(activity("alice", 2), activity("alice", 1));
+		when(repo.findAll(isA(Pageable.class))).thenReturn(new PageImpl<Activity>(items));
+		
+		recent.reload();
+		
+		assertEquals(Arrays.asList(3, 2, 1), timestamps(recent.latest(3)));
+	}
+	
+	@Test
+	public void shouldNotServeTheActivitiesWhenTheyAreNotLoaded() {
+		when(repo.findAll(isA(Pageable.class))).thenThrow(new DataAccessResourceFailureException("down"));
+		
+		recent.reload();
+		
+		assertFalse(recent.isReady());
+		assertNull(recent.latest(3));
+	}
+	
+	@Test
+	public void shouldNotServeMoreActivitiesThanTheCapacity() {
+		loadEmpty();
+		
+		assertNull(recent.latest(4));
+		assertNull(recent.latestByActor("bob", 3));
+	}
+	
+	@Test
+	public void shouldKeepOnlyTheLatestActivities() {
+		loadEmpty();
+		
+		for (int i = 1; i <= 5; i++) {
+			recent.add(activity("bob", i));
+		}
+		
+		assertEquals(Arrays.asList(5, 4, 3), timestamps(recent.latest(3)));
+	}
+	
+	@Test
+	public void shouldLoadTheActorActivitiesOnlyOnce() {
+		loadEmpty();
+		List<Activity> items = Arrays.asList(activity("bob", 2), activity("bob", 1));
+		when(repo.findByActor(eq("bob"), isA(Pageable.class))).thenReturn(items);
+		
+		assertEquals(Arrays.asList(2, 1), timestamps(recent.latestByActor("bob", 2)));
+		assertEquals(Arrays.asList(2, 1), timestamps(recent.latestByActor("bob", 2)));
+		
+		verify(repo, times(1)).findByActor(eq("bob"), isA(Pageable.class));
+		assertEquals(1, recent.getActorLoads());
+	}
+	
+	@Test
+	public void shouldMergeTheActorActivitiesRecordedBeforeTheLoading() {
+		loadEmpty();
+		Activity recorded = activity("bob", 3);
+		recent.add(recorded);
+		// the activity was already saved by the queue
+		when(repo.findByActor(eq("bob"), isA(Pageable.class)))
+			.thenReturn(Arrays.asList(recorded, activity("bob", 1)));
+		
+		assertEquals(Arrays.asList(3, 1), timestamps(recent.latestByActor("bob", 2)));
+	}
+	
+	@Test
+	public void shouldFlushTheQueueBeforeLoadingTheActorActivities() {
+		loadEmpty();
+		when(repo.findByActor(eq("bob"), isA(Pageable.class))).thenReturn(Arrays.asList(activity("bob", 1)));
+		
+		recent.latestByActor("bob", 2);
+		
+		InOrder inOrder = inOrder(queue, repo);
+		inOrder.verify(queue).flush();
+		inOrder.verify(repo).findAll(isA(Pageable.class));
+		inOrder.verify(queue).flush();
+		inOrder.verify(repo).findByActor(eq("bob"), isA(Pageable.class));
+	}
+	
+	@Test
+	public void shouldAppendTheActivitiesToTheLoadedActors() {
+		loadEmpty();
+		when(repo.findByActor(eq("bob"), isA(Pageable.class))).thenReturn(Arrays.asList(activity("bob", 1)));
+		recent.latestByActor("bob", 2);
+		
+		recent.add(activity("bob", 2));
+		recent.add(activity("alice", 3));
+		
+		assertEquals(Arrays.asList(2, 1), timestamps(recent.latestByActor("bob", 2)));
+	}
+	
+	@Test
+	public void shouldLimitTheNumberOfActorsInMemory() {
+		loadEmpty();
+		
+		for (int i = 0; i < 20; i++) {
+			recent.add(activity("user" + i, i));
+		}
+		
+		assertTrue(recent.getActors() <= 10);
+	}
+	
+	private void loadEmpty() {
+		when(repo.findAll(isA(Pageable.class))).thenReturn(new PageImpl<Activity>(Collections.<Activity>emptyList()));
+		recent.reload();
+	}
+	
+	private static List<Integer> timestamps(List<Activity> activities) {
+		List<Integer> times = new ArrayList<Integer>();
+		for (Activity a : activities) {
+			times.add((int) (a.getRecorded().getTime() / 1000L));
+		}
+		return times;
+	}
+	
+	private static Activity activity(String actor, int time) {
+		Activity activity = new Activity();
+		activity.setActor(actor);
+		activity.setVerb("comment");
+		activity.setRecorded(new Date(time * 1000L));
+		return activity;
+	}
+}
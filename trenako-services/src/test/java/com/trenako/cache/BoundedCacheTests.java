@@ -0,0 +1,84 @@
+/*
+ * Copyright 2012 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.trenako.cache;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * 
+ * @author Carlo Micieli
+ *
+ */
+public class BoundedCacheTests {
+
+	@Test
+	public void shouldReturnNullForMissingKeys() {
+		BoundedCache<String, String> cache = new BoundedCache<>(2);
+		assertNull(cache.get("key"));
+		assertEquals(1, cache.getMisses());
+		assertEquals(0, cache.getHits());
+	}
+	
+	@Test
+	public void shouldReturnCachedValues() {
+		BoundedCache<String, String> cache = new BoundedCache<>(2);
+		cache.put("key", "value");
+		assertEquals("value", cache.get("key"));
+		assertEquals(1, cache.getHits());
+		assertEquals(0, cache.getMisses());
+	}
+	
+	@Test
+	public void shouldIgnoreNullValues() {
+		BoundedCache<String, String> cache = new BoundedCache<>(2);
+		cache.put("key", null);
+		assertEquals(0, cache.size());
+	}
+	
+	@Test
+	public void shouldEvictTheLeastRecentlyUsedEntry() {
+		BoundedCache<String, String> cache = new BoundedCache<>(2);
+		cache.put("a", "A");
+		cache.put("b", "B");
+		cache.get("a");
+		cache.put("c", "C");
+		
+		assertEquals(2, cache.size());
+		assertEquals("A", cache.get("a"));
+		assertNull(cache.get("b"));
+		assertEquals("C", cache.get("c"));
+	}
+	
+	@Test
+	public void shouldEvictEntries() {
+		BoundedCache<String, String> cache = new BoundedCache<>(2);
+		cache.put("a", "A");
+		cache.put("b", "B");
+		
+		cache.evict("a");
+		assertEquals(1, cache.size());
+		
+		cache.clear();
+		assertEquals(0, cache.size());
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldValidateTheMaxSize() {
+		new BoundedCache<String, String>(0);
+	}
+}
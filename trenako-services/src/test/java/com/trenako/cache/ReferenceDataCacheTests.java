@@ -0,0 +1,127 @@
+/*
+ * Copyright 2012 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.trenako.cache;
+
+import static com.trenako.test.TestDataBuilder.*;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import com.trenako.entities.Brand;
+import com.trenako.entities.Railway;
+import com.trenako.entities.RollingStock;
+import com.trenako.entities.Scale;
+import com.trenako.repositories.BrowseRepository;
+
+/**
+ * 
+ * @author Carlo Micieli
+ *
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ReferenceDataCacheTests {
+
+	@Mock BrowseRepository repo;
+	ReferenceDataCache cache;
+	
+	@Before
+	public void setUp() {
+		when(repo.getBrands()).thenReturn(Arrays.asList(acme(), marklin()));
+		when(repo.getRailways()).thenReturn(Arrays.asList(db(), fs()));
+		when(repo.getScales()).thenReturn(Arrays.asList(scaleH0(), scaleN()));
+		when(repo.findBySlug(eq("acme"), eq(Brand.class))).thenReturn(acme());
+		
+		cache = new ReferenceDataCache(repo);
+	}
+	
+	@Test
+	public void shouldLoadTheBrandsOnlyOnce() {
+		cache.brands();
+		Iterable<Brand> brands = cache.brands();
+		
+		verify(repo, times(1)).getBrands();
+		assertEquals(Arrays.asList(acme(), marklin()), brands);
+		assertEquals(1, cache.getHits());
+		assertEquals(1, cache.getMisses());
+	}
+	
+	@Test
+	public void shouldLoadTheRailwaysOnlyOnce() {
+		cache.railways();
+		cache.railways();
+		verify(repo, times(1)).getRailways();
+	}
+	
+	@Test
+	public void shouldLoadTheScalesOnlyOnce() {
+		cache.scales();
+		cache.scales();
+		verify(repo, times(1)).getScales();
+	}
+	
+	@Test
+	public void shouldFindCachedValuesBySlug() {
+		cache.findBySlug("acme", Brand.class);
+		Brand brand = cache.findBySlug("acme", Brand.class);
+		
+		verify(repo, times(1)).findBySlug(eq("acme"), eq(Brand.class));
+		assertEquals(acme(), brand);
+	}
+	
+	@Test
+	public void shouldNotCacheMissingValues() {
+		cache.findBySlug("not-found", Brand.class);
+		cache.findBySlug("not-found", Brand.class);
+		verify(repo, times(2)).findBySlug(eq("not-found"), eq(Brand.class));
+	}
+	
+	@Test
+	public void shouldNotCacheTypesWithoutRegion() {
+		cache.findBySlug("rs", RollingStock.class);
+		cache.findBySlug("rs", RollingStock.class);
+		verify(repo, times(2)).findBySlug(eq("rs"), eq(RollingStock.class));
+	}
+	
+	@Test
+	public void shouldReloadTheValuesAfterEviction() {
+		cache.brands();
+		cache.scales();
+		
+		cache.evict(Brand.class);
+		cache.brands();
+		cache.scales();
+		
+		verify(repo, times(2)).getBrands();
+		verify(repo, times(1)).getScales();
+	}
+	
+	@Test
+	public void shouldClearAllRegions() {
+		cache.brands();
+		cache.railways();
+		assertEquals(2, cache.getSize());
+		
+		cache.clear();
+		assertEquals(0, cache.getSize());
+	}
+}
@@ -34,7 +34,7 @@ public class CriteriaTests {
 		
 		Iterable<String> keys = Criteria.keys();
 		
-		String expected = "[brand, scale, cat, railway, era, powermethod, category]";
+		String expected = "[brand, scale, cat, railway, era, powermethod, category, text]";
 		assertEquals(expected, keys.toString());
 	}
 
@@ -0,0 +1,306 @@
+/*
+ * Copyright 2012 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.trenako.facets;
+
+import static com.trenako.test.TestDataBuilder.*;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.bson.types.ObjectId;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBCollection;
+import com.mongodb.DBCursor;
+import com.mongodb.DBObject;
+import com.mongodb.WriteResult;
+import com.trenako.entities.RollingStock;
+
+/**
+ * 
+ * @author Carlo Micieli
+ *
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class FacetCountsTests {
+
+	@Mock MongoTemplate mongo;
+	@Mock DBCollection cube;
+	@Mock DBCollection rollingStocks;
+	@Mock DBCollection rebuilt;
+	@Captor ArgumentCaptor<List<DBObject>> insertedCells;
+	
+	FacetCounts facetCounts;
+	
+	@Before
+	public void setUp() {
+		MockitoAnnotations.initMocks(this);
+		when(mongo.getCollectionName(eq(RollingStock.class))).thenReturn("rollingStocks");
+		when(mongo.getCollection(eq("rollingStocks"))).thenReturn(rollingStocks);
+		when(mongo.getCollection(eq(FacetCounts.COLLECTION))).thenReturn(cube);
+		when(mongo.getCollection(eq(FacetCounts.REBUILD_COLLECTION))).thenReturn(rebuilt);
+		
+		facetCounts = new FacetCounts(mongo);
+	}
+	
+	@Test
+	public void shouldRollupTheCubeCells() {
+		mockCube(cell("acme", "h0", "fs", "iv", 3), cell("acme", "n", "db", "iv", 2), cell("roco", "h0", "db", "v", 1));
+		
+		assertEquals(6, facetCounts.count(FacetKey.of()));
+		assertEquals(5, facetCounts.count(FacetKey.of("acme")));
+		assertEquals(4, facetCounts.count(FacetKey.of(null, "h0")));
+		assertEquals(3, facetCounts.count(FacetKey.of(null, null, "db")));
+		assertEquals(2, facetCounts.count(FacetKey.of("acme", null, "db", "iv")));
+		assertEquals(0, facetCounts.count(FacetKey.of("marklin")));
+		
+		verify(cube, times(1)).find();
+	}
+	
+	@Test
+	public void shouldIncrementTheCountsForNewRollingStocks() {
+		mockCube(cell("acme", "h0", "fs", "iv", 3));
+		RollingStock rs = rollingStock(null, "iv");
+		
+		facetCounts.count(FacetKey.of());
+		facetCounts.onSave(rs, facetCounts.storedKey(rs));
+		
+		ArgumentCaptor<Query> argQuery = ArgumentCaptor.forClass(Query.class);
+		ArgumentCaptor<Update> argUpdate = ArgumentCaptor.forClass(Update.class);
+		verify(mongo, times(1)).upsert(argQuery.capture(), argUpdate.capture(), eq(FacetCounts.COLLECTION));
+		assertEquals("{ \"_id\" : \"brand=acme;scale=h0;railway=fs;era=iv\"}", 
+				argQuery.getValue().getQueryObject().toString());
+		DBObject updateObject = argUpdate.getValue().getUpdateObject();
+		Map<?, ?> inc = (Map<?, ?>) updateObject.get("$inc");
+		Map<?, ?> set = (Map<?, ?>) updateObject.get("$set");
+		assertEquals(1, inc.get("count"));
+		assertEquals("acme", set.get("brand.slug"));
+		assertEquals("h0", set.get("scale.slug"));
+		assertEquals("fs", set.get("railway.slug"));
+		assertEquals("iv", set.get("era"));
+		assertTrue(set.containsKey("category"));
+		
+		assertEquals(4, facetCounts.count(FacetKey.of()));
+		assertEquals(4, facetCounts.count(FacetKey.of("acme", "h0", "fs", "iv")));
+		verify(rollingStocks, never()).findOne(isA(DBObject.class), isA(DBObject.class));
+	}
+	
+	@Test
+	public void shouldMoveTheCountsForChangedRollingStocks() {
+		mockCube(cell("acme", "h0", "fs", "iv", 3));
+		ObjectId id = new ObjectId();
+		when(rollingStocks.findOne(eq(new BasicDBObject("_id", id)), isA(DBObject.class)))
+			.thenReturn(stored("acme", "h0", "fs", "iv"));
+		
+		facetCounts.count(FacetKey.of());
+		RollingStock rs = rollingStock(id, "v");
+		facetCounts.onSave(rs, facetCounts.storedKey(rs));
+		
+		verify(mongo, times(2)).upsert(isA(Query.class), isA(Update.class), eq(FacetCounts.COLLECTION));
+		assertEquals(3, facetCounts.count(FacetKey.of("acme")));
+		assertEquals(2, facetCounts.count(FacetKey.of(null, null, null, "iv")));
+		assertEquals(1, facetCounts.count(FacetKey.of(null, null, null, "v")));
+	}
+	
+	@Test
+	public void shouldNotUpdateTheCountsWhenFacetsAreNotChanged() {
+		ObjectId id = new ObjectId();
+		when(rollingStocks.findOne(eq(new BasicDBObject("_id", id)), isA(DBObject.class)))
+			.thenReturn(stored("acme", "h0", "fs", "iv"));
+		
+		RollingStock rs = rollingStock(id, "iv");
+		facetCounts.onSave(rs, facetCounts.storedKey(rs));
+		
+		verify(mongo, never()).upsert(isA(Query.class), isA(Update.class), eq(FacetCounts.COLLECTION));
+	}
+	
+	@Test
+	public void shouldDecrementTheCountsForRemovedRollingStocks() {
+		mockCube(cell("acme", "h0", "fs", "iv", 3));
+		ObjectId id = new ObjectId();
+		when(rollingStocks.findOne(eq(new BasicDBObject("_id", id)), isA(DBObject.class)))
+			.thenReturn(stored("acme", "h0", "fs", "iv"));
+		
+		facetCounts.count(FacetKey.of());
+		RollingStock rs = rollingStock(id, "iv");
+		facetCounts.onRemove(rs, facetCounts.storedKey(rs));
+		
+		verify(mongo, times(1)).upsert(isA(Query.class), isA(Update.class), eq(FacetCounts.COLLECTION));
+		assertEquals(2, facetCounts.count(FacetKey.of("acme")));
+	}
+	
+	@Test
+	public void shouldRebuildTheCubeFromTheRollingStocks() {
+		DBCursor cursor = mockRollingStocks(
+				stored("acme", "h0", "fs", "iv"), 
+				stored("acme", "h0", "fs", "iv"), 
+				stored("roco", "n", "db", "v"));
+		mockCube();
+		
+		facetCounts.rebuild();
+		
+		verify(mongo, times(1)).dropCollection(eq(FacetCounts.REBUILD_COLLECTION));
+		verify(rebuilt, times(1)).insert(insertedCells.capture());
+		assertEquals(2, insertedCells.getValue().size());
+		assertTrue(insertedCells.getValue().contains(cell("acme", "h0", "fs", "iv", 2)));
+		verify(rebuilt, times(1)).rename(eq(FacetCounts.COLLECTION), eq(true));
+		verify(mongo, never()).dropCollection(eq(FacetCounts.COLLECTION));
+		verify(cursor, times(1)).close();
+	}
+	
+	@Test
+	public void shouldRebuildTheCubeAtStartupWhenItIsOutOfStep() {
+		mockCube(cell("acme", "h0", "fs", "iv", 3));
+		mockRollingStocks(stored("acme", "h0", "fs", "iv"), stored("acme", "h0", "fs", "v"));
+		when(rollingStocks.count()).thenReturn(2L);
+		
+		facetCounts.start();
+		
+		verify(rebuilt, times(1)).rename(eq(FacetCounts.COLLECTION), eq(true));
+	}
+	
+	@Test
+	public void shouldRebuildTheCubeAtStartupWhenItIsMissing() {
+		mockCube();
+		mockRollingStocks(stored("acme", "h0", "fs", "iv"));
+		when(rollingStocks.count()).thenReturn(1L);
+		
+		facetCounts.start();
+		
+		verify(rebuilt, times(1)).rename(eq(FacetCounts.COLLECTION), eq(true));
+	}
+	
+	@Test
+	public void shouldLoadTheCubeAtStartupWhenItIsInStep() {
+		mockCube(cell("acme", "h0", "fs", "iv", 3));
+		when(rollingStocks.count()).thenReturn(3L);
+		
+		facetCounts.start();
+		
+		verify(rollingStocks, never()).find(isA(DBObject.class), isA(DBObject.class));
+		assertEquals(3, facetCounts.count(FacetKey.of("acme")));
+	}
+	
+	@Test
+	public void shouldReadAgainTheRollingStocksChangedDuringTheRebuild() {
+		final ObjectId id = new ObjectId();
+		DBCursor cursor = mock(DBCursor.class);
+		when(cursor.iterator()).thenAnswer(new Answer<Iterator<DBObject>>() {
+			@Override
+			public Iterator<DBObject> answer(InvocationOnMock invocation) {
+				// the rolling stock is saved after the scan has read it
+				facetCounts.onSave(rollingStock(id, "v"), FacetKey.of("acme", "h0", "fs", "iv"));
+				return Arrays.<DBObject>asList(stored(id, "acme", "h0", "fs", "iv")).iterator();
+			}
+		});
+		when(rollingStocks.find(isA(DBObject.class), isA(DBObject.class))).thenReturn(cursor);
+		when(rollingStocks.findOne(eq(new BasicDBObject("_id", id)), isA(DBObject.class)))
+			.thenReturn(stored(id, "acme", "h0", "fs", "v"));
+		mockCube();
+		
+		facetCounts.rebuild();
+		
+		verify(rebuilt, times(1)).insert(insertedCells.capture());
+		assertEquals(Arrays.asList(cell("acme", "h0", "fs", "v", 1)), insertedCells.getValue());
+		verify(mongo, never()).upsert(isA(Query.class), isA(Update.class), eq(FacetCounts.COLLECTION));
+	}
+	
+	@Test
+	public void shouldMoveTheRollingStocksChangedWhileTheNewCubeIsWritten() {
+		final ObjectId id = new ObjectId();
+		mockRollingStocks(stored(id, "acme", "h0", "fs", "iv"));
+		when(rollingStocks.findOne(eq(new BasicDBObject("_id", id)), isA(DBObject.class)))
+			.thenReturn(stored(id, "acme", "h0", "fs", "v"));
+		when(rebuilt.insert(anyListOf(DBObject.class))).thenAnswer(new Answer<WriteResult>() {
+			@Override
+			public WriteResult answer(InvocationOnMock invocation) {
+				facetCounts.onSave(rollingStock(id, "v"), FacetKey.of("acme", "h0", "fs", "iv"));
+				return null;
+			}
+		});
+		mockCube(cell("acme", "h0", "fs", "iv", 1));
+		
+		facetCounts.rebuild();
+		
+		// the counts are moved in the new cube
+		verify(mongo, times(2)).upsert(isA(Query.class), isA(Update.class), eq(FacetCounts.COLLECTION));
+		assertEquals(0, facetCounts.count(FacetKey.of(null, null, null, "iv")));
+		assertEquals(1, facetCounts.count(FacetKey.of(null, null, null, "v")));
+	}
+	
+	private DBCursor mockRollingStocks(DBObject... docs) {
+		DBCursor cursor = mock(DBCursor.class);
+		when(cursor.iterator()).thenReturn(Arrays.asList(docs).iterator());
+		when(rollingStocks.find(isA(DBObject.class), isA(DBObject.class))).thenReturn(cursor);
+		return cursor;
+	}
+	
+	private void mockCube(DBObject... cells) {
+		DBCursor cursor = mock(DBCursor.class);
+		when(cursor.iterator()).thenReturn(Arrays.asList(cells).iterator());
+		when(cube.find()).thenReturn(cursor);
+	}
+	
+	private static RollingStock rollingStock(ObjectId id, String era) {
+		return new RollingStock.Builder(acme(), "123456")
+			.id(id)
+			.railway(fs())
+			.scale(scaleH0())
+			.era(era)
+			.build();
+	}
+	
+	private static BasicDBObject stored(String brand, String scale, String railway, String era) {
+		return stored(new ObjectId(), brand, scale, railway, era);
+	}
+	
+	private static BasicDBObject stored(ObjectId id, String brand, String scale, String railway, String era) {
+		return new BasicDBObject("_id", id)
+			.append("brand", new BasicDBObject("slug", brand))
+			.append("scale", new BasicDBObject("slug", scale))
+			.append("railway", new BasicDBObject("slug", railway))
+			.append("era", era);
+	}
+	
+	private static DBObject cell(String brand, String scale, String railway, String era, int count) {
+		FacetKey key = FacetKey.of(brand, scale, railway, era);
+		return new BasicDBObject("_id", key.toString())
+			.append("brand", new BasicDBObject("slug", brand))
+			.append("scale", new BasicDBObject("slug", scale))
+			.append("railway", new BasicDBObject("slug", railway))
+			.append("era", era)
+			.append("category", null)
+			.append("powerMethod", null)
+			.append("count", count);
+	}
+}
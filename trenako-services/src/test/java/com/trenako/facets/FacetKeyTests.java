@@ -0,0 +1,125 @@
+/*
+ * Copyright 2012 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.trenako.facets;
+
+import static com.trenako.test.TestDataBuilder.*;
+import static org.junit.Assert.*;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.trenako.criteria.Criteria;
+import com.trenako.criteria.SearchCriteria;
+import com.trenako.criteria.SearchRequest;
+import com.trenako.entities.RollingStock;
+
+/**
+ * 
+ * @author Carlo Micieli
+ *
+ */
+public class FacetKeyTests {
+
+	@Test
+	public void shouldCreateKeysFromValues() {
+		FacetKey key = FacetKey.of("acme", "h0", null, "iv", "", "dc");
+		
+		assertEquals("acme", key.get(0));
+		assertEquals("h0", key.get(1));
+		assertNull(key.get(2));
+		assertNull(key.get(4));
+		assertEquals("brand=acme;scale=h0;era=iv;powerMethod=dc", key.toString());
+	}
+	
+	@Test
+	public void shouldCreateTheEmptyKey() {
+		assertEquals("", FacetKey.of().toString());
+	}
+	
+	@Test
+	public void shouldCreateCellKeysForRollingStocks() {
+		RollingStock rs = new RollingStock.Builder(acme(), "123456")
+			.railway(fs())
+			.scale(scaleH0())
+			.era("iv")
+			.category("electric-locomotives")
+			.powerMethod("ac")
+			.build();
+		
+		FacetKey key = FacetKey.of(rs);
+		
+		assertEquals(FacetKey.of("acme", "h0", "fs", "iv", "electric-locomotives", "ac"), key);
+	}
+	
+	@Test
+	public void shouldCreateKeysForSearchCriteria() {
+		SearchCriteria sc = new SearchCriteria.Builder()
+			.brand(acme())
+			.railway(fs())
+			.build();
+		
+		assertEquals(FacetKey.of("acme", null, "fs"), FacetKey.of(sc));
+	}
+	
+	@Test
+	public void shouldCreateKeysForSearchRequests() {
+		SearchRequest sc = new SearchRequest();
+		sc.setScale("h0");
+		sc.setCat("dc-electric-locomotives");
+		
+		assertEquals(FacetKey.of(null, "h0", null, null, "electric-locomotives", "dc"), FacetKey.of(sc));
+	}
+	
+	@Test
+	public void shouldReturnCopiesWithNewValues() {
+		FacetKey key = FacetKey.of("acme");
+		FacetKey other = key.with(Criteria.ERA, "iv");
+		
+		assertEquals("brand=acme", key.toString());
+		assertEquals("brand=acme;era=iv", other.toString());
+	}
+	
+	@Test
+	public void shouldReturnTheRollupKeys() {
+		FacetKey key = FacetKey.of("acme", "h0", null, "iv");
+		
+		List<FacetKey> rollups = key.rollups();
+		
+		Set<String> keys = new HashSet<String>();
+		for (FacetKey k : rollups) {
+			keys.add(k.toString());
+		}
+		assertEquals(8, rollups.size());
+		assertTrue(keys.contains(""));
+		assertTrue(keys.contains("brand=acme"));
+		assertTrue(keys.contains("scale=h0;era=iv"));
+		assertTrue(keys.contains("brand=acme;scale=h0;era=iv"));
+	}
+	
+	@Test
+	public void shouldCheckWhetherTwoKeysAreEquals() {
+		FacetKey x = FacetKey.of("acme", "h0");
+		FacetKey y = FacetKey.of("acme", "h0");
+		FacetKey z = FacetKey.of("acme", "n");
+		
+		assertTrue(x.equals(y));
+		assertEquals(x.hashCode(), y.hashCode());
+		assertFalse(x.equals(z));
+	}
+}
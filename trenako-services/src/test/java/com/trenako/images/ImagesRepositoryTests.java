@@ -0,0 +1,147 @@
+/*
+ * Copyright 2012 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.trenako.images;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.MongoDbFactory;
+import org.springframework.data.mongodb.gridfs.GridFsTemplate;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DB;
+import com.mongodb.DBCollection;
+import com.mongodb.DBObject;
+import com.mongodb.MongoException;
+
+/**
+ * 
+ * @author Carlo Micieli
+ *
+ */
+public class ImagesRepositoryTests {
+
+	@Mock MongoDbFactory dbFactory;
+	@Mock GridFsTemplate gridFsTemplate;
+	@Mock DB db;
+	@Mock DBCollection files;
+	@Mock DBCollection chunks;
+	
+	ImagesRepository repo;
+	
+	@Before
+	public void setUp() {
+		MockitoAnnotations.initMocks(this);
+		when(dbFactory.getDb()).thenReturn(db);
+		when(db.getCollection("fs.files")).thenReturn(files);
+		when(db.getCollection("fs.chunks")).thenReturn(chunks);
+		
+		repo = new ImagesRepositoryImpl(dbFactory, gridFsTemplate);
+	}
+	
+	@Test
+	public void shouldCloseTheContentStreamAfterSaving() {
+		TrackedInputStream content = new TrackedInputStream(new byte[]{1, 2, 3});
+		
+		repo.store(new UploadFile(content, "image/jpeg", "image.jpg", metadata()));
+		
+		assertTrue(content.closed);
+		verify(files, times(1)).save(isA(DBObject.class));
+	}
+	
+	@Test
+	public void shouldRemoveTheChunksWhenSavingFails() {
+		TrackedInputStream content = new TrackedInputStream(new byte[]{1, 2, 3});
+		when(files.save(isA(DBObject.class))).thenThrow(new MongoException("write error"));
+		
+		try {
+			repo.store(new UploadFile(content, "image/jpeg", "image.jpg", metadata()));
+			fail("Exception expected");
+		}
+		catch (MongoException ex) {
+		}
+		
+		assertTrue(content.closed);
+		verify(chunks, times(1)).remove(isA(BasicDBObject.class));
+	}
+	
+	@Test
+	public void shouldRemoveTheChunksWhenWritingFails() {
+		ContentWriter writer = new ContentWriter() {
+			@Override
+			public void writeTo(OutputStream out) throws IOException {
+				throw new IllegalStateException("unable to resize");
+			}
+		};
+		
+		try {
+			repo.store(new UploadFile(writer, "image/jpeg", "image.jpg", metadata()));
+			fail("Exception expected");
+		}
+		catch (IllegalStateException ex) {
+		}
+		
+		verify(chunks, times(1)).remove(isA(BasicDBObject.class));
+	}
+	
+	@Test(expected = DataAccessResourceFailureException.class)
+	public void shouldRemoveTheChunksWhenWritingThrowsIOExceptions() {
+		ContentWriter writer = new ContentWriter() {
+			@Override
+			public void writeTo(OutputStream out) throws IOException {
+				throw new IOException("unable to read");
+			}
+		};
+		
+		try {
+			repo.store(new UploadFile(writer, "image/jpeg", "image.jpg", metadata()));
+		}
+		finally {
+			verify(chunks, times(1)).remove(isA(BasicDBObject.class));
+		}
+	}
+	
+	private static Map<String, String> metadata() {
+		Map<String, String> metadata = new HashMap<>();
+		metadata.put("slug", "image");
+		return metadata;
+	}
+	
+	private static class TrackedInputStream extends ByteArrayInputStream {
+		boolean closed;
+		
+		TrackedInputStream(byte[] buf) {
+			super(buf);
+		}
+		
+		@Override
+		public void close() throws IOException {
+			closed = true;
+			super.close();
+		}
+	}
+}
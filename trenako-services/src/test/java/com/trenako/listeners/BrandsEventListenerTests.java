@@ -18,9 +18,12 @@ package com.trenako.listeners;
 import org.junit.Test;
 
 import com.mongodb.BasicDBObject;
+import com.trenako.cache.ReferenceDataCache;
 import com.trenako.entities.Brand;
+import com.trenako.search.AutocompleteIndex;
 
 import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
 
 /**
  * 
@@ -33,7 +36,7 @@ public class BrandsEventListenerTests {
 	
 	@Test
 	public void shouldFillTheValuesBeforeSave() {
-		listener = new BrandsEventListener();
+		listener = new BrandsEventListener(mock(ReferenceDataCache.class), mock(AutocompleteIndex.class));
 		
 		Brand brand = new Brand.Builder("ACME").build();
 		BasicDBObject dbo = new BasicDBObject();
@@ -43,4 +46,24 @@ public class BrandsEventListenerTests {
 		assertNotNull(dbo.get("lastModified"));
 	}
 	
+	@Test
+	public void shouldEvictTheCachedValuesAfterSave() {
+		ReferenceDataCache cache = mock(ReferenceDataCache.class);
+		BrandsEventListener listener = new BrandsEventListener(cache, mock(AutocompleteIndex.class));
+		
+		listener.onAfterSave(new Brand.Builder("ACME").build(), new BasicDBObject());
+		
+		verify(cache, times(1)).evict(eq(Brand.class));
+	}
+	
+	@Test
+	public void shouldIndexTheSavedValuesForAutocomplete() {
+		AutocompleteIndex autocomplete = mock(AutocompleteIndex.class);
+		BrandsEventListener listener = new BrandsEventListener(mock(ReferenceDataCache.class), autocomplete);
+		
+		Brand brand = new Brand.Builder("ACME").build();
+		listener.onAfterSave(brand, new BasicDBObject());
+		
+		verify(autocomplete, times(1)).index(eq(brand));
+	}
 }
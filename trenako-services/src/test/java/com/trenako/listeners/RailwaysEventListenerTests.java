@@ -16,11 +16,14 @@
 package com.trenako.listeners;
 
 import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
 
 import org.junit.Test;
 
 import com.mongodb.BasicDBObject;
+import com.trenako.cache.ReferenceDataCache;
 import com.trenako.entities.Railway;
+import com.trenako.search.AutocompleteIndex;
 
 /**
  * 
@@ -30,7 +33,7 @@ import com.trenako.entities.Railway;
 public class RailwaysEventListenerTests {
 	@Test
 	public void shouldFillTheValuesBeforeSave() {
-		RailwaysEventListener listener = new RailwaysEventListener();
+		RailwaysEventListener listener = new RailwaysEventListener(mock(ReferenceDataCache.class), mock(AutocompleteIndex.class));
 		
 		Railway railway = new Railway("Die Bahn");
 		BasicDBObject dbo = new BasicDBObject();
@@ -39,4 +42,25 @@ public class RailwaysEventListenerTests {
 		assertNotNull(dbo.get("lastModified"));
 		assertEquals("die-bahn", dbo.get("slug"));
 	}
+	
+	@Test
+	public void shouldEvictTheCachedValuesAfterSave() {
+		ReferenceDataCache cache = mock(ReferenceDataCache.class);
+		RailwaysEventListener listener = new RailwaysEventListener(cache, mock(AutocompleteIndex.class));
+		
+		listener.onAfterSave(new Railway("Die Bahn"), new BasicDBObject());
+		
+		verify(cache, times(1)).evict(eq(Railway.class));
+	}
+	
+	@Test
+	public void shouldIndexTheSavedValuesForAutocomplete() {
+		AutocompleteIndex autocomplete = mock(AutocompleteIndex.class);
+		RailwaysEventListener listener = new RailwaysEventListener(mock(ReferenceDataCache.class), autocomplete);
+		
+		Railway railway = new Railway("Die Bahn");
+		listener.onAfterSave(railway, new BasicDBObject());
+		
+		verify(autocomplete, times(1)).index(eq(railway));
+	}
 }
@@ -17,11 +17,16 @@ package com.trenako.listeners;
 
 import static com.trenako.test.TestDataBuilder.*;
 import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
 
 import org.junit.Test;
 
 import com.mongodb.BasicDBObject;
 import com.trenako.entities.RollingStock;
+import com.trenako.facets.FacetCounts;
+import com.trenako.facets.FacetKey;
+import com.trenako.search.AutocompleteIndex;
+import com.trenako.search.RollingStockTextIndex;
 
 /**
  * 
@@ -29,9 +34,13 @@ import com.trenako.entities.RollingStock;
  *
  */
 public class RollingStocksEventListenerTests {
+	FacetCounts facetCounts = mock(FacetCounts.class);
+	RollingStockTextIndex textIndex = mock(RollingStockTextIndex.class);
+	AutocompleteIndex autocomplete = mock(AutocompleteIndex.class);
+	RollingStocksEventListener listener = new RollingStocksEventListener(facetCounts, textIndex, autocomplete);
+	
 	@Test
 	public void shouldFillTheValuesBeforeSave() {
-		RollingStocksEventListener listener = new RollingStocksEventListener();
 		
 		RollingStock rollingStock = new RollingStock.Builder(acme(), "123456")
 			.railway(fs())
@@ -42,5 +51,51 @@ public class RollingStocksEventListenerTests {
 		
 		assertNotNull(dbo.get("lastModified"));
 		assertEquals("acme-123456", dbo.get("slug"));
-	}	
+	}
+	
+	@Test
+	public void shouldUpdateTheFacetCountsAfterSave() {
+		RollingStock rollingStock = new RollingStock.Builder(acme(), "123456")
+			.railway(fs())
+			.scale(scaleH0())
+			.build();
+		FacetKey oldKey = FacetKey.of(rollingStock);
+		when(facetCounts.storedKey(eq(rollingStock))).thenReturn(oldKey);
+		
+		listener.onBeforeSave(rollingStock, new BasicDBObject());
+		verify(facetCounts, never()).onSave(any(RollingStock.class), any(FacetKey.class));
+		
+		listener.onAfterSave(rollingStock, new BasicDBObject());
+		verify(facetCounts, times(1)).onSave(eq(rollingStock), eq(oldKey));
+	}
+	
+	@Test
+	public void shouldNotUpdateTheFacetCountsWhenTheSaveFails() {
+		RollingStock failed = new RollingStock.Builder(acme(), "123456")
+			.railway(fs())
+			.scale(scaleH0())
+			.build();
+		RollingStock saved = new RollingStock.Builder(acme(), "123457")
+			.railway(fs())
+			.scale(scaleH0())
+			.build();
+		
+		// the save of the first rolling stock never reaches onAfterSave
+		listener.onBeforeSave(failed, new BasicDBObject());
+		listener.onAfterSave(saved, new BasicDBObject());
+		
+		verify(facetCounts, never()).onSave(any(RollingStock.class), any(FacetKey.class));
+	}
+	
+	@Test
+	public void shouldIndexTheRollingStocksAfterSave() {
+		RollingStock rollingStock = new RollingStock.Builder(acme(), "123456")
+			.railway(fs())
+			.scale(scaleH0())
+			.build();
+		listener.onAfterSave(rollingStock, new BasicDBObject());
+		
+		verify(textIndex, times(1)).index(eq(rollingStock));
+		verify(autocomplete, times(1)).index(eq(rollingStock));
+	}
 }
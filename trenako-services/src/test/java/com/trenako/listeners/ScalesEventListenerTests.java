@@ -16,11 +16,14 @@
 package com.trenako.listeners;
 
 import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
 
 import org.junit.Test;
 
 import com.mongodb.BasicDBObject;
+import com.trenako.cache.ReferenceDataCache;
 import com.trenako.entities.Scale;
+import com.trenako.search.AutocompleteIndex;
 
 /**
  * 
@@ -30,7 +33,7 @@ import com.trenako.entities.Scale;
 public class ScalesEventListenerTests {
 	@Test
 	public void shouldFillTheValuesBeforeSave() {
-		ScalesEventListener listener = new ScalesEventListener();
+		ScalesEventListener listener = new ScalesEventListener(mock(ReferenceDataCache.class), mock(AutocompleteIndex.class));
 
 		Scale scale = new Scale.Builder("H0").ratio(870).build();
 		BasicDBObject dbo = new BasicDBObject();
@@ -39,4 +42,25 @@ public class ScalesEventListenerTests {
 		assertNotNull(dbo.get("lastModified"));
 		assertEquals("h0", dbo.get("slug"));
 	}
+	
+	@Test
+	public void shouldEvictTheCachedValuesAfterSave() {
+		ReferenceDataCache cache = mock(ReferenceDataCache.class);
+		ScalesEventListener listener = new ScalesEventListener(cache, mock(AutocompleteIndex.class));
+		
+		listener.onAfterSave(new Scale.Builder("H0").ratio(870).build(), new BasicDBObject());
+		
+		verify(cache, times(1)).evict(eq(Scale.class));
+	}
+	
+	@Test
+	public void shouldIndexTheSavedValuesForAutocomplete() {
+		AutocompleteIndex autocomplete = mock(AutocompleteIndex.class);
+		ScalesEventListener listener = new ScalesEventListener(mock(ReferenceDataCache.class), autocomplete);
+		
+		Scale scale = new Scale.Builder("H0").ratio(870).build();
+		listener.onAfterSave(scale, new BasicDBObject());
+		
+		verify(autocomplete, times(1)).index(eq(scale));
+	}
 }
@@ -18,6 +18,11 @@ package com.trenako.repositories;
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.bson.types.ObjectId;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -25,10 +30,13 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort.Direction;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.mongodb.core.query.Update;
 
+import com.mongodb.DBObject;
 import com.trenako.entities.Account;
 
 /**
@@ -68,5 +76,86 @@ public class AccountsCustomRepositoryTests {
 		assertEquals("{ \"$set\" : { \"roles\" : [ \"ROLE_USER\" , \"ROLE_STAFF\"] , \"locked\" : false , \"enabled\" : true}}", 
 				arg2.getValue().getUpdateObject().toString());
 	}
-
+	
+	@Test
+	public void shouldFindAccountsBySlugs() {
+		List<String> slugs = Arrays.asList("bob", "alice");
+		
+		repo.findBySlugs(slugs);
+		ArgumentCaptor<Query> arg = ArgumentCaptor.forClass(Query.class);
+		
+		verify(mongo, times(1)).find(arg.capture(), eq(Account.class));
+		
+		assertEquals("{ \"slug\" : { \"$in\" : [ \"bob\" , \"alice\"]}}", arg.getValue().getQueryObject().toString());
+		DBObject fields = arg.getValue().getFieldsObject();
+		assertEquals(3, fields.keySet().size());
+		assertEquals(1, fields.get("slug"));
+		assertEquals(1, fields.get("displayName"));
+		assertEquals(1, fields.get("emailAddress"));
+	}
+	
+	@Test
+	public void shouldFindAccountsPageByOffset() {
+		repo.findPage(new PageRequest(2, 10), null, null);
+		ArgumentCaptor<Query> arg = ArgumentCaptor.forClass(Query.class);
+		
+		verify(mongo, times(1)).find(arg.capture(), eq(Account.class));
+		
+		assertEquals("{ }", arg.getValue().getQueryObject().toString());
+		assertEquals("{ \"_id\" : 1}", arg.getValue().getSortObject().toString());
+		assertEquals(20, arg.getValue().getSkip());
+		assertEquals(10, arg.getValue().getLimit());
+	}
+	
+	@Test
+	public void shouldFindAccountsPageSinceTheProvidedId() {
+		ObjectId since = new ObjectId("47cc67093475061e3d95369d");
+		
+		repo.findPage(new PageRequest(2, 10), since, null);
+		ArgumentCaptor<Query> arg = ArgumentCaptor.forClass(Query.class);
+		
+		verify(mongo, times(1)).find(arg.capture(), eq(Account.class));
+		
+		assertEquals("{ \"_id\" : { \"$gt\" : { \"$oid\" : \"47cc67093475061e3d95369d\"}}}", 
+				arg.getValue().getQueryObject().toString());
+		assertEquals("{ \"_id\" : 1}", arg.getValue().getSortObject().toString());
+		assertEquals(0, arg.getValue().getSkip());
+		assertEquals(10, arg.getValue().getLimit());
+	}
+	
+	@Test
+	public void shouldFindAccountsPageBeforeTheProvidedId() {
+		ObjectId max = new ObjectId("47cc67093475061e3d95369d");
+		Account alice = new Account.Builder("alice@mail.com").build();
+		Account bob = new Account.Builder("bob@mail.com").build();
+		when(mongo.find(isA(Query.class), eq(Account.class)))
+			.thenReturn(new ArrayList<Account>(Arrays.asList(bob, alice)));
+		
+		List<Account> accounts = repo.findPage(new PageRequest(2, 10), null, max);
+		ArgumentCaptor<Query> arg = ArgumentCaptor.forClass(Query.class);
+		
+		verify(mongo, times(1)).find(arg.capture(), eq(Account.class));
+		
+		assertEquals("{ \"_id\" : { \"$lt\" : { \"$oid\" : \"47cc67093475061e3d95369d\"}}}", 
+				arg.getValue().getQueryObject().toString());
+		assertEquals("{ \"_id\" : -1}", arg.getValue().getSortObject().toString());
+		assertEquals(0, arg.getValue().getSkip());
+		assertEquals(10, arg.getValue().getLimit());
+		assertEquals(Arrays.asList(alice, bob), accounts);
+	}
+	
+	@Test
+	public void shouldFindSortedAccountsPageByOffset() {
+		ObjectId since = new ObjectId("47cc67093475061e3d95369d");
+		
+		repo.findPage(new PageRequest(1, 10, Direction.ASC, "displayName"), since, null);
+		ArgumentCaptor<Query> arg = ArgumentCaptor.forClass(Query.class);
+		
+		verify(mongo, times(1)).find(arg.capture(), eq(Account.class));
+		
+		assertEquals("{ }", arg.getValue().getQueryObject().toString());
+		assertEquals("{ \"displayName\" : 1}", arg.getValue().getSortObject().toString());
+		assertEquals(10, arg.getValue().getSkip());
+		assertEquals(10, arg.getValue().getLimit());
+	}
 }
@@ -21,17 +21,24 @@ import static org.mockito.Matchers.eq;
 import static org.mockito.Matchers.isA;
 import static org.mockito.Mockito.*;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 
+import org.bson.types.ObjectId;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.invocation.InvocationOnMock;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Query;
 
@@ -42,7 +49,10 @@ import com.trenako.entities.RollingStock;
 import com.trenako.entities.Scale;
 import com.trenako.repositories.BrowseRepository;
 import com.trenako.results.PaginatedResults;
+import com.trenako.results.RangeCursor;
 import com.trenako.results.RangeRequest;
+import com.trenako.results.RollingStockSummary;
+import com.trenako.search.TextHit;
 
 /**
  * 
@@ -53,12 +63,14 @@ import com.trenako.results.RangeRequest;
 public class BrowseRepositoryTests {	
 		
 	@Mock MongoTemplate mongo;
+	@Mock SearchIndexesManager indexes;
 	BrowseRepository repo;
 	
 	@Before
 	public void setUp() {
 		MockitoAnnotations.initMocks(this);
-		repo = new BrowseRepositoryImpl(mongo);
+		when(mongo.getCollectionName(RollingStock.class)).thenReturn("rollingStocks");
+		repo = new BrowseRepositoryImpl(mongo, indexes);
 	}
 	
 	@Test
@@ -114,14 +126,14 @@ public class BrowseRepositoryTests {
 	}
 	
 	private void mockFindResults() {
-		List<RollingStock> value = Collections.unmodifiableList(
-				Arrays.asList(new RollingStock(), new RollingStock()));
-		when(mongo.find(isA(Query.class), eq(RollingStock.class))).thenReturn(value);	
+		List<RollingStockSummary> value = Collections.unmodifiableList(
+				Arrays.asList(new RollingStockSummary(new RollingStock()), new RollingStockSummary(new RollingStock())));
+		when(mongo.find(isA(Query.class), eq(RollingStockSummary.class), eq("rollingStocks"))).thenReturn(value);	
 	}
 	
 	private void verifyMongoQuery(String expected, String sortExpected) {
 		ArgumentCaptor<Query> arg = ArgumentCaptor.forClass(Query.class);
-		verify(mongo, times(1)).find(arg.capture(), eq(RollingStock.class));
+		verify(mongo, times(1)).find(arg.capture(), eq(RollingStockSummary.class), eq("rollingStocks"));
 		assertEquals(expected, arg.getValue().getQueryObject().toString());
 		assertEquals(sortExpected, arg.getValue().getSortObject().toString());
 	}
@@ -135,10 +147,10 @@ public class BrowseRepositoryTests {
 			.buildImmutable();
 		RangeRequest range = buildRange(10);
 		
-		PaginatedResults<RollingStock> results = repo.findByCriteria(sc, range);
+		PaginatedResults<RollingStockSummary> results = repo.findByCriteria(sc, range, Locale.ENGLISH);
 		
 		assertNotNull("Results is empty", results);
-		verifyMongoQuery("{ \"brand.slug\" : \"acme\"}", "{ \"lastModified\" : -1}");
+		verifyMongoQuery("{ \"brand.slug\" : \"acme\"}", "{ \"lastModified\" : -1 , \"_id\" : -1}");
 	}
 	
 	@Test
@@ -149,10 +161,10 @@ public class BrowseRepositoryTests {
 			.buildImmutable();
 		RangeRequest range = buildRange(10);
 		
-		PaginatedResults<RollingStock> results = repo.findByCriteria(sc, range);
+		PaginatedResults<RollingStockSummary> results = repo.findByCriteria(sc, range, Locale.ENGLISH);
 		
 		assertNotNull("Results is empty", results);
-		verifyMongoQuery("{ \"era\" : \"iii\"}", "{ \"lastModified\" : -1}");
+		verifyMongoQuery("{ \"era\" : \"iii\"}", "{ \"lastModified\" : -1 , \"_id\" : -1}");
 	}
 	
 	@Test
@@ -163,10 +175,10 @@ public class BrowseRepositoryTests {
 			.buildImmutable();
 		RangeRequest range = buildRange(10);
 		
-		PaginatedResults<RollingStock> results = repo.findByCriteria(sc, range);
+		PaginatedResults<RollingStockSummary> results = repo.findByCriteria(sc, range, Locale.ENGLISH);
 		
 		assertNotNull("Results is empty", results);
-		verifyMongoQuery("{ \"scale.slug\" : \"h0\"}", "{ \"lastModified\" : -1}");
+		verifyMongoQuery("{ \"scale.slug\" : \"h0\"}", "{ \"lastModified\" : -1 , \"_id\" : -1}");
 	}
 	
 	@Test
@@ -178,10 +190,10 @@ public class BrowseRepositoryTests {
 			.buildImmutable();
 		RangeRequest range = buildRange(10);
 		
-		PaginatedResults<RollingStock> results = repo.findByCriteria(sc, range);
+		PaginatedResults<RollingStockSummary> results = repo.findByCriteria(sc, range, Locale.ENGLISH);
 		
 		assertNotNull("Results is empty", results);
-		verifyMongoQuery("{ \"category\" : \"electric-locomotives\"}", "{ \"lastModified\" : -1}");
+		verifyMongoQuery("{ \"category\" : \"electric-locomotives\"}", "{ \"lastModified\" : -1 , \"_id\" : -1}");
 	}
 	
 	@Test
@@ -193,10 +205,10 @@ public class BrowseRepositoryTests {
 			.buildImmutable();
 		RangeRequest range = buildRange(10);
 		
-		PaginatedResults<RollingStock> results = repo.findByCriteria(sc, range);
+		PaginatedResults<RollingStockSummary> results = repo.findByCriteria(sc, range, Locale.ENGLISH);
 		
 		assertNotNull("Results is empty", results);
-		verifyMongoQuery("{ \"railway.slug\" : \"db\"}", "{ \"lastModified\" : -1}");
+		verifyMongoQuery("{ \"railway.slug\" : \"db\"}", "{ \"lastModified\" : -1 , \"_id\" : -1}");
 	}
 	
 	@Test
@@ -208,10 +220,10 @@ public class BrowseRepositoryTests {
 			.buildImmutable();
 		RangeRequest range = buildRange(10);
 		
-		PaginatedResults<RollingStock> results = repo.findByCriteria(sc, range);
+		PaginatedResults<RollingStockSummary> results = repo.findByCriteria(sc, range, Locale.ENGLISH);
 		
 		assertNotNull("Results is empty", results);
-		verifyMongoQuery("{ \"powerMethod\" : \"ac\"}", "{ \"lastModified\" : -1}");
+		verifyMongoQuery("{ \"powerMethod\" : \"ac\"}", "{ \"lastModified\" : -1 , \"_id\" : -1}");
 	}
 	
 	@Test
@@ -220,10 +232,10 @@ public class BrowseRepositoryTests {
 		String tag = "tagval";
 		RangeRequest range = buildRange(10);
 		
-		PaginatedResults<RollingStock> results = repo.findByTag(tag, range);
+		PaginatedResults<RollingStockSummary> results = repo.findByTag(tag, range, Locale.ENGLISH);
 		
 		assertNotNull("Results is empty", results);
-		verifyMongoQuery("{ \"tag\" : \"tagval\"}", "{ \"lastModified\" : -1}");
+		verifyMongoQuery("{ \"tag\" : \"tagval\"}", "{ \"lastModified\" : -1 , \"_id\" : -1}");
 	}
 	
 	@Test
@@ -234,11 +246,27 @@ public class BrowseRepositoryTests {
 			.build();
 		RangeRequest range = buildRange(10);
 		
-		PaginatedResults<RollingStock> results = repo.findByCriteria(sc, range);
+		PaginatedResults<RollingStockSummary> results = repo.findByCriteria(sc, range, Locale.ENGLISH);
 		
 		assertNotNull("Results is empty", results);
 		verifyMongoQuery("{ \"category\" : \"electric-locomotives\" , \"powerMethod\" : \"ac\"}", 
-				"{ \"lastModified\" : -1}");
+				"{ \"lastModified\" : -1 , \"_id\" : -1}");
+	}
+	
+	@Test
+	public void shouldLoadOnlyTheSummaryFieldsForTheCurrentLocale() {
+		mockFindResults();
+		SearchCriteria sc = new SearchCriteria.Builder()
+			.brand(acme())
+			.buildImmutable();
+		
+		repo.findByCriteria(sc, buildRange(10), Locale.ITALIAN);
+		
+		ArgumentCaptor<Query> arg = ArgumentCaptor.forClass(Query.class);
+		verify(mongo, times(1)).find(arg.capture(), eq(RollingStockSummary.class), eq("rollingStocks"));
+		Set<String> expected = new HashSet<String>(Arrays.asList("slug", "brand", "railway", "scale", "itemNumber", 
+				"era", "category", "powerMethod", "lastModified", "description.en", "description.it"));
+		assertEquals(expected, arg.getValue().getFieldsObject().keySet());
 	}
 	
 	@Test
@@ -270,4 +298,102 @@ public class BrowseRepositoryTests {
 		verify(mongo, times(1)).findOne(arg.capture(), eq(Scale.class));
 		assertEquals("{ \"slug\" : \"h0\"}", arg.getValue().getQueryObject().toString());
 	}
+	
+	@Test
+	public void shouldFindRollingStocksForTextHitsInScoreOrder() {
+		RollingStockSummary rs1 = rollingStock(new ObjectId());
+		RollingStockSummary rs2 = rollingStock(new ObjectId());
+		List<TextHit> hits = Arrays.asList(new TextHit(rs2.getId(), 2.0), new TextHit(rs1.getId(), 1.0));
+		when(mongo.find(isA(Query.class), eq(RollingStockSummary.class), eq("rollingStocks"))).thenReturn(Arrays.asList(rs1, rs2));
+		
+		SearchCriteria sc = new SearchCriteria.Builder()
+			.railway(fs())
+			.text("gruppo 740")
+			.build();
+		PaginatedResults<RollingStockSummary> results = repo.findByHits(sc, hits, buildRange(10), Locale.ENGLISH);
+		
+		ArgumentCaptor<Query> arg = ArgumentCaptor.forClass(Query.class);
+		verify(mongo, times(1)).find(arg.capture(), eq(RollingStockSummary.class), eq("rollingStocks"));
+		assertEquals("{ \"railway.slug\" : \"fs\" , \"_id\" : { \"$in\" : [ { \"$oid\" : \"" + rs2.getId() + 
+				"\"} , { \"$oid\" : \"" + rs1.getId() + "\"}]}}", arg.getValue().getQueryObject().toString());
+		
+		assertEquals(Arrays.asList(rs2, rs1), results.getItems());
+		assertEquals(new RangeCursor(1.0, rs1.getId()), results.getRange().getSince());
+		assertEquals(new RangeCursor(2.0, rs2.getId()), results.getRange().getMax());
+		assertFalse(results.hasNextPage());
+	}
+	
+	@Test
+	public void shouldFindRollingStocksForTextHitsAfterTheCursor() {
+		RollingStockSummary rs1 = rollingStock(new ObjectId());
+		RollingStockSummary rs2 = rollingStock(new ObjectId());
+		RollingStockSummary rs3 = rollingStock(new ObjectId());
+		List<TextHit> hits = Arrays.asList(
+				new TextHit(rs3.getId(), 3.0), 
+				new TextHit(rs2.getId(), 2.0), 
+				new TextHit(rs1.getId(), 1.0));
+		when(mongo.find(isA(Query.class), eq(RollingStockSummary.class), eq("rollingStocks"))).thenReturn(Arrays.asList(rs1));
+		
+		RangeRequest range = buildRange(1);
+		range.setSince(new RangeCursor(2.0, rs2.getId()));
+		PaginatedResults<RollingStockSummary> results = repo.findByHits(new SearchCriteria(), hits, range, Locale.ENGLISH);
+		
+		assertEquals(Arrays.asList(rs1), results.getItems());
+		assertTrue(results.hasPreviousPage());
+		assertFalse(results.hasNextPage());
+	}
+	
+	@Test
+	public void shouldFillThePageWhenTextHitsAreFiltered() {
+		RollingStockSummary rs1 = rollingStock(new ObjectId());
+		RollingStockSummary rs2 = rollingStock(new ObjectId());
+		RollingStockSummary rs3 = rollingStock(new ObjectId());
+		List<TextHit> hits = Arrays.asList(
+				new TextHit(rs3.getId(), 3.0), 
+				new TextHit(rs2.getId(), 2.0), 
+				new TextHit(rs1.getId(), 1.0));
+		when(mongo.find(isA(Query.class), eq(RollingStockSummary.class), eq("rollingStocks")))
+			.thenReturn(Collections.<RollingStockSummary>emptyList())
+			.thenReturn(Arrays.asList(rs1));
+		
+		PaginatedResults<RollingStockSummary> results = repo.findByHits(new SearchCriteria(), hits, buildRange(1), Locale.ENGLISH);
+		
+		verify(mongo, times(2)).find(isA(Query.class), eq(RollingStockSummary.class), eq("rollingStocks"));
+		assertEquals(Arrays.asList(rs1), results.getItems());
+	}
+	
+	@Test
+	public void shouldFindTheFilteredTextHitsRankedFarFromTheTop() {
+		final RollingStockSummary last = rollingStock(new ObjectId());
+		List<TextHit> hits = new ArrayList<TextHit>();
+		for (int i = 0; i < 1500; i++) {
+			hits.add(new TextHit(new ObjectId(), 2000.0 - i));
+		}
+		hits.add(new TextHit(last.getId(), 1.0));
+		when(mongo.find(isA(Query.class), eq(RollingStockSummary.class), eq("rollingStocks")))
+			.thenAnswer(new Answer<List<RollingStockSummary>>() {
+				@Override
+				public List<RollingStockSummary> answer(InvocationOnMock invocation) {
+					Query query = (Query) invocation.getArguments()[0];
+					return query.getQueryObject().toString().contains(last.getId().toString()) ?
+							Arrays.asList(last) : Collections.<RollingStockSummary>emptyList();
+				}
+			});
+		
+		SearchCriteria sc = new SearchCriteria.Builder()
+			.railway(fs())
+			.text("electric")
+			.build();
+		PaginatedResults<RollingStockSummary> results = repo.findByHits(sc, hits, buildRange(10), Locale.ENGLISH);
+		
+		assertEquals(Arrays.asList(last), results.getItems());
+		// the chunks grow, so the hits are loaded with a few queries
+		verify(mongo, atMost(10)).find(isA(Query.class), eq(RollingStockSummary.class), eq("rollingStocks"));
+	}
+	
+	private static RollingStockSummary rollingStock(ObjectId id) {
+		return new RollingStockSummary(new RollingStock.Builder(acme(), id.toString())
+			.id(id)
+			.build());
+	}
 }
@@ -21,16 +21,31 @@ import static org.mockito.Mockito.*;
 import static org.junit.Assert.*;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.GregorianCalendar;
+import java.util.List;
 
 import org.bson.types.ObjectId;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
+import org.mockito.Matchers;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.mongodb.core.query.Update;
 
+import com.mongodb.AggregationOutput;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBCollection;
+import com.mongodb.DBObject;
 import com.trenako.entities.Account;
+import com.trenako.entities.CategoriesCount;
 import com.trenako.entities.Collection;
 import com.trenako.entities.CollectionItem;
 import com.trenako.entities.Money;
@@ -110,6 +125,211 @@ public class CollectionsRepositoryTests extends AbstractMongoRepositoryTests {
 		assertEquals("{ \"owner\" : \"george-stephenson\"}", verifyFindOne(Collection.class).toString());
 	}
 	
+	private Collection collection(int numberOfItems, int totalCount) {
+		List<CollectionItem> items = new ArrayList<CollectionItem>();
+		for (int i = 1; i <= numberOfItems; i++) {
+			CollectionItem item = new CollectionItem();
+			item.setItemId("item" + i);
+			items.add(item);
+		}
+		
+		CategoriesCount categories = new CategoriesCount();
+		categories.setElectricLocomotives(totalCount);
+		
+		Collection collection = new Collection(georgeStephenson());
+		collection.setItems(items);
+		collection.setCategories(categories);
+		return collection;
+	}
+	
+	private List<String> itemIds(Iterable<CollectionItem> items) {
+		List<String> ids = new ArrayList<String>();
+		for (CollectionItem item : items) {
+			ids.add(item.getItemId());
+		}
+		return ids;
+	}
+	
+	private DBObject verifyFindOneFields() {
+		ArgumentCaptor<Query> arg = ArgumentCaptor.forClass(Query.class);
+		verify(mongo(), times(1)).findOne(arg.capture(), eq(Collection.class));
+		return arg.getValue().getFieldsObject();
+	}
+	
+	@Test
+	public void shouldFindCollectionSummariesBySlug() {
+		when(mongo().findOne(isA(Query.class), eq(Collection.class))).thenReturn(collection(3, 10));
+		
+		Collection coll = repo.findSummaryBySlug("george-stephenson", 3);
+		
+		assertNotNull(coll);
+		assertEquals("[item3, item2, item1]", itemIds(coll.getItems()).toString());
+		assertEquals("{ \"slug\" : \"george-stephenson\"}", verifyFindOne(Collection.class).toString());
+	}
+	
+	@Test
+	public void shouldLoadOnlyTheLatestItemsForCollectionSummaries() {
+		when(mongo().findOne(isA(Query.class), eq(Collection.class))).thenReturn(collection(3, 10));
+		
+		repo.findSummaryByOwner(georgeStephenson(), 3);
+		
+		assertEquals("{ \"items\" : { \"$slice\" : -3}}", verifyFindOneFields().toString());
+	}
+	
+	@Test
+	public void shouldExcludeItemsForEmptyCollectionSummaries() {
+		when(mongo().findOne(isA(Query.class), eq(Collection.class))).thenReturn(collection(0, 10));
+		
+		Collection coll = repo.findSummaryByOwner(georgeStephenson(), 0);
+		
+		assertTrue(coll.getItems().isEmpty());
+		assertEquals("{ \"items\" : 0}", verifyFindOneFields().toString());
+	}
+	
+	@Test
+	public void shouldReturnNullWhenCollectionSummaryIsNotFound() {
+		when(mongo().findOne(isA(Query.class), eq(Collection.class))).thenReturn(null);
+		
+		Collection coll = repo.findSummaryBySlug("not-found", 10);
+		
+		assertNull(coll);
+	}
+	
+	@Test
+	public void shouldSliceCollectionItemPages() {
+		when(mongo().findOne(isA(Query.class), eq(Collection.class))).thenReturn(collection(5, 12));
+		
+		Page<CollectionItem> page = repo.findItems("george-stephenson", null, null, new PageRequest(1, 5));
+		
+		assertEquals("{ \"items\" : { \"$slice\" : [ -10 , 5]}}", verifyFindOneFields().toString());
+		assertEquals(12, page.getTotalElements());
+		assertEquals(3, page.getTotalPages());
+		assertEquals("[item5, item4, item3, item2, item1]", itemIds(page).toString());
+	}
+	
+	@Test
+	public void shouldTrimTheLastSlicedCollectionItemPage() {
+		// the window starts before the first item, the slice returns the first 5 items
+		when(mongo().findOne(isA(Query.class), eq(Collection.class))).thenReturn(collection(5, 12));
+		
+		Page<CollectionItem> page = repo.findItems("george-stephenson", null, null, new PageRequest(2, 5));
+		
+		assertEquals("{ \"items\" : { \"$slice\" : [ -15 , 5]}}", verifyFindOneFields().toString());
+		assertEquals(12, page.getTotalElements());
+		assertEquals("[item2, item1]", itemIds(page).toString());
+	}
+	
+	@Test
+	public void shouldReturnEmptyPagesWhenTheCollectionIsNotFound() {
+		when(mongo().findOne(isA(Query.class), eq(Collection.class))).thenReturn(null);
+		
+		Page<CollectionItem> page = repo.findItems("not-found", null, null, new PageRequest(0, 5));
+		
+		assertEquals(0, page.getTotalElements());
+		assertFalse(page.hasContent());
+	}
+	
+	@Test
+	public void shouldAggregateFilteredCollectionItemPages() {
+		final List<Object[]> pipelines = new ArrayList<Object[]>();
+		DBCollection coll = mockAggregation(pipelines, 7, 
+				new BasicDBObject("items", new BasicDBObject("itemId", "item6")),
+				new BasicDBObject("items", new BasicDBObject("itemId", "item7")));
+		
+		Page<CollectionItem> page = repo.findItems("george-stephenson", "electric-locomotives", "new", 
+				new PageRequest(1, 5, new Sort(Sort.Direction.ASC, "price")));
+		
+		verify(coll, times(2)).aggregate(isA(DBObject.class), Matchers.<DBObject>anyVararg());
+		assertEquals(7, page.getTotalElements());
+		assertEquals("[item6, item7]", itemIds(page).toString());
+		
+		String match = "{ \"$match\" : { \"slug\" : \"george-stephenson\"}}";
+		String unwind = "{ \"$unwind\" : \"$items\"}";
+		String filter = "{ \"$match\" : { \"items.category\" : \"electric-locomotives\" , \"items.condition\" : \"new\"}}";
+		
+		assertEquals(Arrays.asList(match, unwind, filter, 
+				"{ \"$group\" : { \"_id\" :  null  , \"count\" : { \"$sum\" : 1}}}").toString(), 
+				pipeline(pipelines.get(0)));
+		assertEquals(Arrays.asList(match, unwind, filter, 
+				"{ \"$sort\" : { \"items.price.val\" : 1}}", 
+				"{ \"$skip\" : 5}", 
+				"{ \"$limit\" : 5}").toString(), 
+				pipeline(pipelines.get(1)));
+	}
+	
+	@Test
+	public void shouldSortFilteredCollectionItemsByAddedDateByDefault() {
+		final List<Object[]> pipelines = new ArrayList<Object[]>();
+		mockAggregation(pipelines, 1, new BasicDBObject("items", new BasicDBObject("itemId", "item1")));
+		
+		repo.findItems("george-stephenson", "electric-locomotives", null, new PageRequest(0, 5));
+		
+		assertTrue(pipeline(pipelines.get(1)).contains("{ \"$sort\" : { \"items.addedAt\" : -1}}"));
+	}
+	
+	@Test
+	public void shouldSkipThePageQueryWhenNoItemMatchesTheFilter() {
+		final List<Object[]> pipelines = new ArrayList<Object[]>();
+		DBCollection coll = mockAggregation(pipelines, 0);
+		
+		Page<CollectionItem> page = repo.findItems("george-stephenson", "railcars", null, new PageRequest(0, 5));
+		
+		verify(coll, times(1)).aggregate(isA(DBObject.class), Matchers.<DBObject>anyVararg());
+		assertEquals(0, page.getTotalElements());
+	}
+	
+	private DBCollection mockAggregation(final List<Object[]> pipelines, int count, DBObject... results) {
+		DBCollection coll = mock(DBCollection.class);
+		when(mongo().getCollectionName(Collection.class)).thenReturn("collections");
+		when(mongo().getCollection("collections")).thenReturn(coll);
+		
+		AggregationOutput countOutput = mock(AggregationOutput.class);
+		List<DBObject> countResults = new ArrayList<DBObject>();
+		if (count > 0) {
+			countResults.add(new BasicDBObject("_id", null).append("count", count));
+		}
+		when(countOutput.results()).thenReturn(countResults);
+		
+		AggregationOutput output = mock(AggregationOutput.class);
+		when(output.results()).thenReturn(Arrays.asList(results));
+		
+		final AggregationOutput[] outputs = { countOutput, output };
+		when(coll.aggregate(isA(DBObject.class), Matchers.<DBObject>anyVararg())).thenAnswer(new Answer<AggregationOutput>() {
+			@Override
+			public AggregationOutput answer(InvocationOnMock invocation) throws Throwable {
+				pipelines.add(invocation.getArguments());
+				return outputs[pipelines.size() - 1];
+			}
+		});
+		
+		MongoConverter converter = mock(MongoConverter.class);
+		when(mongo().getConverter()).thenReturn(converter);
+		when(converter.read(eq(CollectionItem.class), isA(DBObject.class))).thenAnswer(new Answer<CollectionItem>() {
+			@Override
+			public CollectionItem answer(InvocationOnMock invocation) throws Throwable {
+				DBObject dbo = (DBObject) invocation.getArguments()[1];
+				CollectionItem item = new CollectionItem();
+				item.setItemId((String) dbo.get("itemId"));
+				return item;
+			}
+		});
+		return coll;
+	}
+	
+	private String pipeline(Object[] args) {
+		List<String> ops = new ArrayList<String>();
+		for (Object arg : args) {
+			if (arg instanceof Object[]) {
+				for (Object op : (Object[]) arg) {
+					ops.add(op.toString());
+				}
+			} else {
+				ops.add(arg.toString());
+			}
+		}
+		return ops.toString();
+	}
+	
 	@Test
 	public void shouldCheckIfCollectionContainsRollingStocks() {
 		when(mongo().count(isA(Query.class), eq(Collection.class))).thenReturn(1L);
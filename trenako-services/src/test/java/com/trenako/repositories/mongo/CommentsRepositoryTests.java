@@ -77,6 +77,20 @@ public class CommentsRepositoryTests extends AbstractMongoRepositoryTests {
 		assertEquals("{ \"slug\" : \"acme-123456\"}", arg.getValue().getQueryObject().toString());
 	}
 	
+	@Test
+	public void shouldFindOnePageOfCommentsByRollingStock() {
+		when(mongo().findOne(isA(Query.class), eq(RollingStockComments.class))).thenReturn(rsComments());
+		
+		RollingStockComments results = repo.findByRollingStock(rollingStock(), 20, 11);
+		
+		assertNotNull(results);
+		
+		ArgumentCaptor<Query> arg = ArgumentCaptor.forClass(Query.class);
+		verify(mongo(), times(1)).findOne(arg.capture(), eq(RollingStockComments.class));
+		assertEquals("{ \"slug\" : \"acme-123456\"}", arg.getValue().getQueryObject().toString());
+		assertEquals("{ \"items\" : { \"$slice\" : [ 20 , 11]}}", arg.getValue().getFieldsObject().toString());
+	}
+	
 	@Test
 	public void shouldPostNewComments() {
 		repo.createNew(rollingStock(), newComment("Comment"));
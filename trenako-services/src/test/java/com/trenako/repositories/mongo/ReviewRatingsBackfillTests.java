@@ -0,0 +1,118 @@
+/*
+ * Copyright 2012 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.trenako.repositories.mongo;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+
+import org.bson.types.ObjectId;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import com.mongodb.BasicDBList;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBCollection;
+import com.mongodb.DBCursor;
+import com.mongodb.DBObject;
+import com.mongodb.WriteResult;
+import com.trenako.entities.RollingStockReviews;
+
+/**
+ * 
+ * @author Carlo Micieli
+ *
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ReviewRatingsBackfillTests {
+
+	@Mock MongoTemplate mongo;
+	@Mock DBCollection reviews;
+	@Mock WriteResult result;
+	ReviewRatingsBackfill backfill;
+	
+	@Before
+	public void setUp() {
+		when(mongo.getCollectionName(eq(RollingStockReviews.class))).thenReturn("reviews");
+		when(mongo.getCollection(eq("reviews"))).thenReturn(reviews);
+		when(reviews.update(isA(DBObject.class), isA(DBObject.class))).thenReturn(result);
+		when(result.getN()).thenReturn(1);
+		
+		backfill = new ReviewRatingsBackfill(mongo);
+	}
+	
+	@Test
+	public void shouldFillTheRatingCountersOfLegacyReviews() {
+		ObjectId id = new ObjectId();
+		mockReviews(new BasicDBObject("_id", id)
+			.append("numberOfReviews", 3)
+			.append("items", items(4, 4, 2)));
+		
+		int updated = backfill.backfill();
+		
+		assertEquals(1, updated);
+		ArgumentCaptor<DBObject> argQuery = ArgumentCaptor.forClass(DBObject.class);
+		ArgumentCaptor<DBObject> argUpdate = ArgumentCaptor.forClass(DBObject.class);
+		verify(reviews, times(1)).update(argQuery.capture(), argUpdate.capture());
+		assertEquals(new BasicDBObject("_id", id).append("numberOfReviews", 3), argQuery.getValue());
+		DBObject ratings = (DBObject) ((DBObject) argUpdate.getValue().get("$set")).get("ratings");
+		assertEquals(2, ratings.get("4"));
+		assertEquals(1, ratings.get("2"));
+		assertEquals(2, ratings.keySet().size());
+	}
+	
+	@Test
+	public void shouldFillTheCountersOnlyPartiallyCounted() {
+		// a review was posted after the counters were introduced
+		mockReviews(new BasicDBObject("_id", new ObjectId())
+			.append("numberOfReviews", 2)
+			.append("ratings", new BasicDBObject("5", 1))
+			.append("items", items(3, 5)));
+		
+		assertEquals(1, backfill.backfill());
+	}
+	
+	@Test
+	public void shouldNotUpdateTheCountersAlreadyInStep() {
+		mockReviews(new BasicDBObject("_id", new ObjectId())
+			.append("numberOfReviews", 2)
+			.append("ratings", new BasicDBObject("5", 1).append("3", 1).append("1", 0))
+			.append("items", items(3, 5)));
+		
+		assertEquals(0, backfill.backfill());
+		verify(reviews, never()).update(isA(DBObject.class), isA(DBObject.class));
+	}
+	
+	private void mockReviews(DBObject... docs) {
+		DBCursor cursor = mock(DBCursor.class);
+		when(cursor.iterator()).thenReturn(Arrays.asList(docs).iterator());
+		when(reviews.find(isA(DBObject.class), isA(DBObject.class))).thenReturn(cursor);
+	}
+	
+	private static BasicDBList items(int... ratings) {
+		BasicDBList items = new BasicDBList();
+		for (int rating : ratings) {
+			items.add(new BasicDBObject("rating", rating));
+		}
+		return items;
+	}
+}
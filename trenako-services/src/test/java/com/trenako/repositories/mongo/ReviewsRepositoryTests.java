@@ -102,6 +102,32 @@ public class ReviewsRepositoryTests extends AbstractMongoRepositoryTests {
 		assertEquals("{ \"rollingStock.slug\" : \"acme-123456\"}", queryObject(arg).toString());
 	}
 	
+	@Test
+	public void shouldFindOnePageOfReviewsByRollingStock() {
+		RollingStockReviews value = new RollingStockReviews();
+		when(mongo().findOne(isA(Query.class), eq(RollingStockReviews.class))).thenReturn(value);
+		
+		RollingStockReviews rsReviews = repo.findByRollingStock(rollingStock, 10, 5);
+		
+		assertNotNull("Reviews are null", rsReviews);
+		
+		ArgumentCaptor<Query> arg = ArgumentCaptor.forClass(Query.class);
+		verify(mongo(), times(1)).findOne(arg.capture(), eq(RollingStockReviews.class));
+		assertEquals("{ \"rollingStock.slug\" : \"acme-123456\"}", queryObject(arg).toString());
+		assertEquals("{ \"items\" : { \"$slice\" : [ 10 , 5]}}", arg.getValue().getFieldsObject().toString());
+	}
+	
+	@Test
+	public void shouldFindReviewsCountersWithoutTheReviews() {
+		when(mongo().findOne(isA(Query.class), eq(RollingStockReviews.class))).thenReturn(new RollingStockReviews());
+		
+		repo.findByRollingStock(rollingStock, 0, 0);
+		
+		ArgumentCaptor<Query> arg = ArgumentCaptor.forClass(Query.class);
+		verify(mongo(), times(1)).findOne(arg.capture(), eq(RollingStockReviews.class));
+		assertEquals("{ \"items\" : 0}", arg.getValue().getFieldsObject().toString());
+	}
+	
 	@Test
 	public void shouldAddNewReviewsToRollingStockReviews() {
 		Review review = newReview();
@@ -117,7 +143,7 @@ public class ReviewsRepositoryTests extends AbstractMongoRepositoryTests {
 		String expected = "{ \"$set\" : { \"rollingStock\" : { \"slug\" : \"acme-123456\" , \"label\" : \"ACME 123456\"}} , " +
 			"\"$push\" : { \"items\" : { \"author\" : \"user-name\" , " +
 			"\"title\" : \"Title\" , \"content\" : \"Review\" , \"lang\" : \"en\" , \"rating\" : 3 , \"postedAt\" : { \"$date\" : \"2012-06-30T22:00:00.000Z\"}}} , "+
-			"\"$inc\" : { \"numberOfReviews\" : 1 , \"totalRating\" : 3}}";
+			"\"$inc\" : { \"numberOfReviews\" : 1 , \"totalRating\" : 3 , \"ratings.3\" : 1}}";
 		assertEquals(expected, updateObject.toString());
 	}
 	
@@ -131,7 +157,7 @@ public class ReviewsRepositoryTests extends AbstractMongoRepositoryTests {
 		verify(mongo(), times(1)).updateFirst(argQuery.capture(), argUpdate.capture(), eq(RollingStockReviews.class));
 		assertEquals("{ \"slug\" : \"acme-123456\"}", queryObject(argQuery).toString());
 		
-		assertEquals("{ \"$pull\" : { \"items\" : { \"author\" : \"user-name\"}} , \"$inc\" : { \"numberOfReviews\" : -1 , \"totalRating\" : -3}}", 
+		assertEquals("{ \"$pull\" : { \"items\" : { \"author\" : \"user-name\"}} , \"$inc\" : { \"numberOfReviews\" : -1 , \"totalRating\" : -3 , \"ratings.3\" : -1}}", 
 			updateObject(argUpdate).toString());
 	}
 
@@ -18,6 +18,8 @@ package com.trenako.repositories.mongo;
 import static com.trenako.test.TestDataBuilder.*;
 import static org.junit.Assert.*;
 
+import java.util.Date;
+
 import org.bson.types.ObjectId;
 import org.junit.Test;
 import org.springframework.data.mongodb.core.query.Criteria;
@@ -25,7 +27,10 @@ import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Sort.Direction;
 
+import com.trenako.entities.RollingStock;
+import com.trenako.results.RangeCursor;
 import com.trenako.results.RangeRequest;
+import com.trenako.results.RollingStockSummary;
 
 
 import static org.springframework.data.mongodb.core.query.Criteria.*;
@@ -37,63 +42,102 @@ import static org.springframework.data.mongodb.core.query.Criteria.*;
  */
 public class RollingStockQueryBuilderTests {
 
-	private final Object max = "maxValue";
-	private final Object since = "sinceValue";
+	private final ObjectId id = new ObjectId("47cc67093475061e3d95369d");
 	private final Criteria where = where("brandName").is("ACME");
 	
 	@Test
-	public void shouldBuildQueryWithADateRange() {
-		Query query = RollingStockQueryBuilder.buildQuery(where, range(fulldate("2012/06/01 10:30:00.500"), fulldate("2012/06/30 10:30:00.500")));
-		assertQuery(query, "{ \"brandName\" : \"ACME\" , "+
-				"\"lastModified\" : { \"$lt\" : { \"$date\" : \"2012-06-01T08:30:00.500Z\"} , \"$gt\" : { \"$date\" : \"2012-06-30T08:30:00.500Z\"}}}");
-		assertSort(query, "{ \"lastModified\" : -1}");
+	public void shouldBuildQueryForTheFirstPage() {
+		Query query = RollingStockQueryBuilder.buildQuery(where, range(null, null));
+		assertQuery(query, "{ \"brandName\" : \"ACME\"}");
+		assertSort(query, "{ \"lastModified\" : -1 , \"_id\" : -1}");
 		assertLimit(query, 11);
 	}
 	
 	@Test
-	public void shouldBuildQueryWithAObjectIdRange() {
-		Query query = RollingStockQueryBuilder.buildQuery(where, range(new ObjectId("47cc67093475061e3d95369d"), new ObjectId("47cc67093475061e3d95389e")));
-		assertQuery(query, "{ \"brandName\" : \"ACME\" , "+
-				"\"lastModified\" : { \"$lt\" : { \"$oid\" : \"47cc67093475061e3d95369d\"} , \"$gt\" : { \"$oid\" : \"47cc67093475061e3d95389e\"}}}");
-		assertSort(query, "{ \"lastModified\" : -1}");
+	public void shouldBuildQueryWithADateCursor() {
+		RangeCursor since = new RangeCursor(new Date(1338539400500L), id);
+		Query query = RollingStockQueryBuilder.buildQuery(where, range(since, null));
+		assertQuery(query, "{ \"brandName\" : \"ACME\" , " +
+				"\"lastModified\" : { \"$not\" : { \"$gt\" : { \"$date\" : \"2012-06-01T08:30:00.500Z\"}}} , " +
+				"\"$nor\" : [ { \"lastModified\" : { \"$date\" : \"2012-06-01T08:30:00.500Z\"} , " +
+				"\"_id\" : { \"$gte\" : { \"$oid\" : \"47cc67093475061e3d95369d\"}}}]}");
+		assertSort(query, "{ \"lastModified\" : -1 , \"_id\" : -1}");
 		assertLimit(query, 11);
 	}
 	
 	@Test
-	public void shouldBuildAQueryWithDefaultSortingAndCompleteRange() {
-		Query query = RollingStockQueryBuilder.buildQuery(where, range(since, max));
-		assertQuery(query, "{ \"brandName\" : \"ACME\" ," +
-				" \"lastModified\" : { \"$lt\" : \"sinceValue\" ," +
-				" \"$gt\" : \"maxValue\"}}");
-		assertSort(query, "{ \"lastModified\" : -1}");
+	public void shouldBuildQueryWithSinceCursorAndAscendingSort() {
+		RangeCursor since = new RangeCursor("value", id);
+		Query query = RollingStockQueryBuilder.buildQuery(where, range(since, null, "powerMethod", Direction.ASC));
+		assertQuery(query, "{ \"brandName\" : \"ACME\" , " +
+				"\"powerMethod\" : { \"$gte\" : \"value\"} , " +
+				"\"$nor\" : [ { \"powerMethod\" : \"value\" , \"_id\" : { \"$lte\" : { \"$oid\" : \"47cc67093475061e3d95369d\"}}}]}");
+		assertSort(query, "{ \"powerMethod\" : 1 , \"_id\" : 1}");
 		assertLimit(query, 11);
 	}
 	
 	@Test
-	public void shouldBuildQueryWithSinceValueOnly() {
-		Query query = RollingStockQueryBuilder.buildQuery(where, range(since, null));
-		assertQuery(query, "{ \"brandName\" : \"ACME\" ," +
-				" \"lastModified\" : { \"$lt\" : \"sinceValue\"}}");
-		assertSort(query, "{ \"lastModified\" : -1}");
+	public void shouldBuildQueryWithMaxCursorOnly() {
+		RangeCursor max = new RangeCursor("value", id);
+		Query query = RollingStockQueryBuilder.buildQuery(where, range(null, max, "powerMethod", Direction.DESC));
+		assertQuery(query, "{ \"brandName\" : \"ACME\" , " +
+				"\"powerMethod\" : { \"$gte\" : \"value\"} , " +
+				"\"$nor\" : [ { \"powerMethod\" : \"value\" , \"_id\" : { \"$lte\" : { \"$oid\" : \"47cc67093475061e3d95369d\"}}}]}");
+		assertSort(query, "{ \"powerMethod\" : 1 , \"_id\" : 1}");
 		assertLimit(query, 11);
 	}
 	
 	@Test
-	public void shouldBuildQueryWithMaxValueOnly() {
-		Query query = RollingStockQueryBuilder.buildQuery(where, range(null, max));
-		assertQuery(query, "{ \"brandName\" : \"ACME\" ," +
-				" \"lastModified\" : { \"$gt\" : \"maxValue\"}}");
-		assertSort(query, "{ \"lastModified\" : -1}");
-		assertLimit(query, 11);
+	public void shouldUseTheSinceCursorWhenBothCursorsAreProvided() {
+		RangeCursor since = new RangeCursor("since", id);
+		RangeCursor max = new RangeCursor("max", id);
+		Query query = RollingStockQueryBuilder.buildQuery(where, range(since, max, "powerMethod", Direction.ASC));
+		assertQuery(query, "{ \"brandName\" : \"ACME\" , " +
+				"\"powerMethod\" : { \"$gte\" : \"since\"} , " +
+				"\"$nor\" : [ { \"powerMethod\" : \"since\" , \"_id\" : { \"$lte\" : { \"$oid\" : \"47cc67093475061e3d95369d\"}}}]}");
+		assertSort(query, "{ \"powerMethod\" : 1 , \"_id\" : 1}");
 	}
-
+	
 	@Test
-	public void shouldBuildQueryWithSorting() {
-		Query query = RollingStockQueryBuilder.buildQuery(where, range(null, max, "powerMethod", Direction.ASC));
-		assertQuery(query, "{ \"brandName\" : \"ACME\" ," +
-				" \"powerMethod\" : { \"$gt\" : \"maxValue\"}}");
-		assertSort(query, "{ \"powerMethod\" : 1}");
-		assertLimit(query, 11);
+	public void shouldBuildQueryWithNullValueCursors() {
+		RangeCursor since = new RangeCursor(null, id);
+		
+		Query desc = RollingStockQueryBuilder.buildQuery(where("brandName").is("ACME"), range(since, null, "powerMethod", Direction.DESC));
+		assertQuery(desc, "{ \"brandName\" : \"ACME\" , \"powerMethod\" :  null  , " +
+				"\"_id\" : { \"$lt\" : { \"$oid\" : \"47cc67093475061e3d95369d\"}}}");
+		
+		Query asc = RollingStockQueryBuilder.buildQuery(where("brandName").is("ACME"), range(since, null, "powerMethod", Direction.ASC));
+		assertQuery(asc, "{ \"brandName\" : \"ACME\" , " +
+				"\"$nor\" : [ { \"powerMethod\" :  null  , \"_id\" : { \"$lte\" : { \"$oid\" : \"47cc67093475061e3d95369d\"}}}]}");
+	}
+	
+	@Test
+	public void shouldBuildQueryWithObjectIdSort() {
+		RangeCursor since = new RangeCursor(id, id);
+		Query query = RollingStockQueryBuilder.buildQuery(where, range(since, null, "id", Direction.DESC));
+		assertQuery(query, "{ \"brandName\" : \"ACME\" , " +
+				"\"_id\" : { \"$lt\" : { \"$oid\" : \"47cc67093475061e3d95369d\"}}}");
+		assertSort(query, "{ \"_id\" : -1}");
+	}
+	
+	@Test
+	public void shouldPaginateByIdOnlyForUnsupportedSortProperties() {
+		RollingStock rs = new RollingStock.Builder(acme(), "123456").build();
+		rs.setId(id);
+		RangeCursor since = RangeCursor.of(new RollingStockSummary(rs), "totalLength");
+		Query query = RollingStockQueryBuilder.buildQuery(where, range(since, null, "totalLength", Direction.ASC));
+		assertQuery(query, "{ \"brandName\" : \"ACME\" , " +
+				"\"_id\" : { \"$gt\" : { \"$oid\" : \"47cc67093475061e3d95369d\"}}}");
+		assertSort(query, "{ \"_id\" : 1}");
+	}
+	
+	@Test
+	public void shouldBuildQueryWithCursorTokens() {
+		RangeCursor since = new RangeCursor("value", id);
+		Query query = RollingStockQueryBuilder.buildQuery(where, range(since.encode(), null, "powerMethod", Direction.ASC));
+		assertQuery(query, "{ \"brandName\" : \"ACME\" , " +
+				"\"powerMethod\" : { \"$gte\" : \"value\"} , " +
+				"\"$nor\" : [ { \"powerMethod\" : \"value\" , \"_id\" : { \"$lte\" : { \"$oid\" : \"47cc67093475061e3d95369d\"}}}]}");
 	}
 	
 	private RangeRequest range(Object since, Object max) {
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2012 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.trenako.repositories.mongo;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.IndexOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.mongodb.BasicDBList;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import com.trenako.entities.RollingStock;
+import com.trenako.repositories.mongo.SearchIndexesManager.QueryPlan;
+
+/**
+ * 
+ * @author Carlo Micieli
+ *
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class SearchIndexesManagerTests {
+
+	@Mock MongoTemplate mongo;
+	@Mock IndexOperations indexOps;
+	
+	@Before
+	public void setUp() {
+		MockitoAnnotations.initMocks(this);
+		when(mongo.indexOps(eq(RollingStock.class))).thenReturn(indexOps);
+	}
+	
+	@Test
+	public void shouldEnsureTheSearchIndexes() {
+		SearchIndexesManager manager = new SearchIndexesManager(mongo, false);
+		
+		manager.ensureIndexes();
+		
+		verify(indexOps, times(SearchIndexesManager.getIndexes().size())).ensureIndex(isA(IndexDefinition.class));
+	}
+	
+	@Test
+	public void shouldEndEverySearchIndexWithTheRangeKeys() {
+		for (Index index : SearchIndexesManager.getIndexes()) {
+			String keys = index.getIndexKeys().toString();
+			assertTrue(keys, keys.endsWith("\"lastModified\" : -1 , \"_id\" : -1}"));
+		}
+		
+		assertEquals("{ \"brand.slug\" : 1 , \"lastModified\" : -1 , \"_id\" : -1}", 
+				SearchIndexesManager.getIndexes().get(1).getIndexKeys().toString());
+	}
+	
+	@Test
+	public void shouldNotFailWhenIndexesCantBeCreated() {
+		doThrow(new DataAccessResourceFailureException("error"))
+			.when(indexOps).ensureIndex(isA(IndexDefinition.class));
+		
+		SearchIndexesManager manager = new SearchIndexesManager(mongo, false);
+		manager.ensureIndexes();
+	}
+	
+	@Test
+	public void shouldNotExplainQueriesOutsideTheDiagnosticMode() {
+		SearchIndexesManager manager = spy(new SearchIndexesManager(mongo, false));
+		
+		manager.explain(new Query());
+		
+		verify(manager, never()).runExplain(isA(Query.class));
+		assertEquals(0, manager.getExplainedQueries());
+	}
+	
+	@Test
+	public void shouldFlagQueriesNotUsingAnIndex() {
+		Query query = new Query();
+		SearchIndexesManager manager = spy(new SearchIndexesManager(mongo, true));
+		doReturn(legacyPlan("BasicCursor", true)).when(manager).runExplain(eq(query));
+		
+		manager.explain(query);
+		
+		assertEquals(1, manager.getExplainedQueries());
+		assertEquals(1, manager.getUnindexedQueries());
+		assertEquals(1, manager.getInMemorySorts());
+	}
+	
+	@Test
+	public void shouldNotFlagIndexedQueries() {
+		Query query = new Query();
+		SearchIndexesManager manager = spy(new SearchIndexesManager(mongo, true));
+		doReturn(legacyPlan("BtreeCursor brand_range_idx", false)).when(manager).runExplain(eq(query));
+		
+		manager.explain(query);
+		
+		assertEquals(1, manager.getExplainedQueries());
+		assertEquals(0, manager.getUnindexedQueries());
+		assertEquals(0, manager.getInMemorySorts());
+	}
+	
+	@Test
+	public void shouldParseLegacyPlans() {
+		QueryPlan plan = QueryPlan.parse(legacyPlan("BtreeCursor range_idx", false));
+		assertTrue(plan.usesIndex());
+		assertFalse(plan.sortsInMemory());
+		
+		BasicDBList clauses = new BasicDBList();
+		clauses.add(legacyPlan("BtreeCursor range_idx", false));
+		clauses.add(legacyPlan("BasicCursor", false));
+		plan = QueryPlan.parse(new BasicDBObject("clauses", clauses));
+		assertFalse(plan.usesIndex());
+	}
+	
+	@Test
+	public void shouldParseQueryPlannerPlans() {
+		DBObject ixscan = new BasicDBObject("stage", "IXSCAN").append("indexName", "range_idx");
+		DBObject fetch = new BasicDBObject("stage", "FETCH").append("inputStage", ixscan);
+		QueryPlan plan = QueryPlan.parse(planner(new BasicDBObject("stage", "LIMIT").append("inputStage", fetch)));
+		assertTrue(plan.usesIndex());
+		assertFalse(plan.sortsInMemory());
+		
+		DBObject collscan = new BasicDBObject("stage", "COLLSCAN");
+		DBObject sort = new BasicDBObject("stage", "SORT").append("inputStage", collscan);
+		plan = QueryPlan.parse(planner(sort));
+		assertFalse(plan.usesIndex());
+		assertTrue(plan.sortsInMemory());
+	}
+	
+	private DBObject legacyPlan(String cursor, boolean scanAndOrder) {
+		return new BasicDBObject("cursor", cursor)
+			.append("scanAndOrder", scanAndOrder);
+	}
+	
+	private DBObject planner(DBObject winningPlan) {
+		return new BasicDBObject("queryPlanner", new BasicDBObject("winningPlan", winningPlan));
+	}
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2012 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.trenako.results;
+
+import static com.trenako.test.TestDataBuilder.*;
+import static org.junit.Assert.*;
+
+import java.util.Date;
+
+import org.bson.types.ObjectId;
+import org.junit.Test;
+
+import com.trenako.entities.RollingStock;
+
+/**
+ * 
+ * @author Carlo Micieli
+ *
+ */
+public class RangeCursorTests {
+
+	private final ObjectId id = new ObjectId("47cc67093475061e3d95369d");
+	
+	@Test
+	public void shouldEncodeAndParseCursors() {
+		assertRoundTrip(new RangeCursor(new Date(1338539400500L), id));
+		assertRoundTrip(new RangeCursor("brand_acme 123456", id));
+		assertRoundTrip(new RangeCursor(new ObjectId("47cc67093475061e3d95369e"), id));
+		assertRoundTrip(new RangeCursor(12.625, id));
+		assertRoundTrip(new RangeCursor(null, id));
+	}
+	
+	@Test
+	public void shouldProduceUrlSafeTokens() {
+		String token = new RangeCursor("a/b+c?d=e&f", id).encode();
+		assertTrue(token.matches("[A-Za-z0-9_-]+"));
+		assertEquals(token, new RangeCursor("a/b+c?d=e&f", id).toString());
+	}
+	
+	@Test
+	public void shouldReturnNullForInvalidTokens() {
+		assertNull(RangeCursor.parse(null));
+		assertNull(RangeCursor.parse(""));
+		assertNull(RangeCursor.parse("47cc67093475061e3d95369d"));
+		assertNull(RangeCursor.parse("2012-06-01T11:40:00"));
+		assertNull(RangeCursor.parse("not a cursor!"));
+	}
+	
+	@Test
+	public void shouldReturnCursorsForValues() {
+		RangeCursor cursor = new RangeCursor("value", id);
+		assertSame(cursor, RangeCursor.valueOf(cursor));
+		assertEquals(cursor, RangeCursor.valueOf(cursor.encode()));
+		assertNull(RangeCursor.valueOf(id));
+		assertNull(RangeCursor.valueOf(null));
+	}
+	
+	@Test
+	public void shouldCreateCursorsFromRollingStocks() {
+		Date lastModified = new Date(1338539400500L);
+		RollingStock rs = new RollingStock.Builder(acme(), "123456")
+			.lastModified(lastModified)
+			.era("IV")
+			.build();
+		rs.setId(id);
+		RollingStockSummary summary = new RollingStockSummary(rs);
+		
+		assertEquals(new RangeCursor(lastModified, id), RangeCursor.of(summary, "lastModified"));
+		assertEquals(new RangeCursor("IV", id), RangeCursor.of(summary, "era"));
+		assertEquals(new RangeCursor("123456", id), RangeCursor.of(summary, "itemNumber"));
+		assertEquals(new RangeCursor(id, id), RangeCursor.of(summary, "id"));
+		assertEquals(new RangeCursor(null, id), RangeCursor.of(summary, "unknown"));
+	}
+	
+	@Test
+	public void shouldCheckTheSortableProperties() {
+		assertTrue(RangeCursor.isSortable("lastModified"));
+		assertTrue(RangeCursor.isSortable("itemNumber"));
+		assertTrue(RangeCursor.isSortable("_id"));
+		assertFalse(RangeCursor.isSortable("totalLength"));
+		assertFalse(RangeCursor.isSortable(null));
+	}
+	
+	private void assertRoundTrip(RangeCursor cursor) {
+		RangeCursor parsed = RangeCursor.parse(cursor.encode());
+		assertEquals(cursor, parsed);
+		assertEquals(cursor.getValue(), parsed.getValue());
+		assertEquals(cursor.getId(), parsed.getId());
+	}
+}
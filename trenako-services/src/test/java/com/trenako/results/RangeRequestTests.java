@@ -75,4 +75,12 @@ public class RangeRequestTests {
 		r2.setSort(new Sort("name"));
 		assertEquals("name", r2.getSortProperty());
 	}
+	
+	@Test
+	public void shouldCheckWhetherTheRangeIsMovingBackward() {
+		assertFalse(new RangeRequest(null, 10, null, null).isBackward());
+		assertFalse(new RangeRequest(null, 10, "since", null).isBackward());
+		assertFalse(new RangeRequest(null, 10, "since", "max").isBackward());
+		assertTrue(new RangeRequest(null, 10, null, "max").isBackward());
+	}
 }
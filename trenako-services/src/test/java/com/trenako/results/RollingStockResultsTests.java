@@ -35,18 +35,18 @@ import com.trenako.entities.RollingStock;
  */
 public class RollingStockResultsTests {
 
-	private final ObjectId MAX_ID = new ObjectId();
-	private final ObjectId SINCE_ID = new ObjectId();
+	private final ObjectId FIRST_ID = new ObjectId();
+	private final ObjectId LAST_ID = new ObjectId();
 		
 	@Test
 	public void shouldFillEmptyResults() {
 		RangeRequest range = buildRangeById(10);
 		
-		PaginatedResults<RollingStock> results =
-				new RollingStockResults(new ArrayList<RollingStock>(), null, range);
+		PaginatedResults<RollingStockSummary> results =
+				new RollingStockResults(new ArrayList<RollingStockSummary>(), null, range);
 		
 		assertTrue("Result set is not empty", results.isEmpty());
-		assertEquals(0, ((List<RollingStock>) results.getItems()).size());
+		assertEquals(0, ((List<RollingStockSummary>) results.getItems()).size());
 		assertNull(results.getRange());
 		assertEquals(false, results.hasNextPage());
 		assertEquals(false, results.hasPreviousPage());
@@ -54,52 +54,81 @@ public class RollingStockResultsTests {
 	
 	@Test
 	public void shouldFillTheResultsByObjectId() {
-		List<RollingStock> results = resultsByObjectId(10, false);
+		List<RollingStockSummary> results = resultsByObjectId(10, false);
 		RangeRequest range = buildRangeById(10);
 		
-		PaginatedResults<RollingStock> pagResults =
+		PaginatedResults<RollingStockSummary> pagResults =
 				new RollingStockResults(results, null, range);
 		
-		assertEquals(10, ((List<RollingStock>)pagResults.getItems()).size());
-		assertEquals(SINCE_ID, pagResults.getRange().getSince());
-		assertEquals(MAX_ID, pagResults.getRange().getMax());
+		assertEquals(10, ((List<RollingStockSummary>)pagResults.getItems()).size());
+		assertEquals(new RangeCursor(LAST_ID, LAST_ID), pagResults.getRange().getSince());
+		assertEquals(new RangeCursor(FIRST_ID, FIRST_ID), pagResults.getRange().getMax());
 	}
 	
 	@Test
 	public void shouldFillTheResultsByLastModifiedDates() {
-		Date since = fulldate("2010/06/10 09:30:00");
-		Date max = fulldate("2010/06/10 09:30:00");
+		Date first = fulldate("2010/06/10 09:30:00.000");
+		Date last = fulldate("2010/06/09 09:30:00.000");
 		
-		List<RollingStock> results = resultsByLastModified(10, false, since, max);
+		List<RollingStockSummary> results = resultsByLastModified(10, false, first, last);
 		RangeRequest range = buildRange(10);
 		
-		PaginatedResults<RollingStock> pagResults =
+		PaginatedResults<RollingStockSummary> pagResults =
 				new RollingStockResults(results, null, range);
 		
-		assertEquals(10, ((List<RollingStock>)pagResults.getItems()).size());
-		assertTrue("Since date is different", since.equals(pagResults.getRange().getSince()));
-		assertEquals(max, pagResults.getRange().getMax());
+		assertEquals(10, ((List<RollingStockSummary>)pagResults.getItems()).size());
+		assertEquals(new RangeCursor(last, LAST_ID), pagResults.getRange().getSince());
+		assertEquals(new RangeCursor(first, FIRST_ID), pagResults.getRange().getMax());
+	}
+	
+	@Test
+	public void shouldReverseTheResultsForBackwardRanges() {
+		List<RollingStockSummary> results = resultsByObjectId(10, true);
+		RangeRequest range = buildRange(10, null, new RangeCursor(new ObjectId(), new ObjectId()));
+		
+		RollingStockResults pagResults = new RollingStockResults(results, null, range);
+		
+		List<RollingStockSummary> items = (List<RollingStockSummary>) pagResults.getItems();
+		assertEquals(10, items.size());
+		assertEquals(LAST_ID, items.get(0).getId());
+		assertEquals(FIRST_ID, items.get(9).getId());
+		assertEquals(new RangeCursor(FIRST_ID, FIRST_ID), pagResults.getRange().getSince());
+		assertEquals(new RangeCursor(LAST_ID, LAST_ID), pagResults.getRange().getMax());
+		assertEquals(true, pagResults.hasPreviousPage());
+		assertEquals(true, pagResults.hasNextPage());
+	}
+	
+	@Test
+	public void shouldFillFirstPageResultsForBackwardRanges() {
+		List<RollingStockSummary> results = resultsByObjectId(10, false);
+		RangeRequest range = buildRange(10, null, new RangeCursor(new ObjectId(), new ObjectId()));
+		
+		PaginatedResults<RollingStockSummary> pagResults =
+				new RollingStockResults(results, null, range);
+		
+		assertEquals(false, pagResults.hasPreviousPage());
+		assertEquals(true, pagResults.hasNextPage());
 	}
 	
 	@Test
 	public void shouldFillTheResultsWhenItemIsLessThanCount() {
-		List<RollingStock> results = resultsByObjectId(6, false);
+		List<RollingStockSummary> results = resultsByObjectId(6, false);
 		RangeRequest range = buildRangeById(10);
 		
-		PaginatedResults<RollingStock> pagResults =
+		PaginatedResults<RollingStockSummary> pagResults =
 				new RollingStockResults(results, null, range);
 		
-		assertEquals(6, ((List<RollingStock>)pagResults.getItems()).size());
-		assertEquals(SINCE_ID, pagResults.getRange().getSince());
-		assertEquals(MAX_ID, pagResults.getRange().getMax());
+		assertEquals(6, ((List<RollingStockSummary>)pagResults.getItems()).size());
+		assertEquals(new RangeCursor(LAST_ID, LAST_ID), pagResults.getRange().getSince());
+		assertEquals(new RangeCursor(FIRST_ID, FIRST_ID), pagResults.getRange().getMax());
 	}
 	
 	@Test
 	public void shouldFillFirstPageResults() {
-		List<RollingStock> results = resultsByObjectId(10, true);
+		List<RollingStockSummary> results = resultsByObjectId(10, true);
 		RangeRequest range = buildRange(10, null, null);
 		
-		PaginatedResults<RollingStock> pagResults =
+		PaginatedResults<RollingStockSummary> pagResults =
 				new RollingStockResults(results, null, range);
 		
 		assertEquals(false, pagResults.hasPreviousPage());
@@ -108,10 +137,10 @@ public class RollingStockResultsTests {
 	
 	@Test
 	public void shouldFillMiddlePageResults() {
-		List<RollingStock> results = resultsByObjectId(10, true);
+		List<RollingStockSummary> results = resultsByObjectId(10, true);
 		RangeRequest range = buildRange(10, new ObjectId(), new ObjectId());
 		
-		PaginatedResults<RollingStock> pagResults =
+		PaginatedResults<RollingStockSummary> pagResults =
 				new RollingStockResults(results, null, range);
 		
 		assertEquals(true, pagResults.hasPreviousPage());
@@ -120,10 +149,10 @@ public class RollingStockResultsTests {
 	
 	@Test
 	public void shouldFillLastPageResults() {
-		List<RollingStock> results = resultsByObjectId(10, false);
+		List<RollingStockSummary> results = resultsByObjectId(10, false);
 		RangeRequest range = buildRange(10, new ObjectId(), new ObjectId());
 		
-		PaginatedResults<RollingStock> pagResults =
+		PaginatedResults<RollingStockSummary> pagResults =
 				new RollingStockResults(results, null, range);
 		
 		assertEquals(true, pagResults.hasPreviousPage());
@@ -132,48 +161,50 @@ public class RollingStockResultsTests {
 	
 	@Test
 	public void shouldFillLastPageResultsWithLessItemsThanCount() {
-		List<RollingStock> results = resultsByObjectId(5, false);
+		List<RollingStockSummary> results = resultsByObjectId(5, false);
 		RangeRequest range = buildRange(10, new ObjectId(), new ObjectId());
 		
-		PaginatedResults<RollingStock> pagResults =
+		PaginatedResults<RollingStockSummary> pagResults =
 				new RollingStockResults(results, null, range);
 		
 		assertEquals(true, pagResults.hasPreviousPage());
 		assertEquals(false, pagResults.hasNextPage());
 	}
 	
-	private List<RollingStock> resultsByLastModified(int numberOfResults, boolean includeAdditionItem, Date since, Date max) {
-		List<RollingStock> items = new ArrayList<RollingStock>(numberOfResults);
+	private List<RollingStockSummary> resultsByLastModified(int numberOfResults, boolean includeAdditionItem, Date first, Date last) {
+		List<RollingStockSummary> items = new ArrayList<RollingStockSummary>(numberOfResults);
 		
-		RollingStock rsSince = new RollingStock.Builder(acme(), "123456").lastModified(since).build();
-		items.add(rsSince);
+		RollingStock rsFirst = new RollingStock.Builder(acme(), "123456").lastModified(first).build();
+		rsFirst.setId(FIRST_ID);
+		items.add(new RollingStockSummary(rsFirst));
 		for (int i=1; i<numberOfResults-1; i++) {
-			items.add(new RollingStock(new ObjectId()));
+			items.add(new RollingStockSummary(new RollingStock(new ObjectId())));
 		}
-		RollingStock rsMax = new RollingStock.Builder(acme(), "456789").lastModified(max).build();
-		items.add(rsMax);
+		RollingStock rsLast = new RollingStock.Builder(acme(), "456789").lastModified(last).build();
+		rsLast.setId(LAST_ID);
+		items.add(new RollingStockSummary(rsLast));
 		
 		if (includeAdditionItem) {
 			RollingStock rs = new RollingStock.Builder(acme(), "456789")
 				.lastModified(fulldate("2010/06/10 09:30:00"))
 				.build();
-			items.add(rs);
+			items.add(new RollingStockSummary(rs));
 		}
 		
 		return items;
 	}
 	
-	private List<RollingStock> resultsByObjectId(int numberOfResults, boolean includeAdditionItem) {
-		List<RollingStock> items = new ArrayList<RollingStock>(numberOfResults);
+	private List<RollingStockSummary> resultsByObjectId(int numberOfResults, boolean includeAdditionItem) {
+		List<RollingStockSummary> items = new ArrayList<RollingStockSummary>(numberOfResults);
 		
-		items.add(new RollingStock(SINCE_ID));
+		items.add(new RollingStockSummary(new RollingStock(FIRST_ID)));
 		for (int i=1; i<numberOfResults-1; i++) {
-			items.add(new RollingStock(new ObjectId()));
+			items.add(new RollingStockSummary(new RollingStock(new ObjectId())));
 		}
-		items.add(new RollingStock(MAX_ID));
+		items.add(new RollingStockSummary(new RollingStock(LAST_ID)));
 		
 		if (includeAdditionItem) {
-			items.add(new RollingStock(new ObjectId()));
+			items.add(new RollingStockSummary(new RollingStock(new ObjectId())));
 		}
 		
 		return items;
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2012 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.trenako.results;
+
+import static com.trenako.test.TestDataBuilder.*;
+
+import java.util.Date;
+import java.util.Locale;
+
+import org.bson.BSON;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.SimpleMongoDbFactory;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import com.mongodb.Mongo;
+import com.trenako.entities.RollingStock;
+import com.trenako.repositories.mongo.RollingStockQueryBuilder;
+import com.trenako.test.Benchmarks;
+
+/**
+ * It compares the size and the mapping time of the full rolling stock documents
+ * with the summaries loaded by the results and home pages.
+ * <p>
+ * The documents are synthetic, with a description and details in five languages;
+ * the summaries are projected with the same fields used by the repositories.
+ * It is not a unit test, run it with {@code main}.
+ * </p>
+ *
+ * @author Carlo Micieli
+ */
+public class RollingStockSummaryBenchmark {
+
+	private static final String[] LANGUAGES = { "en", "it", "de", "fr", "es" };
+	private static final int ITEMS = 10000;
+	private static final int ROUNDS = 5;
+
+	public static void main(String[] args) throws Exception {
+		MongoMappingContext context = new MongoMappingContext();
+		final MappingMongoConverter converter = 
+				new MappingMongoConverter(new SimpleMongoDbFactory(new Mongo(), "trenako"), context);
+		converter.afterPropertiesSet();
+
+		DBObject fields = RollingStockQueryBuilder.summaryFields(new Query(), Locale.ITALIAN).getFieldsObject();
+
+		final DBObject[] full = new DBObject[ITEMS];
+		final DBObject[] projected = new DBObject[ITEMS];
+		long fullBytes = 0;
+		long projectedBytes = 0;
+		for (int i = 0; i < ITEMS; i++) {
+			full[i] = new BasicDBObject();
+			converter.write(rollingStock(i), full[i]);
+			projected[i] = project(full[i], fields);
+			fullBytes += BSON.encode(full[i]).length;
+			projectedBytes += BSON.encode(projected[i]).length;
+		}
+
+		System.out.printf("document size: full %d bytes, summary %d bytes%n", 
+				fullBytes / ITEMS, projectedBytes / ITEMS);
+
+		Benchmarks.compare(ROUNDS, ITEMS, "item", new Benchmarks.Task("full") {
+			@Override
+			public long run(int i) {
+				converter.read(RollingStock.class, full[i]);
+				return 0;
+			}
+		}, new Benchmarks.Task("summary") {
+			@Override
+			public long run(int i) {
+				converter.read(RollingStockSummary.class, projected[i]);
+				return 0;
+			}
+		});
+
+		System.out.printf("retained heap: full %d KB, summary %d KB (%d items)%n",
+				retained(converter, RollingStock.class, full) / 1024,
+				retained(converter, RollingStockSummary.class, projected) / 1024,
+				ITEMS);
+	}
+
+	private static long retained(MappingMongoConverter converter, Class<?> type, DBObject[] docs) {
+		Object[] values = new Object[docs.length];
+		long before = usedMemory();
+		for (int i = 0; i < docs.length; i++) {
+			values[i] = converter.read(type, docs[i]);
+		}
+		long after = usedMemory();
+		return values.length > 0 ? after - before : 0;
+	}
+
+	private static long usedMemory() {
+		Runtime rt = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return rt.totalMemory() - rt.freeMemory();
+	}
+
+	// applies the projection as the server would do
+	private static DBObject project(DBObject doc, DBObject fields) {
+		DBObject result = new BasicDBObject("_id", doc.get("_id"));
+		for (String field : fields.keySet()) {
+			int dot = field.indexOf('.');
+			if (dot < 0) {
+				if (doc.containsField(field)) {
+					result.put(field, doc.get(field));
+				}
+				continue;
+			}
+
+			String parent = field.substring(0, dot);
+			DBObject value = (DBObject) doc.get(parent);
+			if (value == null || !value.containsField(field.substring(dot + 1))) {
+				continue;
+			}
+
+			DBObject target = (DBObject) result.get(parent);
+			if (target == null) {
+				target = new BasicDBObject();
+				result.put(parent, target);
+			}
+			target.put(field.substring(dot + 1), value.get(field.substring(dot + 1)));
+		}
+		return result;
+	}
+
+	private static RollingStock rollingStock(int i) {
+		RollingStock.Builder b = new RollingStock.Builder(acme(), String.valueOf(100000 + i))
+			.id(new ObjectId())
+			.railway(fs())
+			.scale(scaleH0())
+			.era("IV")
+			.category("electric-locomotives")
+			.powerMethod("dc")
+			.country("it")
+			.upcCode("4005" + (100000 + i))
+			.totalLength(220)
+			.tags("gruppo", "locomotiva", "fs", "e656")
+			.option("couplers", "nem-362")
+			.option("dcc", "nem-652")
+			.lastModified(new Date());
+
+		for (String lang : LANGUAGES) {
+			Locale locale = new Locale(lang);
+			b.description(locale, "Locomotiva elettrica gruppo E.656 " + i + " (" + lang + ")");
+			b.details(locale, "Livrea d'origine, pantografi 52, illuminazione frontale, motore a cinque poli " + 
+					"con volano, decoder digitale predisposto, lunghezza 22 cm (" + lang + ")");
+		}
+		return b.build();
+	}
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2012 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.trenako.results;
+
+import static com.trenako.test.TestDataBuilder.*;
+import static org.junit.Assert.*;
+
+import java.util.Date;
+import java.util.Locale;
+
+import org.bson.types.ObjectId;
+import org.junit.Test;
+
+import com.trenako.entities.RollingStock;
+import com.trenako.mapping.LocalizedField;
+
+/**
+ * 
+ * @author Carlo Micieli
+ *
+ */
+public class RollingStockSummaryTests {
+
+	private final ObjectId id = new ObjectId();
+	private final Date lastModified = new Date(1338539400500L);
+	
+	@Test
+	public void shouldCreateSummariesFromRollingStocks() {
+		RollingStockSummary summary = new RollingStockSummary(rollingStock());
+		
+		assertEquals(id, summary.getId());
+		assertEquals("acme-123456", summary.getSlug());
+		assertEquals("ACME 123456", summary.getLabel());
+		assertEquals("acme", summary.getBrand().getSlug());
+		assertEquals("fs", summary.getRailway().getSlug());
+		assertEquals("h0", summary.getScale().getSlug());
+		assertEquals("123456", summary.getItemNumber());
+		assertEquals("III", summary.getEra());
+		assertEquals("electric-locomotives", summary.getCategory());
+		assertEquals("ac", summary.getPowerMethod());
+		assertEquals(lastModified, summary.getLastModified());
+	}
+	
+	@Test
+	public void shouldKeepAllTheDescriptionLanguagesWithoutLocale() {
+		RollingStockSummary summary = new RollingStockSummary(rollingStock());
+		
+		assertEquals(3, summary.getDescription().size());
+	}
+	
+	@Test
+	public void shouldKeepOnlyTheDefaultAndTheCurrentLanguage() {
+		RollingStockSummary summary = new RollingStockSummary(rollingStock(), Locale.ITALIAN);
+		
+		LocalizedField<String> description = summary.getDescription();
+		assertEquals(2, description.size());
+		assertEquals("Electric locomotive", description.get(Locale.ENGLISH));
+		assertEquals("Locomotiva elettrica", description.get(Locale.ITALIAN));
+		assertNull(description.get(Locale.GERMAN));
+	}
+	
+	@Test
+	public void shouldKeepOnlyTheDefaultLanguageForTheDefaultLocale() {
+		RollingStockSummary summary = new RollingStockSummary(rollingStock(), Locale.ENGLISH);
+		
+		assertEquals(1, summary.getDescription().size());
+		assertEquals("Electric locomotive", summary.getDescription().getDefault());
+	}
+	
+	@Test
+	public void shouldCheckWhetherTwoSummariesAreEquals() {
+		RollingStockSummary x = new RollingStockSummary(rollingStock());
+		RollingStockSummary y = new RollingStockSummary(rollingStock(), Locale.ITALIAN);
+		RollingStockSummary z = new RollingStockSummary(new RollingStock(new ObjectId()));
+		
+		assertTrue(x.equals(y));
+		assertEquals(x.hashCode(), y.hashCode());
+		assertFalse(x.equals(z));
+	}
+	
+	private RollingStock rollingStock() {
+		RollingStock rs = new RollingStock.Builder(acme(), "123456")
+			.railway(fs())
+			.scale(scaleH0())
+			.era("III")
+			.category("electric-locomotives")
+			.powerMethod("ac")
+			.description(Locale.ENGLISH, "Electric locomotive")
+			.description(Locale.ITALIAN, "Locomotiva elettrica")
+			.description(Locale.GERMAN, "Elektrolokomotive")
+			.lastModified(lastModified)
+			.build();
+		rs.setId(id);
+		return rs;
+	}
+}
@@ -0,0 +1,258 @@
+/*
+ * Copyright 2012 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.trenako.search;
+
+import static com.trenako.test.TestDataBuilder.*;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.bson.types.ObjectId;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBCollection;
+import com.mongodb.DBCursor;
+import com.mongodb.DBObject;
+import com.trenako.entities.Brand;
+import com.trenako.entities.Railway;
+import com.trenako.entities.RollingStock;
+import com.trenako.entities.Scale;
+import com.trenako.repositories.BrowseRepository;
+
+/**
+ * 
+ * @author Carlo Micieli
+ *
+ */
+public class AutocompleteIndexTests {
+
+	BrowseRepository repo;
+	MongoTemplate mongo;
+	DBCollection collection;
+	AutocompleteIndex index;
+	
+	@Before
+	public void setUp() {
+		repo = mock(BrowseRepository.class);
+		mongo = mock(MongoTemplate.class);
+		collection = mock(DBCollection.class);
+		when(mongo.getCollectionName(eq(RollingStock.class))).thenReturn("rollingStocks");
+		when(mongo.getCollection(eq("rollingStocks"))).thenReturn(collection);
+		
+		index = new AutocompleteIndex(repo, mongo);
+	}
+	
+	@Test
+	public void shouldSuggestBrandsByNamePrefix() {
+		index.index(brand("ACME"));
+		index.index(brand("Roco"));
+		index.index(brand("Rivarossi"));
+		
+		assertEquals("[Rivarossi, Roco]", labels(index.suggest("r", Suggestion.Type.BRAND, 10)));
+		assertEquals("[Roco]", labels(index.suggest("RO", Suggestion.Type.BRAND, 10)));
+		assertEquals("[]", labels(index.suggest("x", Suggestion.Type.BRAND, 10)));
+	}
+	
+	@Test
+	public void shouldSuggestNamesFromEveryWord() {
+		Railway fs = new Railway.Builder("FS")
+			.companyName("Ferrovie dello Stato")
+			.build();
+		fs.setId(new ObjectId());
+		index.index(fs);
+		
+		assertEquals("[FS (Ferrovie dello Stato)]", labels(index.suggest("stato", Suggestion.Type.RAILWAY, 10)));
+		assertEquals("[FS (Ferrovie dello Stato)]", labels(index.suggest("ferrovie d", Suggestion.Type.RAILWAY, 10)));
+		assertEquals("[FS (Ferrovie dello Stato)]", labels(index.suggest("fs", Suggestion.Type.RAILWAY, 10)));
+	}
+	
+	@Test
+	public void shouldSuggestEveryEntityOnlyOnce() {
+		Railway db = new Railway.Builder("DB")
+			.companyName("DB AG")
+			.build();
+		db.setId(new ObjectId());
+		index.index(db);
+		
+		assertEquals("[DB (DB AG)]", labels(index.suggest("db", Suggestion.Type.RAILWAY, 10)));
+	}
+	
+	@Test
+	public void shouldSuggestRollingStocksByItemNumberWithoutSeparators() {
+		index.index(rollingStock("60-444", "4006789012345"));
+		index.index(rollingStock("60392", null));
+		
+		assertEquals("[ACME 60-444]", labels(index.suggest("60.44", Suggestion.Type.ROLLING_STOCK, 10)));
+		assertEquals("[ACME 60392, ACME 60-444]", labels(index.suggest("60", Suggestion.Type.ROLLING_STOCK, 10)));
+		assertEquals("[ACME 60-444]", labels(index.suggest("400678", Suggestion.Type.ROLLING_STOCK, 10)));
+		assertEquals("[]", labels(index.suggest("444", Suggestion.Type.ROLLING_STOCK, 10)));
+	}
+	
+	@Test
+	public void shouldLimitTheSuggestions() {
+		index.index(rollingStock("60001", null));
+		index.index(rollingStock("60002", null));
+		index.index(rollingStock("60003", null));
+		
+		assertEquals("[ACME 60001, ACME 60002]", labels(index.suggest("600", Suggestion.Type.ROLLING_STOCK, 2)));
+	}
+	
+	@Test
+	public void shouldSuggestEveryType() {
+		index.index(brand("ACME"));
+		index.index(scale("A0"));
+		index.index(rollingStock("A123", null));
+		
+		List<Suggestion> suggestions = index.suggest("a", 10);
+		
+		assertEquals("[ACME, A0 (1:87), ACME A123]", labels(suggestions));
+		assertEquals(Suggestion.Type.BRAND, suggestions.get(0).getType());
+		assertEquals(Suggestion.Type.SCALE, suggestions.get(1).getType());
+		assertEquals(Suggestion.Type.ROLLING_STOCK, suggestions.get(2).getType());
+	}
+	
+	@Test
+	public void shouldReturnNoSuggestionsForBlankText() {
+		index.index(brand("ACME"));
+		assertTrue(index.suggest(" - ", 10).isEmpty());
+	}
+	
+	@Test
+	public void shouldReplaceTheKeysWhenEntitiesAreIndexedAgain() {
+		Brand brand = brand("ACME");
+		index.index(brand);
+		
+		Brand changed = new Brand.Builder("Rivarossi").build();
+		changed.setId(brand.getId());
+		index.index(changed);
+		
+		assertTrue(index.suggest("acme", Suggestion.Type.BRAND, 10).isEmpty());
+		assertEquals("[Rivarossi]", labels(index.suggest("riva", Suggestion.Type.BRAND, 10)));
+	}
+	
+	@Test
+	public void shouldRemoveEntities() {
+		Brand brand = brand("ACME");
+		index.index(brand);
+		
+		index.remove(Suggestion.Type.BRAND, brand.getId());
+		
+		assertTrue(index.suggest("acme", Suggestion.Type.BRAND, 10).isEmpty());
+		assertEquals(0, index.getSize());
+	}
+	
+	@Test
+	public void shouldLoadTheIndex() {
+		when(repo.getBrands()).thenReturn(Arrays.asList(brand("ACME")));
+		when(repo.getRailways()).thenReturn(Collections.<Railway>emptyList());
+		when(repo.getScales()).thenReturn(Arrays.asList(scale("H0")));
+		mockStoredRollingStocks(new BasicDBObject("_id", new ObjectId())
+			.append("brand", new BasicDBObject("slug", "acme").append("label", "ACME"))
+			.append("itemNumber", "60392")
+			.append("slug", "acme-60392"));
+		
+		index.load();
+		
+		assertTrue(index.isReady());
+		assertEquals("[ACME]", labels(index.suggest("ac", Suggestion.Type.BRAND, 10)));
+		assertEquals("[H0 (1:87)]", labels(index.suggest("h", Suggestion.Type.SCALE, 10)));
+		
+		List<Suggestion> rs = index.suggest("603", Suggestion.Type.ROLLING_STOCK, 10);
+		assertEquals(1, rs.size());
+		assertEquals(new Suggestion(Suggestion.Type.ROLLING_STOCK, "acme-60392", "ACME 60392"), rs.get(0));
+	}
+	
+	@Test
+	public void shouldKeepTheChangesMadeWhileTheIndexIsLoading() {
+		final Brand acme = brand("ACME");
+		final Brand roco = brand("Roco");
+		index.index(acme);
+		
+		when(repo.getBrands()).thenAnswer(new Answer<Iterable<Brand>>() {
+			@Override
+			public Iterable<Brand> answer(InvocationOnMock invocation) {
+				// the changes saved while the brands are loaded
+				index.remove(Suggestion.Type.BRAND, acme.getId());
+				index.index(roco);
+				return Arrays.asList(acme);
+			}
+		});
+		when(repo.getRailways()).thenReturn(Collections.<Railway>emptyList());
+		when(repo.getScales()).thenReturn(Collections.<Scale>emptyList());
+		mockStoredRollingStocks();
+		
+		index.load();
+		
+		assertTrue(index.suggest("acme", Suggestion.Type.BRAND, 10).isEmpty());
+		assertEquals("[Roco]", labels(index.suggest("roco", Suggestion.Type.BRAND, 10)));
+	}
+	
+	@Test
+	public void shouldRemoveTheMissingEntitiesWhenTheIndexIsLoadedAgain() {
+		index.index(brand("ACME"));
+		
+		when(repo.getBrands()).thenReturn(Collections.<Brand>emptyList());
+		when(repo.getRailways()).thenReturn(Collections.<Railway>emptyList());
+		when(repo.getScales()).thenReturn(Collections.<Scale>emptyList());
+		mockStoredRollingStocks();
+		
+		index.load();
+		
+		assertTrue(index.suggest("acme", Suggestion.Type.BRAND, 10).isEmpty());
+	}
+	
+	private void mockStoredRollingStocks(DBObject... docs) {
+		DBCursor cursor = mock(DBCursor.class);
+		when(cursor.iterator()).thenReturn(Arrays.asList(docs).iterator());
+		when(collection.find(isA(DBObject.class), isA(DBObject.class))).thenReturn(cursor);
+	}
+	
+	private static Brand brand(String name) {
+		Brand brand = new Brand.Builder(name).build();
+		brand.setId(new ObjectId());
+		return brand;
+	}
+	
+	private static Scale scale(String name) {
+		Scale scale = new Scale.Builder(name).ratio(870).build();
+		scale.setId(new ObjectId());
+		return scale;
+	}
+	
+	private static RollingStock rollingStock(String itemNumber, String upcCode) {
+		return new RollingStock.Builder(acme(), itemNumber)
+			.id(new ObjectId())
+			.upcCode(upcCode)
+			.build();
+	}
+	
+	private static String labels(List<Suggestion> suggestions) {
+		List<String> labels = new ArrayList<String>();
+		for (Suggestion s : suggestions) {
+			labels.add(s.getLabel());
+		}
+		return labels.toString();
+	}
+}
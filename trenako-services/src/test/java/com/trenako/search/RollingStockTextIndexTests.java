@@ -0,0 +1,266 @@
+/*
+ * Copyright 2012 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.trenako.search;
+
+import static com.trenako.test.TestDataBuilder.*;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+import org.bson.types.ObjectId;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBCollection;
+import com.mongodb.DBCursor;
+import com.mongodb.DBObject;
+import com.trenako.entities.RollingStock;
+
+/**
+ * 
+ * @author Carlo Micieli
+ *
+ */
+public class RollingStockTextIndexTests {
+
+	@Rule public TemporaryFolder folder = new TemporaryFolder();
+	
+	MongoTemplate mongo;
+	DBCollection collection;
+	File snapshotFile;
+	RollingStockTextIndex index;
+	
+	RollingStock e656 = new RollingStock.Builder(acme(), "60392")
+		.id(new ObjectId())
+		.railway(fs())
+		.description("Electric locomotive E.656 Caimano")
+		.description(Locale.ITALIAN, "Locomotiva elettrica E.656 Caimano")
+		.tags("caimano")
+		.lastModified(new Date(1000))
+		.build();
+	
+	RollingStock e444 = new RollingStock.Builder(acme(), "60-444")
+		.id(new ObjectId())
+		.railway(fs())
+		.description("Electric locomotive E.444 Tartaruga")
+		.details("The first series with the original livery")
+		.lastModified(new Date(1000))
+		.build();
+	
+	@Before
+	public void setUp() {
+		mongo = mock(MongoTemplate.class);
+		collection = mock(DBCollection.class);
+		when(mongo.getCollectionName(eq(RollingStock.class))).thenReturn("rollingStocks");
+		when(mongo.getCollection(eq("rollingStocks"))).thenReturn(collection);
+		
+		snapshotFile = new File(folder.getRoot(), "search.idx");
+		index = new RollingStockTextIndex(mongo, snapshotFile, 60000);
+	}
+	
+	@Test
+	public void shouldFindRollingStocksByDescription() {
+		index.index(e656);
+		index.index(e444);
+		
+		assertEquals(ids(e444), ids(index.search("tartaruga", Locale.ENGLISH)));
+		assertEquals(2, index.search("electric locomotive", Locale.ENGLISH).size());
+	}
+	
+	@Test
+	public void shouldRequireAllTheSearchTerms() {
+		index.index(e656);
+		index.index(e444);
+		
+		assertEquals(ids(e656), ids(index.search("electric caimano", Locale.ENGLISH)));
+		assertTrue(index.search("caimano tartaruga", Locale.ENGLISH).isEmpty());
+	}
+	
+	@Test
+	public void shouldMatchTheLastTermAsPrefix() {
+		index.index(e656);
+		index.index(e444);
+		
+		assertEquals(ids(e444), ids(index.search("electric tarta", Locale.ENGLISH)));
+		assertTrue(index.search("tarta electric", Locale.ENGLISH).isEmpty());
+	}
+	
+	@Test
+	public void shouldFindRollingStocksByItemNumberAndTags() {
+		index.index(e656);
+		index.index(e444);
+		
+		assertEquals(ids(e656), ids(index.search("60392", Locale.ENGLISH)));
+		assertEquals(ids(e444), ids(index.search("60444", Locale.ENGLISH)));
+		assertEquals(ids(e444), ids(index.search("60-444", Locale.ENGLISH)));
+	}
+	
+	@Test
+	public void shouldReturnAllTheHits() {
+		for (int i = 0; i < 1500; i++) {
+			index.index(new RollingStock.Builder(acme(), "item-" + i)
+				.id(new ObjectId())
+				.description("Electric locomotive")
+				.build());
+		}
+		
+		// the search criteria are applied later, so the hits are not truncated
+		assertEquals(1500, index.search("electric", Locale.ENGLISH).size());
+	}
+	
+	@Test
+	public void shouldRankTheBestMatchesFirst() {
+		index.index(e656);
+		index.index(e444);
+		
+		// e656 has the term in the tags and in the description
+		List<TextHit> hits = index.search("caimano", Locale.ENGLISH);
+		assertEquals(ids(e656), ids(hits));
+		
+		List<TextHit> all = index.search("e", Locale.ENGLISH);
+		assertEquals(2, all.size());
+		assertTrue(all.get(0).getScore() >= all.get(1).getScore());
+	}
+	
+	@Test
+	public void shouldSearchTheUserLanguageAndTheDefaultOne() {
+		index.index(e656);
+		index.index(e444);
+		
+		assertEquals(ids(e656), ids(index.search("locomotiva", Locale.ITALIAN)));
+		assertTrue(index.search("locomotiva", Locale.GERMAN).isEmpty());
+		assertEquals(2, index.search("locomotive", Locale.ITALIAN).size());
+	}
+	
+	@Test
+	public void shouldReplaceTheTermsWhenRollingStocksAreIndexedAgain() {
+		index.index(e444);
+		
+		RollingStock changed = new RollingStock.Builder(acme(), "60-444")
+			.id(e444.getId())
+			.description("Electric locomotive E.444R")
+			.build();
+		index.index(changed);
+		
+		assertTrue(index.search("tartaruga", Locale.ENGLISH).isEmpty());
+		assertEquals(ids(e444), ids(index.search("444r", Locale.ENGLISH)));
+		assertEquals(1, index.getDocuments());
+	}
+	
+	@Test
+	public void shouldRemoveRollingStocks() {
+		index.index(e656);
+		index.index(e444);
+		
+		index.remove(e444.getId());
+		
+		assertTrue(index.search("tartaruga", Locale.ENGLISH).isEmpty());
+		assertEquals(1, index.getDocuments());
+	}
+	
+	@Test
+	public void shouldReturnNoHitsForBlankSearches() {
+		index.index(e656);
+		assertTrue(index.search("  ", Locale.ENGLISH).isEmpty());
+	}
+	
+	@Test
+	public void shouldIndexAllTheRollingStocksWithoutSnapshot() {
+		mockStoredRollingStocks(e656, e444);
+		when(mongo.find(isA(Query.class), eq(RollingStock.class))).thenReturn(Arrays.asList(e656, e444));
+		
+		index.load();
+		
+		assertTrue(index.isReady());
+		assertEquals(2, index.getDocuments());
+		assertEquals(ids(e444), ids(index.search("tartaruga", Locale.ENGLISH)));
+	}
+	
+	@Test
+	public void shouldLoadTheSnapshotAndIndexOnlyTheChangedRollingStocks() {
+		index.index(e656);
+		index.index(e444);
+		index.snapshot();
+		assertTrue(snapshotFile.exists());
+		assertEquals(0, index.getPendingChanges());
+		
+		mockStoredRollingStocks(e656, e444);
+		RollingStockTextIndex loaded = new RollingStockTextIndex(mongo, snapshotFile, 60000);
+		loaded.load();
+		
+		verify(mongo, never()).find(isA(Query.class), eq(RollingStock.class));
+		assertEquals(2, loaded.getDocuments());
+		assertEquals(ids(e656), ids(loaded.search("locomotiva", Locale.ITALIAN)));
+		assertNotNull(loaded.getLastSnapshot());
+	}
+	
+	@Test
+	public void shouldRemoveTheMissingRollingStocksAfterTheSnapshotIsLoaded() {
+		index.index(e656);
+		index.index(e444);
+		index.snapshot();
+		
+		mockStoredRollingStocks(e656);
+		RollingStockTextIndex loaded = new RollingStockTextIndex(mongo, snapshotFile, 60000);
+		loaded.load();
+		
+		assertEquals(1, loaded.getDocuments());
+		assertTrue(loaded.search("tartaruga", Locale.ENGLISH).isEmpty());
+	}
+	
+	private void mockStoredRollingStocks(RollingStock... rollingStocks) {
+		List<DBObject> docs = new ArrayList<DBObject>();
+		for (RollingStock rs : rollingStocks) {
+			docs.add(new BasicDBObject("_id", rs.getId()).append("lastModified", rs.getLastModified()));
+		}
+		
+		DBCursor cursor = mock(DBCursor.class);
+		when(cursor.iterator()).thenReturn(docs.iterator());
+		when(collection.find(isA(DBObject.class), isA(DBObject.class))).thenReturn(cursor);
+	}
+	
+	private static List<ObjectId> ids(RollingStock... rollingStocks) {
+		List<ObjectId> ids = new ArrayList<ObjectId>();
+		for (RollingStock rs : rollingStocks) {
+			ids.add(rs.getId());
+		}
+		return ids;
+	}
+	
+	private static List<ObjectId> ids(List<TextHit> hits) {
+		if (hits.isEmpty()) {
+			return Collections.emptyList();
+		}
+		
+		List<ObjectId> ids = new ArrayList<ObjectId>();
+		for (TextHit hit : hits) {
+			ids.add(hit.getId());
+		}
+		return ids;
+	}
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2012 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.trenako.search;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+/**
+ * 
+ * @author Carlo Micieli
+ *
+ */
+public class TextAnalyzerTests {
+
+	@Test
+	public void shouldSplitTextInLowerCaseTerms() {
+		assertEquals(Arrays.asList("gruppo", "e", "656", "caimano"), 
+				TextAnalyzer.terms("Gruppo E.656 \"Caimano\""));
+	}
+	
+	@Test
+	public void shouldRemoveTheDiacriticalMarks() {
+		assertEquals(Arrays.asList("rhatische", "bahn", "societe"), 
+				TextAnalyzer.terms("Rhätische Bahn, Société"));
+	}
+	
+	@Test
+	public void shouldReturnNoTermsForBlankTexts() {
+		assertEquals(Collections.emptyList(), TextAnalyzer.terms(null));
+		assertEquals(Collections.emptyList(), TextAnalyzer.terms("  -- "));
+	}
+	
+	@Test
+	public void shouldNormalizeTexts() {
+		assertEquals("ae-6-6", TextAnalyzer.normalize(" Ae 6/6 "));
+		assertEquals("ae-6-6", TextAnalyzer.normalize("ae-6-6"));
+		assertEquals("", TextAnalyzer.normalize(null));
+	}
+}
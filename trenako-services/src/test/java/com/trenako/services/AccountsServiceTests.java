@@ -15,9 +15,15 @@
  */
 package com.trenako.services;
 
+import static org.junit.Assert.*;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.*;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
 import org.bson.types.ObjectId;
 import org.junit.Before;
 import org.junit.Test;
@@ -46,17 +52,65 @@ public class AccountsServiceTests {
 	@Before
 	public void setUp() {
 		MockitoAnnotations.initMocks(this);
-		service = new AccountsServiceImpl(repo);
+		service = new AccountsServiceImpl(repo, 60000);
 	}
 
 	@Test
 	public void shouldFindTheAccountsList() {
 		Pageable pageable = new PageRequest(0, 10);
 		
-		@SuppressWarnings("unused")
+		List<Account> accounts = Arrays.asList(new Account(), new Account());
+		when(repo.findPage(eq(pageable), (ObjectId) isNull(), (ObjectId) isNull())).thenReturn(accounts);
+		when(repo.count()).thenReturn(42L);
+		
 		Page<Account> results = service.findAll(pageable);
 		
-		verify(repo, times(1)).findAll(eq(pageable));
+		assertEquals(accounts, results.getContent());
+		assertEquals(42L, results.getTotalElements());
+		verify(repo, never()).findAll(isA(Pageable.class));
+	}
+	
+	@Test
+	public void shouldFindTheAccountsListSinceTheProvidedId() {
+		Pageable pageable = new PageRequest(1, 10);
+		ObjectId since = new ObjectId();
+		
+		service.findAll(pageable, since, null);
+		
+		verify(repo, times(1)).findPage(eq(pageable), eq(since), (ObjectId) isNull());
+	}
+	
+	@Test
+	public void shouldCacheTheNumberOfAccounts() {
+		Pageable pageable = new PageRequest(0, 10);
+		when(repo.count()).thenReturn(42L);
+		
+		service.findAll(pageable);
+		service.findAll(pageable);
+		
+		verify(repo, times(1)).count();
+	}
+	
+	@Test
+	public void shouldExpireTheNumberOfAccountsAfterTheTimeToLive() {
+		service = new AccountsServiceImpl(repo, 0);
+		Pageable pageable = new PageRequest(0, 10);
+		
+		service.findAll(pageable);
+		service.findAll(pageable);
+		
+		verify(repo, times(2)).count();
+	}
+	
+	@Test
+	public void shouldCountTheAccountsAgainAfterChanges() {
+		Pageable pageable = new PageRequest(0, 10);
+		
+		service.findAll(pageable);
+		service.save(new Account());
+		service.findAll(pageable);
+		
+		verify(repo, times(2)).count();
 	}
 	
 	@Test
@@ -80,6 +134,27 @@ public class AccountsServiceTests {
 		verify(repo, times(1)).findBySlug(eq(slug));
 	}
 	
+	@Test
+	public void shouldFindAccountsBySlugs() {
+		List<String> slugs = Arrays.asList("bob", "alice");
+		Account bob = new Account.Builder("bob@mail.com").displayName("Bob").build();
+		when(repo.findBySlugs(eq(slugs))).thenReturn(Arrays.asList(bob));
+		
+		Map<String, Account> accounts = service.findBySlugs(slugs);
+		
+		verify(repo, times(1)).findBySlugs(eq(slugs));
+		assertEquals(1, accounts.size());
+		assertEquals(bob, accounts.get("bob"));
+	}
+	
+	@Test
+	public void shouldNotQueryTheAccountsForEmptySlugs() {
+		Map<String, Account> accounts = service.findBySlugs(Collections.<String>emptyList());
+		
+		verify(repo, never()).findBySlugs(anyCollectionOf(String.class));
+		assertEquals(0, accounts.size());
+	}
+	
 	@Test
 	public void shouldUpdateAccounts() {
 		Account account = new Account.Builder("mail@mail.com").build();
@@ -31,8 +31,11 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Sort.Direction;
 
+import com.trenako.cache.ReferenceDataCache;
 import com.trenako.entities.Brand;
 import com.trenako.repositories.BrandsRepository;
+import com.trenako.search.AutocompleteIndex;
+import com.trenako.search.Suggestion;
 import com.trenako.services.BrandsServiceImpl;
 
 /**
@@ -45,6 +48,8 @@ public class BrandsServiceTests {
 	private final Sort NAME_SORT = new Sort(Direction.ASC, "name");
 	
 	@Mock BrandsRepository repo;
+	@Mock ReferenceDataCache cache;
+	@Mock AutocompleteIndex autocomplete;
 	@InjectMocks public BrandsServiceImpl service;
 	
 	@Before
@@ -90,8 +95,12 @@ public class BrandsServiceTests {
 
 	@Test
 	public void shouldRemoveBrands() {
+		ObjectId id = new ObjectId();
 		Brand brand = new Brand("ACME");
+		brand.setId(id);
 		service.remove(brand);
 		verify(repo, times(1)).delete(eq(brand));
+		verify(cache, times(1)).evict(eq(Brand.class));
+		verify(autocomplete, times(1)).remove(eq(Suggestion.Type.BRAND), eq(id));
 	}
 }
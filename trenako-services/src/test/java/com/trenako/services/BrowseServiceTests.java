@@ -21,7 +21,10 @@ import static org.mockito.Mockito.*;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
+import org.bson.types.ObjectId;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -29,12 +32,17 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import com.trenako.criteria.Criteria;
 import com.trenako.criteria.SearchCriteria;
 import com.trenako.criteria.SearchRequest;
 import com.trenako.entities.Brand;
 import com.trenako.entities.Railway;
 import com.trenako.entities.Scale;
+import com.trenako.facets.FacetCounts;
+import com.trenako.facets.FacetKey;
 import com.trenako.repositories.BrowseRepository;
+import com.trenako.search.RollingStockTextIndex;
+import com.trenako.search.TextHit;
 import com.trenako.results.RangeRequest;
 import com.trenako.values.Category;
 import com.trenako.values.Era;
@@ -50,6 +58,8 @@ import com.trenako.values.PowerMethod;
 public class BrowseServiceTests {
 
 	@Mock BrowseRepository repo;
+	@Mock FacetCounts facetCounts;
+	@Mock RollingStockTextIndex textIndex;
 	BrowseService service;
 	
 	static final Iterable<Brand> BRANDS = Arrays.asList(acme(), marklin(), roco());
@@ -70,7 +80,7 @@ public class BrowseServiceTests {
 		when(repo.findBySlug(eq(scaleH0().getSlug()), eq(Scale.class))).thenReturn(scaleH0());
 		when(repo.getScales()).thenReturn(SCALES);
 		
-		service = new BrowseServiceImpl(repo);
+		service = new BrowseServiceImpl(repo, facetCounts, textIndex);
 	}
 
 	@Test
@@ -123,6 +133,14 @@ public class BrowseServiceTests {
 		verify(repo, times(1)).getBrands();
 		assertEquals(BRANDS, brands);
 	}
+
+	@Test
+	public void shouldLoadBrandsFromTheRepositoryOnlyOnce() {
+		service.brands();
+		Iterable<Brand> brands = service.brands();
+		verify(repo, times(1)).getBrands();
+		assertEquals(BRANDS, brands);
+	}
 	
 	@Test
 	public void shouldFindAllRollingStocks() {
@@ -134,7 +152,7 @@ public class BrowseServiceTests {
 
 		service.findByCriteria(searchReq, range);
 		
-		verify(repo, times(1)).findByCriteria(eq(searchCriteria), eq(range));		
+		verify(repo, times(1)).findByCriteria(eq(searchCriteria), eq(range), (Locale) isNull());		
 	}
 	
 	@Test
@@ -162,7 +180,30 @@ public class BrowseServiceTests {
 		
 		service.findByCriteria(sr, range);
 		
-		verify(repo, times(1)).findByCriteria(eq(searchCriteria), eq(range));		
+		verify(repo, times(1)).findByCriteria(eq(searchCriteria), eq(range), (Locale) isNull());		
+	}
+	
+	@Test
+	public void shouldFindRollingStocksWithFullTextSearch() {
+		List<TextHit> hits = Arrays.asList(new TextHit(new ObjectId(), 1.0));
+		when(textIndex.search(eq("gruppo-740"), eq(Locale.ITALIAN))).thenReturn(hits);
+		
+		SearchCriteria searchCriteria = new SearchCriteria.Builder()
+			.railway(fs())
+			.text("gruppo-740")
+			.build();
+		
+		RangeRequest range = new RangeRequest();
+		range.setSize(10);
+		
+		SearchRequest sr = new SearchRequest();
+		sr.setRailway("fs");
+		sr.setText("gruppo-740");
+		
+		service.findByCriteria(sr, range, Locale.ITALIAN);
+		
+		verify(repo, times(1)).findByHits(eq(searchCriteria), eq(hits), eq(range), eq(Locale.ITALIAN));
+		verify(repo, never()).findByCriteria(any(SearchCriteria.class), any(RangeRequest.class), any(Locale.class));
 	}
 	
 	@Test
@@ -218,4 +259,38 @@ public class BrowseServiceTests {
 		LocalizedEnum<Era> notfound = service.findEra("not-found");
 		assertNull(notfound);
 	}
+
+	@Test
+	public void shouldCountRollingStocksForEachBrand() {
+		when(facetCounts.count(eq(FacetKey.of("acme", null, "fs")))).thenReturn(42);
+		when(facetCounts.count(eq(FacetKey.of("marklin", null, "fs")))).thenReturn(0);
+		when(facetCounts.count(eq(FacetKey.of("roco", null, "fs")))).thenReturn(7);
+		
+		SearchRequest sc = new SearchRequest();
+		sc.setRailway("fs");
+		Map<String, Integer> counts = service.countRollingStocks(Criteria.BRAND, sc);
+		
+		assertEquals(3, counts.size());
+		assertEquals(42, (int) counts.get("acme"));
+		assertEquals(0, (int) counts.get("marklin"));
+		assertEquals(7, (int) counts.get("roco"));
+	}
+	
+	@Test
+	public void shouldCountRollingStocksForEachEra() {
+		when(facetCounts.count(eq(FacetKey.of(null, "h0", null, "iv")))).thenReturn(10);
+		
+		SearchRequest sc = new SearchRequest();
+		sc.setScale("h0");
+		Map<String, Integer> counts = service.countRollingStocks(Criteria.ERA, sc);
+		
+		assertEquals(Era.values().length, counts.size());
+		assertEquals(10, (int) counts.get("iv"));
+		assertEquals(0, (int) counts.get("i"));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldNotCountRollingStocksForCats() {
+		service.countRollingStocks(Criteria.CAT, new SearchRequest());
+	}
 }
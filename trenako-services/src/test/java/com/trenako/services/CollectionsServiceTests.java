@@ -19,6 +19,8 @@ import static com.trenako.test.TestDataBuilder.*;
 import static org.mockito.Mockito.*;
 import static org.junit.Assert.*;
 
+import java.util.Collections;
+
 import org.bson.types.ObjectId;
 import org.junit.Before;
 import org.junit.Test;
@@ -27,6 +29,10 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
 import com.trenako.entities.Account;
 import com.trenako.entities.Collection;
@@ -106,6 +112,45 @@ public class CollectionsServiceTests {
 		verify(repo, times(1)).findByOwner(eq(owner));
 	}
 	
+	@Test
+	public void shouldFindCollectionSummariesBySlug() {
+		when(repo.findSummaryBySlug(eq("slug"), eq(10))).thenReturn(new Collection(owner));
+		
+		Collection coll = service.findSummaryBySlug("slug", 10);
+		
+		assertNotNull(coll);
+		verify(repo, times(1)).findSummaryBySlug(eq("slug"), eq(10));
+	}
+	
+	@Test
+	public void shouldReturnTheDefaultCollectionSummaryForTheUser() {
+		when(repo.findSummaryByOwner(eq(owner), eq(10))).thenReturn(null);
+		
+		Collection coll = service.findSummaryByOwner(owner, 10);
+		
+		assertEquals(Collection.defaultCollection(), coll);
+	}
+	
+	@Test
+	public void shouldFindCollectionItemPages() {
+		Pageable paging = new PageRequest(0, 10);
+		Page<CollectionItem> value = new PageImpl<CollectionItem>(Collections.<CollectionItem>emptyList());
+		Collection coll = new Collection(owner);
+		when(repo.findItems(eq(coll.getSlug()), eq("railcars"), eq("new"), eq(paging))).thenReturn(value);
+		
+		Page<CollectionItem> page = service.findItems(coll, "railcars", "new", paging);
+		
+		assertEquals(value, page);
+	}
+	
+	@Test
+	public void shouldReturnEmptyItemPagesForTheDefaultCollection() {
+		Page<CollectionItem> page = service.findItems(Collection.defaultCollection(), null, null, new PageRequest(0, 10));
+		
+		assertFalse(page.hasContent());
+		verify(repo, never()).findItems(anyString(), anyString(), anyString(), any(Pageable.class));
+	}
+	
 	@Test
 	public void shouldCheckIfUserCollectionContainsRollingStock() {
 		boolean ret = service.containsRollingStock(owner, rollingStock);
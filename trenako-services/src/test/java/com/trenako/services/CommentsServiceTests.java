@@ -81,6 +81,16 @@ public class CommentsServiceTests {
 		verify(repo, times(1)).findByRollingStock(eq(rollingStock()));
 	}
 	
+	@Test
+	public void shouldFindOnePageOfCommentsByRollingStock() {
+		when(repo.findByRollingStock(eq(rollingStock()), eq(10), eq(11))).thenReturn(null);
+		
+		RollingStockComments comments = service.findByRollingStock(rollingStock(), 10, 11);
+		
+		assertNotNull("Comments are null", comments);
+		verify(repo, times(1)).findByRollingStock(eq(rollingStock()), eq(10), eq(11));
+	}
+	
 	@Test
 	public void shouldPostNewComments() {
 		service.postComment(rollingStock(), comment());
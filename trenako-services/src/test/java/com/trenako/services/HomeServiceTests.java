@@ -19,6 +19,7 @@ import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
 
 import java.util.Collections;
+import java.util.Locale;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -30,9 +31,10 @@ import org.mockito.runners.MockitoJUnitRunner;
 import com.trenako.activities.Activity;
 import com.trenako.activities.ActivityStream;
 import com.trenako.entities.Account;
-import com.trenako.entities.RollingStock;
+import com.trenako.results.RollingStockSummary;
 import com.trenako.services.options.HomepageOptions;
 import com.trenako.services.view.HomeView;
+import com.trenako.services.view.ViewAssembler;
 
 /**
  * 
@@ -45,7 +47,7 @@ public class HomeServiceTests {
 	private @Mock RollingStocksService mockRsService;
 	private @Mock ActivityStream mockActivityStream;
 	
-	Iterable<RollingStock> rollingStocks = Collections.emptyList();
+	Iterable<RollingStockSummary> rollingStocks = Collections.emptyList();
 	Iterable<Activity> activities = Collections.emptyList();
 	
 	HomeService service;
@@ -53,19 +55,19 @@ public class HomeServiceTests {
 	@Before
 	public void setup() {
 		MockitoAnnotations.initMocks(this);
-		service = new HomeServiceImpl(mockRsService, mockActivityStream);
+		service = new HomeServiceImpl(mockRsService, mockActivityStream, new ViewAssembler(4, 10, 1000));
 	}
 	
 	@Test
 	public void shouldLoadHomepageContentForAnonymousUsers() {
 		HomepageOptions options = new HomepageOptions(15, 15);
 		
-		when(mockRsService.findLatestModified(eq(options.getNumberOfRollingStocks())))
+		when(mockRsService.findLatestModified(eq(options.getNumberOfRollingStocks()), eq(Locale.ENGLISH)))
 			.thenReturn(rollingStocks);
 		when(mockActivityStream.recentActivity(eq(options.getActivityStreamSize())))
 			.thenReturn(activities);
 		
-		HomeView homeContent = service.getHomeContent(null, options);
+		HomeView homeContent = service.getHomeContent(null, options, Locale.ENGLISH);
 		
 		assertEquals(false, homeContent.isLogged());
 		assertEquals(rollingStocks, homeContent.getRollingStocks());
@@ -78,12 +80,12 @@ public class HomeServiceTests {
 	public void shouldLoadHomepageContentForLoggedUsers() {
 		HomepageOptions defaultOpts = HomepageOptions.defaultHomepageOptions();
 		
-		when(mockRsService.findLatestModified(eq(defaultOpts.getNumberOfRollingStocks())))
+		when(mockRsService.findLatestModified(eq(defaultOpts.getNumberOfRollingStocks()), eq(Locale.ENGLISH)))
 			.thenReturn(rollingStocks);
 		when(mockActivityStream.recentActivity(eq(defaultOpts.getActivityStreamSize())))
 			.thenReturn(activities);
 		
-		HomeView homeContent = service.getHomeContent(loggedUser());
+		HomeView homeContent = service.getHomeContent(loggedUser(), Locale.ENGLISH);
 		
 		assertEquals(true, homeContent.isLogged());
 		assertEquals(rollingStocks, homeContent.getRollingStocks());
@@ -42,6 +42,7 @@ import com.trenako.entities.WishListItem;
 import com.trenako.repositories.CollectionsRepository;
 import com.trenako.repositories.WishListsRepository;
 import com.trenako.services.view.ProfileView;
+import com.trenako.services.view.ViewAssembler;
 import com.trenako.values.Priority;
 import com.trenako.values.Visibility;
 
@@ -62,12 +63,12 @@ public class ProfilesServiceTests {
 	@Before
 	public void setup() {
 		MockitoAnnotations.initMocks(this);
-		service = new ProfilesServiceImpl(collectionsRepo, wishListsRepo, activityStream);
+		service = new ProfilesServiceImpl(collectionsRepo, wishListsRepo, activityStream, new ViewAssembler(4, 10, 1000));
 	}
 		
 	@Test
 	public void shouldInitializeUserCollectionIfNoneWasFound() {
-		when(collectionsRepo.findByOwner(eq(owner))).thenReturn(null);
+		when(collectionsRepo.findSummaryByOwner(eq(owner), eq(10))).thenReturn(null);
 		
 		ProfileView pv = service.findProfileView(owner);
 		
@@ -95,9 +96,21 @@ public class ProfilesServiceTests {
 		assertNull(pv.getUserActivity());
 	}
 	
+	@Test
+	public void shouldFillProfileViewWhenTheCollectionFails() {
+		when(collectionsRepo.findSummaryByOwner(eq(owner), eq(10))).thenThrow(new RuntimeException("timeout"));
+		when(wishListsRepo.findAllByOwner(eq(owner), eq(10))).thenReturn(wishLists());
+		
+		ProfileView pv = service.findProfileView(owner);
+		
+		assertNotNull("Profile view is null", pv);
+		assertEquals(newCollection(), pv.getCollection());
+		assertEquals(wishLists(), pv.getWishLists());
+	}
+	
 	@Test
 	public void shouldFillProfileViewForAccounts() {
-		when(collectionsRepo.findByOwner(eq(owner))).thenReturn(collection());
+		when(collectionsRepo.findSummaryByOwner(eq(owner), eq(10))).thenReturn(collection());
 		when(wishListsRepo.findAllByOwner(eq(owner), eq(10))).thenReturn(wishLists());
 		when(activityStream.userActivity(eq(owner), eq(10))).thenReturn(userActivity());
 		
@@ -26,8 +26,11 @@ import org.mockito.MockitoAnnotations;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.springframework.data.domain.Pageable;
 
+import com.trenako.cache.ReferenceDataCache;
 import com.trenako.entities.Railway;
 import com.trenako.repositories.RailwaysRepository;
+import com.trenako.search.AutocompleteIndex;
+import com.trenako.search.Suggestion;
 import com.trenako.services.RailwaysServiceImpl;
 
 /**
@@ -40,12 +43,14 @@ public class RailwaysServiceTests {
 
 	@Mock Pageable paging;
 	@Mock RailwaysRepository repo;
+	@Mock ReferenceDataCache cache;
+	@Mock AutocompleteIndex autocomplete;
 	RailwaysServiceImpl service;
 	
 	@Before
 	public void setUp() {
 		MockitoAnnotations.initMocks(this);
-		service = new RailwaysServiceImpl(repo);
+		service = new RailwaysServiceImpl(repo, cache, autocomplete);
 	}
 
 	@Test
@@ -91,9 +96,13 @@ public class RailwaysServiceTests {
 
 	@Test
 	public void shouldRemoveRailways() {
+		ObjectId id = new ObjectId();
 		Railway railway = new Railway("DB");
+		railway.setId(id);
 		service.remove(railway);
 		verify(repo, times(1)).delete(eq(railway));
+		verify(cache, times(1)).evict(eq(Railway.class));
+		verify(autocomplete, times(1)).remove(eq(Suggestion.Type.RAILWAY), eq(id));
 	}
 
 }
@@ -25,6 +25,7 @@ import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.data.domain.PageRequest;
 
 import com.trenako.entities.Review;
 import com.trenako.entities.RollingStock;
@@ -82,6 +83,25 @@ public class ReviewsServiceTests {
 		assertNotNull("Reviews are null", reviews);
 	}
 	
+	@Test
+	public void shouldFindOnePageOfReviewsByRollingStock() {
+		when(repo.findByRollingStock(eq(rollingStock), eq(10), eq(10))).thenReturn(new RollingStockReviews());
+		
+		RollingStockReviews reviews = service.findByRollingStock(rollingStock, new PageRequest(1, 10));
+		
+		assertNotNull(reviews);
+		verify(repo, times(1)).findByRollingStock(eq(rollingStock), eq(10), eq(10));
+	}
+	
+	@Test
+	public void shouldFindReviewsSummaryByRollingStock() {
+		when(repo.findByRollingStock(eq(rollingStock), eq(0), eq(0))).thenReturn(null);
+		
+		RollingStockReviews reviews = service.findSummaryByRollingStock(rollingStock);
+		
+		assertEquals(RollingStockReviews.defaultRollingStockReviews(), reviews);
+	}
+	
 	@Test
 	public void shouldPostNewRollingStockReviews() {
 		Review review = new Review();
@@ -23,28 +23,35 @@ import static org.junit.Assert.*;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Collections;
+import java.util.Locale;
 
 import org.bson.types.ObjectId;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
-import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.runners.MockitoJUnitRunner;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort.Direction;
 
 import com.trenako.entities.Account;
+import com.trenako.entities.Comment;
 import com.trenako.entities.RollingStock;
 import com.trenako.entities.RollingStockComments;
 import com.trenako.entities.RollingStockReviews;
 import com.trenako.entities.WishList;
+import com.trenako.facets.FacetCounts;
+import com.trenako.facets.FacetKey;
 import com.trenako.repositories.RollingStocksRepository;
+import com.trenako.results.RollingStockSummary;
+import com.trenako.search.AutocompleteIndex;
+import com.trenako.search.RollingStockTextIndex;
+import com.trenako.search.Suggestion;
 import com.trenako.services.RollingStocksServiceImpl;
 import com.trenako.services.view.RollingStockView;
+import com.trenako.services.view.ViewAssembler;
 
 /**
  * 
@@ -60,6 +67,7 @@ public class RollingStocksServiceTests {
 			.build();
 	}
 	
+	private final static Pageable PAGING = new PageRequest(0, 10);
 	private final static RollingStock RS = new RollingStock.Builder(acme(), "123456")
 		.railway(fs())
 		.scale(scaleH0())
@@ -70,35 +78,30 @@ public class RollingStocksServiceTests {
 	@Mock RollingStocksRepository repo;
 	@Mock CommentsService commentsService;
 	@Mock ReviewsService reviewsService;
-	
-	@Mock Page<RollingStock> results;
+	@Mock FacetCounts facetCounts;
+	@Mock RollingStockTextIndex textIndex;
+	@Mock AutocompleteIndex autocomplete;
 	
 	RollingStocksService service;
 	
 	@Before
 	public void setUp() {
 		MockitoAnnotations.initMocks(this);
-		service = new RollingStocksServiceImpl(repo, commentsService, reviewsService, wishlistsService);
+		service = new RollingStocksServiceImpl(repo, commentsService, reviewsService, wishlistsService, facetCounts, textIndex, autocomplete, new ViewAssembler(4, 10, 1000));
 	}
 
 	@Test
 	public void shouldReturnTheLatestModifiedRollingStocks() {
 		int numberOfItems = 10;
 		
-		Pageable pageable = new PageRequest(0, numberOfItems, Direction.DESC, "lastModified");
-		
-		List<RollingStock> rollingStocks = Collections.emptyList();
-		when(results.getContent()).thenReturn(rollingStocks);
-		when(repo.findAll(pageable)).thenReturn(results);
+		Iterable<RollingStockSummary> rollingStocks = Collections.emptyList();
+		when(repo.findLatestModified(eq(numberOfItems), eq(Locale.ITALIAN))).thenReturn(rollingStocks);
 				
-		Iterable<RollingStock> results = service.findLatestModified(numberOfItems);
-		assertNotNull("Rolling stocks result is empty", results);
+		Iterable<RollingStockSummary> results = service.findLatestModified(numberOfItems, Locale.ITALIAN);
 		
-		ArgumentCaptor<Pageable> arg = ArgumentCaptor.forClass(Pageable.class);
-		verify(repo, times(1)).findAll(arg.capture());
-		assertEquals(0, arg.getValue().getPageNumber());
-		assertEquals(numberOfItems, arg.getValue().getPageSize());
-		assertEquals("lastModified: DESC", arg.getValue().getSort().toString());
+		assertNotNull("Rolling stocks result is empty", results);
+		assertSame(rollingStocks, results);
+		verify(repo, times(1)).findLatestModified(eq(numberOfItems), eq(Locale.ITALIAN));
 	}
 	
 	@Test
@@ -120,7 +123,7 @@ public class RollingStocksServiceTests {
 		String slug = "not-found";
 		when(repo.findBySlug(eq(slug))).thenReturn(null);
 		
-		RollingStockView view = service.findRollingStockView(slug, null);
+		RollingStockView view = service.findRollingStockView(slug, null, PAGING);
 		
 		assertNull("Rolling stock view is not null", view);
 	}
@@ -133,11 +136,11 @@ public class RollingStocksServiceTests {
 		String slug = "acme-123456";
 
 		when(repo.findBySlug(eq(slug))).thenReturn(RS);
-		when(commentsService.findByRollingStock(eq(RS))).thenReturn(comments);
-		when(reviewsService.findByRollingStock(eq(RS))).thenReturn(reviews);
+		when(commentsService.findByRollingStock(eq(RS), eq(0), eq(11))).thenReturn(comments);
+		when(reviewsService.findSummaryByRollingStock(eq(RS))).thenReturn(reviews);
 		when(wishlistsService.findByOwner(eq(loggedUser()))).thenReturn(wishLists);
 		
-		RollingStockView view = service.findRollingStockView(slug, loggedUser());
+		RollingStockView view = service.findRollingStockView(slug, loggedUser(), PAGING);
 		
 		assertNotNull("Rolling stock view is null", view);
 		assertEquals(RS, view.getRs());
@@ -146,12 +149,46 @@ public class RollingStocksServiceTests {
 		assertEquals(wishLists, view.getWishLists());
 	}
 	
+	@Test
+	public void shouldFillRollingStockViewsWithoutTheCommentsWhenTheyFail() {
+		RollingStockReviews reviews = new RollingStockReviews();
+		String slug = "acme-123456";
+
+		when(repo.findBySlug(eq(slug))).thenReturn(RS);
+		when(commentsService.findByRollingStock(eq(RS), eq(0), eq(11))).thenThrow(new RuntimeException("timeout"));
+		when(reviewsService.findSummaryByRollingStock(eq(RS))).thenReturn(reviews);
+		
+		RollingStockView view = service.findRollingStockView(slug, null, PAGING);
+		
+		assertNotNull("Rolling stock view is null", view);
+		assertEquals(RS, view.getRs());
+		assertFalse("Comments are not empty", view.getComments().iterator().hasNext());
+		assertEquals(reviews, view.getReviews());
+	}
+	
+	@Test
+	public void shouldLoadOnePageOfCommentsForRollingStockViews() {
+		String slug = "acme-123456";
+		RollingStockComments comments = new RollingStockComments(RS);
+		comments.setItems(Arrays.asList(new Comment("1"), new Comment("2"), new Comment("3")));
+		
+		when(repo.findBySlug(eq(slug))).thenReturn(RS);
+		when(commentsService.findByRollingStock(eq(RS), eq(4), eq(3))).thenReturn(comments);
+		
+		RollingStockView view = service.findRollingStockView(slug, null, new PageRequest(2, 2));
+		
+		assertEquals(Arrays.asList(new Comment("1"), new Comment("2")), view.getComments());
+		assertTrue(view.hasPreviousComments());
+		assertTrue(view.hasNextComments());
+		assertEquals(3, view.getCommentsPage());
+	}
+	
 	@Test
 	public void shouldReturnEmptyWishListsWhenNoUserIsLogged() {
 		String slug = "acme-123456";
 		when(repo.findBySlug(eq(slug))).thenReturn(RS);
 		
-		RollingStockView view = service.findRollingStockView(slug, null);
+		RollingStockView view = service.findRollingStockView(slug, null, PAGING);
 		
 		assertNull(view.getWishLists());
 	}
@@ -188,4 +225,54 @@ public class RollingStocksServiceTests {
 		service.remove(RS);
 		verify(repo, times(1)).delete(eq(RS));
 	}
+	
+	@Test
+	public void shouldUpdateFacetCountsWhenRollingStocksAreRemoved() {
+		FacetKey oldKey = FacetKey.of(RS);
+		when(facetCounts.storedKey(eq(RS))).thenReturn(oldKey);
+		
+		service.remove(RS);
+		
+		InOrder inOrder = inOrder(repo, facetCounts);
+		inOrder.verify(repo).delete(eq(RS));
+		inOrder.verify(facetCounts).onRemove(eq(RS), eq(oldKey));
+	}
+	
+	@Test
+	public void shouldNotUpdateFacetCountsWhenTheRemoveFails() {
+		doThrow(new RuntimeException()).when(repo).delete(eq(RS));
+		
+		try {
+			service.remove(RS);
+			fail("RuntimeException expected");
+		}
+		catch (RuntimeException ex) {
+		}
+		
+		verify(facetCounts, never()).onRemove(any(RollingStock.class), any(FacetKey.class));
+	}
+	
+	@Test
+	public void shouldRemoveRollingStocksFromTheTextIndex() {
+		ObjectId id = new ObjectId();
+		RollingStock rs = new RollingStock.Builder(acme(), "123456")
+			.id(id)
+			.build();
+		
+		service.remove(rs);
+		
+		verify(textIndex, times(1)).remove(eq(id));
+	}
+	
+	@Test
+	public void shouldRemoveRollingStocksFromTheAutocompleteIndex() {
+		ObjectId id = new ObjectId();
+		RollingStock rs = new RollingStock.Builder(acme(), "123456")
+			.id(id)
+			.build();
+		
+		service.remove(rs);
+		
+		verify(autocomplete, times(1)).remove(eq(Suggestion.Type.ROLLING_STOCK), eq(id));
+	}
 }
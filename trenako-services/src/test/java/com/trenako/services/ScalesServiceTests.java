@@ -15,8 +15,15 @@
  */
 package com.trenako.services;
 
+import static com.trenako.test.TestDataBuilder.*;
+import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
 import org.bson.types.ObjectId;
 import org.junit.Before;
 import org.junit.Test;
@@ -27,8 +34,11 @@ import org.mockito.MockitoAnnotations;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.springframework.data.domain.Pageable;
 
+import com.trenako.cache.ReferenceDataCache;
 import com.trenako.entities.Scale;
 import com.trenako.repositories.ScalesRepository;
+import com.trenako.search.AutocompleteIndex;
+import com.trenako.search.Suggestion;
 import com.trenako.services.ScalesServiceImpl;
 
 /**
@@ -41,6 +51,8 @@ public class ScalesServiceTests {
 
 	@Mock Pageable paging;
 	@Mock ScalesRepository repo;
+	@Mock ReferenceDataCache cache;
+	@Mock AutocompleteIndex autocomplete;
 	@InjectMocks ScalesServiceImpl service;
 	
 	@Before
@@ -69,6 +81,28 @@ public class ScalesServiceTests {
 		verify(repo, times(1)).findBySlug(eq(slug));
 	}
 	
+	@Test
+	public void shouldFindScalesBySlugs() {
+		List<String> slugs = Arrays.asList("h0", "n", "not-found");
+		when(repo.findBySlugIn(eq(slugs))).thenReturn(Arrays.asList(scaleH0(), scaleN()));
+		
+		Map<String, Scale> scales = service.findBySlugs(slugs);
+		
+		verify(repo, times(1)).findBySlugIn(eq(slugs));
+		assertEquals(2, scales.size());
+		assertEquals(scaleH0(), scales.get("h0"));
+		assertEquals(scaleN(), scales.get("n"));
+		assertNull(scales.get("not-found"));
+	}
+	
+	@Test
+	public void shouldNotQueryTheScalesForEmptySlugs() {
+		Map<String, Scale> scales = service.findBySlugs(Collections.<String>emptyList());
+		
+		verify(repo, never()).findBySlugIn(anyCollectionOf(String.class));
+		assertEquals(0, scales.size());
+	}
+	
 	@Test
 	public void shouldFindAllScales() {
 		service.findAll(paging);
@@ -84,9 +118,13 @@ public class ScalesServiceTests {
 
 	@Test
 	public void shouldRemoveScales() {
+		ObjectId id = new ObjectId();
 		Scale scale = new Scale("H0");
+		scale.setId(id);
 		service.remove(scale);
 		verify(repo, times(1)).delete(eq(scale));
+		verify(cache, times(1)).evict(eq(Scale.class));
+		verify(autocomplete, times(1)).remove(eq(Suggestion.Type.SCALE), eq(id));
 	}
 
 }
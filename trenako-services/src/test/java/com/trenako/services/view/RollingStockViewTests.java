@@ -21,6 +21,7 @@ import static com.trenako.test.TestDataBuilder.*;
 import java.util.Arrays;
 
 import org.junit.Test;
+import org.springframework.data.domain.PageRequest;
 
 import com.trenako.entities.Comment;
 import com.trenako.entities.RollingStock;
@@ -45,6 +46,26 @@ public class RollingStockViewTests {
 		assertEquals(wishLists(), rsView.getWishLists());
 	}
 	
+	@Test
+	public void shouldReturnTheFirstPageOfComments() {
+		RollingStockView rsView = new RollingStockView(rollingStock(), comments(), reviews(), wishLists(), new PageRequest(0, 2));
+		
+		assertEquals(comments().getItems(), rsView.getComments());
+		assertEquals(1, rsView.getCommentsPage());
+		assertFalse(rsView.hasPreviousComments());
+		assertFalse(rsView.hasNextComments());
+	}
+	
+	@Test
+	public void shouldHideTheFirstCommentOfTheNextPage() {
+		RollingStockView rsView = new RollingStockView(rollingStock(), comments(), reviews(), wishLists(), new PageRequest(1, 1));
+		
+		assertEquals(Arrays.asList(new Comment()), rsView.getComments());
+		assertEquals(2, rsView.getCommentsPage());
+		assertTrue(rsView.hasPreviousComments());
+		assertTrue(rsView.hasNextComments());
+	}
+	
 	Iterable<WishList> wishLists() {
 		return Arrays.asList(new WishList(), new WishList());
 	}
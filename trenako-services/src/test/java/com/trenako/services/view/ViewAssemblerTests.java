@@ -0,0 +1,147 @@
+/*
+ * Copyright 2012 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.trenako.services.view;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.trenako.services.view.ViewAssembler.Part;
+
+/**
+ * 
+ * @author Carlo Micieli
+ *
+ */
+public class ViewAssemblerTests {
+
+	private ViewAssembler views;
+	
+	@Before
+	public void setUp() {
+		views = new ViewAssembler(4, 10, 200);
+		views.start();
+	}
+	
+	@After
+	public void cleanUp() {
+		views.stop();
+	}
+	
+	@Test
+	public void shouldReturnThePartValues() {
+		Part<String> part = views.fork("part", value("value", 0));
+		
+		assertEquals("value", part.get("fallback"));
+		assertEquals(0, views.getTimeouts());
+		assertEquals(0, views.getFailures());
+	}
+	
+	@Test
+	public void shouldLoadThePartsInParallel() {
+		long start = System.nanoTime();
+		Part<String> first = views.fork("first", value("first", 100));
+		Part<String> second = views.fork("second", value("second", 100));
+		Part<String> third = views.fork("third", value("third", 100));
+		
+		assertEquals("first", first.get(null));
+		assertEquals("second", second.get(null));
+		assertEquals("third", third.get(null));
+		assertTrue("Parts were loaded one after another", 
+				TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 250);
+	}
+	
+	@Test
+	public void shouldReturnTheFallbackWhenThePartTimesOut() {
+		Part<String> part = views.fork("slow", value("value", 1000), 50);
+		
+		assertEquals("fallback", part.get("fallback"));
+		assertEquals(1, views.getTimeouts());
+	}
+	
+	@Test
+	public void shouldReturnTheFallbackWhenThePartFails() {
+		Part<String> part = views.fork("failing", new Callable<String>() {
+			@Override
+			public String call() {
+				throw new IllegalStateException("failed");
+			}
+		});
+		
+		assertEquals("fallback", part.get("fallback"));
+		assertEquals(1, views.getFailures());
+	}
+	
+	@Test
+	public void shouldLoadThePartsInTheCallingThreadWhenThePoolIsFull() throws InterruptedException {
+		ViewAssembler small = new ViewAssembler(1, 1, 1000);
+		small.start();
+		try {
+			final CountDownLatch latch = new CountDownLatch(1);
+			Callable<String> blocked = new Callable<String>() {
+				@Override
+				public String call() throws InterruptedException {
+					latch.await();
+					return "blocked";
+				}
+			};
+			Part<String> first = small.fork("first", blocked);
+			Part<String> second = small.fork("second", blocked);
+			Part<String> third = small.fork("third", new Callable<String>() {
+				@Override
+				public String call() {
+					return Thread.currentThread().getName();
+				}
+			});
+			latch.countDown();
+			
+			assertEquals(Thread.currentThread().getName(), third.get(null));
+			assertEquals("blocked", first.get(null));
+			assertEquals("blocked", second.get(null));
+		} finally {
+			small.stop();
+		}
+	}
+	
+	@Test
+	public void shouldLoadThePartsInTheCallingThreadUntilStarted() {
+		ViewAssembler notStarted = new ViewAssembler(4, 10, 1000);
+		Part<String> part = notStarted.fork("part", new Callable<String>() {
+			@Override
+			public String call() {
+				return Thread.currentThread().getName();
+			}
+		});
+		
+		assertEquals(Thread.currentThread().getName(), part.get(null));
+	}
+	
+	private static Callable<String> value(final String value, final long delay) {
+		return new Callable<String>() {
+			@Override
+			public String call() throws InterruptedException {
+				Thread.sleep(delay);
+				return value;
+			}
+		};
+	}
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2012 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.trenako.test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+
+/**
+ * Utility class for the micro benchmarks run with {@code main}.
+ * <p>
+ * Two implementations of the same operation are run for a number of rounds,
+ * printing the time and the memory allocated for each operation. The allocated
+ * memory is read from the thread management bean when the JVM provides it
+ * (ie HotSpot), otherwise only the time is printed.
+ * </p>
+ *
+ * @author Carlo Micieli
+ *
+ */
+public class Benchmarks {
+
+    private static final Method ALLOCATED_BYTES = allocatedBytesMethod();
+
+    private Benchmarks() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * It represents an operation to measure.
+     */
+    public static abstract class Task {
+        private final String name;
+
+        protected Task(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Runs the operation.
+         *
+         * @param i the operation index
+         * @return a value to check the tasks produce the same results,
+         * {@code 0} when the results are not comparable
+         */
+        public abstract long run(int i) throws Exception;
+    }
+
+    /**
+     * Runs the two tasks for the provided number of rounds, printing the
+     * time and the allocated bytes for each operation.
+     *
+     * @param rounds     the number of rounds
+     * @param operations the number of operations for each round
+     * @param unit       the name of the operation
+     * @param first      the first task
+     * @param second     the second task
+     * @throws IllegalStateException if the tasks return different values
+     */
+    public static void compare(int rounds, int operations, String unit, Task first, Task second) throws Exception {
+        for (int round = 0; round < rounds; round++) {
+            long[] a = measure(operations, first);
+            long[] b = measure(operations, second);
+
+            System.out.printf("round %d: %s %s, %s %s (%d %ss)%n",
+                    round,
+                    first.getName(), format(a, operations, unit),
+                    second.getName(), format(b, operations, unit),
+                    operations, unit);
+
+            if (a[2] != b[2]) {
+                throw new IllegalStateException(first.getName() + " and " + second.getName() + " results are different");
+            }
+        }
+    }
+
+    /**
+     * Returns the bytes allocated by the current thread.
+     *
+     * @return the allocated bytes, or {@code -1} when not supported by the JVM
+     */
+    public static long allocatedBytes() {
+        if (ALLOCATED_BYTES == null) {
+            return -1;
+        }
+
+        try {
+            return (Long) ALLOCATED_BYTES.invoke(ManagementFactory.getThreadMXBean(), Thread.currentThread().getId());
+        }
+        catch (Exception ex) {
+            return -1;
+        }
+    }
+
+    // returns the elapsed time, the allocated bytes and the sum of the results
+    private static long[] measure(int operations, Task task) throws Exception {
+        long check = 0;
+        long bytes = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < operations; i++) {
+            check += task.run(i);
+        }
+        long time = System.nanoTime() - start;
+        bytes = bytes >= 0 ? allocatedBytes() - bytes : -1;
+        return new long[] { time, bytes, check };
+    }
+
+    private static String format(long[] result, int operations, String unit) {
+        String time = String.format("%d ns/%s", result[0] / operations, unit);
+        if (result[1] < 0) {
+            return time;
+        }
+        return String.format("%s %d bytes/%s", time, result[1] / operations, unit);
+    }
+
+    // the allocated bytes are available from the HotSpot extension of the thread bean
+    private static Method allocatedBytesMethod() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        try {
+            Method method = Class.forName("com.sun.management.ThreadMXBean")
+                    .getMethod("getThreadAllocatedBytes", long.class);
+            return method.getDeclaringClass().isInstance(bean) ? method : null;
+        }
+        catch (Exception ex) {
+            return null;
+        }
+    }
+}
@@ -22,12 +22,17 @@ import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import java.util.Collections;
+
 import org.junit.After;
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
 
 import com.trenako.entities.Account;
 import com.trenako.entities.Collection;
+import com.trenako.entities.CollectionItem;
 import com.trenako.entities.RollingStock;
 import com.trenako.security.AccountDetails;
 import com.trenako.services.AccountsService;
@@ -62,6 +67,9 @@ public class CollectionsControllerMappingTests extends AbstractSpringControllerT
 			.build();
 		when(rsService.findBySlug(eq("acme-123456"))).thenReturn(value);
 		when(colService.findBySlug(eq("bob"))).thenReturn(new Collection(owner));
+		when(colService.findSummaryBySlug(eq("bob"), eq(0))).thenReturn(new Collection(owner));
+		when(colService.findItems(isA(Collection.class), anyString(), anyString(), isA(Pageable.class)))
+			.thenReturn(new PageImpl<CollectionItem>(Collections.<CollectionItem>emptyList()));
 		when(usersService.findBySlug(eq("bob"))).thenReturn(new Account());
 	}
 	
@@ -80,6 +88,7 @@ public class CollectionsControllerMappingTests extends AbstractSpringControllerT
 			.andExpect(model().size(2))
 			.andExpect(model().attributeExists("collection"))
 			.andExpect(model().attributeExists("owner"))
+			.andExpect(model().attributeExists("items"))
 			.andExpect(forwardedUrl(view("collection", "show")));
 	}
 	
@@ -21,6 +21,7 @@ import static org.mockito.Matchers.isNull;
 import static org.mockito.Mockito.*;
 
 import java.util.Collections;
+import java.util.Locale;
 
 import org.junit.After;
 import org.junit.Test;
@@ -28,7 +29,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 
 import com.trenako.activities.Activity;
 import com.trenako.entities.Account;
-import com.trenako.entities.RollingStock;
+import com.trenako.results.RollingStockSummary;
 import com.trenako.services.HomeService;
 import com.trenako.services.view.HomeView;
 import com.trenako.web.test.AbstractSpringControllerTests;
@@ -44,7 +45,7 @@ public class HomeControllerMappingTests extends AbstractSpringControllerTests {
 	
 	@Override
 	protected void init() {
-		when(service.getHomeContent((Account)isNull())).thenReturn(homeContent(false));
+		when(service.getHomeContent((Account)isNull(), isA(Locale.class))).thenReturn(homeContent(false));
 	}
 	
 	@After
@@ -101,7 +102,7 @@ public class HomeControllerMappingTests extends AbstractSpringControllerTests {
 	}
 	
 	HomeView homeContent(boolean isLogged) {
-		Iterable<RollingStock> rollingStocks = Collections.emptyList();
+		Iterable<RollingStockSummary> rollingStocks = Collections.emptyList();
 		Iterable<Activity> activityStream = Collections.emptyList();
 		
 		return new HomeView(isLogged, rollingStocks, activityStream);
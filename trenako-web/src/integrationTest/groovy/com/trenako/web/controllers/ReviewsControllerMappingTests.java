@@ -24,6 +24,7 @@ import static org.hamcrest.Matchers.equalTo;
 import org.junit.After;
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
 
 import com.trenako.entities.Account;
 import com.trenako.entities.RollingStock;
@@ -52,11 +53,11 @@ public class ReviewsControllerMappingTests extends AbstractSpringControllerTests
 	public void shouldShowTheReviewsList() throws Exception {
 		RollingStock value = new RollingStock();
 		when(rsService.findBySlug(eq(SLUG))).thenReturn(value);
-		when(service.findByRollingStock(eq(value))).thenReturn(new RollingStockReviews());
+		when(service.findByRollingStock(eq(value), isA(Pageable.class))).thenReturn(new RollingStockReviews());
 		
 		mockMvc().perform(get("/rollingstocks/{slug}/reviews", SLUG))
 			.andExpect(status().isOk())
-			.andExpect(model().size(2))
+			.andExpect(model().size(3))
 			.andExpect(model().attributeExists("reviews"))
 			.andExpect(model().attributeExists("rollingStock"))
 			.andExpect(forwardedUrl(view("review", "list")));
@@ -32,6 +32,7 @@ import com.trenako.criteria.SearchRequest;
 import com.trenako.entities.RollingStock;
 import com.trenako.results.RangeRequest;
 import com.trenako.results.RollingStockResults;
+import com.trenako.results.RollingStockSummary;
 import com.trenako.services.BrowseService;
 import com.trenako.web.test.AbstractSpringControllerTests;
 
@@ -47,7 +48,7 @@ public class RollingStockSearchControllerMappingTests extends AbstractSpringCont
 	@Override
 	protected void init() {
 		RollingStockResults value = new RollingStockResults(
-				Arrays.asList(new RollingStock(), new RollingStock()),
+				Arrays.asList(new RollingStockSummary(new RollingStock()), new RollingStockSummary(new RollingStock())),
 				new SearchCriteria(),
 				new RangeRequest());
 		
@@ -25,6 +25,7 @@ import org.bson.types.ObjectId;
 import org.junit.After;
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
 
 import com.trenako.entities.Account;
 import com.trenako.entities.RollingStock;
@@ -66,9 +67,9 @@ public class RollingStocksControllerMappingTests extends AbstractSpringControlle
 			.railway(fs())
 			.description("desc")
 			.build();
-		when(mockService.findRollingStockView(eq("acme-123456"), (Account) isNull()))
+		when(mockService.findRollingStockView(eq("acme-123456"), (Account) isNull(), isA(Pageable.class)))
 			.thenReturn(new RollingStockView(rs, null, null, null));
-		when(mockService.findRollingStockView(eq("acme-123456"), eq(user)))
+		when(mockService.findRollingStockView(eq("acme-123456"), eq(user), isA(Pageable.class)))
 			.thenReturn(new RollingStockView(rs, null, null, null));
 	}
 	
@@ -24,10 +24,13 @@ import java.util.Collections;
 import org.junit.After;
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
 
 import com.trenako.activities.Activity;
 import com.trenako.entities.Account;
 import com.trenako.entities.Collection;
+import com.trenako.entities.CollectionItem;
 import com.trenako.entities.WishList;
 import com.trenako.security.AccountDetails;
 import com.trenako.services.CollectionsService;
@@ -65,6 +68,9 @@ public class YouControllerMappingTests extends AbstractSpringControllerTests {
 				ProfileOptions.DEFAULT);
 		when(service.findProfileView(eq(account))).thenReturn(value);
 		when(collectionsService.findByOwner(eq(account))).thenReturn(collection(account));
+		when(collectionsService.findSummaryByOwner(eq(account), eq(0))).thenReturn(collection(account));
+		when(collectionsService.findItems(isA(Collection.class), anyString(), anyString(), isA(Pageable.class)))
+			.thenReturn(new PageImpl<CollectionItem>(Collections.<CollectionItem>emptyList()));
 		when(wishListsService.findByOwner(eq(account))).thenReturn(wishLists());
 		when(wishListsService.findBySlugOrDefault(eq(account), eq("bob-new-list"))).thenReturn(wishList(account));
 	}
@@ -91,8 +97,9 @@ public class YouControllerMappingTests extends AbstractSpringControllerTests {
 	public void shouldRenderTheCollectionManagementPage() throws Exception {
 		mockMvc().perform(get("/you/collection"))
 			.andExpect(status().isOk())
-			.andExpect(model().size(3))
+			.andExpect(model().size(6))
 			.andExpect(model().attributeExists("collection"))
+			.andExpect(model().attributeExists("items"))
 			.andExpect(model().attributeExists("owner"))
 			.andExpect(model().attributeExists("editForm"))
 			.andExpect(forwardedUrl(view("collection", "manage")));
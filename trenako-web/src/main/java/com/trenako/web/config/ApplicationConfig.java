@@ -20,9 +20,11 @@ import org.springframework.context.MessageSource;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableMBeanExport;
 import org.springframework.context.annotation.ImportResource;
 import org.springframework.context.annotation.Profile;
 import org.springframework.context.support.ResourceBundleMessageSource;
+import org.springframework.jmx.support.RegistrationPolicy;
 
 import org.springframework.data.mongodb.config.AbstractMongoConfiguration;
 import org.springframework.data.mongodb.core.MongoTemplate;
@@ -41,6 +43,7 @@ import com.mongodb.WriteConcern;
 @ComponentScan(basePackages = "com.trenako")
 @Profile("default")
 @EnableMongoRepositories("com.trenako.repositories")
+@EnableMBeanExport(registration = RegistrationPolicy.REPLACE_EXISTING)
 @ImportResource(value = {
         "classpath:META-INF/spring/spring-data.xml",
         "classpath:META-INF/spring/spring-security.xml",
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2012 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.trenako.web.controllers;
+
+import java.nio.charset.Charset;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import com.trenako.search.AutocompleteIndex;
+import com.trenako.search.Suggestion;
+
+/**
+ * It represents the controller for the search form autocomplete.
+ * <p>
+ * The suggestions are returned as a {@code JSON} array, every suggestion is an
+ * object with the entity {@code type}, {@code slug} and {@code label}. The suggestions
+ * come from the in-memory {@code AutocompleteIndex}, the database is never accessed.
+ * </p>
+ *
+ * @author Carlo Micieli
+ */
+@Controller
+@RequestMapping("/autocomplete")
+public class AutocompleteController {
+
+    /**
+     * The max number of suggestions for each type.
+     */
+    public static final int MAX_LIMIT = 50;
+
+    private static final MediaType JSON_TYPE =
+            new MediaType("application", "json", Charset.forName("UTF-8"));
+
+    private final AutocompleteIndex index;
+
+    /**
+     * Creates a new {@code AutocompleteController}.
+     *
+     * @param index the autocomplete index
+     */
+    @Autowired
+    public AutocompleteController(AutocompleteIndex index) {
+        this.index = index;
+    }
+
+    /**
+     * Returns the suggestions for the text typed by the user.
+     *
+     * @param text  the text typed by the user
+     * @param type  the suggestion type ({@code brand}, {@code railway}, {@code scale}
+     *              or {@code rollingstock}); all the types if missing
+     * @param limit the max number of suggestions for each type
+     * @return the suggestions
+     */
+    @RequestMapping(method = RequestMethod.GET)
+    public ResponseEntity<String> suggest(@RequestParam("q") String text,
+                                          @RequestParam(value = "type", required = false) String type,
+                                          @RequestParam(value = "limit", required = false) Integer limit) {
+
+        int max = (limit == null || limit <= 0) ? AutocompleteIndex.DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT);
+
+        List<Suggestion> suggestions;
+        if (type == null) {
+            suggestions = index.suggest(text, max);
+        } else {
+            Suggestion.Type t = Suggestion.Type.parse(type);
+            if (t == null) {
+                return new ResponseEntity<String>(HttpStatus.BAD_REQUEST);
+            }
+            suggestions = index.suggest(text, t, max);
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(JSON_TYPE);
+        return new ResponseEntity<String>(toJson(suggestions), headers, HttpStatus.OK);
+    }
+
+    static String toJson(List<Suggestion> suggestions) {
+        StringBuilder sb = new StringBuilder("[");
+        for (Suggestion s : suggestions) {
+            if (sb.length() > 1) {
+                sb.append(',');
+            }
+            sb.append("{\"type\":");
+            appendString(sb, s.getType().key());
+            sb.append(",\"slug\":");
+            appendString(sb, s.getSlug());
+            sb.append(",\"label\":");
+            appendString(sb, s.getLabel());
+            sb.append('}');
+        }
+        return sb.append(']').toString();
+    }
+
+    private static void appendString(StringBuilder sb, String value) {
+        if (value == null) {
+            sb.append("null");
+            return;
+        }
+
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    // the html markup is escaped as well, in order to embed the response in a page
+                    if (c < 0x20 || c == '<' || c == '>' || c == '&') {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        sb.append('"');
+    }
+}
@@ -22,6 +22,8 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.servlet.ModelAndView;
 
+import com.trenako.criteria.Criteria;
+import com.trenako.criteria.SearchRequest;
 import com.trenako.services.BrowseService;
 
 /**
@@ -60,6 +62,13 @@ public class BrowseController {
         mav.addObject("eras", service.eras());
         mav.addObject("categories", service.categories());
 
+        SearchRequest all = new SearchRequest();
+        mav.addObject("brandCounts", service.countRollingStocks(Criteria.BRAND, all));
+        mav.addObject("scaleCounts", service.countRollingStocks(Criteria.SCALE, all));
+        mav.addObject("railwayCounts", service.countRollingStocks(Criteria.RAILWAY, all));
+        mav.addObject("eraCounts", service.countRollingStocks(Criteria.ERA, all));
+        mav.addObject("categoryCounts", service.countRollingStocks(Criteria.CATEGORY, all));
+
         return mav;
     }
 
@@ -134,6 +143,11 @@ public class BrowseController {
         mav.addObject("railway", service.findRailway(slug));
         mav.addObject("categories", service.categories());
         mav.addObject("eras", service.eras());
+
+        SearchRequest sc = new SearchRequest();
+        sc.setRailway(slug);
+        mav.addObject("categoryCounts", service.countRollingStocks(Criteria.CATEGORY, sc));
+        mav.addObject("eraCounts", service.countRollingStocks(Criteria.ERA, sc));
         return mav;
     }
 
@@ -143,6 +157,11 @@ public class BrowseController {
         mav.addObject("scale", service.findScale(slug));
         mav.addObject("categories", service.categories());
         mav.addObject("eras", service.eras());
+
+        SearchRequest sc = new SearchRequest();
+        sc.setScale(slug);
+        mav.addObject("categoryCounts", service.countRollingStocks(Criteria.CATEGORY, sc));
+        mav.addObject("eraCounts", service.countRollingStocks(Criteria.ERA, sc));
         return mav;
     }
 
@@ -152,6 +171,11 @@ public class BrowseController {
         mav.addObject("category", service.findCategory(slug));
         mav.addObject("brands", service.brands());
         mav.addObject("railways", service.railways());
+
+        SearchRequest sc = new SearchRequest();
+        sc.setCategory(slug);
+        mav.addObject("brandCounts", service.countRollingStocks(Criteria.BRAND, sc));
+        mav.addObject("railwayCounts", service.countRollingStocks(Criteria.RAILWAY, sc));
         return mav;
     }
 
@@ -161,6 +185,11 @@ public class BrowseController {
         mav.addObject("era", service.findEra(slug));
         mav.addObject("brands", service.brands());
         mav.addObject("railways", service.railways());
+
+        SearchRequest sc = new SearchRequest();
+        sc.setEra(slug);
+        mav.addObject("brandCounts", service.countRollingStocks(Criteria.BRAND, sc));
+        mav.addObject("railwayCounts", service.countRollingStocks(Criteria.RAILWAY, sc));
         return mav;
     }
 }
@@ -28,6 +28,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.propertyeditors.CustomDateEditor;
 import org.springframework.beans.propertyeditors.CustomNumberEditor;
 import org.springframework.context.MessageSource;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.ModelMap;
 import org.springframework.validation.BindingResult;
@@ -37,6 +38,7 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import com.trenako.entities.Account;
@@ -94,8 +96,12 @@ public class CollectionsController {
     }
 
     @RequestMapping(value = "/{slug}", method = RequestMethod.GET)
-    public String show(@PathVariable("slug") String slug, ModelMap model) {
-        Collection collection = service.findBySlug(slug);
+    public String show(@PathVariable("slug") String slug,
+                       @RequestParam(value = "category", required = false) String category,
+                       @RequestParam(value = "condition", required = false) String condition,
+                       Pageable paging,
+                       ModelMap model) {
+        Collection collection = service.findSummaryBySlug(slug, 0);
         if (collection == null) {
             throw new NotFoundException();
         }
@@ -103,6 +109,9 @@ public class CollectionsController {
         Account owner = usersService.findBySlug(collection.getOwner());
 
         model.addAttribute("collection", collection);
+        model.addAttribute("items", service.findItems(collection, category, condition, paging));
+        model.addAttribute("category", category);
+        model.addAttribute("condition", condition);
         model.addAttribute("owner", owner);
         return "collection/show";
     }
@@ -15,6 +15,8 @@
  */
 package com.trenako.web.controllers;
 
+import java.util.Locale;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.ModelMap;
@@ -23,6 +25,8 @@ import org.springframework.web.bind.annotation.RequestMethod;
 
 import com.trenako.entities.Account;
 import com.trenako.services.HomeService;
+import com.trenako.services.view.HomeView;
+import com.trenako.web.infrastructure.ActorsResolver;
 import com.trenako.web.security.UserContext;
 
 /**
@@ -35,23 +39,29 @@ public class HomeController {
 
     private final HomeService service;
     private final UserContext userContext;
+    private final ActorsResolver actors;
 
     /**
      * Creates a new {@code HomeController}.
      *
      * @param service     the homepage service
      * @param userContext the user context
+     * @param actors      the resolver for the users in the activity stream
      */
     @Autowired
-    public HomeController(HomeService service, UserContext userContext) {
+    public HomeController(HomeService service, UserContext userContext, ActorsResolver actors) {
         this.service = service;
         this.userContext = userContext;
+        this.actors = actors;
     }
 
     @RequestMapping(value = {"/", "/home"}, method = RequestMethod.GET)
-    public String home(ModelMap model) {
+    public String home(ModelMap model, Locale locale) {
         Account user = loggedUser();
-        model.addAttribute("content", service.getHomeContent(user));
+        HomeView content = service.getHomeContent(user, locale);
+        actors.prefetchActivities(content.getActivityStream());
+
+        model.addAttribute("content", content);
         if (user != null) {
             model.addAttribute(user);
         }
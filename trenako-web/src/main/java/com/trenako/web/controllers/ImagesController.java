@@ -15,16 +15,17 @@
  */
 package com.trenako.web.controllers;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
 import org.slf4j.Logger;
@@ -56,8 +57,11 @@ public class ImagesController {
     }
 
     @RequestMapping(value = "/{imageSlug}", method = RequestMethod.GET)
-    public ResponseEntity<byte[]> renderImage(@PathVariable("imageSlug") String imageSlug) {
-        return imgService.renderImage(imageSlug);
+    public void renderImage(@PathVariable("imageSlug") String imageSlug,
+                            @RequestParam(value = "w", required = false) Integer width,
+                            HttpServletRequest request,
+                            HttpServletResponse response) {
+        imgService.renderImage(imageSlug, width, request, response);
     }
 
     @ExceptionHandler(UploadRenderingException.class)
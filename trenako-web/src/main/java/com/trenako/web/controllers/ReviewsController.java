@@ -20,6 +20,8 @@ import java.util.Date;
 import javax.validation.Valid;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.ModelMap;
 import org.springframework.validation.BindingResult;
@@ -35,6 +37,7 @@ import com.trenako.entities.RollingStockReviews;
 import com.trenako.services.ReviewsService;
 import com.trenako.services.RollingStocksService;
 import com.trenako.web.controllers.form.ReviewForm;
+import com.trenako.web.infrastructure.ActorsResolver;
 import com.trenako.web.security.UserContext;
 
 /**
@@ -48,13 +51,15 @@ public class ReviewsController {
     private UserContext userContext;
     private final ReviewsService service;
     private final RollingStocksService rsService;
+    private final ActorsResolver actors;
 
     final static ControllerMessage REVIEW_POSTED_MSG = ControllerMessage.success("review.posted.message");
 
     @Autowired
-    public ReviewsController(ReviewsService service, RollingStocksService rsService) {
+    public ReviewsController(ReviewsService service, RollingStocksService rsService, ActorsResolver actors) {
         this.service = service;
         this.rsService = rsService;
+        this.actors = actors;
     }
 
     void setUserContext(UserContext userContext) {
@@ -62,10 +67,14 @@ public class ReviewsController {
     }
 
     @RequestMapping(method = RequestMethod.GET)
-    public String reviews(@PathVariable("slug") String slug, ModelMap model) {
+    public String reviews(@PathVariable("slug") String slug, Pageable paging, ModelMap model) {
 
         RollingStock rs = rsService.findBySlug(slug);
-        RollingStockReviews reviews = service.findByRollingStock(rs);
+        RollingStockReviews reviews = service.findByRollingStock(rs, paging);
+        if (reviews != null) {
+            actors.prefetchReviews(reviews.getItems());
+            model.addAttribute("page", new PageImpl<Review>(reviews.getItems(), paging, reviews.getNumberOfReviews()));
+        }
 
         model.addAttribute("reviews", reviews);
         model.addAttribute("rollingStock", rs);
@@ -24,6 +24,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataAccessException;
 import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.ModelMap;
 import org.springframework.validation.BindingResult;
@@ -50,6 +51,7 @@ import com.trenako.web.editors.DeliveryDatePropertyEditor;
 import com.trenako.web.errors.NotFoundException;
 import com.trenako.web.images.UploadRequest;
 import com.trenako.web.images.WebImageService;
+import com.trenako.web.infrastructure.ActorsResolver;
 import com.trenako.web.security.UserContext;
 
 import static com.trenako.web.controllers.form.RollingStockForm.*;
@@ -71,6 +73,7 @@ public class RollingStocksController {
     private final RollingStocksService service;
     private final FormValuesService valuesService;
     private final WebImageService imgService;
+    private final ActorsResolver actors;
 
     final static ControllerMessage ROLLING_STOCK_CREATED_MSG = success("rollingStock.created.message");
     final static ControllerMessage ROLLING_STOCK_SAVED_MSG = success("rollingStock.saved.message");
@@ -84,14 +87,17 @@ public class RollingStocksController {
      * @param service       the service to manage rolling stocks
      * @param valuesService the service to fill the form drop down lists
      * @param imgService    the service for the upload files
+     * @param actors        the resolver for the comment authors
      */
     @Autowired
     public RollingStocksController(RollingStocksService service,
                                    FormValuesService valuesService,
-                                   WebImageService imgService) {
+                                   WebImageService imgService,
+                                   ActorsResolver actors) {
         this.service = service;
         this.valuesService = valuesService;
         this.imgService = imgService;
+        this.actors = actors;
     }
 
     @Autowired(required = false)
@@ -107,10 +113,10 @@ public class RollingStocksController {
     }
 
     @RequestMapping(value = "/{slug}", method = RequestMethod.GET)
-    public String show(@PathVariable("slug") String slug, ModelMap model) {
+    public String show(@PathVariable("slug") String slug, Pageable commentsPaging, ModelMap model) {
 
         Account loggedUser = UserContext.authenticatedUser(secContext);
-        RollingStockView rsView = service.findRollingStockView(slug, loggedUser);
+        RollingStockView rsView = service.findRollingStockView(slug, loggedUser, commentsPaging);
         if (rsView == null) {
             throw new NotFoundException();
         }
@@ -120,6 +126,8 @@ public class RollingStocksController {
             model.addAttribute("commentForm", form);
         }
 
+        actors.prefetchComments(rsView.getComments());
+
         model.addAttribute("result", rsView);
         return "rollingstock/show";
     }
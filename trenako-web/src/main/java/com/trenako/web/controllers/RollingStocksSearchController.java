@@ -15,14 +15,18 @@
  */
 package com.trenako.web.controllers;
 
+import java.util.Locale;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.ModelAndView;
 
 import com.trenako.criteria.SearchRequest;
 import com.trenako.results.RangeRequest;
+import com.trenako.search.TextAnalyzer;
 import com.trenako.services.BrowseService;
 import com.trenako.web.controllers.form.ResultsOptionsForm;
 
@@ -50,11 +54,26 @@ public class RollingStocksSearchController {
     }
 
     @RequestMapping(value = "/**", method = RequestMethod.GET)
-    public ModelAndView search(SearchRequest search, RangeRequest range) {
+    public ModelAndView search(SearchRequest search, RangeRequest range, Locale locale) {
         ModelAndView mav = new ModelAndView("browse/results");
 
-        mav.addObject("results", service.findByCriteria(search, range));
+        mav.addObject("results", service.findByCriteria(search, range, locale));
         mav.addObject("options", ResultsOptionsForm.buildFor(range));
         return mav;
     }
+
+    /**
+     * Redirects the search form to the full-text search results.
+     *
+     * @param text the search text
+     * @return the view name
+     */
+    @RequestMapping(method = RequestMethod.GET, params = "q")
+    public String searchText(@RequestParam("q") String text) {
+        String normalized = TextAnalyzer.normalize(text);
+        if (normalized.isEmpty()) {
+            return "redirect:/rs";
+        }
+        return "redirect:/rs/text/" + normalized;
+    }
 }
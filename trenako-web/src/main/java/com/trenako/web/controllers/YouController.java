@@ -17,11 +17,13 @@ package com.trenako.web.controllers;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.MessageSource;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.ModelMap;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.ModelAndView;
 
 import com.trenako.entities.Account;
@@ -30,8 +32,10 @@ import com.trenako.entities.WishList;
 import com.trenako.services.CollectionsService;
 import com.trenako.services.ProfilesService;
 import com.trenako.services.WishListsService;
+import com.trenako.services.view.ProfileView;
 import com.trenako.web.controllers.form.CollectionItemForm;
 import com.trenako.web.controllers.form.WishListItemForm;
+import com.trenako.web.infrastructure.ActorsResolver;
 import com.trenako.web.security.UserContext;
 
 /**
@@ -47,34 +51,46 @@ public class YouController {
     private final WishListsService wishListsService;
     private final ProfilesService service;
     private final UserContext secContext;
+    private final ActorsResolver actors;
 
     @Autowired
     public YouController(ProfilesService service,
                          CollectionsService collections,
                          WishListsService wishListsService,
-                         UserContext secContext) {
+                         UserContext secContext,
+                         ActorsResolver actors) {
         this.service = service;
         this.secContext = secContext;
         this.collections = collections;
         this.wishListsService = wishListsService;
+        this.actors = actors;
     }
 
     @RequestMapping(method = RequestMethod.GET)
     public ModelAndView index() {
         Account user = UserContext.authenticatedUser(secContext);
 
+        ProfileView info = service.findProfileView(user);
+        actors.prefetchActivities(info.getUserActivity());
+
         ModelAndView mav = new ModelAndView("you/index");
         mav.addObject("user", user);
-        mav.addObject("info", service.findProfileView(user));
+        mav.addObject("info", info);
         return mav;
     }
 
     @RequestMapping(value = "/collection", method = RequestMethod.GET)
-    public String collection(ModelMap model) {
+    public String collection(@RequestParam(value = "category", required = false) String category,
+                             @RequestParam(value = "condition", required = false) String condition,
+                             Pageable paging,
+                             ModelMap model) {
         Account user = UserContext.authenticatedUser(secContext);
-        Collection collection = collections.findByOwner(user);
+        Collection collection = collections.findSummaryByOwner(user, 0);
 
         model.addAttribute("collection", collection);
+        model.addAttribute("items", collections.findItems(collection, category, condition, paging));
+        model.addAttribute("category", category);
+        model.addAttribute("condition", condition);
         model.addAttribute("owner", user);
         model.addAttribute("editForm", CollectionItemForm.jsForm(messageSource));
 
@@ -19,6 +19,7 @@ import static com.trenako.web.controllers.ControllerMessage.*;
 
 import javax.validation.Valid;
 
+import org.bson.types.ObjectId;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -31,9 +32,11 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import com.trenako.entities.Account;
+import com.trenako.results.RangeRequest;
 import com.trenako.services.AccountsService;
 import com.trenako.web.controllers.ControllerMessage;
 
@@ -66,8 +69,11 @@ public class AdminUsersController {
     }
 
     @RequestMapping(method = RequestMethod.GET)
-    public String usersList(Pageable pageable, ModelMap model) {
-        model.addAttribute("users", userService.findAll(pageable));
+    public String usersList(Pageable pageable,
+                            @RequestParam(value = RangeRequest.SINCE_NAME, required = false) String since,
+                            @RequestParam(value = RangeRequest.MAX_NAME, required = false) String max,
+                            ModelMap model) {
+        model.addAttribute("users", userService.findAll(pageable, cursor(since), cursor(max)));
         return "user/list";
     }
 
@@ -110,4 +116,11 @@ public class AdminUsersController {
         }
     }
 
+    // the invalid cursors are ignored, the page is loaded by offset
+    private static ObjectId cursor(String id) {
+        if (id == null || !ObjectId.isValid(id)) {
+            return null;
+        }
+        return new ObjectId(id);
+    }
 }
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2012 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.trenako.web.images;
+
+/**
+ * The named sizes for the image renditions.
+ * <p>
+ * The renditions are resized by width, keeping the original aspect ratio;
+ * every rendition is stored in the database under its own slug.
+ * </p>
+ *
+ * @author Carlo Micieli
+ */
+public enum ImageRendition {
+    /**
+     * The rendition for avatars and list icons.
+     */
+    SMALL(48),
+
+    /**
+     * The rendition for thumbnails.
+     */
+    THUMBNAIL(100),
+
+    /**
+     * The rendition for cards and search results.
+     */
+    MEDIUM(240),
+
+    /**
+     * The rendition for the detail pages.
+     */
+    LARGE(640);
+
+    private final int width;
+
+    private ImageRendition(int width) {
+        this.width = width;
+    }
+
+    /**
+     * Returns the rendition width in pixels.
+     *
+     * @return the width
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Returns the slug for the rendition of the provided image.
+     *
+     * @param imageSlug the original image slug
+     * @return the rendition slug
+     */
+    public String slugFor(String imageSlug) {
+        return "w" + getWidth() + "_" + imageSlug;
+    }
+
+    /**
+     * Returns the smallest rendition at least as wide as the requested width.
+     * <p>
+     * Requests wider than the largest rendition will get the largest one.
+     * </p>
+     *
+     * @param width the requested width
+     * @return the {@code ImageRendition}
+     */
+    public static ImageRendition forWidth(int width) {
+        for (ImageRendition rendition : values()) {
+            if (width <= rendition.getWidth()) {
+                return rendition;
+            }
+        }
+        return LARGE;
+    }
+}
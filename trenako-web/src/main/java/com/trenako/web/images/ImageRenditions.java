@@ -0,0 +1,180 @@
+/*
+ * Copyright 2012 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.trenako.web.images;
+
+import static com.trenako.utility.Maps.*;
+
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.gridfs.GridFSDBFile;
+import com.trenako.images.ImagesRepository;
+import com.trenako.images.UploadFile;
+
+/**
+ * It represents the component that creates the image renditions on demand.
+ * <p>
+ * The renditions are created the first time they are requested and stored in the
+ * database. The concurrent requests for the same rendition wait for the first one
+ * to complete, so every rendition is resized only once.
+ * </p>
+ * <p>
+ * The creations and the deletions for the same image share a lock and a generation:
+ * a rendition resized from an original image deleted in the meantime is not stored,
+ * it is created again from the new original.
+ * </p>
+ *
+ * @author Carlo Micieli
+ */
+@Component
+public class ImageRenditions {
+
+    private final ImagesRepository repo;
+    private final ImagesConverter converter;
+
+    private static final int STRIPES = 16;
+
+    private final ConcurrentMap<String, FutureTask<GridFSDBFile>> inFlight = new ConcurrentHashMap<>();
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    /**
+     * Creates a new {@code ImageRenditions}.
+     *
+     * @param repo      the images repository
+     * @param converter the images converter
+     */
+    @Autowired
+    public ImageRenditions(ImagesRepository repo, ImagesConverter converter) {
+        this.repo = repo;
+        this.converter = converter;
+
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Returns the rendition for the provided image, creating it if needed.
+     *
+     * @param imageSlug the original image slug
+     * @param rendition the rendition
+     * @return the rendition file, or {@code null} if the original image doesn't exist
+     * @throws IOException if an I/O exception of some sort has occurred
+     */
+    public GridFSDBFile findOrCreate(final String imageSlug, final ImageRendition rendition) throws IOException {
+        final String slug = rendition.slugFor(imageSlug);
+
+        GridFSDBFile file = repo.findFileBySlug(slug);
+        if (file != null) {
+            return file;
+        }
+
+        FutureTask<GridFSDBFile> task = new FutureTask<>(new Callable<GridFSDBFile>() {
+            @Override
+            public GridFSDBFile call() throws Exception {
+                return create(imageSlug, slug, rendition);
+            }
+        });
+
+        FutureTask<GridFSDBFile> running = inFlight.putIfAbsent(slug, task);
+        if (running == null) {
+            running = task;
+            try {
+                task.run();
+            } finally {
+                inFlight.remove(slug, task);
+            }
+        }
+
+        try {
+            return running.get();
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof IOException) {
+                throw (IOException) ex.getCause();
+            }
+            throw new IOException(ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException(ex);
+        }
+    }
+
+    /**
+     * Deletes all the renditions for the provided image.
+     *
+     * @param imageSlug the original image slug
+     */
+    public void delete(String imageSlug) {
+        Stripe stripe = stripeFor(imageSlug);
+        synchronized (stripe) {
+            stripe.generation++;
+            for (ImageRendition rendition : ImageRendition.values()) {
+                repo.delete(rendition.slugFor(imageSlug));
+            }
+        }
+    }
+
+    private GridFSDBFile create(String imageSlug, String slug, ImageRendition rendition) throws IOException {
+        // another request could have stored the rendition in the meantime
+        GridFSDBFile file = repo.findFileBySlug(slug);
+        if (file != null) {
+            return file;
+        }
+
+        Stripe stripe = stripeFor(imageSlug);
+        while (true) {
+            long generation = stripe.generation();
+            GridFSDBFile original = repo.findFileBySlug(imageSlug);
+            if (original == null) {
+                return null;
+            }
+
+            UploadFile upload = converter.createRendition(original.getInputStream(),
+                    original.getContentType(),
+                    original.getFilename(),
+                    map("slug", slug),
+                    rendition.getWidth());
+
+            synchronized (stripe) {
+                if (stripe.generation == generation) {
+                    repo.store(upload);
+                    return repo.findFileBySlug(slug);
+                }
+            }
+            // the renditions were deleted during the resize: the original could be stale
+        }
+    }
+
+    private Stripe stripeFor(String imageSlug) {
+        return stripes[(imageSlug.hashCode() & Integer.MAX_VALUE) % stripes.length];
+    }
+
+    // the lock and the generation for the images hashed to the same stripe
+    private static final class Stripe {
+        private long generation = 0;
+
+        synchronized long generation() {
+            return generation;
+        }
+    }
+}
@@ -16,6 +16,7 @@
 package com.trenako.web.images;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.Map;
 
 import org.springframework.web.multipart.MultipartFile;
@@ -31,6 +32,9 @@ import com.trenako.images.UploadFile;
 public interface ImagesConverter {
     /**
      * Creates a thumbnail for a received {@link MultipartFile} from a web request.
+     * <p>
+     * The thumbnail is resized while the returned {@code UploadFile} is stored.
+     * </p>
      *
      * @param file       the received {@code MultipartFile}
      * @param metadata   the file metadata
@@ -41,7 +45,53 @@ public interface ImagesConverter {
     UploadFile createThumbnail(MultipartFile file, Map<String, String> metadata, int targetSize) throws IOException;
 
     /**
-     * Converts a received {@link MultipartFile} from a web request to a bytes array.
+     * Creates a thumbnail for an image already stored in the database.
+     * <p>
+     * The thumbnail is resized while the returned {@code UploadFile} is stored,
+     * the {@code content} stream is closed afterwards.
+     * </p>
+     *
+     * @param content     the image content
+     * @param contentType the image content type
+     * @param filename    the image filename
+     * @param metadata    the thumbnail metadata
+     * @param targetSize  the target size in pixel
+     * @return the {@code UploadFile}
+     * @throws IOException if an I/O exception of some sort has occurred
+     */
+    UploadFile createThumbnail(InputStream content,
+                               String contentType,
+                               String filename,
+                               Map<String, String> metadata,
+                               int targetSize) throws IOException;
+
+    /**
+     * Creates a rendition for an image already stored in the database.
+     * <p>
+     * The rendition is resized to the target width, keeping the original aspect ratio,
+     * while the returned {@code UploadFile} is stored.
+     * </p>
+     *
+     * @param content     the image content
+     * @param contentType the image content type
+     * @param filename    the image filename
+     * @param metadata    the rendition metadata
+     * @param targetWidth the target width in pixel
+     * @return the {@code UploadFile}
+     * @throws IOException if an I/O exception of some sort has occurred
+     * @see ImageRendition
+     */
+    UploadFile createRendition(InputStream content,
+                               String contentType,
+                               String filename,
+                               Map<String, String> metadata,
+                               int targetWidth) throws IOException;
+
+    /**
+     * Converts a received {@link MultipartFile} from a web request to an {@code UploadFile}.
+     * <p>
+     * The file content is streamed from the multipart upload, without copying it in memory.
+     * </p>
      *
      * @param file     the received {@code MultipartFile}
      * @param metadata the file metadata
@@ -0,0 +1,405 @@
+/*
+ * Copyright 2012 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.trenako.web.images;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+import com.mongodb.gridfs.GridFSDBFile;
+
+/**
+ * It represents a size-bounded disk cache for the images stored in the database.
+ * <p>
+ * The cached files are named after the image slug and the GridFS md5, so a new
+ * upload for the same slug never reuses a stale file. When the cache exceeds its
+ * max size the least recently used images are removed from the disk.
+ * </p>
+ * <p>
+ * Every eviction increments the cache generation; the files loaded from the
+ * database while an eviction was in progress are not stored, in order to avoid
+ * caching stale images.
+ * </p>
+ * <p>
+ * The cache index is kept in memory: the cache directory is emptied every time
+ * the application starts.
+ * </p>
+ *
+ * @author Carlo Micieli
+ */
+@Component("imagesDiskCache")
+@ManagedResource(objectName = "trenako:type=Cache,name=imagesDiskCache",
+        description = "The images disk cache")
+public class ImagesDiskCache {
+
+    private static final Logger log = LoggerFactory.getLogger("com.trenako.web");
+    private static final String FILE_EXTENSION = ".img";
+
+    private final File directory;
+    private final long maxSize;
+
+    private final Map<String, CachedImage> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long usedSpace = 0;
+    private long generation = 0;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Creates a new {@code ImagesDiskCache}.
+     *
+     * @param directory the cache directory; if blank the cache will use a
+     *                  {@code trenako-images} directory under the system temp directory
+     * @param maxSize   the max disk space in bytes
+     */
+    @Autowired
+    public ImagesDiskCache(@Value("${images.cache.directory:}") String directory,
+                           @Value("${images.cache.maxSize:67108864}") long maxSize) {
+        Assert.isTrue(maxSize > 0, "Cache max size must be positive");
+
+        this.directory = StringUtils.isBlank(directory) ?
+                new File(System.getProperty("java.io.tmpdir"), "trenako-images") :
+                new File(directory);
+        this.maxSize = maxSize;
+
+        init();
+    }
+
+    /**
+     * Returns the cached image with the provided slug.
+     *
+     * @param slug the image slug
+     * @return the {@code CachedImage} if found; {@code null} otherwise
+     */
+    public CachedImage get(String slug) {
+        CachedImage image;
+        synchronized (entries) {
+            image = entries.get(slug);
+        }
+
+        if (image == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+
+        if (!image.getFile().exists()) {
+            // the file was removed outside the cache
+            evict(slug);
+            misses.incrementAndGet();
+            return null;
+        }
+
+        hits.incrementAndGet();
+        return image;
+    }
+
+    /**
+     * Returns the cache generation.
+     * <p>
+     * The generation must be read before the image is loaded from the database.
+     * </p>
+     *
+     * @return the generation
+     */
+    public long generation() {
+        synchronized (entries) {
+            return generation;
+        }
+    }
+
+    /**
+     * Copies the database file to the disk cache.
+     * <p>
+     * The files without a md5 or larger than the cache max size are not cached,
+     * as well as the files loaded before an eviction. If the same file is already
+     * cached (ie two concurrent misses for the same image) the existing
+     * {@code CachedImage} is returned.
+     * </p>
+     *
+     * @param slug       the image slug
+     * @param file       the database file
+     * @param generation the cache generation before the file was loaded
+     * @return the {@code CachedImage}, or {@code null} if the file was not cached
+     */
+    public CachedImage put(String slug, GridFSDBFile file, long generation) {
+        if (StringUtils.isBlank(file.getMD5()) || file.getLength() > maxSize) {
+            return null;
+        }
+
+        File target = new File(directory, fileName(slug, file.getMD5()));
+        try {
+            File tmp = File.createTempFile("upload", ".tmp", directory);
+            file.writeTo(tmp);
+            if (!tmp.renameTo(target)) {
+                FileUtils.deleteQuietly(tmp);
+                return null;
+            }
+        } catch (IOException ex) {
+            log.warn("Unable to cache the image {}: {}", slug, ex.toString());
+            return null;
+        }
+
+        CachedImage image = new CachedImage(target,
+                file.getContentType(),
+                file.getMD5(),
+                file.getUploadDate(),
+                target.length());
+
+        synchronized (entries) {
+            CachedImage old = entries.get(slug);
+            if (old != null && old.getFile().equals(target)) {
+                // the same file was renamed in place, it must not be deleted
+                return old;
+            }
+
+            if (generation != this.generation) {
+                // the file could be stale
+                FileUtils.deleteQuietly(target);
+                return null;
+            }
+
+            entries.put(slug, image);
+            if (old != null) {
+                remove(old);
+            }
+            usedSpace += image.getLength();
+            evictEldest();
+        }
+
+        return image;
+    }
+
+    /**
+     * Removes the image with the provided slug from the cache.
+     *
+     * @param slug the image slug
+     */
+    public void evict(String slug) {
+        synchronized (entries) {
+            generation++;
+            CachedImage image = entries.remove(slug);
+            if (image != null) {
+                remove(image);
+            }
+        }
+    }
+
+    /**
+     * Removes all the cached images.
+     */
+    @ManagedOperation(description = "Removes all the cached images")
+    public void clear() {
+        synchronized (entries) {
+            generation++;
+            for (CachedImage image : entries.values()) {
+                remove(image);
+            }
+            entries.clear();
+        }
+    }
+
+    /**
+     * Copies the cached image to the provided output stream.
+     * <p>
+     * This method uses {@link FileChannel#transferTo(long, long, WritableByteChannel)},
+     * the file content is not copied to the heap when the underlying
+     * channel supports it.
+     * </p>
+     *
+     * @param image the cached image
+     * @param out   the output stream
+     * @throws IOException
+     */
+    public void transferTo(CachedImage image, OutputStream out) throws IOException {
+        try (FileInputStream in = new FileInputStream(image.getFile());
+             FileChannel channel = in.getChannel()) {
+
+            WritableByteChannel target = Channels.newChannel(out);
+            long position = 0;
+            long size = channel.size();
+            while (position < size) {
+                position += channel.transferTo(position, size - position, target);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of requests served by the cache.
+     *
+     * @return the number of hits
+     */
+    @ManagedAttribute(description = "The number of cache hits")
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Returns the number of requests not served by the cache.
+     *
+     * @return the number of misses
+     */
+    @ManagedAttribute(description = "The number of cache misses")
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Returns the ratio between the cache hits and the total number of requests.
+     *
+     * @return the hit ratio
+     */
+    @ManagedAttribute(description = "The cache hit ratio")
+    public double getHitRatio() {
+        long hits = getHits();
+        long total = hits + getMisses();
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    /**
+     * Returns the disk space used by the cached images, in bytes.
+     *
+     * @return the disk usage
+     */
+    @ManagedAttribute(description = "The disk space used by the cache (bytes)")
+    public long getUsedSpace() {
+        synchronized (entries) {
+            return usedSpace;
+        }
+    }
+
+    /**
+     * Returns the max disk space for the cache, in bytes.
+     *
+     * @return the max size
+     */
+    @ManagedAttribute(description = "The max disk space for the cache (bytes)")
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Returns the number of cached images.
+     *
+     * @return the number of images
+     */
+    @ManagedAttribute(description = "The number of cached images")
+    public int getSize() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    // helper methods
+
+    private void init() {
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IllegalStateException("Unable to create the images cache directory " + directory);
+        }
+
+        // the index is not persisted, the files from previous runs are useless
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (file.getName().endsWith(FILE_EXTENSION) || file.getName().endsWith(".tmp")) {
+                    FileUtils.deleteQuietly(file);
+                }
+            }
+        }
+    }
+
+    // always called holding the entries lock
+    private void evictEldest() {
+        Iterator<CachedImage> it = entries.values().iterator();
+        while (usedSpace > maxSize && it.hasNext()) {
+            CachedImage image = it.next();
+            it.remove();
+            remove(image);
+        }
+    }
+
+    // always called holding the entries lock
+    private void remove(CachedImage image) {
+        usedSpace -= image.getLength();
+        // the requests still reading the file keep it open until they are done
+        FileUtils.deleteQuietly(image.getFile());
+    }
+
+    private static String fileName(String slug, String md5) {
+        return slug + "_" + md5 + FILE_EXTENSION;
+    }
+
+    /**
+     * It represents an image stored in the disk cache.
+     *
+     * @author Carlo Micieli
+     */
+    public static class CachedImage {
+        private final File file;
+        private final String contentType;
+        private final String md5;
+        private final Date uploadDate;
+        private final long length;
+
+        CachedImage(File file, String contentType, String md5, Date uploadDate, long length) {
+            this.file = file;
+            this.contentType = contentType;
+            this.md5 = md5;
+            this.uploadDate = uploadDate;
+            this.length = length;
+        }
+
+        public File getFile() {
+            return file;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getMD5() {
+            return md5;
+        }
+
+        public Date getUploadDate() {
+            return uploadDate;
+        }
+
+        public long getLength() {
+            return length;
+        }
+    }
+}
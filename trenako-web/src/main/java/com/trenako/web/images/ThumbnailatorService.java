@@ -15,10 +15,9 @@
  */
 package com.trenako.web.images;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.Map;
 
 import net.coobird.thumbnailator.Thumbnails;
@@ -26,6 +25,7 @@ import net.coobird.thumbnailator.Thumbnails;
 import org.springframework.stereotype.Component;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.trenako.images.ContentWriter;
 import com.trenako.images.UploadFile;
 
 /**
@@ -34,31 +34,75 @@ import com.trenako.images.UploadFile;
 @Component
 public class ThumbnailatorService implements ImagesConverter {
 
+    private static final double OUTPUT_QUALITY = 0.8d;
+
     @Override
     public UploadFile createThumbnail(MultipartFile file, Map<String, String> metadata, int targetSize) throws IOException {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        Thumbnails.of(inputStream(file))
-                .height(targetSize)
-                .outputQuality(0.8d)
-                .toOutputStream(baos);
-
-        InputStream is = new ByteArrayInputStream(baos.toByteArray());
-        baos.close();
-        return new UploadFile(is,
+        return createThumbnail(file.getInputStream(),
                 file.getContentType(),
                 file.getOriginalFilename(),
+                metadata,
+                targetSize);
+    }
+
+    @Override
+    public UploadFile createThumbnail(final InputStream content,
+                                      String contentType,
+                                      String filename,
+                                      Map<String, String> metadata,
+                                      final int targetSize) throws IOException {
+        // the thumbnail is written straight to the storage
+        ContentWriter writer = new ContentWriter() {
+            @Override
+            public void writeTo(OutputStream out) throws IOException {
+                try {
+                    Thumbnails.of(content)
+                            .height(targetSize)
+                            .outputQuality(OUTPUT_QUALITY)
+                            .toOutputStream(out);
+                } finally {
+                    content.close();
+                }
+            }
+        };
+        return new UploadFile(writer,
+                contentType,
+                filename,
+                metadata);
+    }
+
+    @Override
+    public UploadFile createRendition(final InputStream content,
+                                      String contentType,
+                                      String filename,
+                                      Map<String, String> metadata,
+                                      final int targetWidth) throws IOException {
+        ContentWriter writer = new ContentWriter() {
+            @Override
+            public void writeTo(OutputStream out) throws IOException {
+                try {
+                    Thumbnails.of(content)
+                            .width(targetWidth)
+                            .outputQuality(OUTPUT_QUALITY)
+                            .toOutputStream(out);
+                } finally {
+                    content.close();
+                }
+            }
+        };
+        return new UploadFile(writer,
+                contentType,
+                filename,
                 metadata);
     }
 
     @Override
     public UploadFile createImage(MultipartFile file, Map<String, String> metadata) throws IOException {
-        return new UploadFile(inputStream(file),
+        // reads the file where the multipart resolver has already spooled it,
+        // without copying the whole upload on the heap
+        return new UploadFile(file.getInputStream(),
                 file.getContentType(),
                 file.getOriginalFilename(),
                 metadata);
     }
-
-    private InputStream inputStream(MultipartFile file) throws IOException {
-        return new ByteArrayInputStream(file.getBytes());
-    }
 }
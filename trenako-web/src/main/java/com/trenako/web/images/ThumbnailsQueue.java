@@ -0,0 +1,390 @@
+/*
+ * Copyright 2012 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.trenako.web.images;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.gridfs.GridFSDBFile;
+import com.trenako.images.ImagesRepository;
+import com.trenako.images.UploadFile;
+
+/**
+ * It represents the background queue for the thumbnails creation.
+ * <p>
+ * The thumbnails are created by a bounded pool of worker threads, reading
+ * the original images from the database. Every job is tried {@code maxAttempts}
+ * times before it is marked as failed; the retries are scheduled with an increasing
+ * delay, without keeping a worker busy while waiting. The pending and failed jobs
+ * are exposed through JMX, and the failed jobs can be submitted again by the administrators.
+ * </p>
+ * <p>
+ * Only the latest {@code maxFailedJobs} failed jobs are kept, for at most
+ * {@code failedJobsTtl} milliseconds.
+ * </p>
+ *
+ * @author Carlo Micieli
+ */
+@Component("thumbnailsQueue")
+@ManagedResource(objectName = "trenako:type=Queue,name=thumbnailsQueue",
+        description = "The thumbnails creation queue")
+public class ThumbnailsQueue {
+
+    private static final Logger log = LoggerFactory.getLogger("com.trenako.web");
+
+    private static final int POOL_SIZE = 2;
+    private static final int QUEUE_CAPACITY = 100;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long RETRY_DELAY = 1000;
+    private static final int MAX_FAILED_JOBS = 100;
+    private static final long FAILED_JOBS_TTL = TimeUnit.DAYS.toMillis(1);
+
+    private static final Comparator<ThumbnailJob> OLDEST_FAILURE_FIRST = new Comparator<ThumbnailJob>() {
+        @Override
+        public int compare(ThumbnailJob a, ThumbnailJob b) {
+            return Long.compare(a.getFailedAt(), b.getFailedAt());
+        }
+    };
+
+    private final ImagesRepository repo;
+    private final ImagesConverter converter;
+    private final ImagesDiskCache cache;
+    private final TaskExecutor executor;
+    private final TaskScheduler scheduler;
+    private final int maxAttempts;
+    private final long retryDelay;
+    private final int maxFailedJobs;
+    private final long failedJobsTtl;
+
+    private final ConcurrentMap<String, ThumbnailJob> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new {@code ThumbnailsQueue}.
+     *
+     * @param repo      the images repository
+     * @param converter the images converter
+     * @param cache     the images disk cache
+     */
+    @Autowired
+    public ThumbnailsQueue(ImagesRepository repo, ImagesConverter converter, ImagesDiskCache cache) {
+        this(repo, converter, cache, defaultExecutor(), defaultScheduler(),
+                MAX_ATTEMPTS, RETRY_DELAY, MAX_FAILED_JOBS, FAILED_JOBS_TTL);
+    }
+
+    ThumbnailsQueue(ImagesRepository repo,
+                    ImagesConverter converter,
+                    ImagesDiskCache cache,
+                    TaskExecutor executor,
+                    TaskScheduler scheduler,
+                    int maxAttempts,
+                    long retryDelay,
+                    int maxFailedJobs,
+                    long failedJobsTtl) {
+        this.repo = repo;
+        this.converter = converter;
+        this.cache = cache;
+        this.executor = executor;
+        this.scheduler = scheduler;
+        this.maxAttempts = maxAttempts;
+        this.retryDelay = retryDelay;
+        this.maxFailedJobs = maxFailedJobs;
+        this.failedJobsTtl = failedJobsTtl;
+    }
+
+    private static TaskExecutor defaultExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(POOL_SIZE);
+        executor.setMaxPoolSize(POOL_SIZE);
+        executor.setQueueCapacity(QUEUE_CAPACITY);
+        executor.setThreadNamePrefix("thumbnails-");
+        executor.setDaemon(true);
+        executor.initialize();
+        return executor;
+    }
+
+    // the scheduled retries are only submitted to the workers
+    private static TaskScheduler defaultScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("thumbnails-retry-");
+        scheduler.setDaemon(true);
+        scheduler.initialize();
+        return scheduler;
+    }
+
+    /**
+     * Enqueues the creation of a thumbnail.
+     *
+     * @param imageSlug     the original image slug
+     * @param thumbMetadata the thumbnail metadata
+     * @param size          the thumbnail size in pixels
+     */
+    public void enqueue(String imageSlug, Map<String, String> thumbMetadata, int size) {
+        ThumbnailJob job = new ThumbnailJob(imageSlug, thumbMetadata, size);
+        jobs.put(job.getThumbSlug(), job);
+        submit(job);
+    }
+
+    /**
+     * Checks whether the thumbnail creation is still in progress.
+     *
+     * @param thumbSlug the thumbnail slug
+     * @return {@code true} if the thumbnail job is pending; {@code false} otherwise
+     */
+    public boolean isPending(String thumbSlug) {
+        ThumbnailJob job = jobs.get(thumbSlug);
+        return job != null && !job.isFailed();
+    }
+
+    /**
+     * Returns the thumbnails waiting to be created.
+     *
+     * @return the thumbnail slugs
+     */
+    @ManagedAttribute(description = "The thumbnails waiting to be created")
+    public String[] getPendingJobs() {
+        List<String> pending = new ArrayList<>();
+        for (ThumbnailJob job : jobs.values()) {
+            if (!job.isFailed()) {
+                pending.add(job.getThumbSlug());
+            }
+        }
+        return pending.toArray(new String[pending.size()]);
+    }
+
+    /**
+     * Returns the thumbnails that were not created, with the last error.
+     *
+     * @return the failed jobs
+     */
+    @ManagedAttribute(description = "The thumbnails not created because of an error")
+    public String[] getFailedJobs() {
+        List<String> failed = new ArrayList<>();
+        for (ThumbnailJob job : jobs.values()) {
+            if (job.isFailed()) {
+                failed.add(job.getThumbSlug() + ": " + job.getLastError());
+            }
+        }
+        return failed.toArray(new String[failed.size()]);
+    }
+
+    /**
+     * Submits the failed jobs again.
+     *
+     * @return the number of jobs submitted
+     */
+    @ManagedOperation(description = "Submits the failed jobs again")
+    public int retryFailedJobs() {
+        int count = 0;
+        for (ThumbnailJob job : jobs.values()) {
+            if (job.isFailed()) {
+                job.reset();
+                submit(job);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Stops the worker threads.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler instanceof ThreadPoolTaskScheduler) {
+            ((ThreadPoolTaskScheduler) scheduler).shutdown();
+        }
+        if (executor instanceof ThreadPoolTaskExecutor) {
+            ((ThreadPoolTaskExecutor) executor).shutdown();
+        }
+    }
+
+    private void submit(final ThumbnailJob job) {
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    process(job);
+                }
+            });
+        } catch (TaskRejectedException ex) {
+            fail(job, "the thumbnails queue is full");
+        }
+    }
+
+    private void retry(final ThumbnailJob job, long delay) {
+        try {
+            scheduler.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    // a newer job for the same thumbnail makes this one useless
+                    if (jobs.get(job.getThumbSlug()) == job) {
+                        submit(job);
+                    }
+                }
+            }, new Date(System.currentTimeMillis() + delay));
+        } catch (TaskRejectedException ex) {
+            fail(job, "the thumbnails queue is stopped");
+        }
+    }
+
+    private void process(ThumbnailJob job) {
+        try {
+            createThumbnail(job);
+            // a newer job for the same thumbnail can't be removed
+            jobs.remove(job.getThumbSlug(), job);
+        } catch (Exception ex) {
+            int attempts = job.incrementAttempts();
+            log.warn("Thumbnail {} failed (attempt {}): {}",
+                    new Object[]{job.getThumbSlug(), attempts, ex.toString()});
+
+            if (attempts >= maxAttempts) {
+                fail(job, ex.toString());
+            } else {
+                retry(job, retryDelay * attempts);
+            }
+        }
+    }
+
+    private void fail(ThumbnailJob job, String error) {
+        job.fail(error);
+
+        // removes the expired failures, then the oldest ones over the limit
+        long now = System.currentTimeMillis();
+        List<ThumbnailJob> failed = new ArrayList<>();
+        for (ThumbnailJob other : jobs.values()) {
+            if (other == job || !other.isFailed()) {
+                continue;
+            }
+            if (now - other.getFailedAt() > failedJobsTtl) {
+                jobs.remove(other.getThumbSlug(), other);
+            } else {
+                failed.add(other);
+            }
+        }
+
+        Collections.sort(failed, OLDEST_FAILURE_FIRST);
+        for (int i = 0; i < failed.size() + 1 - maxFailedJobs; i++) {
+            ThumbnailJob oldest = failed.get(i);
+            jobs.remove(oldest.getThumbSlug(), oldest);
+        }
+    }
+
+    private void createThumbnail(ThumbnailJob job) throws IOException {
+        GridFSDBFile original = repo.findFileBySlug(job.getImageSlug());
+        if (original == null) {
+            throw new IOException("Image " + job.getImageSlug() + " not found");
+        }
+
+        UploadFile thumb = converter.createThumbnail(original.getInputStream(),
+                original.getContentType(),
+                original.getFilename(),
+                job.getThumbMetadata(),
+                job.getSize());
+
+        repo.delete(job.getThumbSlug());
+        repo.store(thumb);
+        cache.evict(job.getThumbSlug());
+    }
+
+    /**
+     * It represents a thumbnail creation job.
+     *
+     * @author Carlo Micieli
+     */
+    static class ThumbnailJob {
+        private final String imageSlug;
+        private final Map<String, String> thumbMetadata;
+        private final int size;
+
+        private int attempts = 0;
+        private String lastError;
+        private boolean failed = false;
+        private long failedAt = 0;
+
+        ThumbnailJob(String imageSlug, Map<String, String> thumbMetadata, int size) {
+            this.imageSlug = imageSlug;
+            this.thumbMetadata = thumbMetadata;
+            this.size = size;
+        }
+
+        String getImageSlug() {
+            return imageSlug;
+        }
+
+        String getThumbSlug() {
+            return thumbMetadata.get("slug");
+        }
+
+        Map<String, String> getThumbMetadata() {
+            return thumbMetadata;
+        }
+
+        int getSize() {
+            return size;
+        }
+
+        synchronized int incrementAttempts() {
+            return ++attempts;
+        }
+
+        synchronized String getLastError() {
+            return lastError;
+        }
+
+        synchronized boolean isFailed() {
+            return failed;
+        }
+
+        synchronized long getFailedAt() {
+            return failedAt;
+        }
+
+        synchronized void fail(String error) {
+            this.lastError = error;
+            this.failed = true;
+            this.failedAt = System.currentTimeMillis();
+        }
+
+        synchronized void reset() {
+            this.attempts = 0;
+            this.failed = false;
+        }
+    }
+}
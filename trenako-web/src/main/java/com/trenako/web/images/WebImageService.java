@@ -15,7 +15,8 @@
  */
 package com.trenako.web.images;
 
-import org.springframework.http.ResponseEntity;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 
 /**
  * The interface for the upload images service for web requests.
@@ -38,6 +39,10 @@ public interface WebImageService {
 
     /**
      * Saves the uploaded image to the database creating the thumbnail too.
+     * <p>
+     * The thumbnail is created in background; until it is ready the
+     * requests for the thumbnail render the original image.
+     * </p>
      *
      * @param req  the file upload request
      * @param size the thumbnail size in pixels
@@ -45,13 +50,35 @@ public interface WebImageService {
     void saveImageWithThumb(UploadRequest req, int size);
 
     /**
-     * Renders the image with the provided {@code ImageRequest}
-     * in the web response.
+     * Writes the image with the provided slug to the web response.
+     * <p>
+     * The image content is copied straight from the database to the response
+     * output stream. The response includes the {@code ETag} (the file md5) and
+     * {@code Last-Modified} (the upload date) headers; when the request
+     * {@code If-None-Match} or {@code If-Modified-Since} headers match the
+     * current image the method sends a {@code 304 Not Modified} without
+     * reading the image content.
+     * </p>
+     *
+     * @param imageSlug the image slug
+     * @param request   the web request
+     * @param response  the web response
+     */
+    void renderImage(String imageSlug, HttpServletRequest request, HttpServletResponse response);
+
+    /**
+     * Writes a rendition of the image with the provided slug to the web response.
+     * <p>
+     * The rendition is the smallest {@link ImageRendition} at least as wide as the
+     * requested width; it is created the first time it is requested.
+     * </p>
      *
      * @param imageSlug the image slug
-     * @return a web response entity
+     * @param width     the requested width, or {@code null} for the original image
+     * @param request   the web request
+     * @param response  the web response
      */
-    ResponseEntity<byte[]> renderImage(String imageSlug);
+    void renderImage(String imageSlug, Integer width, HttpServletRequest request, HttpServletResponse response);
 
     /**
      * Deletes a file from the database.
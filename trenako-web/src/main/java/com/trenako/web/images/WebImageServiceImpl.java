@@ -15,24 +15,24 @@
  */
 package com.trenako.web.images;
 
-import java.io.InputStream;
 import java.io.IOException;
+import java.util.Date;
 
-import org.apache.commons.io.IOUtils;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.lang3.StringUtils;
 
 import com.mongodb.gridfs.GridFSDBFile;
 
-import org.springframework.http.MediaType;
 import org.springframework.util.Assert;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpStatus;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.trenako.images.ImagesRepository;
 import com.trenako.web.errors.NotFoundException;
+import com.trenako.web.images.ImagesDiskCache.CachedImage;
 
 /**
  * This is class provide a concrete implementation for the {@code WebImageService}
@@ -41,7 +41,10 @@ import com.trenako.web.errors.NotFoundException;
  * <p>
  * <ul>
  * <li>{@link ImagesRepository}: to load/store images to the database;</li>
- * <li>{@link ImagesConverter} to convert images from and to {@link MultipartFile}.</li>
+ * <li>{@link ImagesConverter} to convert images from and to {@link MultipartFile};</li>
+ * <li>{@link ImagesDiskCache} to serve the images without reading them from the database;</li>
+ * <li>{@link ThumbnailsQueue} to create the thumbnails in background;</li>
+ * <li>{@link ImageRenditions} to create the image renditions on demand.</li>
  * </ul>
  * </p>
  *
@@ -50,19 +53,38 @@ import com.trenako.web.errors.NotFoundException;
 @Service("webImageService")
 public class WebImageServiceImpl implements WebImageService {
 
+    private static final String ETAG = "ETag";
+    private static final String LAST_MODIFIED = "Last-Modified";
+    private static final String IF_NONE_MATCH = "If-None-Match";
+    private static final String IF_MODIFIED_SINCE = "If-Modified-Since";
+    private static final String THUMB_PREFIX = "th_";
+
     private final ImagesRepository repo;
     private final ImagesConverter converter;
+    private final ImagesDiskCache cache;
+    private final ThumbnailsQueue thumbnails;
+    private final ImageRenditions renditions;
 
     /**
      * Creates a new {@code WebImageServiceImpl}.
      *
-     * @param repo      the images repository
-     * @param converter the images converter
+     * @param repo       the images repository
+     * @param converter  the images converter
+     * @param cache      the images disk cache
+     * @param thumbnails the thumbnails queue
+     * @param renditions the image renditions
      */
     @Autowired
-    public WebImageServiceImpl(ImagesRepository repo, ImagesConverter converter) {
+    public WebImageServiceImpl(ImagesRepository repo,
+                               ImagesConverter converter,
+                               ImagesDiskCache cache,
+                               ThumbnailsQueue thumbnails,
+                               ImageRenditions renditions) {
         this.converter = converter;
         this.repo = repo;
+        this.cache = cache;
+        this.thumbnails = thumbnails;
+        this.renditions = renditions;
     }
 
     @Override
@@ -71,6 +93,7 @@ public class WebImageServiceImpl implements WebImageService {
 
         try {
             repo.store(converter.createImage(req.getFile(), req.asMetadata(false)));
+            evict(req);
         } catch (IOException ioEx) {
             throw new UploadSavingException("Error occurred uploading the file.", ioEx);
         }
@@ -83,30 +106,63 @@ public class WebImageServiceImpl implements WebImageService {
 
         try {
             repo.store(converter.createImage(req.getFile(), req.asMetadata(false)));
-            repo.store(converter.createThumbnail(req.getFile(), req.asMetadata(true), size));
+            evict(req);
         } catch (IOException ioEx) {
             throw new UploadSavingException("Error occurred uploading the file.", ioEx);
         }
+
+        // the thumbnail is created from the stored image
+        thumbnails.enqueue(req.asMetadata(false).get("slug"), req.asMetadata(true), size);
     }
 
     @Override
-    public ResponseEntity<byte[]> renderImage(String imageSlug) {
-        GridFSDBFile img = repo.findFileBySlug(imageSlug);
-        if (img == null) {
-            throw new NotFoundException();
-        }
+    public void renderImage(String imageSlug, HttpServletRequest request, HttpServletResponse response) {
+        try {
+            if (renderCached(imageSlug, request, response)) {
+                return;
+            }
+
+            // read before the database, a concurrent upload will invalidate the file
+            long generation = cache.generation();
+            boolean isFallback = false;
+            GridFSDBFile img = repo.findFileBySlug(imageSlug);
+            if (img == null && isThumbnail(imageSlug)) {
+                // renders the original image until the thumbnail is created
+                img = repo.findFileBySlug(imageSlug.substring(THUMB_PREFIX.length()));
+                isFallback = true;
+            }
+
+            if (img == null) {
+                throw new NotFoundException();
+            }
 
-        InputStream in = img.getInputStream();
-        MediaType mediaType = parse(img.getContentType());
+            render(isFallback ? null : imageSlug, img, generation, request, response);
+        } catch (IOException ioEx) {
+            throw new UploadRenderingException("Error occurred rendering the file.", ioEx);
+        }
+    }
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(mediaType);
+    @Override
+    public void renderImage(String imageSlug, Integer width, HttpServletRequest request, HttpServletResponse response) {
+        if (width == null) {
+            renderImage(imageSlug, request, response);
+            return;
+        }
 
+        ImageRendition rendition = ImageRendition.forWidth(width);
+        String renditionSlug = rendition.slugFor(imageSlug);
         try {
-            return new ResponseEntity<byte[]>(
-                    IOUtils.toByteArray(in),
-                    headers,
-                    HttpStatus.CREATED);
+            if (renderCached(renditionSlug, request, response)) {
+                return;
+            }
+
+            long generation = cache.generation();
+            GridFSDBFile img = renditions.findOrCreate(imageSlug, rendition);
+            if (img == null) {
+                throw new NotFoundException();
+            }
+
+            render(renditionSlug, img, generation, request, response);
         } catch (IOException ioEx) {
             throw new UploadRenderingException("Error occurred rendering the file.", ioEx);
         }
@@ -116,11 +172,129 @@ public class WebImageServiceImpl implements WebImageService {
     public void deleteImage(ImageRequest req) {
         repo.delete(req.getFilename());
         repo.delete(req.getThumbFilename());
+        renditions.delete(req.getFilename());
+        evict(req.getFilename());
+        evict(req.getThumbFilename());
     }
 
     // helper methods
 
-    private MediaType parse(String mediaType) {
-        return MediaType.parseMediaType(mediaType);
+    private static boolean isThumbnail(String imageSlug) {
+        return imageSlug != null && imageSlug.startsWith(THUMB_PREFIX);
+    }
+
+    private boolean renderCached(String slug, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        CachedImage cached = cache.get(slug);
+        if (cached == null) {
+            return false;
+        }
+
+        if (!checkNotModified(request, response, cached.getMD5(), cached.getUploadDate())) {
+            setContent(response, cached.getContentType(), cached.getLength());
+            cache.transferTo(cached, response.getOutputStream());
+        }
+        return true;
+    }
+
+    // the images are not cached when the slug is null
+    private void render(String slug, GridFSDBFile img, long generation,
+                        HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (checkNotModified(request, response, img.getMD5(), img.getUploadDate())) {
+            return;
+        }
+
+        CachedImage cached = slug == null ? null : cache.put(slug, img, generation);
+        if (cached != null) {
+            setContent(response, cached.getContentType(), cached.getLength());
+            cache.transferTo(cached, response.getOutputStream());
+        } else {
+            setContent(response, img.getContentType(), img.getLength());
+            // copies the gridfs chunks straight to the response
+            img.writeTo(response.getOutputStream());
+        }
+    }
+
+    private void evict(UploadRequest req) {
+        String imageSlug = req.asMetadata(false).get("slug");
+
+        // the renditions for the old image are stale
+        renditions.delete(imageSlug);
+        evict(imageSlug);
+        evict(req.asMetadata(true).get("slug"));
+    }
+
+    private void evict(String imageSlug) {
+        cache.evict(imageSlug);
+        for (ImageRendition rendition : ImageRendition.values()) {
+            cache.evict(rendition.slugFor(imageSlug));
+        }
+    }
+
+    private boolean checkNotModified(HttpServletRequest request, HttpServletResponse response, String md5, Date uploadDate) {
+        String etag = etag(md5);
+        long lastModified = lastModified(uploadDate);
+        if (etag != null) {
+            response.setHeader(ETAG, etag);
+        }
+        if (lastModified > 0) {
+            response.setDateHeader(LAST_MODIFIED, lastModified);
+        }
+
+        if (isNotModified(request, etag, lastModified)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return true;
+        }
+        return false;
+    }
+
+    private void setContent(HttpServletResponse response, String contentType, long length) {
+        response.setContentType(contentType);
+        if (length <= Integer.MAX_VALUE) {
+            response.setContentLength((int) length);
+        }
+    }
+
+    private String etag(String md5) {
+        if (StringUtils.isBlank(md5)) {
+            return null;
+        }
+        return "\"" + md5 + "\"";
+    }
+
+    private long lastModified(Date uploadDate) {
+        if (uploadDate == null) {
+            return -1;
+        }
+        // http dates have a one second precision
+        return (uploadDate.getTime() / 1000) * 1000;
+    }
+
+    private boolean isNotModified(HttpServletRequest request, String etag, long lastModified) {
+        String ifNoneMatch = request.getHeader(IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            if (etag == null) {
+                return false;
+            }
+
+            for (String tag : StringUtils.split(ifNoneMatch, ',')) {
+                String value = tag.trim();
+                if (value.equals("*") || value.equals(etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        if (lastModified > 0) {
+            try {
+                long ifModifiedSince = request.getDateHeader(IF_MODIFIED_SINCE);
+                return ifModifiedSince >= lastModified;
+            } catch (IllegalArgumentException ex) {
+                // invalid date header
+                return false;
+            }
+        }
+
+        return false;
     }
 }
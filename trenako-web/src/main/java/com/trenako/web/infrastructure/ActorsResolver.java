@@ -0,0 +1,169 @@
+/*
+ * Copyright 2012 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.trenako.web.infrastructure;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Scope;
+import org.springframework.context.annotation.ScopedProxyMode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.trenako.activities.Activity;
+import com.trenako.entities.Account;
+import com.trenako.entities.Comment;
+import com.trenako.entities.Review;
+import com.trenako.services.AccountsService;
+
+/**
+ * It represents a request scoped resolver for the users that appear in a page
+ * (activity actors, comment and review authors).
+ * <p>
+ * The controllers register the user slugs for the current page with the {@code prefetch}
+ * methods; the first time the tags resolve an user all the registered slugs are loaded
+ * with a single query. Every user is loaded at most once for each request.
+ * </p>
+ *
+ * @author Carlo Micieli
+ */
+@Component
+@Scope(value = WebApplicationContext.SCOPE_REQUEST, proxyMode = ScopedProxyMode.TARGET_CLASS)
+public class ActorsResolver {
+
+    private final AccountsService service;
+    private final Map<String, Account> accounts = new HashMap<>();
+    private final Set<String> pending = new LinkedHashSet<>();
+
+    // required by the scoped proxy
+    protected ActorsResolver() {
+        this(null);
+    }
+
+    /**
+     * Creates a new {@code ActorsResolver}.
+     *
+     * @param service the accounts service
+     */
+    @Autowired
+    public ActorsResolver(AccountsService service) {
+        this.service = service;
+    }
+
+    /**
+     * Registers the user slugs to be loaded with the next lookup.
+     *
+     * @param slugs the user slugs
+     */
+    public void prefetch(Iterable<String> slugs) {
+        if (slugs == null) {
+            return;
+        }
+
+        for (String slug : slugs) {
+            if (StringUtils.isNotBlank(slug) && !accounts.containsKey(slug)) {
+                pending.add(slug);
+            }
+        }
+    }
+
+    /**
+     * Registers the actors for the provided activities.
+     *
+     * @param activities the activities
+     */
+    public void prefetchActivities(Iterable<Activity> activities) {
+        if (activities == null) {
+            return;
+        }
+
+        Set<String> slugs = new LinkedHashSet<>();
+        for (Activity activity : activities) {
+            slugs.add(activity.getActor());
+        }
+        prefetch(slugs);
+    }
+
+    /**
+     * Registers the authors for the provided comments.
+     *
+     * @param comments the comments
+     */
+    public void prefetchComments(Iterable<Comment> comments) {
+        if (comments == null) {
+            return;
+        }
+
+        Set<String> slugs = new LinkedHashSet<>();
+        for (Comment comment : comments) {
+            slugs.add(comment.getAuthor());
+        }
+        prefetch(slugs);
+    }
+
+    /**
+     * Registers the authors for the provided reviews.
+     *
+     * @param reviews the reviews
+     */
+    public void prefetchReviews(Iterable<Review> reviews) {
+        if (reviews == null) {
+            return;
+        }
+
+        Set<String> slugs = new LinkedHashSet<>();
+        for (Review review : reviews) {
+            slugs.add(review.getAuthor());
+        }
+        prefetch(slugs);
+    }
+
+    /**
+     * Returns the user with the provided slug.
+     * <p>
+     * The returned {@code Account} only includes the slug, the display name
+     * and the email address.
+     * </p>
+     *
+     * @param slug the user slug
+     * @return the {@code Account} if found; {@code null} otherwise
+     */
+    public Account resolve(String slug) {
+        if (StringUtils.isBlank(slug)) {
+            return null;
+        }
+
+        if (!accounts.containsKey(slug)) {
+            pending.add(slug);
+            loadPending();
+        }
+        return accounts.get(slug);
+    }
+
+    private void loadPending() {
+        Map<String, Account> results = service.findBySlugs(new ArrayList<>(pending));
+        for (String slug : pending) {
+            // the missing users are stored too, to avoid the same lookup again
+            accounts.put(slug, results.get(slug));
+        }
+        pending.clear();
+    }
+}
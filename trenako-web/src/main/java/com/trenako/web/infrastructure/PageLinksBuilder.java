@@ -30,7 +30,7 @@ public class PageLinksBuilder<T> {
     public static int DEFAULT_PAGE_SIZE = 25;
 
     public PageLinksBuilder(Page<T> page) {
-        this(page.getContent(), page.getNumberOfElements(), page.getTotalPages());
+        this(page.getContent(), page.getTotalElements(), page.getNumber() + 1, pageSize(page));
     }
 
     public PageLinksBuilder(List<T> data, long nrOfElements, int page) {
@@ -47,13 +47,11 @@ public class PageLinksBuilder<T> {
         this.nrOfElements = nrOfElements;
 
         this.pageCount = calculateNumberOfPages(nrOfElements, pageSize);
-        this.links = initLinks();
 
         this.firstPageLink = Math.max(1, getPage() - (DEFAULT_MAX_LINKED_PAGES / 2) - 1);
         this.lastPageLink = Math.min(getFirstPageLink() + DEFAULT_MAX_LINKED_PAGES - 1, getPageCount());
     }
 
-    private List<Integer> links;
     private List<T> data;
     private int page;
     private int pageSize;
@@ -67,13 +65,12 @@ public class PageLinksBuilder<T> {
         return (int) d;
     }
 
-    private List<Integer> initLinks() {
-        List<Integer> l = new ArrayList<>();
+    // the unpaged results have just one page, as large as their content
+    private static int pageSize(Page<?> page) {
+        if (page.getSize() > 0)
+            return page.getSize();
 
-        for (int i = 1; i <= getPageCount(); i++)
-            l.add(i);
-
-        return l;
+        return Math.max(1, page.getNumberOfElements());
     }
 
     public List<T> getData() {
@@ -112,8 +109,22 @@ public class PageLinksBuilder<T> {
         return lastPageLink;
     }
 
+    /**
+     * Returns the page numbers linked around the current page.
+     * <p>
+     * Only the pages in the window are generated, no matter how many pages
+     * are available.
+     * </p>
+     *
+     * @return the page numbers
+     */
     public List<Integer> getPageLinks() {
-        return links.subList(getFirstPageLink() - 1, getLastPageLink());
+        List<Integer> links = new ArrayList<>(Math.max(0, getLastPageLink() - getFirstPageLink() + 1));
+
+        for (int i = getFirstPageLink(); i <= getLastPageLink(); i++)
+            links.add(i);
+
+        return links;
     }
 
     public boolean showPreviousLink() {
@@ -15,30 +15,26 @@
  */
 package com.trenako.web.infrastructure;
 
-import java.beans.PropertyEditorSupport;
-import java.util.Date;
-
 import javax.servlet.ServletRequest;
 
-import org.apache.commons.lang3.time.DateFormatUtils;
-import org.apache.commons.lang3.time.DateUtils;
-import org.springframework.beans.PropertyValue;
-import org.springframework.beans.PropertyValues;
 import org.springframework.core.MethodParameter;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Sort.Direction;
-import org.springframework.web.bind.ServletRequestParameterPropertyValues;
-import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.support.WebDataBinderFactory;
 import org.springframework.web.context.request.NativeWebRequest;
 import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.method.support.ModelAndViewContainer;
 
+import com.trenako.results.RangeCursor;
 import com.trenako.results.RangeRequest;
-import com.trenako.results.RangeRequest.RangeTypes;
 
 /**
  * It represents a web request resolver for {@code RangeRequest}.
+ * <p>
+ * The request parameters are read directly, without data binding; the invalid
+ * values and the sort properties not supported by {@link RangeCursor#isSortable(String)}
+ * are ignored and the failback ones are used instead.
+ * </p>
  *
  * @author Carlo Micieli
  */
@@ -70,80 +66,49 @@ public class RangeRequestArgumentResolver implements HandlerMethodArgumentResolv
                                   WebDataBinderFactory webBinder) throws Exception {
 
         if (param.getParameterType().equals(RangeRequest.class)) {
-
-            RangeRequest rangeRequest = new RangeRequest(
-                    this.failbackRequest.getSort(),
-                    this.failbackRequest.getSize(),
-                    null,
-                    null);
             ServletRequest request =
                     (ServletRequest) webRequest.getNativeRequest();
 
-            PropertyValues propValues =
-                    new ServletRequestParameterPropertyValues(request);
-
-            WebDataBinder wdb =
-                    webBinder.createBinder(webRequest, rangeRequest, "");
-            wdb.registerCustomEditor(Sort.class, new SortPropertyEditor(propValues));
-            wdb.bind(propValues);
-
-            if (rangeRequest.getRangeType() == RangeTypes.DATES) {
-                parseSinceDate(rangeRequest);
-                parseMaxDate(rangeRequest);
-            }
-
-            return rangeRequest;
+            // the invalid cursors are ignored
+            return new RangeRequest(
+                    sort(request.getParameter(RangeRequest.SORT_NAME), request.getParameter(RangeRequest.ORDER_NAME)),
+                    size(request.getParameter(RangeRequest.SIZE_NAME)),
+                    RangeCursor.parse(request.getParameter(RangeRequest.SINCE_NAME)),
+                    RangeCursor.parse(request.getParameter(RangeRequest.MAX_NAME)));
         }
 
         return UNRESOLVED;
     }
 
-    private void parseSinceDate(RangeRequest rangeRequest) {
-        Object o = rangeRequest.getSince();
-        rangeRequest.setSince(parseDate(o));
-    }
-
-    private void parseMaxDate(RangeRequest rangeRequest) {
-        Object o = rangeRequest.getMax();
-        rangeRequest.setMax(parseDate(o));
-    }
-
-    private Date parseDate(Object since) {
-        if (since == null) return null;
-
-        try {
-            return DateUtils.parseDate(since.toString(),
-                    DateFormatUtils.ISO_DATETIME_FORMAT.getPattern());
-        } catch (Exception e) {
-            return null;
-        }
-    }
-
     @Override
     public boolean supportsParameter(MethodParameter par) {
         Class<?> paramType = par.getParameterType();
         return RangeRequest.class.isAssignableFrom(paramType);
     }
 
-    /**
-     * A {@code PropertyEditor} to process the order for the sort criteria.
-     *
-     * @author Carlo Micieli
-     */
-    private static class SortPropertyEditor extends PropertyEditorSupport {
-        private final PropertyValues values;
+    private Sort sort(String property, String order) {
+        // the rolling stocks can't be paginated by the other properties
+        if (!RangeCursor.isSortable(property)) {
+            return failbackRequest.getSort();
+        }
 
-        public SortPropertyEditor(PropertyValues values) {
-            this.values = values;
+        try {
+            Direction direction = order == null ? Direction.ASC : Direction.fromString(order);
+            return new Sort(direction, property);
+        } catch (IllegalArgumentException ex) {
+            return failbackRequest.getSort();
         }
+    }
 
-        @Override
-        public void setAsText(String text) throws IllegalArgumentException {
-            PropertyValue rawOrder = values.getPropertyValue(RangeRequest.ORDER_NAME);
-            Direction order = null == rawOrder
-                    ? Direction.ASC : Direction.fromString(rawOrder.getValue().toString());
+    private int size(String size) {
+        if (size == null) {
+            return failbackRequest.getSize();
+        }
 
-            setValue(new Sort(order, text));
+        try {
+            return Integer.parseInt(size.trim());
+        } catch (NumberFormatException ex) {
+            return failbackRequest.getSize();
         }
     }
 }
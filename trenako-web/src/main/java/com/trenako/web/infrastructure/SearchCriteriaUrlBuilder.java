@@ -15,12 +15,10 @@
  */
 package com.trenako.web.infrastructure;
 
-import org.apache.commons.beanutils.BeanUtils;
 import org.apache.commons.lang3.tuple.Pair;
 
 import com.trenako.criteria.Criteria;
 import com.trenako.criteria.SearchCriteria;
-import com.trenako.values.LocalizedEnum;
 
 /**
  * It represents a Url builder for {@code SearchCriteria}.
@@ -40,72 +38,45 @@ public class SearchCriteriaUrlBuilder {
      * @return the context path
      */
     public static String buildUrl(SearchCriteria sc) {
-        return buildInternal(sc, null, null, null);
+        return buildInternal(sc, null);
     }
 
+    /**
+     * Builds the context path adding (or replacing) a criterion.
+     * <p>
+     * To build the links for a list of values use {@link SearchLinks}, it
+     * builds the shared part of the urls only once.
+     * </p>
+     *
+     * @param sc           the {@code SearchCriteria}
+     * @param criteriaName the criterion name
+     * @param obj          the criterion value
+     * @return the context path
+     */
     public static String buildUrlAdding(SearchCriteria sc, String criteriaName, Object obj) {
-        return buildInternal(sc, criteriaName, obj, null);
+        return SearchLinks.adding(sc, criteriaName).url(obj);
     }
 
     public static String buildUrlRemoving(SearchCriteria sc, String criteriaName) {
-        return buildInternal(sc, null, null, criteriaName);
+        return buildInternal(sc, criteriaName);
     }
 
-    private static String buildInternal(SearchCriteria sc,
-                                        String addedCriteriaName,
-                                        Object addedObj,
-                                        String removedCriteriaName) {
-
+    private static String buildInternal(SearchCriteria sc, String removedCriteriaName) {
         StringBuilder sb = new StringBuilder();
 
         sb.append("/rs");
 
-        String newValue;
         for (Criteria criteria : SearchCriteria.KEYS) {
-            // added/replace a criterion with the provided value
-            if (addedCriteriaName != null &&
-                    addedCriteriaName.equals(criteria.criterionName())) {
-                newValue = extractValue(addedObj);
-                append(sb, addedCriteriaName, newValue);
-            }
             // remove the criterion
-            else if (removedCriteriaName != null &&
+            if (removedCriteriaName != null &&
                     removedCriteriaName.equals(criteria.criterionName())) {
                 continue;
-            } else {
-                append(sc, sb, criteria);
             }
-        }
-
-        return sb.toString();
-    }
 
-    private static String extractValue(Object obj) {
-        String val;
-        if (obj.getClass().equals(String.class)) {
-            // don't use reflection for strings
-            return obj.toString();
-        } else if (obj.getClass().isEnum()) {
-            val = safeGetProperty(obj, "label");
-        } else if (obj.getClass().equals(LocalizedEnum.class)) {
-            LocalizedEnum<?> le = (LocalizedEnum<?>) obj;
-            val = le.getKey();
-        } else {
-            val = safeGetProperty(obj, "slug");
+            append(sc, sb, criteria);
         }
 
-        return val;
-    }
-
-    private static String safeGetProperty(Object bean, String propertyName) {
-        String val;
-        try {
-            val = BeanUtils.getProperty(bean, propertyName);
-        } catch (Exception e) {
-            val = bean.toString();
-        }
-
-        return val;
+        return sb.toString();
     }
 
     private static void append(SearchCriteria sc, StringBuilder sb, Criteria criterion) {
@@ -118,11 +89,4 @@ public class SearchCriteriaUrlBuilder {
                 .append("/")
                 .append(criteria.getKey());
     }
-
-    private static void append(StringBuilder sb, String criteriaName, String criteriaValue) {
-        sb.append("/")
-                .append(criteriaName)
-                .append("/")
-                .append(criteriaValue);
-    }
 }
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2012 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.trenako.web.infrastructure;
+
+import org.apache.commons.lang3.tuple.Pair;
+
+import com.trenako.criteria.Criteria;
+import com.trenako.criteria.SearchCriteria;
+import com.trenako.mapping.DbReferenceable;
+import com.trenako.utility.Cat;
+import com.trenako.values.LocalizedEnum;
+
+/**
+ * It represents a generator for the search links that add (or replace) a
+ * criterion to the current {@code SearchCriteria}.
+ * <p>
+ * The url segments before and after the criterion are built once, therefore
+ * generating the links for a list of values only appends the value segment.
+ * The values are extracted with typed accessors, without reflection.
+ * </p>
+ *
+ * @author Carlo Micieli
+ * @see SearchCriteriaUrlBuilder
+ */
+public final class SearchLinks {
+
+    private static final String ROOT = "/rs";
+
+    private final String prefix;
+    private final String suffix;
+    private final boolean hasCriterion;
+
+    private SearchLinks(String prefix, String suffix, boolean hasCriterion) {
+        this.prefix = prefix;
+        this.suffix = suffix;
+        this.hasCriterion = hasCriterion;
+    }
+
+    /**
+     * Creates the links generator for the provided criterion.
+     *
+     * @param sc           the current {@code SearchCriteria}
+     * @param criteriaName the name of the criterion to be added
+     * @return the links generator
+     */
+    public static SearchLinks adding(SearchCriteria sc, String criteriaName) {
+        StringBuilder prefix = new StringBuilder(ROOT);
+        StringBuilder suffix = new StringBuilder();
+
+        StringBuilder sb = prefix;
+        boolean hasCriterion = false;
+        for (Criteria criteria : SearchCriteria.KEYS) {
+            if (criteria.criterionName().equals(criteriaName)) {
+                sb.append('/').append(criteriaName).append('/');
+                sb = suffix;
+                hasCriterion = true;
+                continue;
+            }
+
+            Pair<String, String> value = sc.get(criteria);
+            if (value != null) {
+                sb.append('/')
+                        .append(criteria.criterionName())
+                        .append('/')
+                        .append(value.getKey());
+            }
+        }
+
+        return new SearchLinks(prefix.toString(), suffix.toString(), hasCriterion);
+    }
+
+    /**
+     * Returns the link for the provided criterion value.
+     *
+     * @param value the value
+     * @return the link
+     */
+    public String url(Object value) {
+        if (!hasCriterion) {
+            return prefix;
+        }
+
+        String v = valueOf(value);
+        return new StringBuilder(prefix.length() + v.length() + suffix.length())
+                .append(prefix)
+                .append(v)
+                .append(suffix)
+                .toString();
+    }
+
+    /**
+     * Returns the url value for the provided object.
+     * <p>
+     * The entities are represented by their {@code slug}, the {@code enum} values
+     * by their {@code key}, the {@code Cat} and any other value by its string value.
+     * </p>
+     *
+     * @param obj the object
+     * @return the url value
+     */
+    public static String valueOf(Object obj) {
+        if (obj instanceof String) {
+            return (String) obj;
+        }
+        if (obj instanceof DbReferenceable) {
+            return ((DbReferenceable) obj).getSlug();
+        }
+        if (obj instanceof LocalizedEnum<?>) {
+            return ((LocalizedEnum<?>) obj).getKey();
+        }
+        if (obj instanceof Cat) {
+            return ((Cat) obj).toString();
+        }
+        return String.valueOf(obj);
+    }
+}
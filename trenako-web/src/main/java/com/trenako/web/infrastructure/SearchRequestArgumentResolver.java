@@ -15,20 +15,27 @@
  */
 package com.trenako.web.infrastructure;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import javax.servlet.http.HttpServletRequest;
 
-import org.springframework.beans.PropertyValues;
 import org.springframework.core.MethodParameter;
-import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.support.WebDataBinderFactory;
 import org.springframework.web.context.request.NativeWebRequest;
 import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.method.support.ModelAndViewContainer;
 
+import com.trenako.criteria.Criteria;
 import com.trenako.criteria.SearchRequest;
 
 /**
  * Resolves {@code SearchRequest} method arguments for controller actions.
+ * <p>
+ * The values parsed from the most recent paths are kept in a small LRU cache,
+ * a new {@code SearchRequest} is created for every request.
+ * </p>
  *
  * @author Carlo Micieli
  * @see com.trenako.criteria.SearchRequest
@@ -36,11 +43,32 @@ import com.trenako.criteria.SearchRequest;
 public class SearchRequestArgumentResolver implements HandlerMethodArgumentResolver {
 
     private static final Object UNRESOLVED = new Object();
+    private static final int DEFAULT_CACHE_SIZE = 256;
+
+    private final Map<String, Map<Criteria, String>> cache;
 
     /**
      * Creates a new {@code SearchRequestArgumentResolver}.
      */
     public SearchRequestArgumentResolver() {
+        this(DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * Creates a new {@code SearchRequestArgumentResolver}.
+     *
+     * @param cacheSize the max number of paths in the cache
+     */
+    public SearchRequestArgumentResolver(final int cacheSize) {
+        this.cache = Collections.synchronizedMap(
+                new LinkedHashMap<String, Map<Criteria, String>>(16, 0.75f, true) {
+                    private static final long serialVersionUID = 1L;
+
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, Map<Criteria, String>> eldest) {
+                        return size() > cacheSize;
+                    }
+                });
     }
 
     @Override
@@ -50,15 +78,9 @@ public class SearchRequestArgumentResolver implements HandlerMethodArgumentResol
                                   WebDataBinderFactory binderFactory) throws Exception {
 
         if (param.getParameterType().equals(SearchRequest.class)) {
-            SearchRequest searchRequest = new SearchRequest();
-
-            WebDataBinder webBinder = binderFactory.createBinder(webRequest, searchRequest, "");
-
             HttpServletRequest request =
                     (HttpServletRequest) webRequest.getNativeRequest();
-            PropertyValues pvs = new ServletRequestPathVariablesPropertyValues(request);
-            webBinder.bind(pvs);
-            return searchRequest;
+            return SearchRequestUrlParser.toRequest(parse(request.getRequestURI()));
         }
 
         return UNRESOLVED;
@@ -69,4 +91,24 @@ public class SearchRequestArgumentResolver implements HandlerMethodArgumentResol
         Class<?> paramType = par.getParameterType();
         return SearchRequest.class.isAssignableFrom(paramType);
     }
+
+    private Map<Criteria, String> parse(String requestUri) {
+        String path = canonicalPath(requestUri);
+
+        Map<Criteria, String> values = cache.get(path);
+        if (values == null) {
+            values = Collections.unmodifiableMap(SearchRequestUrlParser.parseValues(path));
+            cache.put(path, values);
+        }
+        return values;
+    }
+
+    // the trailing slashes don't change the search
+    private static String canonicalPath(String path) {
+        int end = path.length();
+        while (end > 0 && path.charAt(end - 1) == '/') {
+            end--;
+        }
+        return end == path.length() ? path : path.substring(0, end);
+    }
 }
@@ -15,57 +15,155 @@
  */
 package com.trenako.web.infrastructure;
 
+import java.util.EnumMap;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.Stack;
 
 import org.springframework.util.Assert;
 
 import com.trenako.criteria.Criteria;
+import com.trenako.criteria.SearchCriteria;
+import com.trenako.criteria.SearchRequest;
 
 /**
  * It represents a parser for a servlet path based representation
  * of {@code SearchRequest} objects.
+ * <p>
+ * The path is tokenized in a single pass; the tokens are matched against
+ * the criteria names in place, without splitting the path.
+ * </p>
  *
  * @author Carlo Micieli
  */
 public class SearchRequestUrlParser {
 
-    private static final List<String> SEARCH_CRITERIA_KEYS = (List<String>) Criteria.keys();
-
     /**
      * Parses the {@code path} string, matching the {@code SearchCriteria} property names.
      * <p>
      * This method is able to manage paths with wrong sequences, in this case
-     * the values outside the correct sequence are simply ignored.
+     * the values outside the correct sequence are simply ignored. The segment
+     * after the {@code text} key is always its value, even when it matches
+     * a criterion name.
      * </p>
      *
      * @param path the {@code path} string
      * @return a {@code Map} with the extracted values
      */
     public static Map<String, String> parseUrl(String path) {
+        Map<Criteria, String> values = parseValues(path);
+
+        Map<String, String> names = new HashMap<>();
+        for (Map.Entry<Criteria, String> entry : values.entrySet()) {
+            names.put(entry.getKey().criterionName(), entry.getValue());
+        }
+        return names;
+    }
+
+    /**
+     * Parses the {@code path} string as a {@code SearchRequest}.
+     *
+     * @param path the {@code path} string
+     * @return the {@code SearchRequest}
+     */
+    public static SearchRequest parseRequest(String path) {
+        return toRequest(parseValues(path));
+    }
+
+    /**
+     * Parses the {@code path} string, matching the {@code SearchCriteria} property names.
+     * <p>
+     * As {@link #parseUrl(String)} the values outside the correct sequence are
+     * ignored; when a criterion is repeated, its last value is returned.
+     * </p>
+     *
+     * @param path the {@code path} string
+     * @return the extracted values
+     */
+    public static Map<Criteria, String> parseValues(String path) {
         Assert.notNull(path, "Path must be not null");
 
-        Map<String, String> values = new HashMap<>();
-        Stack<String> stack = new Stack<>();
-        String[] tokens = path.split("/");
-        for (String tk : tokens) {
-            if (SEARCH_CRITERIA_KEYS.contains(tk)) {
-                if (!stack.isEmpty()) {
-                    // a different key name was found, but no value was provided
-                    // (ie /key1/key2/value2)
-                    stack.pop();
-                }
-                stack.push(tk);
-            } else {
-                if (!stack.isEmpty()) {
-                    // match this value with the key name in the stack
-                    values.put(stack.pop(), tk);
-                }
+        // the trailing empty segments are ignored
+        int end = path.length();
+        while (end > 0 && path.charAt(end - 1) == '/') {
+            end--;
+        }
+
+        Map<Criteria, String> values = new EnumMap<>(Criteria.class);
+        Criteria key = null;
+        int start = 0;
+        while (start <= end) {
+            int next = path.indexOf('/', start);
+            if (next == -1 || next > end) {
+                next = end;
+            }
+
+            // the full-text value is free, it is never parsed as a key name
+            // (ie /text/brand)
+            Criteria criteria = key == Criteria.TEXT ? null : criteriaFor(path, start, next);
+            if (criteria != null) {
+                // a different key name replaces the one without value
+                // (ie /key1/key2/value2)
+                key = criteria;
+            } else if (key != null) {
+                // match this value with the last key name
+                values.put(key, path.substring(start, next));
+                key = null;
             }
+
+            start = next + 1;
         }
 
         return values;
     }
+
+    /**
+     * Creates a new {@code SearchRequest} with the provided values.
+     *
+     * @param values the criteria values
+     * @return the {@code SearchRequest}
+     */
+    public static SearchRequest toRequest(Map<Criteria, String> values) {
+        SearchRequest request = new SearchRequest();
+        for (Map.Entry<Criteria, String> entry : values.entrySet()) {
+            String value = entry.getValue();
+            switch (entry.getKey()) {
+                case BRAND:
+                    request.setBrand(value);
+                    break;
+                case SCALE:
+                    request.setScale(value);
+                    break;
+                case CAT:
+                    request.setCat(value);
+                    break;
+                case RAILWAY:
+                    request.setRailway(value);
+                    break;
+                case ERA:
+                    request.setEra(value);
+                    break;
+                case POWER_METHOD:
+                    request.setPowermethod(value);
+                    break;
+                case CATEGORY:
+                    request.setCategory(value);
+                    break;
+                case TEXT:
+                    request.setText(value);
+                    break;
+            }
+        }
+        return request;
+    }
+
+    private static Criteria criteriaFor(String path, int start, int end) {
+        int length = end - start;
+        for (Criteria criteria : SearchCriteria.KEYS) {
+            String name = criteria.criterionName();
+            if (name.length() == length && path.regionMatches(start, name, 0, length)) {
+                return criteria;
+            }
+        }
+        return null;
+    }
 }
@@ -27,8 +27,8 @@ import org.springframework.context.MessageSource;
 import com.trenako.activities.Activity;
 import com.trenako.activities.ActivityVerb;
 import com.trenako.entities.Account;
-import com.trenako.services.AccountsService;
 import com.trenako.values.LocalizedEnum;
+import com.trenako.web.infrastructure.ActorsResolver;
 
 import static com.trenako.utility.PeriodUtils.*;
 
@@ -42,7 +42,7 @@ public class ActivityTags extends SpringTagSupport {
 
 	private MessageSource messageSource;
 	private Activity activity;
-	private AccountsService accountsService;
+	private ActorsResolver actorsResolver;
 
 	@Autowired
 	protected void setMessageSource(MessageSource messageSource) {
@@ -50,16 +50,16 @@ public class ActivityTags extends SpringTagSupport {
 	}
 	
 	@Autowired
-	protected void setAccountsService(AccountsService accountsService) {
-		this.accountsService = accountsService;
+	protected void setActorsResolver(ActorsResolver actorsResolver) {
+		this.actorsResolver = actorsResolver;
 	}
 	
 	public void setActivity(Activity activity) {
 		this.activity = activity;
 	}
 
-	AccountsService users() {
-		return accountsService;
+	ActorsResolver users() {
+		return actorsResolver;
 	}
 	
 	Activity activity() {
@@ -76,7 +76,7 @@ public class ActivityTags extends SpringTagSupport {
 		
 		StringBuilder sb = new StringBuilder();
 		
-		Account user = users().findBySlug(activity().getActor());
+		Account user = users().resolve(activity().getActor());
 		
 		String slug = user == null ? activity().getActor() : user.getSlug();
 		String displayName = user == null ? activity().getActor() : user.getDisplayName();
@@ -23,7 +23,7 @@ import javax.servlet.jsp.JspWriter;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import com.trenako.entities.Account;
-import com.trenako.services.AccountsService;
+import com.trenako.web.infrastructure.ActorsResolver;
 
 import de.bripkens.gravatar.DefaultImage;
 import de.bripkens.gravatar.Gravatar;
@@ -46,7 +46,7 @@ public class AvatarTags extends SpringTagSupport {
 	
 	private static final int DEFAULT_SIZE = 48;
 
-	private AccountsService userService;
+	private ActorsResolver actorsResolver;
 	
 	private int size;
 	private String user;
@@ -70,8 +70,8 @@ public class AvatarTags extends SpringTagSupport {
 	}
 	
 	@Autowired
-	public void setAccountsService(AccountsService accountsService) {
-		this.userService = accountsService;
+	public void setActorsResolver(ActorsResolver actorsResolver) {
+		this.actorsResolver = actorsResolver;
 	}
 	
 	int getSize() {
@@ -97,7 +97,7 @@ public class AvatarTags extends SpringTagSupport {
 	protected int writeTagContent(JspWriter jspWriter, String contextPath)
 			throws JspException {
 
-		Account account = userService.findBySlug(getUser());
+		Account account = actorsResolver.resolve(getUser());
 		if (account == null) {
 			return SKIP_BODY;
 		}
@@ -41,7 +41,7 @@ public class BrandsSearchTags extends SearchBarItemTags {
 				brands = getService().brands();
 			}
 			
-			jspWriter.append(render(brands, Criteria.BRAND, contextPath).toString());
+			render(jspWriter, brands, Criteria.BRAND, contextPath);
 			
 		} catch (IOException e) {
 			throw new JspException(e);
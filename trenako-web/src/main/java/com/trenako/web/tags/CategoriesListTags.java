@@ -16,8 +16,7 @@
 package com.trenako.web.tags;
 
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Map;
 
 import javax.servlet.jsp.JspException;
 import javax.servlet.jsp.JspWriter;
@@ -26,16 +25,17 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.MessageSource;
 import org.springframework.util.Assert;
 
+import com.trenako.criteria.Criteria;
 import com.trenako.criteria.SearchCriteria;
 import com.trenako.entities.Brand;
 import com.trenako.entities.Scale;
+import com.trenako.facets.FacetCounts;
+import com.trenako.facets.FacetKey;
 import com.trenako.services.ScalesService;
 import com.trenako.utility.Cat;
 import com.trenako.values.PowerMethod;
-import com.trenako.web.tags.html.HtmlTag;
-
-import static com.trenako.web.infrastructure.SearchCriteriaUrlBuilder.*;
-import static com.trenako.web.tags.html.HtmlBuilder.*;
+import com.trenako.web.infrastructure.SearchLinks;
+import com.trenako.web.tags.html.HtmlWriter;
 
 /**
  * 
@@ -47,6 +47,7 @@ public class CategoriesListTags extends SpringTagSupport {
 
 	private @Autowired MessageSource messageSource;
 	private @Autowired ScalesService service;
+	private @Autowired FacetCounts facetCounts;
 	
 	private String contextPath;
 	private Brand brand;
@@ -73,6 +74,10 @@ public class CategoriesListTags extends SpringTagSupport {
 		this.service = service;
 	}
 	
+	void setFacetCounts(FacetCounts facetCounts) {
+		this.facetCounts = facetCounts;
+	}
+	
 	void setMessageSource(MessageSource messageSource) {
 		this.messageSource = messageSource;
 	}
@@ -85,45 +90,46 @@ public class CategoriesListTags extends SpringTagSupport {
 		
 		this.contextPath = contextPath;
 		try {
+			HtmlWriter html = new HtmlWriter(jspWriter);
 
 			if (getBrand().getScales() == null || getBrand().getScales().size() == 0) {
-				jspWriter.write(snippet(div().cssClass("row-fluid")).build());
+				html.newLine().start("div").attr("class", "row-fluid").end("div");
 				return SKIP_BODY;
 			}
 			
-			List<HtmlTag> rows = new ArrayList<HtmlTag>(); 
-			
 			int numOfScales = getBrand().getScales().size();
 			int numOfRows = (int) Math.ceil(numOfScales / (double) getColumns());
 
 			String[] scales = (String[]) getBrand().getScales().toArray(new String[numOfScales]);
+			Map<String, Scale> scalesBySlug = service.findBySlugs(getBrand().getScales());
+			String spanClass = spanClass();
 			
 			for (int row = 0; row < numOfRows; row++) {   
-				HtmlTag[] cols = new HtmlTag[getColumns()];
+				html.newLine().start("div").attr("class", "row-fluid");
 				
 				for (int col = 0; col < getColumns(); col++) {
 					int n = col + (getColumns() * row);
 					if (scales.length > n) {
 						String slug = scales[n];
 						
-						Scale scale = service.findBySlug(slug);
+						Scale scale = scalesBySlug.get(slug);
 						if (scale == null) {
 							continue;
 						}
 						
-						cols[col] = div(buildScale(scale)).cssClass(spanClass());
+						html.newLine().start("div").attr("class", spanClass);
+						writeScale(html, scale);
+						html.end("div");
 					}
 					// pad the rows with empty columns
 					else {
-						cols[col] = div().cssClass(spanClass());
+						html.newLine().start("div").attr("class", spanClass).end("div");
 					}
 				}
 			
-				rows.add(div(cols).cssClass("row-fluid"));
+				html.end("div");
 			}
 			
-			jspWriter.write(snippet(tags(rows)).build());
-			
 		} catch (IOException e) {
 			e.printStackTrace();
 		}
@@ -131,38 +137,44 @@ public class CategoriesListTags extends SpringTagSupport {
 		return SKIP_BODY;
 	}
 	
-	private HtmlTag buildScale(Scale scale) {
-		List<HtmlTag> list = new ArrayList<HtmlTag>();
-		
+	private void writeScale(HtmlWriter html, Scale scale) throws IOException {
 		SearchCriteria sc = new SearchCriteria.Builder()
 			.brand(getBrand())
 			.scale(scale)
 			.build();
 		
-		list.add(h2(scale.getLabel()));
+		html.newLine().newLine().element("h2", scale.getLabel());
 		
 		if (scale.getPowerMethods() == null || scale.getPowerMethods().size() == 0) {
-			appendCategoryList(list, sc, PowerMethod.DC);
+			writeCategoryList(html, sc, PowerMethod.DC);
 		}
 		else {
 			for (PowerMethod pm : PowerMethod.values()) {
 				if (scale.getPowerMethods().contains(pm.label())) {
-					appendCategoryList(list, sc, pm);
+					writeCategoryList(html, sc, pm);
 				}
 			}
 		}
-		
-		return snippet(tags(list));		
 	}
 	
-	private void appendCategoryList(List<HtmlTag> list, SearchCriteria sc, PowerMethod pm) {
-		List<HtmlTag> items = new ArrayList<HtmlTag>();
+	private void writeCategoryList(HtmlWriter html, SearchCriteria sc, PowerMethod pm) throws IOException {
+		html.newLine().start("ul").attr("class", "unstyled");
+		
 		Iterable<Cat> categories = Cat.list(pm, messageSource);
+		FacetKey key = facetCounts != null ? FacetKey.of(sc) : null;
+		SearchLinks links = SearchLinks.adding(sc, Criteria.CAT.criterionName());
 		for (Cat cat : categories) {
-			items.add(li(a(cat.label()).href(contextPath, buildUrlAdding(sc, "cat", cat))));
+			html.newLine().start("li")
+				.newLine().start("a").attr("href", contextPath, links.url(cat)).text(cat.label()).end("a");
+			if (key != null) {
+				int count = facetCounts.count(key.with(Criteria.CAT, cat.toString()));
+				html.newLine().raw(" ")
+					.newLine().start("span").attr("class", "muted").raw("(").number(count).raw(")").end("span");
+			}
+			html.end("li");
 		}
 		
-		list.add(ul(tags(items)).cssClass("unstyled"));
+		html.end("ul");
 	}
 	
 	private String spanClass() {
@@ -41,7 +41,7 @@ public class CategoriesSearchTags extends SearchBarItemTags {
 				categories = getService().categories();
 			}
 			
-			jspWriter.append(render(categories, Criteria.CATEGORY, contextPath).toString());
+			render(jspWriter, categories, Criteria.CATEGORY, contextPath);
 			
 		} catch (IOException e) {
 			throw new JspException(e);
@@ -41,7 +41,7 @@ public class ErasSearchTags extends SearchBarItemTags {
 				eras = getService().eras();
 			}
 			
-			jspWriter.append(render(eras, Criteria.ERA, contextPath).toString());
+			render(jspWriter, eras, Criteria.ERA, contextPath);
 			
 		} catch (IOException e) {
 			throw new JspException(e);
@@ -16,18 +16,30 @@
 package com.trenako.web.tags;
 
 import java.io.IOException;
+import java.io.UnsupportedEncodingException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import javax.servlet.jsp.JspException;
 import javax.servlet.jsp.JspWriter;
 
 import org.springframework.data.domain.Page;
+import org.springframework.web.util.UriUtils;
 
+import com.trenako.results.RangeRequest;
+import com.trenako.web.infrastructure.PageLinksBuilder;
 import com.trenako.web.tags.html.HtmlTag;
 import static com.trenako.web.tags.html.HtmlBuilder.*;
 
 /**
+ * It represents a tag to render the pagination links for admin pages.
+ * <p>
+ * Only a sliding window of pages around the current one is linked, no matter
+ * how many pages are available. The optional {@code since} and {@code max} cursors,
+ * when provided, are added to the next and previous links to move between pages
+ * without skipping the previous items.
+ * </p>
  * 
  * @author Carlo Micieli
  *
@@ -36,6 +48,8 @@ import static com.trenako.web.tags.html.HtmlBuilder.*;
 public class PaginationTags extends SpringTagSupport {
 
 	private Page<?> page;
+	private Object since;
+	private Object max;
 		
 	public Page<?> getPage() {
 		return page;
@@ -45,18 +59,43 @@ public class PaginationTags extends SpringTagSupport {
 		this.page = page;
 	}
 
+	public Object getSince() {
+		return since;
+	}
+
+	public void setSince(Object since) {
+		this.since = since;
+	}
+
+	public Object getMax() {
+		return max;
+	}
+
+	public void setMax(Object max) {
+		this.max = max;
+	}
+
 	@Override
 	protected int writeTagContent(JspWriter jspWriter, String contextPath)
 			throws JspException {
 		
 		String path = getRequestContext().getPathToServlet();
 		
-		int page = getPage().getNumber() + 1;
-		int numberOfPages = getPage().getTotalPages();
+		PageLinksBuilder<?> links = pageLinks(getPage());
+		int page = links.getPage();
+		String params = otherParameters();
 		
 		List<HtmlTag> items = new ArrayList<HtmlTag>();
-		for (Integer p = 1; p <= numberOfPages; p++) {
-			HtmlTag a = a(p.toString()).href(path + "?page.page=" + p);
+		if (links.showPreviousLink()) {
+			String href = path + "?page.page=" + (page - 1) + cursor(RangeRequest.MAX_NAME, getMax()) + params;
+			items.add(li(a("&laquo;").href(href)));
+		}
+		else {
+			items.add(li(a("&laquo;").href("#")).cssClass("disabled"));
+		}
+		
+		for (Integer p : links.getPageLinks()) {
+			HtmlTag a = a(p.toString()).href(path + "?page.page=" + p + params);
 			
 			if (page == p) {
 				items.add(li(a).cssClass("active"));
@@ -66,6 +105,14 @@ public class PaginationTags extends SpringTagSupport {
 			}
 		}
 		
+		if (links.showNextLink()) {
+			String href = path + "?page.page=" + (page + 1) + cursor(RangeRequest.SINCE_NAME, getSince()) + params;
+			items.add(li(a("&raquo;").href(href)));
+		}
+		else {
+			items.add(li(a("&raquo;").href("#")).cssClass("disabled"));
+		}
+		
 		HtmlTag pagination = div(ul(tags(items))).cssClass("pagination pagination-centered");
 		
 		try {
@@ -77,4 +124,46 @@ public class PaginationTags extends SpringTagSupport {
 		return SKIP_BODY;
 	}
 
+	private static <T> PageLinksBuilder<T> pageLinks(Page<T> page) {
+		return new PageLinksBuilder<T>(page);
+	}
+
+	private static String cursor(String name, Object value) throws JspException {
+		if (value == null || value.toString().isEmpty()) {
+			return "";
+		}
+		
+		try {
+			return "&" + name + "=" + UriUtils.encodeQueryParam(value.toString(), "UTF-8");
+		} catch (UnsupportedEncodingException e) {
+			throw new JspException(e);
+		}
+	}
+
+	// keeps the request parameters (ie the filters) other than the page number and cursors
+	private String otherParameters() throws JspException {
+		StringBuilder sb = new StringBuilder();
+		
+		@SuppressWarnings("unchecked")
+		Map<String, String[]> params = pageContext.getRequest().getParameterMap();
+		try {
+			for (Map.Entry<String, String[]> param : params.entrySet()) {
+				if (param.getKey().equals("page.page") || 
+						param.getKey().equals(RangeRequest.SINCE_NAME) || 
+						param.getKey().equals(RangeRequest.MAX_NAME)) {
+					continue;
+				}
+				for (String value : param.getValue()) {
+					sb.append("&")
+						.append(UriUtils.encodeQueryParam(param.getKey(), "UTF-8"))
+						.append("=")
+						.append(UriUtils.encodeQueryParam(value, "UTF-8"));
+				}
+			}
+		} catch (UnsupportedEncodingException e) {
+			throw new JspException(e);
+		}
+		return sb.toString();
+	}
+
 }
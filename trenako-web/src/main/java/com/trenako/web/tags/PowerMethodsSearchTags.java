@@ -41,7 +41,7 @@ public class PowerMethodsSearchTags extends SearchBarItemTags {
 				powerMethods = getService().powerMethods();
 			}
 			
-			jspWriter.append(render(powerMethods, Criteria.POWER_METHOD, contextPath).toString());
+			render(jspWriter, powerMethods, Criteria.POWER_METHOD, contextPath);
 			
 		} catch (IOException e) {
 			throw new JspException(e);
@@ -41,7 +41,7 @@ public class RailwaysSearchTags extends SearchBarItemTags {
 				railways = getService().railways();
 			}
 			
-			jspWriter.append(render(railways, Criteria.RAILWAY, contextPath).toString());
+			render(jspWriter, railways, Criteria.RAILWAY, contextPath);
 			
 		} catch (IOException e) {
 			throw new JspException(e);
@@ -41,7 +41,7 @@ public class ScalesSearchTags extends SearchBarItemTags {
 				scales = getService().scales();
 			}
 			
-			jspWriter.append(render(scales, Criteria.SCALE, contextPath).toString());
+			render(jspWriter, scales, Criteria.SCALE, contextPath);
 			
 		} catch (IOException e) {
 			throw new JspException(e);
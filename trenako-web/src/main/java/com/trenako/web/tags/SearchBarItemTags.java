@@ -15,12 +15,11 @@
  */
 package com.trenako.web.tags;
 
-import static com.trenako.web.infrastructure.SearchCriteriaUrlBuilder.*;
-import static com.trenako.web.tags.html.HtmlBuilder.*;
+import static com.trenako.web.infrastructure.SearchCriteriaUrlBuilder.buildUrlRemoving;
 import static org.apache.commons.beanutils.BeanUtils.*;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.io.IOException;
+import java.io.Writer;
 
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -28,11 +27,14 @@ import org.springframework.context.MessageSource;
 
 import com.trenako.criteria.Criteria;
 import com.trenako.criteria.SearchCriteria;
+import com.trenako.facets.FacetCounts;
+import com.trenako.facets.FacetKey;
 import com.trenako.mapping.DbReferenceable;
 import com.trenako.results.SearchRange;
 import com.trenako.services.BrowseService;
 import com.trenako.values.LocalizedEnum;
-import com.trenako.web.tags.html.HtmlTag;
+import com.trenako.web.infrastructure.SearchLinks;
+import com.trenako.web.tags.html.HtmlWriter;
 
 /**
  * 
@@ -44,6 +46,7 @@ public abstract class SearchBarItemTags extends SpringTagSupport {
 
 	private @Autowired MessageSource messageSource;
 	private @Autowired BrowseService service;
+	private @Autowired FacetCounts facetCounts;
 	
 	private String label;
 
@@ -55,6 +58,10 @@ public abstract class SearchBarItemTags extends SpringTagSupport {
 		return service;
 	}
 	
+	void setFacetCounts(FacetCounts facetCounts) {
+		this.facetCounts = facetCounts;
+	}
+	
 	void setMessageSource(MessageSource messageSource) {
 		this.messageSource = messageSource;
 	}
@@ -113,6 +120,18 @@ public abstract class SearchBarItemTags extends SpringTagSupport {
 		return obj.toString();
 	}
 	
+	public String valueFor(Object obj) {
+		if (obj instanceof LocalizedEnum<?>) {
+			return ((LocalizedEnum<?>) obj).getKey();
+		}
+		
+		if (obj instanceof DbReferenceable) {
+			return ((DbReferenceable) obj).getSlug();
+		}
+		
+		return obj.toString();
+	}
+	
 	protected String safeGetProperty(Object bean, String name) {
 		try {
 			return getProperty(bean, name);
@@ -121,33 +140,47 @@ public abstract class SearchBarItemTags extends SpringTagSupport {
 		}
 	}
 	
-	protected <E> HtmlTag render(Iterable<E> items, Criteria criteria, String contextPath) {
+	protected <E> void render(Writer out, Iterable<E> items, Criteria criteria, String contextPath) 
+			throws IOException {
 		String criteriaName = criteria.criterionName();
-		List<HtmlTag> tagsList = new ArrayList<HtmlTag>();
 		String label = getMessageSource().getMessage("searchBar." + criteriaName + ".title.label", 
 				null, 
 				criteriaName, 
 				null);
 		
-		tagsList.add(li(label).cssClass("nav-header"));
+		HtmlWriter html = new HtmlWriter(out);
+		html.newLine().start("li").attr("class", "nav-header").text(label).end("li");
 		
 		SearchCriteria searchCriteria = getCriteria();
 		// check if a criteria for this class has been already selected
 		if (searchCriteria.has(criteria)) {
 			String url = buildUrlRemoving(searchCriteria, criteriaName);
 			
-			tagsList.add(li(a(searchCriteria.get(criteria).getValue()).href("#")).cssClass("active"));
-			tagsList.add(li("").cssClass("divider"));
-			tagsList.add(li(a("remove").href(contextPath, url)));
+			html.newLine().start("li").attr("class", "active")
+				.newLine().start("a").attr("href", "#").text(searchCriteria.get(criteria).getValue()).end("a")
+				.end("li");
+			html.newLine().start("li").attr("class", "divider").end("li");
+			html.newLine().start("li")
+				.newLine().start("a").attr("href", contextPath, url).text("remove").end("a")
+				.end("li");
 		}
 		else {
+			// the facet counts don't include the full-text searches
+			FacetKey key = facetCounts != null && !searchCriteria.hasText() ? 
+					FacetKey.of(searchCriteria) : null;
+			SearchLinks links = SearchLinks.adding(searchCriteria, criteriaName);
 			for (E it : items) {
-				String url = buildUrlAdding(searchCriteria, criteriaName, it);
+				String url = links.url(it);
 				
-				tagsList.add(snippet(li(a(labelFor(it)).href(contextPath, url))));
+				html.newLine().newLine().start("li")
+					.newLine().start("a").attr("href", contextPath, url).text(labelFor(it)).end("a");
+				if (key != null) {
+					int count = facetCounts.count(key.with(criteria, valueFor(it)));
+					html.newLine().raw(" ")
+						.newLine().start("span").attr("class", "muted").raw("(").number(count).raw(")").end("span");
+				}
+				html.end("li");
 			}
 		}
-		
-		return snippet(tags(tagsList));
 	}
 }
@@ -19,7 +19,6 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.jsp.JspException;
 import javax.servlet.jsp.JspWriter;
 
-import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
 import org.springframework.web.context.WebApplicationContext;
 import org.springframework.web.servlet.tags.HtmlEscapingAwareTag;
 
@@ -31,10 +30,10 @@ import org.springframework.web.servlet.tags.HtmlEscapingAwareTag;
 @SuppressWarnings("serial")
 public abstract class SpringTagSupport extends HtmlEscapingAwareTag {
 
+	// the collaborators are resolved once for every tag class
 	private void init() {
 		WebApplicationContext wac = getRequestContext().getWebApplicationContext();
-        AutowireCapableBeanFactory acbf = wac.getAutowireCapableBeanFactory();
-        acbf.autowireBean(this);
+		TagInjector.forContext(wac).inject(this);
 	}
 	
 	@Override
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2012 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.trenako.web.tags;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.servlet.ServletContext;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.beans.factory.config.DependencyDescriptor;
+import org.springframework.core.MethodParameter;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.context.WebApplicationContext;
+
+/**
+ * It represents the injector for the collaborators of the custom tags.
+ * <p>
+ * The {@code @Autowired} fields and methods for a tag class are found, and their
+ * dependencies resolved, only the first time the tag is used; the following
+ * tags of the same class are injected with the cached collaborators, without
+ * going through the bean factory.
+ * </p>
+ * <p>
+ * The tag collaborators are expected to be singletons (or scoped proxies), as
+ * the same instances are used for all the tags of a class.
+ * </p>
+ *
+ * @author Carlo Micieli
+ *
+ */
+final class TagInjector {
+
+	private static final String INJECTOR_ATTRIBUTE = TagInjector.class.getName();
+
+	private final AutowireCapableBeanFactory beanFactory;
+	private final ConcurrentMap<Class<?>, List<Injection>> plans = 
+			new ConcurrentHashMap<Class<?>, List<Injection>>();
+
+	TagInjector(AutowireCapableBeanFactory beanFactory) {
+		this.beanFactory = beanFactory;
+	}
+
+	/**
+	 * Returns the {@code TagInjector} for the provided web application context.
+	 * <p>
+	 * The injector is stored as servlet context attribute.
+	 * </p>
+	 *
+	 * @param wac the web application context
+	 * @return the {@code TagInjector}
+	 */
+	static TagInjector forContext(WebApplicationContext wac) {
+		AutowireCapableBeanFactory beanFactory = wac.getAutowireCapableBeanFactory();
+		ServletContext servletContext = wac.getServletContext();
+
+		TagInjector injector = (TagInjector) servletContext.getAttribute(INJECTOR_ATTRIBUTE);
+		if (injector == null || injector.beanFactory != beanFactory) {
+			injector = new TagInjector(beanFactory);
+			servletContext.setAttribute(INJECTOR_ATTRIBUTE, injector);
+		}
+		return injector;
+	}
+
+	/**
+	 * Injects the collaborators in the provided tag.
+	 *
+	 * @param tag the tag
+	 */
+	void inject(Object tag) {
+		for (Injection injection : plan(tag.getClass())) {
+			injection.apply(tag);
+		}
+	}
+
+	private List<Injection> plan(Class<?> tagClass) {
+		List<Injection> plan = plans.get(tagClass);
+		if (plan == null) {
+			plan = buildPlan(tagClass);
+			List<Injection> existing = plans.putIfAbsent(tagClass, plan);
+			if (existing != null) {
+				plan = existing;
+			}
+		}
+		return plan;
+	}
+
+	private List<Injection> buildPlan(Class<?> tagClass) {
+		List<Injection> plan = new ArrayList<Injection>();
+
+		// the superclass members are injected first, as the bean factory does
+		List<Class<?>> hierarchy = new ArrayList<Class<?>>();
+		for (Class<?> c = tagClass; c != null && c != Object.class; c = c.getSuperclass()) {
+			hierarchy.add(0, c);
+		}
+
+		for (Class<?> c : hierarchy) {
+			for (Field field : c.getDeclaredFields()) {
+				Autowired autowired = field.getAnnotation(Autowired.class);
+				if (autowired == null || Modifier.isStatic(field.getModifiers())) {
+					continue;
+				}
+
+				Object value = resolve(new DependencyDescriptor(field, autowired.required()));
+				if (value != null) {
+					ReflectionUtils.makeAccessible(field);
+					plan.add(new FieldInjection(field, value));
+				}
+			}
+
+			for (Method method : c.getDeclaredMethods()) {
+				Autowired autowired = method.getAnnotation(Autowired.class);
+				if (autowired == null || Modifier.isStatic(method.getModifiers()) || 
+						method.getParameterTypes().length != 1) {
+					continue;
+				}
+
+				Object value = resolve(new DependencyDescriptor(new MethodParameter(method, 0), autowired.required()));
+				if (value != null) {
+					ReflectionUtils.makeAccessible(method);
+					plan.add(new MethodInjection(method, value));
+				}
+			}
+		}
+
+		return Collections.unmodifiableList(plan);
+	}
+
+	private Object resolve(DependencyDescriptor descriptor) {
+		return beanFactory.resolveDependency(descriptor, null);
+	}
+
+	private interface Injection {
+		void apply(Object tag);
+	}
+
+	private static class FieldInjection implements Injection {
+		private final Field field;
+		private final Object value;
+
+		FieldInjection(Field field, Object value) {
+			this.field = field;
+			this.value = value;
+		}
+
+		@Override
+		public void apply(Object tag) {
+			ReflectionUtils.setField(field, tag, value);
+		}
+	}
+
+	private static class MethodInjection implements Injection {
+		private final Method method;
+		private final Object value;
+
+		MethodInjection(Method method, Object value) {
+			this.method = method;
+			this.value = value;
+		}
+
+		@Override
+		public void apply(Object tag) {
+			ReflectionUtils.invokeMethod(method, tag, value);
+		}
+	}
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright 2012 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.trenako.web.tags.html;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * It represents a streaming HTML writer.
+ * <p>
+ * Unlike the {@link HtmlBuilder} tags, the markup is written straight to the
+ * underlying {@code Writer} without building a tree of tags or intermediate strings.
+ * The text bodies and the attribute values are escaped.
+ * </p>
+ * <p>
+ * The attributes are written in the same order they are provided; to produce
+ * the same markup as {@link HtmlTag#build()} they must be sorted by name.
+ * </p>
+ *
+ * @author Carlo Micieli
+ *
+ */
+public class HtmlWriter {
+
+	private final Writer out;
+	private boolean openTag;
+
+	/**
+	 * Creates a new {@code HtmlWriter}.
+	 * @param out the underlying writer
+	 */
+	public HtmlWriter(Writer out) {
+		this.out = out;
+	}
+
+	/**
+	 * Starts a new tag; the attributes can follow.
+	 * @param name the tag name
+	 * @return this writer
+	 * @throws IOException
+	 */
+	public HtmlWriter start(String name) throws IOException {
+		closeOpenTag();
+		out.write('<');
+		out.write(name);
+		openTag = true;
+		return this;
+	}
+
+	/**
+	 * Writes an attribute for the current tag.
+	 * @param name the attribute name
+	 * @param value the attribute value
+	 * @return this writer
+	 * @throws IOException
+	 */
+	public HtmlWriter attr(String name, String value) throws IOException {
+		out.write(' ');
+		out.write(name);
+		out.write("=\"");
+		escape(value);
+		out.write('"');
+		return this;
+	}
+
+	/**
+	 * Writes an attribute for the current tag; the value is the
+	 * concatenation of the two parts.
+	 * @param name the attribute name
+	 * @param prefix the value first part
+	 * @param value the value second part
+	 * @return this writer
+	 * @throws IOException
+	 */
+	public HtmlWriter attr(String name, String prefix, String value) throws IOException {
+		out.write(' ');
+		out.write(name);
+		out.write("=\"");
+		escape(prefix);
+		escape(value);
+		out.write('"');
+		return this;
+	}
+
+	/**
+	 * Writes an escaped text.
+	 * @param text the text
+	 * @return this writer
+	 * @throws IOException
+	 */
+	public HtmlWriter text(String text) throws IOException {
+		closeOpenTag();
+		escape(text);
+		return this;
+	}
+
+	/**
+	 * Writes a text without escaping.
+	 * @param html the markup
+	 * @return this writer
+	 * @throws IOException
+	 */
+	public HtmlWriter raw(String html) throws IOException {
+		closeOpenTag();
+		if (html != null) {
+			out.write(html);
+		}
+		return this;
+	}
+
+	/**
+	 * Writes an integer value.
+	 * @param value the value
+	 * @return this writer
+	 * @throws IOException
+	 */
+	public HtmlWriter number(int value) throws IOException {
+		closeOpenTag();
+		if (value < 0) {
+			out.write(Integer.toString(value));
+			return this;
+		}
+		if (value >= 10) {
+			number(value / 10);
+		}
+		out.write('0' + value % 10);
+		return this;
+	}
+
+	/**
+	 * Writes a new line, as the {@link HtmlBuilder} tags do
+	 * before each inner tag.
+	 * @return this writer
+	 * @throws IOException
+	 */
+	public HtmlWriter newLine() throws IOException {
+		closeOpenTag();
+		out.write('\n');
+		return this;
+	}
+
+	/**
+	 * Ends the tag.
+	 * @param name the tag name
+	 * @return this writer
+	 * @throws IOException
+	 */
+	public HtmlWriter end(String name) throws IOException {
+		closeOpenTag();
+		out.write("</");
+		out.write(name);
+		out.write('>');
+		return this;
+	}
+
+	/**
+	 * Writes a tag with a text body.
+	 * @param name the tag name
+	 * @param text the tag text
+	 * @return this writer
+	 * @throws IOException
+	 */
+	public HtmlWriter element(String name, String text) throws IOException {
+		return start(name).text(text).end(name);
+	}
+
+	private void closeOpenTag() throws IOException {
+		if (openTag) {
+			out.write('>');
+			openTag = false;
+		}
+	}
+
+	// writes the unescaped runs without copying them
+	private void escape(String s) throws IOException {
+		if (s == null) {
+			return;
+		}
+
+		int start = 0;
+		for (int i = 0; i < s.length(); i++) {
+			String entity = entityFor(s.charAt(i));
+			if (entity != null) {
+				out.write(s, start, i - start);
+				out.write(entity);
+				start = i + 1;
+			}
+		}
+		out.write(s, start, s.length() - start);
+	}
+
+	private static String entityFor(char c) {
+		switch (c) {
+			case '&':
+				return "&amp;";
+			case '<':
+				return "&lt;";
+			case '>':
+				return "&gt;";
+			case '"':
+				return "&quot;";
+			case '\'':
+				return "&#39;";
+			default:
+				return null;
+		}
+	}
+}
@@ -39,7 +39,7 @@
 					<s:param name="brand" value="${brand.slug}"/>
 					<s:param name="category" value="${category.key}"/>
 				</s:url>
-				<li><a class="browse" href="${brandUrl}" title="${brand.label}">${brand.name}</a></li> 
+				<li><a class="browse" href="${brandUrl}" title="${brand.label}">${brand.name}</a> <span class="muted">(${brandCounts[brand.slug]})</span></li> 
 			</c:forEach>
 			</ul>
 		</div>
@@ -59,7 +59,7 @@
 					<s:param name="railway" value="${railway.slug}"/>
 					<s:param name="category" value="${category.key}"/>
 				</s:url>
-				<li><a class="browse" href="${railwayUrl}" title="${railway.label}">${railway.name}</a></li> 
+				<li><a class="browse" href="${railwayUrl}" title="${railway.label}">${railway.name}</a> <span class="muted">(${railwayCounts[railway.slug]})</span></li> 
 			</c:forEach>
 			</ul>
 		</div>
@@ -42,7 +42,7 @@
 							<s:url var="brandUrl" value="/browse/brands/{slug}">
 								<s:param name="slug" value="${brand.slug}"/>
 							</s:url>
-							<li><a class="browse" href="${brandUrl}" title="${brand.label}">${brand.name}</a></li>
+							<li><a class="browse" href="${brandUrl}" title="${brand.label}">${brand.name}</a> <span class="muted">(${brandCounts[brand.slug]})</span></li>
 						</c:forEach>
 						</ul>
 					</div>
@@ -62,7 +62,7 @@
 							<s:url var="railwayUrl" value="/browse/railways/{slug}">
 								<s:param name="slug" value="${r.slug}"/>
 							</s:url>
-							<li><a class="browse" href="${railwayUrl}" title="${r.label}">${r.name}</a></li>
+							<li><a class="browse" href="${railwayUrl}" title="${r.label}">${r.name}</a> <span class="muted">(${railwayCounts[r.slug]})</span></li>
 						</c:forEach>
 						</ul>
 					</div>
@@ -82,7 +82,7 @@
 							<s:url var="scaleUrl" value="/browse/scales/{slug}">
 								<s:param name="slug" value="${s.slug}"/>
 							</s:url>
-							<li><a class="browse" href="${scaleUrl}" title="${s.label}">${s.name}</a></li>
+							<li><a class="browse" href="${scaleUrl}" title="${s.label}">${s.name}</a> <span class="muted">(${scaleCounts[s.slug]})</span></li>
 						</c:forEach>
 						</ul>
 					</div>
@@ -102,7 +102,7 @@
 							<s:url var="eraUrl" value="/browse/eras/{slug}">
 								<s:param name="slug" value="${era.key}"/>
 							</s:url>
-							<li><a class="browse" href="${eraUrl}" title="${era.description}">${era.label}</a></li> 
+							<li><a class="browse" href="${eraUrl}" title="${era.description}">${era.label}</a> <span class="muted">(${eraCounts[era.key]})</span></li> 
 						</c:forEach>
 						</ul>
 					</div>
@@ -122,7 +122,7 @@
 							<s:url var="catUrl" value="/browse/categories/{slug}">
 								<s:param name="slug" value="${cat.key}"/>
 							</s:url>
-							<li><a class="browse" href="${catUrl}" title="${cat.description}">${cat.label}</a></li> 
+							<li><a class="browse" href="${catUrl}" title="${cat.description}">${cat.label}</a> <span class="muted">(${categoryCounts[cat.key]})</span></li> 
 						</c:forEach>
 						</ul>
 					</div>
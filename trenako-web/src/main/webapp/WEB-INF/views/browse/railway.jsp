@@ -59,7 +59,7 @@
 						<s:param name="railway" value="${railway.slug}"/>
 						<s:param name="era" value="${era.key}"/>
 					</s:url>
-					<li><a class="browse" href="${eraUrl}" title="${era.description}">${era.label}</a></li> 
+					<li><a class="browse" href="${eraUrl}" title="${era.description}">${era.label}</a> <span class="muted">(${eraCounts[era.key]})</span></li> 
 				</c:forEach>
 				</ul>
 			</div>
@@ -80,7 +80,7 @@
 						<s:param name="railway" value="${railway.slug}"/>
 						<s:param name="category" value="${cat.key}"/>
 					</s:url>
-					<li><a class="browse" href="${categoryUrl}" title="${cat.description}">${cat.label}</a></li> 
+					<li><a class="browse" href="${categoryUrl}" title="${cat.description}">${cat.label}</a> <span class="muted">(${categoryCounts[cat.key]})</span></li> 
 				</c:forEach>
 				</ul>
 			</div>
@@ -13,6 +13,10 @@
 <body>
 	<div class="row-fluid">
 		<div class="span2">
+			<s:url var="searchUrl" value="/rs"/>
+			<form action="${searchUrl}" method="get" class="form-search">
+				<input type="text" name="q" id="q" class="input-medium search-query" autocomplete="off" placeholder="<s:message code="rolling.stock.search.placeholder"/>"/>
+			</form>
 			<tk:searchBar results="${results}">
 				<tk:brands label="name" />
 				<tk:railways label="name" />
@@ -120,5 +124,38 @@
         	
 		</div>
 	</div>
+	
+	<s:url var="autocompleteUrl" value="/autocomplete"/>
+	<s:url var="rsUrl" value="/rs"/>
+	<s:url var="rollingStocksUrl" value="/rollingstocks"/>
+	<script type="text/javascript">
+		$(document).ready(function() {
+			var suggestions = {};
+			$('#q').typeahead({
+				minLength: 2,
+				source: function(query, process) {
+					$.getJSON("${autocompleteUrl}", { q: query, limit: 5 }, function(data) {
+						suggestions = {};
+						process($.map(data, function(s) {
+							suggestions[s.label] = s;
+							return s.label;
+						}));
+					});
+				},
+				matcher: function(item) {
+					return true;
+				},
+				updater: function(item) {
+					var s = suggestions[item];
+					if (s.type == "rollingstock") {
+						window.location = "${rollingStocksUrl}/" + s.slug;
+					} else {
+						window.location = "${rsUrl}/" + s.type + "/" + s.slug;
+					}
+					return item;
+				}
+			});
+		});
+	</script>
 </body>
 </html>
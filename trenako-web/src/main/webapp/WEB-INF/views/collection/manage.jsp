@@ -37,42 +37,51 @@
 			<div class="span3" style="padding: 0 20px 0 15px">
 				<ul class="unstyled">
 					<li>
-						<s:message code="you.count.steam.locomotives.label"/>
+						<a href="?"><s:message code="collection.all.items.label"/></a>
+						<span class="badge pull-right">${collection.categories.totalCount}</span>
+					</li>
+					<li>
+						<a href="?category=steam-locomotives"<c:if test="${category eq 'steam-locomotives'}"> class="active"</c:if>><s:message code="you.count.steam.locomotives.label"/></a>
 						<span class="badge badge-info pull-right">${collection.categories.steamLocomotives}</span>
 					</li>
 					<li>
-						<s:message code="you.count.diesel.locomotives.label"/>
+						<a href="?category=diesel-locomotives"<c:if test="${category eq 'diesel-locomotives'}"> class="active"</c:if>><s:message code="you.count.diesel.locomotives.label"/></a>
 						<span class="badge badge-info pull-right">${collection.categories.dieselLocomotives}</span>
 					</li> 
 					<li>
-						<s:message code="you.count.electric.locomotives.label"/>
+						<a href="?category=electric-locomotives"<c:if test="${category eq 'electric-locomotives'}"> class="active"</c:if>><s:message code="you.count.electric.locomotives.label"/></a>
 						<span class="badge badge-info pull-right">${collection.categories.electricLocomotives}</span>
 					</li>
 					<li>
-						<s:message code="you.count.railcars.label"/>
+						<a href="?category=railcars"<c:if test="${category eq 'railcars'}"> class="active"</c:if>><s:message code="you.count.railcars.label"/></a>
 						<span class="badge badge-info pull-right">${collection.categories.railcars}</span>
 					</li>
 					<li>
-						<s:message code="you.count.electric.multiple.unit.label"/>
+						<a href="?category=electric-multiple-unit"<c:if test="${category eq 'electric-multiple-unit'}"> class="active"</c:if>><s:message code="you.count.electric.multiple.unit.label"/></a>
 						<span class="badge badge-info pull-right">${collection.categories.electricMultipleUnit}</span>
 					</li>
 					<li>
-						<s:message code="you.count.passenger.cars.label"/>
+						<a href="?category=passenger-cars"<c:if test="${category eq 'passenger-cars'}"> class="active"</c:if>><s:message code="you.count.passenger.cars.label"/></a>
 						<span class="badge badge-info pull-right">${collection.categories.passengerCars}</span>
 					</li>
 					<li>
-						<s:message code="you.count.freight.cars.label"/>
+						<a href="?category=freight-cars"<c:if test="${category eq 'freight-cars'}"> class="active"</c:if>><s:message code="you.count.freight.cars.label"/></a>
 						<span class="badge badge-info pull-right">${collection.categories.freightCars}</span>
 					</li>
 					<li>
-						<s:message code="you.count.train.sets.label"/>
+						<a href="?category=train-sets"<c:if test="${category eq 'train-sets'}"> class="active"</c:if>><s:message code="you.count.train.sets.label"/></a>
 						<span class="badge badge-info pull-right">${collection.categories.trainSets}</span>
 					</li>
 					<li>
-						<s:message code="you.count.starter.sets.label"/>
+						<a href="?category=starter-sets"<c:if test="${category eq 'starter-sets'}"> class="active"</c:if>><s:message code="you.count.starter.sets.label"/></a>
 						<span class="badge badge-info pull-right">${collection.categories.starterSets}</span>
 					</li>					
 				</ul>
+				<h4><s:message code="collection.condition.label"/></h4>
+				<ul class="unstyled">
+					<li><a href="?condition=new"><tk:evalValue type="Condition" expression="new"/></a></li>
+					<li><a href="?condition=pre-owned"><tk:evalValue type="Condition" expression="pre-owned"/></a></li>
+				</ul>
 			</div>
 			<div class="span9">
 				<c:if test="${not empty message}">
@@ -200,7 +209,7 @@
 					<div class="span12">
 						<hr>
 						
-						<c:if test="${empty collection.items}">
+						<c:if test="${collection.categories.totalCount eq 0}">
 							<div class="well">
 								<h4><s:message code="collection.empty.label"/></h4> 
 								<s:url var="rollingStocksUrl" value="/rs"/>
@@ -208,7 +217,11 @@
 							</div>
 						</c:if>
 						
-						<c:forEach var="item" items="${collection.items}">
+						<c:if test="${empty items.content and collection.categories.totalCount gt 0}">
+							<h4><s:message code="collection.no.items.label"/></h4>
+						</c:if>
+						
+						<c:forEach var="item" items="${items.content}">
 							<s:url var="rsUrl" value="/rollingstocks/{slug}">
 								<s:param name="slug" value="${item.rollingStock.slug}" />
 							</s:url>
@@ -252,6 +265,8 @@
 							</div>
 							<hr/>
 						</c:forEach>
+						
+						<tk:pagination page="${items}"/>
 					</div>
 				</div>
 			</div>
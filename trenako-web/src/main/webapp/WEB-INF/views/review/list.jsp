@@ -2,6 +2,7 @@
 <%@ taglib uri="http://www.springframework.org/tags" prefix="s" %>
 <%@ taglib uri="http://www.springframework.org/tags/form" prefix="form" %>
 <%@ taglib uri="/WEB-INF/tlds/TrenakoTagLib.tld" prefix="tk" %>
+<%@ taglib tagdir="/WEB-INF/tags/html" prefix="html" %>
 
 <html>
 	<head>
@@ -48,6 +49,7 @@
 				<div class="span9">
 					<div class="well">
 						<s:message code="review.info.label" arguments="${reviews.numberOfReviews}, ${reviews.rating}"/>
+						<html:ratings reviews="${reviews}"/>
 					</div>
 				
 					<c:forEach var="rev" items="${reviews.items}">
@@ -69,6 +71,10 @@
            			</div>
            			<hr>						
 					</c:forEach>
+					
+					<c:if test="${not empty page}">
+						<tk:pagination page="${page}"/>
+					</c:if>
 				</div>
 			</div>
 		</div>	
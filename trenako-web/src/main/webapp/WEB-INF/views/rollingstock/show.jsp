@@ -3,6 +3,7 @@
 <%@ taglib uri="http://www.springframework.org/tags/form" prefix="form" %>
 <%@ taglib uri="http://www.springframework.org/security/tags" prefix="sec" %>
 <%@ taglib uri="/WEB-INF/tlds/TrenakoTagLib.tld" prefix="tk" %>
+<%@ taglib tagdir="/WEB-INF/tags/html" prefix="html" %>
 
 <html>
 	<head>
@@ -87,6 +88,7 @@
 				</sec:authorize>
 				<p>
 					<s:message code="rollingStock.review.info.label" arguments="${result.reviews.numberOfReviews}, ${result.reviews.rating}"/>
+					<html:ratings reviews="${result.reviews}"/>
 					<s:url var="reviewsUrl" value="/rollingstocks/{slug}/reviews">
 						<s:param name="slug" value="${result.rs.slug}"></s:param>
 					</s:url>
@@ -191,6 +193,16 @@
            			</div>
            			<hr>
     	       		</c:forEach>
+    	       		<c:if test="${result.hasPreviousComments() or result.hasNextComments()}">
+    	       		<ul class="pager">
+    	       			<c:if test="${result.hasPreviousComments()}">
+    	       			<li class="previous"><a href="?page.page=${result.commentsPage - 1}">&larr; <s:message code="rollingStock.previous.comments.label"/></a></li>
+    	       			</c:if>
+    	       			<c:if test="${result.hasNextComments()}">
+    	       			<li class="next"><a href="?page.page=${result.commentsPage + 1}"><s:message code="rollingStock.next.comments.label"/> &rarr;</a></li>
+    	       			</c:if>
+    	       		</ul>
+    	       		</c:if>
         	  	</div>
             </div>
             <div class="span4">
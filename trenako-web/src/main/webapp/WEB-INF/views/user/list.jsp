@@ -1,4 +1,5 @@
 <%@ taglib uri="http://java.sun.com/jsp/jstl/core" prefix="c" %>
+<%@ taglib uri="http://java.sun.com/jsp/jstl/functions" prefix="fn" %>
 <%@ taglib uri="http://www.springframework.org/tags" prefix="s" %>
 <%@ taglib uri="http://www.springframework.org/tags/form" prefix="form" %>
 <%@ taglib uri="/WEB-INF/tlds/TrenakoTagLib.tld" prefix="tk" %>
@@ -66,7 +67,9 @@
 					</tbody>
 				</table>
 				
-				<tk:pagination page="${users}"/>
+				<tk:pagination page="${users}" 
+					since="${users.content[fn:length(users.content) - 1].id}" 
+					max="${users.content[0].id}"/>
 			</div>
 		</div>
 	</body>
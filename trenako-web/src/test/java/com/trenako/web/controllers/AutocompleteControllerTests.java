@@ -0,0 +1,101 @@
+/*
+ * Copyright 2012 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.trenako.web.controllers;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import com.trenako.search.AutocompleteIndex;
+import com.trenako.search.Suggestion;
+
+/**
+ * 
+ * @author Carlo Micieli
+ *
+ */
+public class AutocompleteControllerTests {
+
+	@Mock AutocompleteIndex index;
+	AutocompleteController controller;
+	
+	@Before
+	public void setUp() {
+		MockitoAnnotations.initMocks(this);
+		controller = new AutocompleteController(index);
+	}
+	
+	@Test
+	public void shouldReturnTheSuggestionsForEveryType() {
+		when(index.suggest(eq("ac"), eq(AutocompleteIndex.DEFAULT_LIMIT))).thenReturn(Arrays.asList(
+				new Suggestion(Suggestion.Type.BRAND, "acme", "ACME"),
+				new Suggestion(Suggestion.Type.ROLLING_STOCK, "acme-123456", "ACME 123456")));
+		
+		ResponseEntity<String> resp = controller.suggest("ac", null, null);
+		
+		assertEquals(HttpStatus.OK, resp.getStatusCode());
+		assertEquals(MediaType.APPLICATION_JSON.getSubtype(), resp.getHeaders().getContentType().getSubtype());
+		assertEquals("UTF-8", resp.getHeaders().getContentType().getCharSet().name());
+		assertEquals("[{\"type\":\"brand\",\"slug\":\"acme\",\"label\":\"ACME\"}," +
+				"{\"type\":\"rollingstock\",\"slug\":\"acme-123456\",\"label\":\"ACME 123456\"}]", resp.getBody());
+	}
+	
+	@Test
+	public void shouldReturnTheSuggestionsForTheProvidedType() {
+		when(index.suggest(eq("ac"), eq(Suggestion.Type.BRAND), eq(5))).thenReturn(Arrays.asList(
+				new Suggestion(Suggestion.Type.BRAND, "acme", "ACME")));
+		
+		ResponseEntity<String> resp = controller.suggest("ac", "brand", 5);
+		
+		assertEquals("[{\"type\":\"brand\",\"slug\":\"acme\",\"label\":\"ACME\"}]", resp.getBody());
+	}
+	
+	@Test
+	public void shouldLimitTheNumberOfSuggestions() {
+		when(index.suggest(eq("ac"), anyInt())).thenReturn(Collections.<Suggestion>emptyList());
+		
+		ResponseEntity<String> resp = controller.suggest("ac", null, 1000);
+		
+		verify(index, times(1)).suggest(eq("ac"), eq(AutocompleteController.MAX_LIMIT));
+		assertEquals("[]", resp.getBody());
+	}
+	
+	@Test
+	public void shouldRejectUnknownSuggestionTypes() {
+		ResponseEntity<String> resp = controller.suggest("ac", "wagon", null);
+		
+		assertEquals(HttpStatus.BAD_REQUEST, resp.getStatusCode());
+		verifyZeroInteractions(index);
+	}
+	
+	@Test
+	public void shouldEscapeTheJsonStrings() {
+		String json = AutocompleteController.toJson(Arrays.asList(
+				new Suggestion(Suggestion.Type.BRAND, "a-b", "A \"B\" <C>\\")));
+		
+		assertEquals("[{\"type\":\"brand\",\"slug\":\"a-b\",\"label\":\"A \\\"B\\\" \\u003cC\\u003e\\\\\"}]", json);
+	}
+}
@@ -21,6 +21,7 @@ import static org.mockito.Mockito.*;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -30,6 +31,8 @@ import org.mockito.MockitoAnnotations;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.springframework.web.servlet.ModelAndView;
 
+import com.trenako.criteria.Criteria;
+import com.trenako.criteria.SearchRequest;
 import com.trenako.entities.Brand;
 import com.trenako.entities.Railway;
 import com.trenako.entities.Scale;
@@ -156,6 +159,19 @@ public class BrowseControllerTests {
 		assertModelAttributeValue(mav, "eras", ERAS);
 	}
 	
+	@Test
+	public void shouldRenderTheRollingStockCountsInTheRailwayHomepage() {
+		Map<String, Integer> eraCounts = Collections.singletonMap("iv", 42);
+		SearchRequest sc = new SearchRequest();
+		sc.setRailway("fs");
+		when(mockService.countRollingStocks(eq(Criteria.ERA), eq(sc))).thenReturn(eraCounts);
+		
+		ModelAndView mav = controller.railway("fs");
+		
+		assertModelAttributeValue(mav, "eraCounts", eraCounts);
+		verify(mockService, times(1)).countRollingStocks(eq(Criteria.CATEGORY), eq(sc));
+	}
+	
 	@Test
 	public void shouldRenderTheScalesPage() {
 		
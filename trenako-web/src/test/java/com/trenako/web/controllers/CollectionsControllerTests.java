@@ -19,12 +19,18 @@ import static org.mockito.Mockito.*;
 import static org.junit.Assert.*;
 import static com.trenako.test.TestDataBuilder.*;
 
+import java.util.Arrays;
+
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.ui.ModelMap;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
@@ -70,22 +76,43 @@ public class CollectionsControllerTests {
 	@Test
 	public void shouldShowCollections() {
 		String slug = "bob";
-		when(service.findBySlug(eq(slug))).thenReturn(new Collection(owner()));
+		Pageable paging = new PageRequest(0, 10);
+		Collection coll = new Collection(owner());
+		Page<CollectionItem> items = new PageImpl<CollectionItem>(Arrays.asList(new CollectionItem()));
+		when(service.findSummaryBySlug(eq(slug), eq(0))).thenReturn(coll);
+		when(service.findItems(eq(coll), isNull(String.class), isNull(String.class), eq(paging))).thenReturn(items);
 		when(usersService.findBySlug(eq(slug))).thenReturn(new Account());
 		
-		String viewName = controller.show(slug, model);
+		String viewName = controller.show(slug, null, null, paging, model);
 		
 		assertEquals("collection/show", viewName);
 		assertTrue("Collection not found", model.containsAttribute("collection"));
+		assertEquals(items, model.get("items"));
+	}
+	
+	@Test
+	public void shouldShowCollectionsFilteredByCategory() {
+		String slug = "bob";
+		Pageable paging = new PageRequest(0, 10);
+		Collection coll = new Collection(owner());
+		when(service.findSummaryBySlug(eq(slug), eq(0))).thenReturn(coll);
+		when(usersService.findBySlug(eq(slug))).thenReturn(new Account());
+		
+		String viewName = controller.show(slug, "electric-locomotives", "new", paging, model);
+		
+		assertEquals("collection/show", viewName);
+		verify(service, times(1)).findItems(eq(coll), eq("electric-locomotives"), eq("new"), eq(paging));
+		assertEquals("electric-locomotives", model.get("category"));
+		assertEquals("new", model.get("condition"));
 	}
 	
 	@Test(expected = NotFoundException.class)
 	public void shouldReturnNotFoundIfTheCollectionDoesntExist() {
 		String slug = "not-found";
-		when(service.findBySlug(eq(slug))).thenReturn(null);
+		when(service.findSummaryBySlug(eq(slug), eq(0))).thenReturn(null);
 		
 		@SuppressWarnings("unused")
-		String viewName = controller.show(slug, model);
+		String viewName = controller.show(slug, null, null, new PageRequest(0, 10), model);
 	}
 	
 	@Test
@@ -19,6 +19,7 @@ import static org.mockito.Mockito.*;
 import static org.junit.Assert.*;
 
 import java.util.Collections;
+import java.util.Locale;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -29,11 +30,12 @@ import org.springframework.ui.ModelMap;
 
 import com.trenako.activities.Activity;
 import com.trenako.entities.Account;
-import com.trenako.entities.RollingStock;
+import com.trenako.results.RollingStockSummary;
 import com.trenako.security.AccountDetails;
 import com.trenako.services.HomeService;
 import com.trenako.services.view.HomeView;
 import com.trenako.web.security.UserContext;
+import com.trenako.web.infrastructure.ActorsResolver;
 
 /**
  * 
@@ -46,32 +48,34 @@ public class HomeControllerTests {
 	HomeController controller;
 	private @Mock HomeService mockService;
 	private @Mock UserContext mockUserContext;
+	private @Mock ActorsResolver mockActors;
 	
 	@Before
 	public void setup() {
-		controller = new HomeController(mockService, mockUserContext);
+		controller = new HomeController(mockService, mockUserContext, mockActors);
 	}
 	
 	@Test
 	public void shouldRenderHomepageForAnonymousUsers() {
-		when(mockService.getHomeContent((Account)isNull()))
+		when(mockService.getHomeContent((Account)isNull(), eq(Locale.ITALIAN)))
 			.thenReturn(homeContent(false));
 		ModelMap model = new ModelMap();
 		
-		String viewName = controller.home(model);
+		String viewName = controller.home(model, Locale.ITALIAN);
 		
 		assertEquals("home/index", viewName);
 		assertEquals(homeContent(false), model.get("content"));
+		verify(mockActors, times(1)).prefetchActivities(eq(homeContent(false).getActivityStream()));
 	}
 	
 	@Test
 	public void shouldRenderHomepageForLoggedUsers() {
 		when(mockUserContext.getCurrentUser()).thenReturn(new AccountDetails(loggedUser()));
-		when(mockService.getHomeContent(eq(loggedUser())))
+		when(mockService.getHomeContent(eq(loggedUser()), eq(Locale.ITALIAN)))
 			.thenReturn(homeContent(true));
 		ModelMap model = new ModelMap();
 		
-		String viewName = controller.home(model);
+		String viewName = controller.home(model, Locale.ITALIAN);
 		
 		assertEquals("home/index", viewName);
 		assertEquals(homeContent(true), model.get("content"));
@@ -108,7 +112,7 @@ public class HomeControllerTests {
 	}
 	
 	HomeView homeContent(boolean isLogged) {
-		Iterable<RollingStock> rollingStocks = Collections.emptyList();
+		Iterable<RollingStockSummary> rollingStocks = Collections.emptyList();
 		Iterable<Activity> activityStream = Collections.emptyList();
 		
 		return new HomeView(isLogged, rollingStocks, activityStream);
@@ -16,7 +16,6 @@
 package com.trenako.web.controllers;
 
 import static org.mockito.Mockito.*;
-import static org.junit.Assert.*;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -24,8 +23,8 @@ import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.runners.MockitoJUnitRunner;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 
 import com.trenako.web.images.WebImageService;
 
@@ -40,8 +39,6 @@ public class ImagesControllerTests {
 	@Mock WebImageService mockService;
 	ImagesController controller;
 	
-	private final static ResponseEntity<byte[]> resp = new ResponseEntity<byte[]>(HttpStatus.CREATED);
-	
 	@Before
 	public void setup() {
 		MockitoAnnotations.initMocks(this);
@@ -51,22 +48,33 @@ public class ImagesControllerTests {
 	@Test
 	public void shouldRenderImages() {
 		String imgSlug = "brand_ls-models";
-		when(mockService.renderImage(eq(imgSlug))).thenReturn(resp);
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		MockHttpServletResponse response = new MockHttpServletResponse();
 		
-		ResponseEntity<byte[]> value = controller.renderImage(imgSlug);
+		controller.renderImage(imgSlug, null, request, response);
 		
-		verify(mockService, times(1)).renderImage(eq(imgSlug));
-		assertNotNull(value);
+		verify(mockService, times(1)).renderImage(eq(imgSlug), (Integer) isNull(), eq(request), eq(response));
 	}
 	
 	@Test
 	public void shouldRenderThumbs() {
 		String thumbSlug = "th_brand_ls-models";
-		when(mockService.renderImage(eq(thumbSlug))).thenReturn(resp);
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		
+		controller.renderImage(thumbSlug, null, request, response);
+		
+		verify(mockService, times(1)).renderImage(eq(thumbSlug), (Integer) isNull(), eq(request), eq(response));
+	}
+	
+	@Test
+	public void shouldRenderImageRenditions() {
+		String imgSlug = "brand_ls-models";
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		MockHttpServletResponse response = new MockHttpServletResponse();
 		
-		ResponseEntity<byte[]> value = controller.renderImage(thumbSlug);
+		controller.renderImage(imgSlug, 240, request, response);
 		
-		verify(mockService, times(1)).renderImage(eq(thumbSlug));
-		assertNotNull(value);
+		verify(mockService, times(1)).renderImage(eq(imgSlug), eq(240), eq(request), eq(response));
 	}
 }
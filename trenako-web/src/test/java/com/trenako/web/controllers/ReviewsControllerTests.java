@@ -26,6 +26,8 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.ui.ModelMap;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
@@ -39,6 +41,7 @@ import com.trenako.services.ReviewsService;
 import com.trenako.services.RollingStocksService;
 import com.trenako.web.controllers.form.ReviewForm;
 import com.trenako.web.security.UserContext;
+import com.trenako.web.infrastructure.ActorsResolver;
 
 /**
  * 
@@ -48,11 +51,14 @@ import com.trenako.web.security.UserContext;
 @RunWith(MockitoJUnitRunner.class)
 public class ReviewsControllerTests {
 
+	static final Pageable PAGING = new PageRequest(0, 10);
+
 	@Mock UserContext mockUserContext;
 	@Mock BindingResult mockResult;
 	@Mock RedirectAttributes mockRedirectAtts;
 	@Mock ReviewsService mockService;
 	@Mock RollingStocksService mockRsService;
+	@Mock ActorsResolver mockActors;
 	
 	private ReviewsController controller;
 	
@@ -62,7 +68,7 @@ public class ReviewsControllerTests {
 		
 		when(mockUserContext.getCurrentUser()).thenReturn(new AccountDetails(author()));
 		
-		controller = new ReviewsController(mockService, mockRsService);
+		controller = new ReviewsController(mockService, mockRsService, mockActors);
 		controller.setUserContext(mockUserContext);
 	}
 	
@@ -73,9 +79,9 @@ public class ReviewsControllerTests {
 		RollingStockReviews value = new RollingStockReviews();
 		
 		when(mockRsService.findBySlug(eq(slug))).thenReturn(rollingStock());
-		when(mockService.findByRollingStock(rollingStock())).thenReturn(value);
+		when(mockService.findByRollingStock(eq(rollingStock()), eq(PAGING))).thenReturn(value);
 		
-		String viewName = controller.reviews(slug, model);
+		String viewName = controller.reviews(slug, PAGING, model);
 		
 		assertEquals("review/list", viewName);
 		
@@ -83,6 +89,8 @@ public class ReviewsControllerTests {
 		assertNotNull("Rolling stock not found", rs);
 		RollingStockReviews reviews = (RollingStockReviews) model.get("reviews");
 		assertNotNull("Review not found", reviews);
+		verify(mockActors, times(1)).prefetchReviews(eq(value.getItems()));
+		assertTrue("Page not found", model.containsAttribute("page"));
 	}
 	
 	@Test
@@ -32,6 +32,8 @@ import org.mockito.MockitoAnnotations;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.springframework.dao.DuplicateKeyException;
 import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.ui.ExtendedModelMap;
@@ -61,6 +63,7 @@ import com.trenako.web.errors.NotFoundException;
 import com.trenako.web.images.UploadRequest;
 import com.trenako.web.images.WebImageService;
 import com.trenako.web.security.UserContext;
+import com.trenako.web.infrastructure.ActorsResolver;
 
 /**
  * 
@@ -77,6 +80,7 @@ public class RollingStocksControllerTests {
 	static final List<LocalizedEnum<Era>> ERAS = (List<LocalizedEnum<Era>>) LocalizedEnum.list(Era.class); 
 	static final List<LocalizedEnum<PowerMethod>> POWERMETHODS = (List<LocalizedEnum<PowerMethod>>) LocalizedEnum.list(PowerMethod.class);
 	static final List<LocalizedEnum<Category>> CATEGORIES = (List<LocalizedEnum<Category>>) LocalizedEnum.list(Category.class);
+	static final Pageable PAGING = new PageRequest(0, 10);
 
 	@Mock MultipartFile mockFile;
 	@Mock RedirectAttributes mockRedirect;
@@ -84,13 +88,14 @@ public class RollingStocksControllerTests {
 	@Mock WebImageService imgService;
 	@Mock RollingStocksService service;
 	@Mock FormValuesService valuesService;
+	@Mock ActorsResolver actors;
 	
 	RollingStocksController controller;
 	
 	@Before
 	public void setup() {
 		MockitoAnnotations.initMocks(this);
-		controller = new RollingStocksController(service, valuesService, imgService);
+		controller = new RollingStocksController(service, valuesService, imgService, actors);
 		controller.setUserContext(mockSecurity());
 		
 		when(valuesService.brands()).thenReturn(BRANDS);
@@ -110,12 +115,12 @@ public class RollingStocksControllerTests {
 	public void shouldRenderRollingStockViews() {
 		String slug = "acme-123456";
 		RollingStockView value = new RollingStockView(rollingStock(), null, null, null);
-		when(service.findRollingStockView(eq(slug), (Account) isNull())).thenReturn(value);
+		when(service.findRollingStockView(eq(slug), (Account) isNull(), eq(PAGING))).thenReturn(value);
 		
 		ModelMap model = new ExtendedModelMap();
 
 		controller.setUserContext(null);
-		String viewName = controller.show(slug, model);
+		String viewName = controller.show(slug, PAGING, model);
 		
 		assertEquals("rollingstock/show", viewName);
 		assertTrue(model.containsAttribute("result"));
@@ -123,17 +128,18 @@ public class RollingStocksControllerTests {
 		
 		CommentForm commentForm = (CommentForm) model.get("commentForm");
 		assertNull("Comment is not null", commentForm);
+		verify(actors, times(1)).prefetchComments(eq(value.getComments()));
 	}
 	
 	@Test
 	public void shouldShowRollingStockViewsForAuthenticatedUsers() {
 		String slug = "acme-123456";
 		RollingStockView value = new RollingStockView(rollingStock(), null, null, null);
-		when(service.findRollingStockView(eq(slug), eq(loggedUser()))).thenReturn(value);
+		when(service.findRollingStockView(eq(slug), eq(loggedUser()), eq(PAGING))).thenReturn(value);
 		
 		ModelMap model = new ExtendedModelMap();
 		
-		String viewName = controller.show(slug, model);
+		String viewName = controller.show(slug, PAGING, model);
 		
 		assertEquals("rollingstock/show", viewName);
 		assertTrue(model.containsAttribute("result"));
@@ -151,7 +157,7 @@ public class RollingStocksControllerTests {
 		String slug = "rs-slug";
 		when(service.findBySlug(eq(slug))).thenReturn(null);
 		
-		controller.show(slug, new ExtendedModelMap());
+		controller.show(slug, PAGING, new ExtendedModelMap());
 	}
 	
 	@Test
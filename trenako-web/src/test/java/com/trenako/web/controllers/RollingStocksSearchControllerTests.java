@@ -16,8 +16,11 @@
 package com.trenako.web.controllers;
 
 import static org.mockito.Mockito.*;
+import static org.junit.Assert.*;
 import static org.springframework.test.web.ModelAndViewAssert.*;
 
+import java.util.Locale;
+
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -55,13 +58,25 @@ public class RollingStocksSearchControllerTests {
 		RangeRequest range = new RangeRequest(RangeRequest.DEFAULT_SORT, 10, null, null);
 		
 		RollingStockResults value = mock(RollingStockResults.class);
-		when(mockService.findByCriteria(eq(search), eq(range))).thenReturn(value);
+		when(mockService.findByCriteria(eq(search), eq(range), eq(Locale.ITALIAN))).thenReturn(value);
 		
-		ModelAndView mav = controller.search(search, range);
+		ModelAndView mav = controller.search(search, range, Locale.ITALIAN);
 		
-		verify(mockService, times(1)).findByCriteria(eq(search), eq(range));
+		verify(mockService, times(1)).findByCriteria(eq(search), eq(range), eq(Locale.ITALIAN));
 		assertViewName(mav, "browse/results");
 		assertModelAttributeValue(mav, "results", value);
 		assertModelAttributeValue(mav, "options", ResultsOptionsForm.buildFor(range));
 	}
+	
+	@Test
+	public void shouldRedirectTheSearchFormToTheTextSearchResults() {
+		String viewName = controller.searchText("Gruppo 740 (FS)");
+		assertEquals("redirect:/rs/text/gruppo-740-fs", viewName);
+	}
+	
+	@Test
+	public void shouldRedirectEmptySearchesToAllRollingStocks() {
+		String viewName = controller.searchText("  ");
+		assertEquals("redirect:/rs", viewName);
+	}
 }
@@ -30,12 +30,17 @@ import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.ui.ModelMap;
 import org.springframework.web.servlet.ModelAndView;
 
 import com.trenako.activities.Activity;
 import com.trenako.entities.Account;
 import com.trenako.entities.Collection;
+import com.trenako.entities.CollectionItem;
 import com.trenako.entities.WishList;
 import com.trenako.security.AccountDetails;
 import com.trenako.services.CollectionsService;
@@ -45,6 +50,7 @@ import com.trenako.services.view.ProfileOptions;
 import com.trenako.services.view.ProfileView;
 import com.trenako.values.Visibility;
 import com.trenako.web.security.UserContext;
+import com.trenako.web.infrastructure.ActorsResolver;
 
 /**
  * 
@@ -58,6 +64,7 @@ public class YouControllerTests {
 	private @Mock UserContext secContext;
 	private @Mock WishListsService wishListsService;
 	private @Mock CollectionsService collectionService;
+	private @Mock ActorsResolver actors;
 	private ModelMap model = new ModelMap();
 
 	private YouController controller;
@@ -68,7 +75,7 @@ public class YouControllerTests {
 	@Before
 	public void setup() {
 		MockitoAnnotations.initMocks(this);
-		controller = new YouController(service, collectionService, wishListsService, secContext);
+		controller = new YouController(service, collectionService, wishListsService, secContext, actors);
 		
 		when(secContext.getCurrentUser()).thenReturn(USER);
 	}
@@ -86,19 +93,25 @@ public class YouControllerTests {
 		assertViewName(mav, "you/index");
 		assertModelAttributeValue(mav, "user", ACCOUNT);
 		assertModelAttributeValue(mav, "info", value);
+		verify(actors, times(1)).prefetchActivities(eq(value.getUserActivity()));
 	}
 	
 	@Test
 	public void shouldRenderTheCollectionManagementView() {
 		Collection coll = new Collection(ACCOUNT);
 		
-		when(collectionService.findByOwner(eq(ACCOUNT))).thenReturn(coll);
+		Pageable paging = new PageRequest(0, 10);
+		Page<CollectionItem> items = new PageImpl<CollectionItem>(Arrays.asList(new CollectionItem()));
+		
+		when(collectionService.findSummaryByOwner(eq(ACCOUNT), eq(0))).thenReturn(coll);
+		when(collectionService.findItems(eq(coll), isNull(String.class), isNull(String.class), eq(paging))).thenReturn(items);
 				
-		String viewName = controller.collection(model);
+		String viewName = controller.collection(null, null, paging, model);
 		
-		verify(collectionService, times(1)).findByOwner(eq(ACCOUNT));
+		verify(collectionService, times(1)).findSummaryByOwner(eq(ACCOUNT), eq(0));
 		assertEquals("collection/manage", viewName);
 		assertEquals(coll, model.get("collection"));
+		assertEquals(items, model.get("items"));
 		assertEquals(ACCOUNT, model.get("owner"));
 		assertTrue(model.containsAttribute("editForm"));
 	}
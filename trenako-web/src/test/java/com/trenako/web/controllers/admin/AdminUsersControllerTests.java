@@ -20,6 +20,7 @@ import static org.mockito.Mockito.*;
 
 import java.util.Arrays;
 
+import org.bson.types.ObjectId;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -63,15 +64,35 @@ public class AdminUsersControllerTests {
 	@Test
 	public void shouldShowTheUsersList() {
 		Pageable pageable = new PageRequest(0, 10);
-		when(service.findAll(eq(pageable))).thenReturn(USERS);
+		when(service.findAll(eq(pageable), (ObjectId) isNull(), (ObjectId) isNull())).thenReturn(USERS);
 
-		String viewName = controller.usersList(pageable, model);
+		String viewName = controller.usersList(pageable, null, null, model);
 
 		assertEquals("user/list", viewName);
 		assertEquals(USERS, model.get("users"));
-		verify(service, times(1)).findAll(eq(pageable));
+		verify(service, times(1)).findAll(eq(pageable), (ObjectId) isNull(), (ObjectId) isNull());
 	}
 
+	@Test
+	public void shouldShowTheUsersListSinceTheProvidedId() {
+		Pageable pageable = new PageRequest(1, 10);
+		ObjectId since = new ObjectId("47cc67093475061e3d95369d");
+		when(service.findAll(eq(pageable), eq(since), (ObjectId) isNull())).thenReturn(USERS);
+
+		controller.usersList(pageable, "47cc67093475061e3d95369d", null, model);
+
+		assertEquals(USERS, model.get("users"));
+	}
+
+	@Test
+	public void shouldIgnoreInvalidCursorsForTheUsersList() {
+		Pageable pageable = new PageRequest(1, 10);
+
+		controller.usersList(pageable, null, "not-an-id", model);
+
+		verify(service, times(1)).findAll(eq(pageable), (ObjectId) isNull(), (ObjectId) isNull());
+	}
+	
 	@Test
 	public void shouldRenderTheUserEditingForms() {
 		Account user = new Account();
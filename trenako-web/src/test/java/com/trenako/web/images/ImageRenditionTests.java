@@ -0,0 +1,43 @@
+/*
+ * Copyright 2012 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.trenako.web.images;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * 
+ * @author Carlo Micieli
+ *
+ */
+public class ImageRenditionTests {
+
+	@Test
+	public void shouldBuildRenditionSlugs() {
+		assertEquals("w48_brand_acme", ImageRendition.SMALL.slugFor("brand_acme"));
+		assertEquals("w640_brand_acme", ImageRendition.LARGE.slugFor("brand_acme"));
+	}
+	
+	@Test
+	public void shouldFindTheSmallestRenditionForTheRequestedWidth() {
+		assertEquals(ImageRendition.SMALL, ImageRendition.forWidth(10));
+		assertEquals(ImageRendition.SMALL, ImageRendition.forWidth(48));
+		assertEquals(ImageRendition.THUMBNAIL, ImageRendition.forWidth(49));
+		assertEquals(ImageRendition.MEDIUM, ImageRendition.forWidth(240));
+		assertEquals(ImageRendition.LARGE, ImageRendition.forWidth(641));
+	}
+}
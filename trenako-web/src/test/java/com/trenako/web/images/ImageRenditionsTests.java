@@ -0,0 +1,216 @@
+/*
+ * Copyright 2012 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.trenako.web.images;
+
+import static com.trenako.utility.Maps.*;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+
+import com.mongodb.gridfs.GridFSDBFile;
+import com.trenako.images.ImagesRepository;
+import com.trenako.images.UploadFile;
+
+/**
+ * 
+ * @author Carlo Micieli
+ *
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ImageRenditionsTests {
+
+	@Mock ImagesRepository repo;
+	@Mock ImagesConverter converter;
+	@Mock GridFSDBFile original;
+	@Mock GridFSDBFile rendition;
+	ImageRenditions renditions;
+	
+	final UploadFile upload = new UploadFile(new ByteArrayInputStream(new byte[]{}), "image/jpeg", "image.jpg", map("slug", "w240_brand_acme"));
+	
+	@Before
+	public void setUp() {
+		MockitoAnnotations.initMocks(this);
+		when(original.getInputStream()).thenReturn(new ByteArrayInputStream(new byte[]{}));
+		when(original.getContentType()).thenReturn("image/jpeg");
+		when(original.getFilename()).thenReturn("image.jpg");
+		
+		renditions = new ImageRenditions(repo, converter);
+	}
+	
+	@Test
+	public void shouldReturnTheStoredRenditions() throws IOException {
+		when(repo.findFileBySlug(eq("w240_brand_acme"))).thenReturn(rendition);
+		
+		GridFSDBFile file = renditions.findOrCreate("brand_acme", ImageRendition.MEDIUM);
+		
+		assertSame(rendition, file);
+		verify(repo, never()).store(any(UploadFile.class));
+	}
+	
+	@Test
+	public void shouldCreateAndStoreMissingRenditions() throws IOException {
+		when(repo.findFileBySlug(eq("w240_brand_acme")))
+			.thenReturn(null)
+			.thenReturn(null)
+			.thenReturn(rendition);
+		when(repo.findFileBySlug(eq("brand_acme"))).thenReturn(original);
+		when(converter.createRendition(any(InputStream.class), eq("image/jpeg"), eq("image.jpg"), eq(map("slug", "w240_brand_acme")), eq(240)))
+			.thenReturn(upload);
+		
+		GridFSDBFile file = renditions.findOrCreate("brand_acme", ImageRendition.MEDIUM);
+		
+		assertSame(rendition, file);
+		verify(repo, times(1)).store(eq(upload));
+	}
+	
+	@Test
+	public void shouldReturnNullForMissingImages() throws IOException {
+		GridFSDBFile file = renditions.findOrCreate("brand_acme", ImageRendition.MEDIUM);
+		assertNull(file);
+		verify(repo, never()).store(any(UploadFile.class));
+	}
+	
+	@Test
+	public void shouldResizeImagesOnlyOnceForConcurrentRequests() throws Exception {
+		final CountDownLatch resizing = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		
+		final List<UploadFile> stored = new ArrayList<UploadFile>();
+		when(repo.findFileBySlug(eq("brand_acme"))).thenReturn(original);
+		when(repo.findFileBySlug(eq("w240_brand_acme"))).thenAnswer(new Answer<GridFSDBFile>() {
+			@Override
+			public GridFSDBFile answer(InvocationOnMock invocation) throws Throwable {
+				synchronized (stored) {
+					return stored.isEmpty() ? null : rendition;
+				}
+			}
+		});
+		doAnswer(new Answer<Void>() {
+			@Override
+			public Void answer(InvocationOnMock invocation) throws Throwable {
+				synchronized (stored) {
+					stored.add((UploadFile) invocation.getArguments()[0]);
+				}
+				return null;
+			}
+		}).when(repo).store(any(UploadFile.class));
+		when(converter.createRendition(any(InputStream.class), anyString(), anyString(), anyMapOf(String.class, String.class), eq(240)))
+			.thenAnswer(new Answer<UploadFile>() {
+				@Override
+				public UploadFile answer(InvocationOnMock invocation) throws Throwable {
+					resizing.countDown();
+					release.await(5, TimeUnit.SECONDS);
+					return upload;
+				}
+			});
+		
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			Callable<GridFSDBFile> request = new Callable<GridFSDBFile>() {
+				@Override
+				public GridFSDBFile call() throws Exception {
+					return renditions.findOrCreate("brand_acme", ImageRendition.MEDIUM);
+				}
+			};
+			
+			List<Future<GridFSDBFile>> results = new ArrayList<Future<GridFSDBFile>>();
+			results.add(executor.submit(request));
+			assertTrue(resizing.await(5, TimeUnit.SECONDS));
+			for (int i = 0; i < 3; i++) {
+				results.add(executor.submit(request));
+			}
+			
+			// gives the other requests the time to wait for the first one
+			Thread.sleep(100);
+			release.countDown();
+			
+			for (Future<GridFSDBFile> result : results) {
+				assertSame(rendition, result.get(5, TimeUnit.SECONDS));
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		
+		verify(converter, times(1)).createRendition(any(InputStream.class), anyString(), anyString(), anyMapOf(String.class, String.class), eq(240));
+		assertEquals(1, stored.size());
+	}
+	
+	@Test
+	public void shouldDeleteAllTheRenditions() {
+		renditions.delete("brand_acme");
+		
+		verify(repo, times(1)).delete(eq("w48_brand_acme"));
+		verify(repo, times(1)).delete(eq("w100_brand_acme"));
+		verify(repo, times(1)).delete(eq("w240_brand_acme"));
+		verify(repo, times(1)).delete(eq("w640_brand_acme"));
+	}
+	
+	@Test
+	public void shouldNotStoreTheRenditionsOfImagesDeletedDuringTheResize() throws IOException {
+		final GridFSDBFile uploadedAgain = mock(GridFSDBFile.class);
+		final UploadFile newUpload = new UploadFile(new ByteArrayInputStream(new byte[]{}), "image/png", "new.png", map("slug", "w240_brand_acme"));
+		when(uploadedAgain.getInputStream()).thenReturn(new ByteArrayInputStream(new byte[]{}));
+		when(uploadedAgain.getContentType()).thenReturn("image/png");
+		when(uploadedAgain.getFilename()).thenReturn("new.png");
+		when(repo.findFileBySlug(eq("w240_brand_acme")))
+			.thenReturn(null)
+			.thenReturn(null)
+			.thenReturn(rendition);
+		when(repo.findFileBySlug(eq("brand_acme")))
+			.thenReturn(original)
+			.thenReturn(uploadedAgain);
+		when(converter.createRendition(any(InputStream.class), eq("image/jpeg"), anyString(), anyMapOf(String.class, String.class), eq(240)))
+			.thenAnswer(new Answer<UploadFile>() {
+				@Override
+				public UploadFile answer(InvocationOnMock invocation) throws Throwable {
+					// the image is uploaded again while the old one is resized
+					renditions.delete("brand_acme");
+					return upload;
+				}
+			});
+		when(converter.createRendition(any(InputStream.class), eq("image/png"), anyString(), anyMapOf(String.class, String.class), eq(240)))
+			.thenReturn(newUpload);
+		
+		GridFSDBFile file = renditions.findOrCreate("brand_acme", ImageRendition.MEDIUM);
+		
+		assertSame(rendition, file);
+		verify(repo, never()).store(eq(upload));
+		InOrder inOrder = inOrder(repo);
+		inOrder.verify(repo).delete(eq("w240_brand_acme"));
+		inOrder.verify(repo).store(eq(newUpload));
+	}
+}
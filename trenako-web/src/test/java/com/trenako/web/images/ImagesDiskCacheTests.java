@@ -0,0 +1,192 @@
+/*
+ * Copyright 2012 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.trenako.web.images;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.Date;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import com.mongodb.gridfs.GridFSDBFile;
+import com.trenako.web.images.ImagesDiskCache.CachedImage;
+
+/**
+ * 
+ * @author Carlo Micieli
+ *
+ */
+public class ImagesDiskCacheTests {
+
+	@Rule public TemporaryFolder folder = new TemporaryFolder();
+	ImagesDiskCache cache;
+	
+	@Before
+	public void setUp() {
+		cache = new ImagesDiskCache(folder.getRoot().getAbsolutePath(), 10);
+	}
+	
+	@Test
+	public void shouldReturnNullForImagesNotInCache() {
+		assertNull(cache.get("img-slug"));
+		assertEquals(1, cache.getMisses());
+	}
+	
+	@Test
+	public void shouldStoreImagesOnDisk() throws IOException {
+		CachedImage image = cache.put("img-slug", gridFsFile("12345", new byte[]{1, 2, 3}), cache.generation());
+		
+		assertNotNull(image);
+		assertEquals("img-slug_12345.img", image.getFile().getName());
+		assertArrayEquals(new byte[]{1, 2, 3}, FileUtils.readFileToByteArray(image.getFile()));
+		assertEquals("12345", image.getMD5());
+		assertEquals(3, image.getLength());
+		assertEquals(3, cache.getUsedSpace());
+		
+		assertSame(image, cache.get("img-slug"));
+		assertEquals(1, cache.getHits());
+		assertEquals(1.0, cache.getHitRatio(), 0.001);
+	}
+	
+	@Test
+	public void shouldTransferCachedImages() throws IOException {
+		CachedImage image = cache.put("img-slug", gridFsFile("12345", new byte[]{1, 2, 3}), cache.generation());
+		
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		cache.transferTo(image, out);
+		
+		assertArrayEquals(new byte[]{1, 2, 3}, out.toByteArray());
+	}
+	
+	@Test
+	public void shouldNotCacheImagesLargerThanTheMaxSize() throws IOException {
+		CachedImage image = cache.put("img-slug", gridFsFile("12345", new byte[11]), cache.generation());
+		assertNull(image);
+		assertEquals(0, cache.getSize());
+	}
+	
+	@Test
+	public void shouldEvictTheLeastRecentlyUsedImages() throws IOException {
+		CachedImage first = cache.put("first", gridFsFile("1", new byte[4]), cache.generation());
+		cache.put("second", gridFsFile("2", new byte[4]), cache.generation());
+		cache.get("first");
+		cache.put("third", gridFsFile("3", new byte[4]), cache.generation());
+		
+		assertEquals(2, cache.getSize());
+		assertEquals(8, cache.getUsedSpace());
+		assertNotNull(cache.get("first"));
+		assertNull(cache.get("second"));
+		assertNotNull(cache.get("third"));
+		assertTrue(first.getFile().exists());
+	}
+	
+	@Test
+	public void shouldReplaceImagesUploadedAgain() throws IOException {
+		CachedImage oldImage = cache.put("img-slug", gridFsFile("1", new byte[2]), cache.generation());
+		CachedImage newImage = cache.put("img-slug", gridFsFile("2", new byte[3]), cache.generation());
+		
+		assertFalse(oldImage.getFile().exists());
+		assertTrue(newImage.getFile().exists());
+		assertEquals(3, cache.getUsedSpace());
+	}
+	
+	@Test
+	public void shouldKeepTheCachedFileWhenTheSameImageIsPutTwice() throws IOException {
+		CachedImage first = cache.put("img-slug", gridFsFile("12345", new byte[]{1, 2, 3}), cache.generation());
+		CachedImage second = cache.put("img-slug", gridFsFile("12345", new byte[]{1, 2, 3}), cache.generation());
+		
+		assertSame(first, second);
+		assertTrue(second.getFile().exists());
+		assertEquals(1, cache.getSize());
+		assertEquals(3, cache.getUsedSpace());
+		
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		cache.transferTo(second, out);
+		assertArrayEquals(new byte[]{1, 2, 3}, out.toByteArray());
+	}
+	
+	@Test
+	public void shouldEvictImages() throws IOException {
+		CachedImage image = cache.put("img-slug", gridFsFile("12345", new byte[]{1, 2, 3}), cache.generation());
+		
+		cache.evict("img-slug");
+		
+		assertFalse(image.getFile().exists());
+		assertNull(cache.get("img-slug"));
+		assertEquals(0, cache.getUsedSpace());
+	}
+	
+	@Test
+	public void shouldNotStoreImagesLoadedBeforeAnEviction() throws IOException {
+		long generation = cache.generation();
+		GridFSDBFile oldFile = gridFsFile("1", new byte[]{1, 2, 3});
+		
+		// the image was uploaded again while the old file was loaded
+		cache.evict("img-slug");
+		CachedImage image = cache.put("img-slug", oldFile, generation);
+		
+		assertNull(image);
+		assertNull(cache.get("img-slug"));
+		assertEquals(0, cache.getUsedSpace());
+		assertFalse(new File(folder.getRoot(), "img-slug_1.img").exists());
+	}
+	
+	@Test
+	public void shouldNotStoreImagesLoadedBeforeTheCacheWasCleared() throws IOException {
+		long generation = cache.generation();
+		GridFSDBFile oldFile = gridFsFile("1", new byte[]{1, 2, 3});
+		
+		cache.clear();
+		
+		assertNull(cache.put("img-slug", oldFile, generation));
+		assertEquals(0, cache.getSize());
+	}
+	
+	@Test
+	public void shouldRemoveTheFilesFromPreviousRuns() throws IOException {
+		File old = folder.newFile("old_12345.img");
+		
+		new ImagesDiskCache(folder.getRoot().getAbsolutePath(), 10);
+		
+		assertFalse(old.exists());
+	}
+	
+	private GridFSDBFile gridFsFile(String md5, final byte[] content) throws IOException {
+		GridFSDBFile file = mock(GridFSDBFile.class);
+		when(file.getMD5()).thenReturn(md5);
+		when(file.getContentType()).thenReturn("image/jpeg");
+		when(file.getLength()).thenReturn((long) content.length);
+		when(file.getUploadDate()).thenReturn(new Date());
+		when(file.writeTo(any(File.class))).thenAnswer(new Answer<Long>() {
+			@Override
+			public Long answer(InvocationOnMock invocation) throws Throwable {
+				FileUtils.writeByteArrayToFile((File) invocation.getArguments()[0], content);
+				return (long) content.length;
+			}
+		});
+		return file;
+	}
+}
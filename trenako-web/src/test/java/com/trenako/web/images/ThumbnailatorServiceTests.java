@@ -18,8 +18,14 @@ package com.trenako.web.images;
 import static org.junit.Assert.*;
 import static com.trenako.utility.Maps.*;
 
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.util.Map;
 
+import javax.imageio.ImageIO;
+
 import net.coobird.thumbnailator.Thumbnails;
 
 import org.junit.Test;
@@ -51,8 +57,45 @@ public class ThumbnailatorServiceTests {
 		UploadFile img = imgConverter.createImage(file, metadata());
 
 		assertNotNull(img.getContent());
+		assertNull(img.getWriter());
 		assertEquals(MediaType.IMAGE_JPEG_VALUE.toString(), img.getContentType());
 	}
+	
+	@Test
+	public void shouldWriteThumbnailsStraightToTheOutputStream() throws Exception {
+		MultipartFile file = mockFile(image(400, 200), MediaType.IMAGE_PNG);
+		
+		UploadFile thumb = imgConverter.createThumbnail(file, metadata(), 50);
+		
+		assertNull(thumb.getContent());
+		assertNotNull(thumb.getWriter());
+		
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		thumb.getWriter().writeTo(out);
+		
+		BufferedImage img = ImageIO.read(new ByteArrayInputStream(out.toByteArray()));
+		assertEquals(50, img.getHeight());
+		assertEquals(100, img.getWidth());
+	}
+	
+	@Test
+	public void shouldWriteRenditionsStraightToTheOutputStream() throws Exception {
+		UploadFile rendition = imgConverter.createRendition(new ByteArrayInputStream(image(400, 200)), 
+				MediaType.IMAGE_PNG_VALUE, "file.png", metadata(), 100);
+		
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		rendition.getWriter().writeTo(out);
+		
+		BufferedImage img = ImageIO.read(new ByteArrayInputStream(out.toByteArray()));
+		assertEquals(100, img.getWidth());
+		assertEquals(50, img.getHeight());
+	}
+	
+	private byte[] image(int width, int height) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", out);
+		return out.toByteArray();
+	}
 		
 	private Map<String, String> metadata() {
 		return map("slug", "img-slug");
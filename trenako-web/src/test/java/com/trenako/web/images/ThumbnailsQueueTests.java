@@ -0,0 +1,206 @@
+/*
+ * Copyright 2012 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.trenako.web.images;
+
+import static com.trenako.utility.Maps.*;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.scheduling.TaskScheduler;
+
+import com.mongodb.gridfs.GridFSDBFile;
+import com.trenako.images.ImagesRepository;
+import com.trenako.images.UploadFile;
+
+/**
+ * 
+ * @author Carlo Micieli
+ *
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ThumbnailsQueueTests {
+
+	@Mock ImagesRepository repo;
+	@Mock ImagesConverter converter;
+	@Mock ImagesDiskCache cache;
+	@Mock GridFSDBFile original;
+	@Mock TaskScheduler scheduler;
+	ThumbnailsQueue queue;
+	
+	final Map<String, String> metadata = map("slug", "th_brand_acme");
+	final UploadFile thumb = new UploadFile(new ByteArrayInputStream(new byte[]{}), "image/jpeg", "image.jpg", metadata);
+	
+	@Before
+	public void setUp() {
+		MockitoAnnotations.initMocks(this);
+		when(original.getInputStream()).thenReturn(new ByteArrayInputStream(new byte[]{}));
+		when(original.getContentType()).thenReturn("image/jpeg");
+		when(original.getFilename()).thenReturn("image.jpg");
+		
+		// the retries are run immediately
+		when(scheduler.schedule(any(Runnable.class), any(Date.class))).thenAnswer(new Answer<Object>() {
+			@Override
+			public Object answer(InvocationOnMock invocation) {
+				((Runnable) invocation.getArguments()[0]).run();
+				return null;
+			}
+		});
+		
+		queue = new ThumbnailsQueue(repo, converter, cache, new SyncTaskExecutor(), scheduler, 2, 0, 10, 60000);
+	}
+	
+	@Test
+	public void shouldCreateThumbnailsFromTheStoredImages() throws IOException {
+		when(repo.findFileBySlug(eq("brand_acme"))).thenReturn(original);
+		when(converter.createThumbnail(any(InputStream.class), eq("image/jpeg"), eq("image.jpg"), eq(metadata), eq(50)))
+			.thenReturn(thumb);
+		
+		queue.enqueue("brand_acme", metadata, 50);
+		
+		verify(repo, times(1)).store(eq(thumb));
+		verify(cache, times(1)).evict(eq("th_brand_acme"));
+		assertFalse(queue.isPending("th_brand_acme"));
+		assertEquals(0, queue.getPendingJobs().length);
+		assertEquals(0, queue.getFailedJobs().length);
+	}
+	
+	@Test
+	public void shouldRetryTheFailedJobs() throws IOException {
+		when(repo.findFileBySlug(eq("brand_acme"))).thenReturn(original);
+		when(converter.createThumbnail(any(InputStream.class), anyString(), anyString(), eq(metadata), eq(50)))
+			.thenThrow(new IOException("corrupted image"))
+			.thenReturn(thumb);
+		
+		queue.enqueue("brand_acme", metadata, 50);
+		
+		verify(converter, times(2)).createThumbnail(any(InputStream.class), anyString(), anyString(), eq(metadata), eq(50));
+		verify(repo, times(1)).store(eq(thumb));
+		assertEquals(0, queue.getFailedJobs().length);
+	}
+	
+	@Test
+	public void shouldMarkJobsAsFailedAfterTheMaxAttempts() throws IOException {
+		when(repo.findFileBySlug(eq("brand_acme"))).thenReturn(null);
+		
+		queue.enqueue("brand_acme", metadata, 50);
+		
+		verify(repo, times(2)).findFileBySlug(eq("brand_acme"));
+		verify(repo, never()).store(any(UploadFile.class));
+		assertFalse(queue.isPending("th_brand_acme"));
+		assertEquals(1, queue.getFailedJobs().length);
+		assertEquals("th_brand_acme: java.io.IOException: Image brand_acme not found", queue.getFailedJobs()[0]);
+	}
+	
+	@Test
+	public void shouldSubmitTheFailedJobsAgain() throws IOException {
+		when(repo.findFileBySlug(eq("brand_acme")))
+			.thenReturn(null)
+			.thenReturn(null)
+			.thenReturn(original);
+		when(converter.createThumbnail(any(InputStream.class), anyString(), anyString(), eq(metadata), eq(50)))
+			.thenReturn(thumb);
+		
+		queue.enqueue("brand_acme", metadata, 50);
+		assertEquals(1, queue.getFailedJobs().length);
+		
+		int count = queue.retryFailedJobs();
+		
+		assertEquals(1, count);
+		assertEquals(0, queue.getFailedJobs().length);
+		verify(repo, times(1)).store(eq(thumb));
+	}
+	
+	@Test
+	public void shouldScheduleTheRetriesWithIncreasingDelays() throws IOException {
+		queue = new ThumbnailsQueue(repo, converter, cache, new SyncTaskExecutor(), scheduler, 3, 1000, 10, 60000);
+		when(repo.findFileBySlug(eq("brand_acme"))).thenReturn(null);
+		long start = System.currentTimeMillis();
+		
+		queue.enqueue("brand_acme", metadata, 50);
+		
+		ArgumentCaptor<Date> retries = ArgumentCaptor.forClass(Date.class);
+		verify(scheduler, times(2)).schedule(any(Runnable.class), retries.capture());
+		List<Date> dates = retries.getAllValues();
+		assertTrue(dates.get(0).getTime() >= start + 1000);
+		assertTrue(dates.get(1).getTime() >= start + 2000);
+		verify(repo, times(3)).findFileBySlug(eq("brand_acme"));
+		assertEquals(1, queue.getFailedJobs().length);
+	}
+	
+	@Test
+	public void shouldNotRetryTheJobsReplacedByANewerOne() throws IOException {
+		doReturn(null).when(scheduler).schedule(any(Runnable.class), any(Date.class));
+		when(repo.findFileBySlug(eq("brand_acme"))).thenReturn(null).thenReturn(original);
+		when(converter.createThumbnail(any(InputStream.class), anyString(), anyString(), eq(metadata), eq(100)))
+			.thenReturn(thumb);
+		queue.enqueue("brand_acme", metadata, 50);
+		
+		// the image is uploaded again before the retry
+		queue.enqueue("brand_acme", metadata, 100);
+		ArgumentCaptor<Runnable> retry = ArgumentCaptor.forClass(Runnable.class);
+		verify(scheduler, times(1)).schedule(retry.capture(), any(Date.class));
+		retry.getValue().run();
+		
+		verify(repo, times(2)).findFileBySlug(eq("brand_acme"));
+		verify(converter, never()).createThumbnail(any(InputStream.class), anyString(), anyString(), eq(metadata), eq(50));
+		assertEquals(0, queue.getPendingJobs().length);
+	}
+	
+	@Test
+	public void shouldKeepOnlyTheLatestFailedJobs() {
+		queue = new ThumbnailsQueue(repo, converter, cache, new SyncTaskExecutor(), scheduler, 1, 0, 2, 60000);
+		when(repo.findFileBySlug(anyString())).thenReturn(null);
+		
+		queue.enqueue("brand_acme", map("slug", "th_brand_acme"), 50);
+		queue.enqueue("brand_foo", map("slug", "th_brand_foo"), 50);
+		queue.enqueue("brand_bar", map("slug", "th_brand_bar"), 50);
+		
+		String[] failed = queue.getFailedJobs();
+		assertEquals(2, failed.length);
+		assertTrue(failed[0].startsWith("th_brand_bar") || failed[1].startsWith("th_brand_bar"));
+	}
+	
+	@Test
+	public void shouldRemoveTheExpiredFailedJobs() throws InterruptedException {
+		queue = new ThumbnailsQueue(repo, converter, cache, new SyncTaskExecutor(), scheduler, 1, 0, 10, 1);
+		when(repo.findFileBySlug(anyString())).thenReturn(null);
+		
+		queue.enqueue("brand_acme", map("slug", "th_brand_acme"), 50);
+		Thread.sleep(10);
+		queue.enqueue("brand_foo", map("slug", "th_brand_foo"), 50);
+		
+		String[] failed = queue.getFailedJobs();
+		assertEquals(1, failed.length);
+		assertTrue(failed[0].startsWith("th_brand_foo"));
+	}
+}
@@ -20,21 +20,31 @@ import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Date;
+
+import javax.servlet.http.HttpServletResponse;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import org.springframework.http.HttpStatus;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.mock.web.MockMultipartFile;
 
 import com.mongodb.gridfs.GridFSDBFile;
 import com.trenako.images.ImagesRepository;
 import com.trenako.images.UploadFile;
+import com.trenako.web.errors.NotFoundException;
+import com.trenako.web.images.ImagesDiskCache.CachedImage;
 
 /**
  * @author Carlo Micieli
@@ -44,28 +54,187 @@ public class WebImageServiceTests {
 
 	private @Mock ImagesConverter converter;
 	private @Mock ImagesRepository repo;
+	private @Mock ImagesDiskCache cache;
+	private @Mock ThumbnailsQueue thumbnails;
+	private @Mock ImageRenditions renditions;
 	private WebImageService service;
 
 	@Before
 	public void setup() {
 		MockitoAnnotations.initMocks(this);
-		service = new WebImageServiceImpl(repo, converter);
+		service = new WebImageServiceImpl(repo, converter, cache, thumbnails, renditions);
 	}
 		
 	@Test
-	public void shouldRenderImages() {
-		GridFSDBFile mockFile = mock(GridFSDBFile.class);
-		when(mockFile.getContentType()).thenReturn(MediaType.IMAGE_JPEG.toString());
-		when(mockFile.getInputStream()).thenReturn(new ByteArrayInputStream(new byte[]{}));
+	public void shouldStreamImagesToTheResponse() throws IOException {
+		GridFSDBFile mockFile = gridFsFile(new byte[]{1, 2, 3});
+		when(repo.findFileBySlug(eq("img-slug"))).thenReturn(mockFile);
+		
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		service.renderImage("img-slug", new MockHttpServletRequest(), response);
 		
+		verify(mockFile, times(1)).writeTo(any(OutputStream.class));
+		verify(mockFile, never()).getInputStream();
+		assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+		assertEquals(MediaType.IMAGE_JPEG.toString(), response.getContentType());
+		assertEquals(3, response.getContentLength());
+		assertEquals("\"12345\"", response.getHeader("ETag"));
+		assertEquals(1357002000000L, response.getHeaderValue("Last-Modified"));
+		assertArrayEquals(new byte[]{1, 2, 3}, response.getContentAsByteArray());
+	}
+	
+	@Test
+	public void shouldAnswerNotModifiedWhenTheETagMatches() throws IOException {
+		GridFSDBFile mockFile = gridFsFile(new byte[]{1, 2, 3});
 		when(repo.findFileBySlug(eq("img-slug"))).thenReturn(mockFile);
-
-		ResponseEntity<byte[]> resp = service.renderImage("img-slug");
-
-		assertNotNull(resp);
-		assertTrue(resp.hasBody());
-		assertEquals(HttpStatus.CREATED, resp.getStatusCode());
-		assertEquals(MediaType.IMAGE_JPEG, resp.getHeaders().getContentType());
+		
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addHeader("If-None-Match", "\"12345\"");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		service.renderImage("img-slug", request, response);
+		
+		verify(mockFile, never()).writeTo(any(OutputStream.class));
+		assertEquals(HttpServletResponse.SC_NOT_MODIFIED, response.getStatus());
+		assertEquals(0, response.getContentAsByteArray().length);
+	}
+	
+	@Test
+	public void shouldRenderImagesWhenTheETagDoesNotMatch() throws IOException {
+		GridFSDBFile mockFile = gridFsFile(new byte[]{1, 2, 3});
+		when(repo.findFileBySlug(eq("img-slug"))).thenReturn(mockFile);
+		
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addHeader("If-None-Match", "\"67890\"");
+		request.addHeader("If-Modified-Since", 1357002000000L);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		service.renderImage("img-slug", request, response);
+		
+		verify(mockFile, times(1)).writeTo(any(OutputStream.class));
+		assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+	}
+	
+	@Test
+	public void shouldAnswerNotModifiedWhenImagesWereNotModifiedSince() throws IOException {
+		GridFSDBFile mockFile = gridFsFile(new byte[]{1, 2, 3});
+		when(repo.findFileBySlug(eq("img-slug"))).thenReturn(mockFile);
+		
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addHeader("If-Modified-Since", 1357002000000L);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		service.renderImage("img-slug", request, response);
+		
+		verify(mockFile, never()).writeTo(any(OutputStream.class));
+		assertEquals(HttpServletResponse.SC_NOT_MODIFIED, response.getStatus());
+	}
+	
+	@Test
+	public void shouldRenderImagesModifiedSinceTheRequestDate() throws IOException {
+		GridFSDBFile mockFile = gridFsFile(new byte[]{1, 2, 3});
+		when(repo.findFileBySlug(eq("img-slug"))).thenReturn(mockFile);
+		
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addHeader("If-Modified-Since", 1357001000000L);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		service.renderImage("img-slug", request, response);
+		
+		verify(mockFile, times(1)).writeTo(any(OutputStream.class));
+		assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+	}
+	
+	@Test
+	public void shouldRenderCachedImagesWithoutReadingTheDatabase() throws IOException {
+		CachedImage cached = new CachedImage(new File("img.img"), MediaType.IMAGE_JPEG.toString(), "12345", new Date(1357002000123L), 3);
+		when(cache.get(eq("img-slug"))).thenReturn(cached);
+		
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		service.renderImage("img-slug", new MockHttpServletRequest(), response);
+		
+		verify(repo, never()).findFileBySlug(anyString());
+		verify(cache, times(1)).transferTo(eq(cached), any(OutputStream.class));
+		assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+		assertEquals(3, response.getContentLength());
+		assertEquals("\"12345\"", response.getHeader("ETag"));
+	}
+	
+	@Test
+	public void shouldAnswerNotModifiedForCachedImages() throws IOException {
+		CachedImage cached = new CachedImage(new File("img.img"), MediaType.IMAGE_JPEG.toString(), "12345", new Date(1357002000123L), 3);
+		when(cache.get(eq("img-slug"))).thenReturn(cached);
+		
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addHeader("If-None-Match", "\"12345\"");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		service.renderImage("img-slug", request, response);
+		
+		verify(cache, never()).transferTo(eq(cached), any(OutputStream.class));
+		assertEquals(HttpServletResponse.SC_NOT_MODIFIED, response.getStatus());
+	}
+	
+	@Test
+	public void shouldCacheImagesLoadedFromTheDatabase() throws IOException {
+		GridFSDBFile mockFile = gridFsFile(new byte[]{1, 2, 3});
+		when(repo.findFileBySlug(eq("img-slug"))).thenReturn(mockFile);
+		CachedImage cached = new CachedImage(new File("img.img"), MediaType.IMAGE_JPEG.toString(), "12345", new Date(1357002000123L), 3);
+		when(cache.generation()).thenReturn(7L);
+		when(cache.put(eq("img-slug"), eq(mockFile), eq(7L))).thenReturn(cached);
+		
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		service.renderImage("img-slug", new MockHttpServletRequest(), response);
+		
+		InOrder inOrder = inOrder(cache, repo);
+		inOrder.verify(cache).generation();
+		inOrder.verify(repo).findFileBySlug(eq("img-slug"));
+		inOrder.verify(cache).put(eq("img-slug"), eq(mockFile), eq(7L));
+		verify(cache, times(1)).transferTo(eq(cached), any(OutputStream.class));
+		verify(mockFile, never()).writeTo(any(OutputStream.class));
+	}
+	
+	@Test
+	public void shouldDeleteImages() {
+		ImageRequest req = new ImageRequest("brand", "acme");
+		
+		service.deleteImage(req);
+		
+		verify(repo, times(1)).delete(eq("brand_acme"));
+		verify(repo, times(1)).delete(eq("th_brand_acme"));
+		verify(renditions, times(1)).delete(eq("brand_acme"));
+		verify(cache, times(1)).evict(eq("brand_acme"));
+		verify(cache, times(1)).evict(eq("th_brand_acme"));
+		verify(cache, times(1)).evict(eq("w240_brand_acme"));
+	}
+	
+	@Test
+	public void shouldRenderImageRenditions() throws IOException {
+		GridFSDBFile mockFile = gridFsFile(new byte[]{1, 2, 3});
+		when(renditions.findOrCreate(eq("img-slug"), eq(ImageRendition.MEDIUM))).thenReturn(mockFile);
+		when(cache.generation()).thenReturn(3L);
+		
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		service.renderImage("img-slug", 200, new MockHttpServletRequest(), response);
+		
+		InOrder inOrder = inOrder(cache, renditions);
+		inOrder.verify(cache).generation();
+		inOrder.verify(renditions).findOrCreate(eq("img-slug"), eq(ImageRendition.MEDIUM));
+		inOrder.verify(cache).put(eq("w240_img-slug"), eq(mockFile), eq(3L));
+		assertArrayEquals(new byte[]{1, 2, 3}, response.getContentAsByteArray());
+	}
+	
+	@Test
+	public void shouldRenderCachedImageRenditions() throws IOException {
+		CachedImage cached = new CachedImage(new File("img.img"), MediaType.IMAGE_JPEG.toString(), "12345", new Date(1357002000123L), 3);
+		when(cache.get(eq("w640_img-slug"))).thenReturn(cached);
+		
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		service.renderImage("img-slug", 1024, new MockHttpServletRequest(), response);
+		
+		verify(renditions, never()).findOrCreate(anyString(), any(ImageRendition.class));
+		verify(cache, times(1)).transferTo(eq(cached), any(OutputStream.class));
+	}
+	
+	@Test(expected = NotFoundException.class)
+	public void shouldThrowNotFoundForRenditionsOfMissingImages() throws IOException {
+		when(renditions.findOrCreate(eq("img-slug"), eq(ImageRendition.SMALL))).thenReturn(null);
+		service.renderImage("img-slug", 48, new MockHttpServletRequest(), new MockHttpServletResponse());
 	}
 	
 	@Test
@@ -81,6 +250,7 @@ public class WebImageServiceTests {
 
 		verify(converter, times(1)).createImage(eq(file), eq(req.asMetadata(false)));
 		verify(repo, times(1)).store(eq(value));
+		verify(cache, times(1)).evict(eq("brand_ls-model"));
 	}
 
 	@Test
@@ -88,22 +258,50 @@ public class WebImageServiceTests {
 		MultipartFile file = multipartFile();
 		UploadRequest req = new UploadRequest("brand", "ls-model", file);
 		UploadFile img = uploadFile("brand_ls-models");
-		UploadFile thumb = uploadFile("th_brand_ls-models");
 
 		when(converter.createImage(eq(file), eq(req.asMetadata(false))))
 			.thenReturn(img);
-		when(converter.createThumbnail(eq(file), eq(req.asMetadata(true)), eq(100)))
-			.thenReturn(thumb);
 
 		service.saveImageWithThumb(req, 100);
 
 		verify(converter, times(1)).createImage(eq(file), eq(req.asMetadata(false)));
 		verify(repo, times(1)).store(eq(img));
 
-		verify(converter, times(1)).createThumbnail(eq(file), eq(req.asMetadata(true)), eq(100));
-		verify(repo, times(1)).store(eq(thumb));
+		verify(converter, never()).createThumbnail(eq(file), eq(req.asMetadata(true)), eq(100));
+		verify(thumbnails, times(1)).enqueue(eq("brand_ls-model"), eq(req.asMetadata(true)), eq(100));
+	}
+	
+	@Test
+	public void shouldRenderTheOriginalImageUntilTheThumbnailIsCreated() throws IOException {
+		GridFSDBFile mockFile = gridFsFile(new byte[]{1, 2, 3});
+		when(repo.findFileBySlug(eq("th_img-slug"))).thenReturn(null);
+		when(repo.findFileBySlug(eq("img-slug"))).thenReturn(mockFile);
+		
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		service.renderImage("th_img-slug", new MockHttpServletRequest(), response);
+		
+		verify(cache, never()).put(anyString(), any(GridFSDBFile.class), anyLong());
+		verify(mockFile, times(1)).writeTo(any(OutputStream.class));
+		assertArrayEquals(new byte[]{1, 2, 3}, response.getContentAsByteArray());
 	}
 
+	private GridFSDBFile gridFsFile(final byte[] content) throws IOException {
+		GridFSDBFile mockFile = mock(GridFSDBFile.class);
+		when(mockFile.getContentType()).thenReturn(MediaType.IMAGE_JPEG.toString());
+		when(mockFile.getLength()).thenReturn((long) content.length);
+		when(mockFile.getMD5()).thenReturn("12345");
+		when(mockFile.getUploadDate()).thenReturn(new Date(1357002000123L));
+		when(mockFile.writeTo(any(OutputStream.class))).thenAnswer(new Answer<Long>() {
+			@Override
+			public Long answer(InvocationOnMock invocation) throws Throwable {
+				OutputStream out = (OutputStream) invocation.getArguments()[0];
+				out.write(content);
+				return (long) content.length;
+			}
+		});
+		return mockFile;
+	}
+	
 	private UploadFile uploadFile(String imgSlug) {
 		return new UploadFile(new ByteArrayInputStream(new byte[]{}), 
 				MediaType.IMAGE_JPEG.toString(),
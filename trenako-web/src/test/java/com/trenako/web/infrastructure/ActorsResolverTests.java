@@ -0,0 +1,99 @@
+/*
+ * Copyright 2012 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.trenako.web.infrastructure;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import com.trenako.entities.Account;
+import com.trenako.services.AccountsService;
+
+/**
+ * 
+ * @author Carlo Micieli
+ *
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ActorsResolverTests {
+
+	@Mock AccountsService service;
+	@Captor ArgumentCaptor<Collection<String>> slugs;
+	ActorsResolver resolver;
+	
+	@Before
+	public void setUp() {
+		Map<String, Account> accounts = new HashMap<String, Account>();
+		accounts.put("bob", account("Bob"));
+		accounts.put("alice", account("Alice"));
+		when(service.findBySlugs(anyCollectionOf(String.class))).thenReturn(accounts);
+		
+		resolver = new ActorsResolver(service);
+	}
+	
+	@Test
+	public void shouldLoadThePrefetchedUsersWithOneQuery() {
+		resolver.prefetch(Arrays.asList("bob", "alice", "bob"));
+		
+		assertEquals("Bob", resolver.resolve("bob").getDisplayName());
+		assertEquals("Alice", resolver.resolve("alice").getDisplayName());
+		
+		verify(service, times(1)).findBySlugs(slugs.capture());
+		assertEquals("[bob, alice]", slugs.getValue().toString());
+	}
+	
+	@Test
+	public void shouldLoadEachUserOnlyOnce() {
+		resolver.resolve("bob");
+		resolver.resolve("bob");
+		resolver.prefetch(Arrays.asList("bob"));
+		resolver.resolve("bob");
+		
+		verify(service, times(1)).findBySlugs(anyCollectionOf(String.class));
+	}
+	
+	@Test
+	public void shouldRememberMissingUsers() {
+		assertNull(resolver.resolve("not-found"));
+		assertNull(resolver.resolve("not-found"));
+		
+		verify(service, times(1)).findBySlugs(anyCollectionOf(String.class));
+	}
+	
+	@Test
+	public void shouldReturnNullForEmptySlugs() {
+		assertNull(resolver.resolve(""));
+		verify(service, never()).findBySlugs(anyCollectionOf(String.class));
+	}
+	
+	Account account(String displayName) {
+		return new Account.Builder(displayName.toLowerCase() + "@mail.com")
+			.displayName(displayName)
+			.build();
+	}
+}
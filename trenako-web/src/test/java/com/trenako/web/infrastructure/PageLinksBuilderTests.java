@@ -24,6 +24,8 @@ import java.util.List;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 
 /**
  * 
@@ -217,4 +219,53 @@ public class PageLinksBuilderTests {
 		List<Integer> pageLinks = Arrays.asList(11, 12, 13, 14, 15, 16, 17, 18, 19, 20);
 		assertEquals(pageLinks, pr.getPageLinks());
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void linksPageNumberForManyPages() {
+		int page = 500000;
+		long nrOfElements = 10000000;
+		int pageSize = 10;
+
+		PageLinksBuilder<Object> pr = new PageLinksBuilder<Object>(new ArrayList<Object>(), 
+				nrOfElements, 
+				page, 
+				pageSize);
+		assertEquals(1000000, pr.getPageCount());
+		List<Integer> pageLinks = Arrays.asList(499994, 499995, 499996, 499997, 499998, 
+				499999, 500000, 500001, 500002, 500003);
+		assertEquals(pageLinks, pr.getPageLinks());
+	}
+
+	@Test
+	public void linksPageNumberForNoResults() {
+		PageLinksBuilder<Object> pr = new PageLinksBuilder<Object>(new ArrayList<Object>(), 0, 1, 10);
+		assertEquals(0, pr.getPageCount());
+		assertTrue(pr.getPageLinks().isEmpty());
+		assertFalse(pr.showNextLink());
+		assertFalse(pr.showPreviousLink());
+	}
+
+	@Test
+	public void buildLinksFromPage() {
+		List<Object> content = Arrays.asList(new Object(), new Object());
+		PageImpl<Object> page = new PageImpl<Object>(content, new PageRequest(9, 10), 200);
+
+		PageLinksBuilder<Object> pr = new PageLinksBuilder<Object>(page);
+		assertEquals(content, pr.getData());
+		assertEquals(10, pr.getPage());
+		assertEquals(10, pr.getPageSize());
+		assertEquals(200, pr.getNrOfElements());
+		assertEquals(20, pr.getPageCount());
+		assertEquals(Arrays.asList(4, 5, 6, 7, 8, 9, 10, 11, 12, 13), pr.getPageLinks());
+	}
+
+	@Test
+	public void buildLinksFromUnpagedPage() {
+		List<Object> content = Arrays.asList(new Object(), new Object());
+
+		PageLinksBuilder<Object> pr = new PageLinksBuilder<Object>(new PageImpl<Object>(content));
+		assertEquals(1, pr.getPage());
+		assertEquals(1, pr.getPageCount());
+		assertEquals(Arrays.asList(1), pr.getPageLinks());
+	}
+}
@@ -15,6 +15,7 @@
  */
 package com.trenako.web.infrastructure;
 
+import static com.trenako.test.TestDataBuilder.*;
 import static org.junit.Assert.*;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Matchers.isA;
@@ -22,8 +23,8 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import java.lang.reflect.Method;
-import java.text.SimpleDateFormat;
 
+import org.bson.types.ObjectId;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.invocation.InvocationOnMock;
@@ -35,6 +36,7 @@ import org.springframework.web.context.request.NativeWebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.ExtendedServletRequestDataBinder;
 
 import com.trenako.criteria.SearchCriteria;
+import com.trenako.results.RangeCursor;
 import com.trenako.results.RangeRequest;
 
 /**
@@ -64,48 +66,89 @@ public class RangeRequestArgumentResolverTests {
 	}
 
 	@Test
-	public void shouldResolveRequestForStringBasedRanges() throws Exception {
+	public void shouldResolveRequestForCursorBasedRanges() throws Exception {
+		RangeCursor since = new RangeCursor("since-name", new ObjectId("47cc67093475061e3d95369e"));
+		RangeCursor max = new RangeCursor("max-name", new ObjectId("47cc67093475061e3d95369d"));
+		
 		MockHttpServletRequest request = new MockHttpServletRequest();
-		request.addParameter("max", "47cc67093475061e3d95369d");
-		request.addParameter("since", "47cc67093475061e3d95369e");
+		request.addParameter("max", max.encode());
+		request.addParameter("since", since.encode());
 		request.addParameter("size", "50");
-		request.addParameter("sort", "name");
+		request.addParameter("sort", "slug");
 		request.addParameter("dir", "desc");
 		
-		NativeWebRequest webRequest = mock(NativeWebRequest.class);
-		when(webRequest.getNativeRequest()).thenReturn(request);
+		RangeRequest rangeRequest = resolve(request);
 		
-		WebDataBinderFactory binderFactory = mock(WebDataBinderFactory.class);
-		when(binderFactory.createBinder(eq(webRequest), isA(RangeRequest.class), eq("")))
-			.thenAnswer(new Answer<ExtendedServletRequestDataBinder>() {
-				@Override
-				public ExtendedServletRequestDataBinder answer(InvocationOnMock invocation) throws Throwable {
-					Object[] args = invocation.getArguments();
-					RangeRequest req = (RangeRequest) args[1];
-					return new ExtendedServletRequestDataBinder(req, "");				}
-			});
-		
-		Object obj = resolver.resolveArgument(parRangeRequest,
-				null, 
-				webRequest,
-				binderFactory);
-		
-		assertNotNull(obj);
-		assertTrue(obj instanceof RangeRequest);
-		
-		assertEquals("max=47cc67093475061e3d95369d,since=47cc67093475061e3d95369e,size=50,sort=name: DESC", 
-				obj.toString());
+		assertEquals(since, rangeRequest.getSince());
+		assertEquals(max, rangeRequest.getMax());
+		assertEquals(50, rangeRequest.getSize());
+		assertEquals("slug: DESC", rangeRequest.getFirstOrder().toString());
 	}
 	
 	@Test
 	public void shouldResolveRequestForDateBasedRangeRequests() throws Exception {
+		RangeCursor since = new RangeCursor(fulldate("2012/06/01 11:30:00.000"), new ObjectId("47cc67093475061e3d95369e"));
+		
 		MockHttpServletRequest request = new MockHttpServletRequest();
-		request.addParameter("max", "2012-06-01T11:40:00");
-		request.addParameter("since", "2012-06-01T11:30:00");
+		request.addParameter("since", since.encode());
 		request.addParameter("size", "50");
 		request.addParameter("sort", "lastModified");
 		request.addParameter("dir", "desc");
 		
+		RangeRequest rangeRequest = resolve(request);
+		
+		assertNotNull("Since cursor is null", rangeRequest.getSince());
+		assertNull(rangeRequest.getMax());
+		assertEquals(fulldate("2012/06/01 11:30:00.000"), ((RangeCursor) rangeRequest.getSince()).getValue());
+	}
+	
+	@Test
+	public void shouldIgnoreInvalidCursors() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addParameter("max", "2012-06-01T11:40:00");
+		request.addParameter("since", "47cc67093475061e3d95369e");
+		
+		RangeRequest rangeRequest = resolve(request);
+		
+		assertNull(rangeRequest.getSince());
+		assertNull(rangeRequest.getMax());
+	}
+	
+	@Test
+	public void shouldUseTheFailbackValuesForInvalidParameters() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addParameter("size", "many");
+		request.addParameter("sort", "slug");
+		request.addParameter("dir", "sideways");
+		
+		RangeRequest rangeRequest = resolve(request);
+		
+		assertEquals(RangeRequest.DEFAULT_SORT, rangeRequest.getSort());
+		assertEquals(this.rangeRequest.getSize(), rangeRequest.getSize());
+	}
+	
+	@Test
+	public void shouldSortInAscendingOrderByDefault() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addParameter("sort", "slug");
+		
+		RangeRequest rangeRequest = resolve(request);
+		
+		assertEquals("slug: ASC", rangeRequest.getFirstOrder().toString());
+	}
+	
+	@Test
+	public void shouldUseTheFailbackSortForUnsupportedProperties() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addParameter("sort", "description");
+		request.addParameter("dir", "asc");
+		
+		RangeRequest rangeRequest = resolve(request);
+		
+		assertEquals(RangeRequest.DEFAULT_SORT, rangeRequest.getSort());
+	}
+	
+	private RangeRequest resolve(MockHttpServletRequest request) throws Exception {
 		NativeWebRequest webRequest = mock(NativeWebRequest.class);
 		when(webRequest.getNativeRequest()).thenReturn(request);
 		
@@ -124,15 +167,9 @@ public class RangeRequestArgumentResolverTests {
 				webRequest,
 				binderFactory);
 		
-		SimpleDateFormat sdf = new SimpleDateFormat("dd/MM/yyyy HH:mm:ss");
-		RangeRequest rangeRequest = (RangeRequest) obj;
-		assertNotNull(rangeRequest);
-		assertNotNull("Since date is null", rangeRequest.getSince());
-		assertNotNull("Max date is null", rangeRequest.getMax());
-		
-		assertEquals("01/06/2012 11:30:00", sdf.format(rangeRequest.getSince()));
-		assertEquals("01/06/2012 11:40:00", sdf.format(rangeRequest.getMax()));
-		
+		assertNotNull(obj);
+		assertTrue(obj instanceof RangeRequest);
+		return (RangeRequest) obj;
 	}
 	
 	// template method for testing
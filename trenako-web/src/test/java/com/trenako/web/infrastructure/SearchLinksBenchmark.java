@@ -0,0 +1,161 @@
+/*
+ * Copyright 2012 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.trenako.web.infrastructure;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.beanutils.BeanUtils;
+import org.apache.commons.lang3.tuple.Pair;
+
+import com.trenako.criteria.Criteria;
+import com.trenako.criteria.SearchCriteria;
+import com.trenako.entities.Brand;
+import com.trenako.entities.Railway;
+import com.trenako.entities.Scale;
+import com.trenako.test.Benchmarks;
+import com.trenako.utility.Cat;
+import com.trenako.values.Era;
+import com.trenako.values.LocalizedEnum;
+import com.trenako.values.PowerMethod;
+
+/**
+ * It compares the time and the memory spent to build the search links for a
+ * brand page with the previous, reflection based, url builder and with {@link SearchLinks}.
+ * <p>
+ * The page has the search bar links for the scales, the railways and the eras, and
+ * the categories links for every scale and power method.
+ * It is not a unit test, run it with {@code main}.
+ * </p>
+ *
+ * @author Carlo Micieli
+ */
+public class SearchLinksBenchmark {
+
+	private static final String[] SCALES = { "H0", "N", "TT", "Z", "0", "1" };
+	private static final String[] RAILWAYS = { "DB", "FS", "SBB", "OBB", "SNCF", "NS", "SNCB", "DR", "CSD", "PKP" };
+	private static final int PAGES = 2000;
+	private static final int ROUNDS = 5;
+
+	private static final SearchCriteria CRITERIA = new SearchCriteria.Builder()
+		.brand(new Brand.Builder("ACME").slug("acme").build())
+		.build();
+	
+	private static final List<Scale> scales = new ArrayList<Scale>();
+	private static final List<Railway> railways = new ArrayList<Railway>();
+	private static final List<Cat> cats = new ArrayList<Cat>();
+	private static final Iterable<LocalizedEnum<Era>> eras = LocalizedEnum.list(Era.class);
+	static {
+		for (String s : SCALES) {
+			scales.add(new Scale.Builder(s).slug(s.toLowerCase()).powerMethods("ac", "dc").build());
+		}
+		for (String r : RAILWAYS) {
+			railways.add(new Railway.Builder(r).slug(r.toLowerCase()).build());
+		}
+		for (PowerMethod pm : PowerMethod.values()) {
+			for (Cat cat : Cat.list(pm, null)) {
+				cats.add(cat);
+			}
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		// the two builders must produce the same urls
+		Benchmarks.compare(ROUNDS, PAGES, "page", new Benchmarks.Task("reflection") {
+			@Override
+			public long run(int i) {
+				return legacyPage();
+			}
+		}, new Benchmarks.Task("links") {
+			@Override
+			public long run(int i) {
+				return linksPage();
+			}
+		});
+	}
+
+	private static int linksPage() {
+		int length = 0;
+		length += links("scale", scales);
+		length += links("railway", railways);
+		length += links("era", eras);
+		for (int s = 0; s < scales.size(); s++) {
+			length += links("cat", cats);
+		}
+		return length;
+	}
+
+	private static int links(String criteriaName, Iterable<?> items) {
+		SearchLinks links = SearchLinks.adding(CRITERIA, criteriaName);
+		int length = 0;
+		for (Object it : items) {
+			length += links.url(it).length();
+		}
+		return length;
+	}
+
+	private static int legacyPage() {
+		int length = 0;
+		length += legacyLinks("scale", scales);
+		length += legacyLinks("railway", railways);
+		length += legacyLinks("era", eras);
+		for (int s = 0; s < scales.size(); s++) {
+			length += legacyLinks("cat", cats);
+		}
+		return length;
+	}
+
+	private static int legacyLinks(String criteriaName, Iterable<?> items) {
+		int length = 0;
+		for (Object it : items) {
+			length += legacyUrl(CRITERIA, criteriaName, it).length();
+		}
+		return length;
+	}
+
+	// the url builder before the SearchLinks
+	private static String legacyUrl(SearchCriteria sc, String addedCriteriaName, Object addedObj) {
+		StringBuilder sb = new StringBuilder();
+		sb.append("/rs");
+		for (Criteria criteria : SearchCriteria.KEYS) {
+			if (addedCriteriaName.equals(criteria.criterionName())) {
+				sb.append("/").append(addedCriteriaName).append("/").append(legacyValue(addedObj));
+			}
+			else {
+				Pair<String, String> value = sc.get(criteria);
+				if (value != null) {
+					sb.append("/").append(criteria.criterionName()).append("/").append(value.getKey());
+				}
+			}
+		}
+		return sb.toString();
+	}
+
+	private static String legacyValue(Object obj) {
+		if (obj.getClass().equals(String.class)) {
+			return obj.toString();
+		}
+		else if (obj.getClass().equals(LocalizedEnum.class)) {
+			return ((LocalizedEnum<?>) obj).getKey();
+		}
+		try {
+			return BeanUtils.getProperty(obj, "slug");
+		}
+		catch (Exception e) {
+			return obj.toString();
+		}
+	}
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2012 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.trenako.web.infrastructure;
+
+import static com.trenako.test.TestDataBuilder.*;
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.trenako.criteria.SearchCriteria;
+
+/**
+ * 
+ * @author Carlo Micieli
+ *
+ */
+public class SearchLinksTests {
+
+	@Test
+	public void shouldBuildLinksAddingCriteria() {
+		SearchCriteria sc = new SearchCriteria.Builder()
+			.brand(acme())
+			.railway(db())
+			.build();
+		
+		SearchLinks links = SearchLinks.adding(sc, "scale");
+		
+		assertEquals("/rs/brand/acme/scale/h0/railway/db", links.url(scaleH0()));
+		assertEquals("/rs/brand/acme/scale/n/railway/db", links.url(scaleN()));
+	}
+	
+	@Test
+	public void shouldBuildLinksReplacingCriteria() {
+		SearchCriteria sc = new SearchCriteria.Builder()
+			.brand(acme())
+			.scale(scaleH0())
+			.build();
+		
+		SearchLinks links = SearchLinks.adding(sc, "brand");
+		
+		assertEquals("/rs/brand/roco/scale/h0", links.url(roco()));
+	}
+	
+	@Test
+	public void shouldBuildLinksForEnumsAndCategories() {
+		SearchCriteria sc = new SearchCriteria.Builder()
+			.brand(acme())
+			.build();
+		
+		assertEquals("/rs/brand/acme/cat/dc-electric-locomotives", 
+				SearchLinks.adding(sc, "cat").url(dcElectricLocomotives()));
+		assertEquals("/rs/brand/acme/era/iii", 
+				SearchLinks.adding(sc, "era").url(eraIII()));
+		assertEquals("/rs/brand/acme/powermethod/ac", 
+				SearchLinks.adding(sc, "powermethod").url(ac()));
+	}
+	
+	@Test
+	public void shouldIgnoreTheValuesForUnknownCriteria() {
+		SearchCriteria sc = new SearchCriteria.Builder()
+			.brand(acme())
+			.build();
+		
+		SearchLinks links = SearchLinks.adding(sc, "not-a-criterion");
+		
+		assertEquals("/rs/brand/acme", links.url(roco()));
+	}
+	
+	@Test
+	public void shouldExtractTheUrlValues() {
+		assertEquals("acme", SearchLinks.valueOf(acme()));
+		assertEquals("iii", SearchLinks.valueOf(eraIII()));
+		assertEquals("dc-electric-locomotives", SearchLinks.valueOf(dcElectricLocomotives()));
+		assertEquals("value", SearchLinks.valueOf("value"));
+	}
+}
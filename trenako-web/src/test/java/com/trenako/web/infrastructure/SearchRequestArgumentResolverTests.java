@@ -34,6 +34,7 @@ import org.springframework.web.bind.support.WebDataBinderFactory;
 import org.springframework.web.context.request.NativeWebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.ExtendedServletRequestDataBinder;
 
+import com.trenako.criteria.Criteria;
 import com.trenako.criteria.SearchRequest;
 import com.trenako.results.RangeRequest;
 
@@ -94,6 +95,37 @@ public class SearchRequestArgumentResolverTests {
 		assertEquals(expected, (SearchRequest) obj);
 	}
 	
+	@Test
+	public void shouldReturnNewSearchRequestsForCachedPaths() throws Exception {
+		SearchRequestArgumentResolver resolver = new SearchRequestArgumentResolver(1);
+		
+		SearchRequest first = resolve(resolver, "/trenako-web/rs/brand/acme");
+		first.setScale("h0");
+		SearchRequest second = resolve(resolver, "/trenako-web/rs/brand/acme/");
+		
+		assertNotSame(first, second);
+		assertEquals("acme", second.get(Criteria.BRAND));
+		assertFalse(second.has(Criteria.SCALE));
+	}
+	
+	@Test
+	public void shouldEvictTheLeastRecentlyUsedPaths() throws Exception {
+		SearchRequestArgumentResolver resolver = new SearchRequestArgumentResolver(1);
+		
+		assertEquals("acme", resolve(resolver, "/rs/brand/acme").get(Criteria.BRAND));
+		assertEquals("roco", resolve(resolver, "/rs/brand/roco").get(Criteria.BRAND));
+		assertEquals("acme", resolve(resolver, "/rs/brand/acme").get(Criteria.BRAND));
+	}
+	
+	private SearchRequest resolve(SearchRequestArgumentResolver resolver, String uri) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.setRequestURI(uri);
+		NativeWebRequest webRequest = mock(NativeWebRequest.class);
+		when(webRequest.getNativeRequest()).thenReturn(request);
+		
+		return (SearchRequest) resolver.resolveArgument(parSearchRequest, null, webRequest, null);
+	}
+	
 	// helper method for testing
 	public void testmethod(SearchRequest sc, RangeRequest range) {
 	}
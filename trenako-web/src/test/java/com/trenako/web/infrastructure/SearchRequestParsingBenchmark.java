@@ -0,0 +1,171 @@
+/*
+ * Copyright 2012 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.trenako.web.infrastructure;
+
+import java.beans.PropertyEditorSupport;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Stack;
+
+import org.bson.types.ObjectId;
+import org.springframework.beans.MutablePropertyValues;
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.PropertyValues;
+import org.springframework.core.MethodParameter;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.bind.ServletRequestParameterPropertyValues;
+import org.springframework.web.bind.WebDataBinder;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.ExtendedServletRequestDataBinder;
+
+import com.trenako.criteria.Criteria;
+import com.trenako.criteria.SearchRequest;
+import com.trenako.results.RangeCursor;
+import com.trenako.results.RangeRequest;
+import com.trenako.test.Benchmarks;
+
+/**
+ * It compares the time and the memory spent to resolve the {@code SearchRequest} and
+ * {@code RangeRequest} arguments with the previous, data binding based, resolvers
+ * and with the current ones.
+ * <p>
+ * The requests are a mix of repeated {@code /rs} paths with the range parameters,
+ * as for a user browsing the results pages.
+ * It is not a unit test, run it with {@code main}.
+ * </p>
+ *
+ * @author Carlo Micieli
+ */
+public class SearchRequestParsingBenchmark {
+
+	private static final String[] PATHS = {
+		"/trenako-web/rs/brand/acme",
+		"/trenako-web/rs/brand/acme/scale/h0",
+		"/trenako-web/rs/brand/acme/scale/h0/cat/ac-electric-locomotives",
+		"/trenako-web/rs/brand/acme/scale/h0/cat/ac-electric-locomotives/railway/db",
+		"/trenako-web/rs/brand/acme/scale/h0/cat/ac-electric-locomotives/railway/db/era/iii",
+		"/trenako-web/rs/scale/n/powermethod/dc/category/steam-locomotives",
+		"/trenako-web/rs/railway/fs/era/iv",
+		"/trenako-web/rs/brand/roco/railway/fs/era/iv"
+	};
+	private static final int REQUESTS = 100000;
+	private static final int ROUNDS = 5;
+
+	private static final SearchRequestArgumentResolver searchResolver = new SearchRequestArgumentResolver();
+	private static final RangeRequestArgumentResolver rangeResolver = new RangeRequestArgumentResolver();
+	
+	private static MethodParameter searchParam;
+	private static MethodParameter rangeParam;
+
+	public static void main(String[] args) throws Exception {
+		Method method = SearchRequestParsingBenchmark.class.getMethod("testmethod", SearchRequest.class, RangeRequest.class);
+		searchParam = new MethodParameter(method, 0);
+		rangeParam = new MethodParameter(method, 1);
+		
+		final NativeWebRequest[] requests = new NativeWebRequest[PATHS.length];
+		String since = new RangeCursor(new java.util.Date(1338543000000L), new ObjectId("47cc67093475061e3d95369e")).encode();
+		for (int i = 0; i < PATHS.length; i++) {
+			MockHttpServletRequest request = new MockHttpServletRequest("GET", PATHS[i]);
+			request.addParameter("since", since);
+			request.addParameter("size", "25");
+			request.addParameter("sort", "lastModified");
+			request.addParameter("dir", "desc");
+			requests[i] = new ServletWebRequest(request);
+		}
+		
+		// the two resolvers must produce the same requests
+		Benchmarks.compare(ROUNDS, REQUESTS, "request", new Benchmarks.Task("binder") {
+			@Override
+			public long run(int i) throws Exception {
+				return legacyResolve(requests[i % requests.length]);
+			}
+		}, new Benchmarks.Task("parser") {
+			@Override
+			public long run(int i) throws Exception {
+				return resolve(requests[i % requests.length]);
+			}
+		});
+	}
+
+	private static int resolve(NativeWebRequest webRequest) throws Exception {
+		SearchRequest sr = (SearchRequest) searchResolver.resolveArgument(searchParam, null, webRequest, null);
+		RangeRequest rr = (RangeRequest) rangeResolver.resolveArgument(rangeParam, null, webRequest, null);
+		return sr.hashCode() + rr.getSize() + rr.getSince().hashCode();
+	}
+
+	// the resolvers before the single pass parser
+	private static int legacyResolve(NativeWebRequest webRequest) throws Exception {
+		MockHttpServletRequest request = (MockHttpServletRequest) webRequest.getNativeRequest();
+
+		SearchRequest sr = new SearchRequest();
+		WebDataBinder searchBinder = new ExtendedServletRequestDataBinder(sr, "");
+		searchBinder.bind(new MutablePropertyValues(legacyParseUrl(request.getRequestURI())));
+
+		RangeRequest rr = new RangeRequest(RangeRequest.DEFAULT_SORT, 0, null, null);
+		PropertyValues propValues = new ServletRequestParameterPropertyValues(request);
+		WebDataBinder rangeBinder = new ExtendedServletRequestDataBinder(rr, "");
+		rangeBinder.registerCustomEditor(Sort.class, new LegacySortPropertyEditor(propValues));
+		rangeBinder.bind(propValues);
+		rr.setSince(RangeCursor.valueOf(rr.getSince()));
+		rr.setMax(RangeCursor.valueOf(rr.getMax()));
+
+		return sr.hashCode() + rr.getSize() + rr.getSince().hashCode();
+	}
+
+	private static final List<String> KEYS = (List<String>) Criteria.keys();
+
+	private static Map<String, String> legacyParseUrl(String path) {
+		Map<String, String> values = new HashMap<>();
+		Stack<String> stack = new Stack<>();
+		for (String tk : path.split("/")) {
+			if (KEYS.contains(tk)) {
+				if (!stack.isEmpty()) {
+					stack.pop();
+				}
+				stack.push(tk);
+			} 
+			else if (!stack.isEmpty()) {
+				values.put(stack.pop(), tk);
+			}
+		}
+		return values;
+	}
+
+	private static class LegacySortPropertyEditor extends PropertyEditorSupport {
+		private final PropertyValues values;
+
+		public LegacySortPropertyEditor(PropertyValues values) {
+			this.values = values;
+		}
+
+		@Override
+		public void setAsText(String text) throws IllegalArgumentException {
+			PropertyValue rawOrder = values.getPropertyValue(RangeRequest.ORDER_NAME);
+			Direction order = null == rawOrder ? 
+					Direction.ASC : Direction.fromString(rawOrder.getValue().toString());
+			setValue(new Sort(order, text));
+		}
+	}
+
+	// template method for the method parameters
+	public void testmethod(SearchRequest sc, RangeRequest range) {
+	}
+}
@@ -22,6 +22,9 @@ import java.util.Map;
 
 import org.junit.Test;
 
+import com.trenako.criteria.Criteria;
+import com.trenako.criteria.SearchRequest;
+
 /**
  * 
  * @author Carlo Micieli
@@ -58,6 +61,52 @@ public class SearchRequestUrlParserTests {
 		assertValue(values, "scale", "H0");
 	}
 	
+	@Test
+	public void shouldIgnoreTrailingSlashes() {
+		Map<String, String> values = parseUrl("/rs/brand/ACME/scale//");
+		assertEquals(1, values.size());
+		assertValue(values, "brand", "ACME");
+	}
+	
+	@Test
+	public void shouldReturnTheLastValueForRepeatedCriteria() {
+		Map<Criteria, String> values = parseValues("/rs/brand/ACME/brand/Roco");
+		assertEquals(1, values.size());
+		assertEquals("Roco", values.get(Criteria.BRAND));
+	}
+	
+	@Test
+	public void shouldParsePathsAsSearchRequests() {
+		SearchRequest request = parseRequest("/trenako-web/rs/brand/acme/powermethod/ac/cat/ac-electric-locomotives/text/ice");
+		
+		SearchRequest expected = new SearchRequest();
+		expected.setBrand("acme");
+		expected.setPowermethod("ac");
+		expected.setCat("ac-electric-locomotives");
+		expected.setText("ice");
+		assertEquals(expected, request);
+	}
+	
+	@Test
+	public void shouldParseCriterionNamesAsTextValues() {
+		Map<Criteria, String> values = parseValues("/rs/text/brand");
+		assertEquals(1, values.size());
+		assertEquals("brand", values.get(Criteria.TEXT));
+		
+		values = parseValues("/rs/scale/h0/text/railway/brand/acme");
+		assertEquals("h0", values.get(Criteria.SCALE));
+		assertEquals("railway", values.get(Criteria.TEXT));
+		assertEquals("acme", values.get(Criteria.BRAND));
+	}
+	
+	@Test
+	public void shouldIgnoreEmptyValuesParsingSearchRequests() {
+		SearchRequest request = parseRequest("/rs/brand//scale/h0");
+		
+		assertFalse(request.has(Criteria.BRAND));
+		assertEquals("h0", request.get(Criteria.SCALE));
+	}
+	
 	void assertValue(Map<String, String> values, String key, String value) {
 		assertEquals(true, values.containsKey(key));
 		assertEquals(value, values.get(key));
@@ -39,7 +39,7 @@ import com.trenako.entities.Account;
 import com.trenako.entities.Collection;
 import com.trenako.entities.CollectionItem;
 import com.trenako.entities.RollingStock;
-import com.trenako.services.AccountsService;
+import com.trenako.web.infrastructure.ActorsResolver;
 import com.trenako.web.test.AbstractSpringTagsTest;
 
 /**
@@ -51,17 +51,17 @@ import com.trenako.web.test.AbstractSpringTagsTest;
 public class ActivityTagsTests extends AbstractSpringTagsTest {
 
 	private ActivityTags tag;
-	private @Mock AccountsService accountsService;
+	private @Mock ActorsResolver actorsResolver;
 	
 	@Override
 	protected void setupTag(PageContext pageContext, MessageSource messageSource) {
 		MockitoAnnotations.initMocks(this);
-		when(accountsService.findBySlug(eq("bob"))).thenReturn(user());
+		when(actorsResolver.resolve(eq("bob"))).thenReturn(user());
 		
 		tag = new ActivityTags();
 		tag.setPageContext(pageContext);
 		tag.setMessageSource(messageSource);
-		tag.setAccountsService(accountsService);
+		tag.setActorsResolver(actorsResolver);
 	}
 
 	@Test
@@ -32,7 +32,7 @@ import org.mockito.runners.MockitoJUnitRunner;
 import org.springframework.context.MessageSource;
 
 import com.trenako.entities.Account;
-import com.trenako.services.AccountsService;
+import com.trenako.web.infrastructure.ActorsResolver;
 import com.trenako.web.test.AbstractSpringTagsTest;
 
 /**
@@ -45,7 +45,7 @@ public class AvatarTagsTests extends AbstractSpringTagsTest {
 
 	private final static String GRAVATAR_URL = "https://secure.gravatar.com/avatar/7905d373cfab2e0fda04b9e7acc8c879.jpg";
 	
-	private @Mock AccountsService accountsService;
+	private @Mock ActorsResolver actorsResolver;
 	private AvatarTags tag;
 	
 	@Override
@@ -54,13 +54,13 @@ public class AvatarTagsTests extends AbstractSpringTagsTest {
 		
 		tag = new AvatarTags();
 		tag.setPageContext(pageContext);
-		tag.setAccountsService(accountsService);		
+		tag.setActorsResolver(actorsResolver);		
 	}
 	
 	@Test
 	public void shouldRenderEmptyTagWhenUserWasNotFound() throws JspException, UnsupportedEncodingException {
 		String slug = "bob";
-		when(accountsService.findBySlug(eq(slug))).thenReturn(null);
+		when(actorsResolver.resolve(eq(slug))).thenReturn(null);
 		
 		tag.setUser(slug);
 		
@@ -74,7 +74,7 @@ public class AvatarTagsTests extends AbstractSpringTagsTest {
 	@Test
 	public void shouldRenderGravatarImages() throws JspException, UnsupportedEncodingException {
 		String slug = "bob";
-		when(accountsService.findBySlug(eq(slug))).thenReturn(user());
+		when(actorsResolver.resolve(eq(slug))).thenReturn(user());
 		
 		tag.setUser(slug);
 		
@@ -93,7 +93,7 @@ public class AvatarTagsTests extends AbstractSpringTagsTest {
 	public void shouldRenderGravatarImagesWithDifferentSize() throws JspException, UnsupportedEncodingException {
 		int size = 64;
 		String slug = "bob";
-		when(accountsService.findBySlug(eq(slug))).thenReturn(user());
+		when(actorsResolver.resolve(eq(slug))).thenReturn(user());
 		
 		tag.setUser(slug);
 		tag.setSize(size);
@@ -112,7 +112,7 @@ public class AvatarTagsTests extends AbstractSpringTagsTest {
 	@Test
 	public void shouldRenderGravatarImagesWithUserDisplayName() throws JspException, UnsupportedEncodingException {
 		String slug = "bob";
-		when(accountsService.findBySlug(eq(slug))).thenReturn(user());
+		when(actorsResolver.resolve(eq(slug))).thenReturn(user());
 		
 		tag.setUser(slug);
 		tag.setShowName(true);
@@ -133,7 +133,7 @@ public class AvatarTagsTests extends AbstractSpringTagsTest {
 	@Test
 	public void shouldRenderImagesWithGravatarLink() throws JspException, UnsupportedEncodingException {
 		String slug = "bob";
-		when(accountsService.findBySlug(eq(slug))).thenReturn(user());
+		when(actorsResolver.resolve(eq(slug))).thenReturn(user());
 		
 		tag.setUser(slug);
 		tag.setShowGravatarLink(true);
@@ -34,6 +34,8 @@ import org.springframework.context.MessageSource;
 
 import com.trenako.criteria.SearchCriteria;
 import com.trenako.entities.Brand;
+import com.trenako.facets.FacetCounts;
+import com.trenako.facets.FacetKey;
 import com.trenako.results.RollingStockResults;
 import com.trenako.services.BrowseService;
 import com.trenako.web.tags.html.HtmlTag;
@@ -114,4 +116,30 @@ public class BrandsSearchTagsTests extends AbstractSpringTagsTest {
 		String output = renderTag();
 		assertEquals(html.toString(), output);
 	}
+	
+	@Test
+	public void shouldRenderTheRollingStockCountsForEachBrand() throws JspException, UnsupportedEncodingException {
+		FacetCounts facetCounts = mock(FacetCounts.class);
+		when(facetCounts.count(eq(FacetKey.of("acme", null, "db")))).thenReturn(3);
+		tag.setFacetCounts(facetCounts);
+		
+		SearchCriteria sc = new SearchCriteria.Builder()
+			.railway(db())
+			.build();
+		
+		RollingStockResults results = mockResults(3, sc, mockRange());
+		setResults(results);
+		
+		int rv = tag.doStartTag();
+		assertEquals(TagSupport.SKIP_BODY, rv);
+		
+		HtmlTag html = snippet(
+			li("brand").cssClass("nav-header"),
+			snippet(li(a("ACME").href("/trenako-web", "/rs/brand/acme/railway/db"), plain(" "), span("(3)").cssClass("muted"))),
+			snippet(li(a("Roco").href("/trenako-web", "/rs/brand/roco/railway/db"), plain(" "), span("(0)").cssClass("muted")))
+				);
+		
+		String output = renderTag();
+		assertEquals(html.toString(), output);
+	}
 }
@@ -23,7 +23,9 @@ import static com.trenako.test.TestDataBuilder.*;
 
 import java.io.UnsupportedEncodingException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.servlet.jsp.JspException;
 import javax.servlet.jsp.PageContext;
@@ -61,9 +63,11 @@ public class CategoriesListTagsTests  extends AbstractSpringTagsTest {
 	protected void setupTag(PageContext pageContext, MessageSource messageSource) {
 		MockitoAnnotations.initMocks(this);
 		
-		when(service.findBySlug(eq("h0"))).thenReturn(scaleH0());
-		when(service.findBySlug(eq("n"))).thenReturn(scaleN());
-		when(service.findBySlug(eq("tt"))).thenReturn(scaleTT());
+		Map<String, Scale> scales = new HashMap<String, Scale>();
+		scales.put("h0", scaleH0());
+		scales.put("n", scaleN());
+		scales.put("tt", scaleTT());
+		when(service.findBySlugs(anyCollectionOf(String.class))).thenReturn(scales);
 		
 		tag = new CategoriesListTags();
 		tag.setPageContext(pageContext);
@@ -125,6 +129,18 @@ public class CategoriesListTagsTests  extends AbstractSpringTagsTest {
 		assertEquals(expected, output);
 	}
 	
+	@Test
+	public void shouldLoadAllBrandScalesWithOneQuery() throws JspException {
+		
+		Brand roco = new Brand.Builder("Roco").scales("n", "tt", "h0").build();
+		tag.setBrand(roco);
+		
+		tag.doStartTag();
+		
+		verify(service, times(1)).findBySlugs(eq(roco.getScales()));
+		verify(service, never()).findBySlug(anyString());
+	}
+	
 	@Test
 	public void shouldRenderCategoriesWhenScalesAreMoreThanColumns() throws JspException, UnsupportedEncodingException {
 		
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2012 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.trenako.web.tags;
+
+import static org.junit.Assert.*;
+
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.servlet.jsp.JspException;
+import javax.servlet.jsp.PageContext;
+import javax.servlet.jsp.tagext.TagSupport;
+
+import org.junit.Test;
+import org.springframework.context.MessageSource;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import com.trenako.web.tags.html.HtmlTag;
+import com.trenako.web.test.AbstractSpringTagsTest;
+
+import static com.trenako.web.tags.html.HtmlBuilder.*;
+
+/**
+ * 
+ * @author Carlo Micieli
+ *
+ */
+public class PaginationTagsTests extends AbstractSpringTagsTest {
+
+	private PaginationTags tag;
+	
+	@Override
+	protected void setupTag(PageContext pageContext, MessageSource messageSource) {
+		tag = new PaginationTags();
+		tag.setPageContext(pageContext);
+	}
+
+	@Test
+	public void shouldRenderPaginationForOnePage() throws JspException, UnsupportedEncodingException {
+		tag.setPage(new PageImpl<Object>(content(2), new PageRequest(0, 10), 2));
+		
+		int rv = tag.doStartTag();
+		assertEquals(TagSupport.SKIP_BODY, rv);
+		
+		HtmlTag html = div(ul(
+				li(a("&laquo;").href("#")).cssClass("disabled"),
+				li(a("1").href("/trenako-web?page.page=1")).cssClass("active"),
+				li(a("&raquo;").href("#")).cssClass("disabled")
+				)).cssClass("pagination pagination-centered");
+		
+		assertEquals(html.build(), renderTag());
+	}
+	
+	@Test
+	public void shouldRenderOnlyTheLinksAroundTheCurrentPage() throws JspException, UnsupportedEncodingException {
+		tag.setPage(new PageImpl<Object>(content(10), new PageRequest(49999, 10), 1000000));
+		
+		int rv = tag.doStartTag();
+		assertEquals(TagSupport.SKIP_BODY, rv);
+		
+		List<HtmlTag> items = new ArrayList<HtmlTag>();
+		items.add(li(a("&laquo;").href("/trenako-web?page.page=49999")));
+		for (Integer p = 49994; p <= 50003; p++) {
+			HtmlTag a = a(p.toString()).href("/trenako-web?page.page=" + p);
+			items.add(p == 50000 ? li(a).cssClass("active") : li(a));
+		}
+		items.add(li(a("&raquo;").href("/trenako-web?page.page=50001")));
+		HtmlTag html = div(ul(tags(items))).cssClass("pagination pagination-centered");
+		
+		assertEquals(html.build(), renderTag());
+	}
+	
+	@Test
+	public void shouldRenderTheCursorsForPreviousAndNextLinks() throws JspException, UnsupportedEncodingException {
+		MockHttpServletRequest request = (MockHttpServletRequest) servletRequest();
+		request.addParameter("page.page", "2");
+		request.addParameter("since", "47cc67093475061e3d95369c");
+		
+		tag.setPage(new PageImpl<Object>(content(10), new PageRequest(1, 10), 30));
+		tag.setSince("47cc67093475061e3d95369d");
+		tag.setMax("47cc67093475061e3d95369a");
+		
+		int rv = tag.doStartTag();
+		assertEquals(TagSupport.SKIP_BODY, rv);
+		
+		HtmlTag html = div(ul(
+				li(a("&laquo;").href("/trenako-web?page.page=1&max=47cc67093475061e3d95369a")),
+				li(a("1").href("/trenako-web?page.page=1")),
+				li(a("2").href("/trenako-web?page.page=2")).cssClass("active"),
+				li(a("3").href("/trenako-web?page.page=3")),
+				li(a("&raquo;").href("/trenako-web?page.page=3&since=47cc67093475061e3d95369d"))
+				)).cssClass("pagination pagination-centered");
+		
+		assertEquals(html.build(), renderTag());
+	}
+	
+	@Test
+	public void shouldKeepTheOtherRequestParameters() throws JspException, UnsupportedEncodingException {
+		MockHttpServletRequest request = (MockHttpServletRequest) servletRequest();
+		request.addParameter("category", "electric-locomotives");
+		
+		tag.setPage(new PageImpl<Object>(content(10), new PageRequest(0, 10), 20));
+		
+		int rv = tag.doStartTag();
+		assertEquals(TagSupport.SKIP_BODY, rv);
+		
+		HtmlTag html = div(ul(
+				li(a("&laquo;").href("#")).cssClass("disabled"),
+				li(a("1").href("/trenako-web?page.page=1&category=electric-locomotives")).cssClass("active"),
+				li(a("2").href("/trenako-web?page.page=2&category=electric-locomotives")),
+				li(a("&raquo;").href("/trenako-web?page.page=2&category=electric-locomotives"))
+				)).cssClass("pagination pagination-centered");
+		
+		assertEquals(html.build(), renderTag());
+	}
+	
+	private static List<Object> content(int size) {
+		List<Object> content = new ArrayList<Object>();
+		for (int i = 0; i < size; i++) {
+			content.add(new Object());
+		}
+		return content;
+	}
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2012 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.trenako.web.tags;
+
+import static org.mockito.Mockito.*;
+
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.annotation.AnnotationConfigUtils;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.web.context.support.StaticWebApplicationContext;
+
+import com.trenako.facets.FacetCounts;
+import com.trenako.services.BrowseService;
+import com.trenako.services.ScalesService;
+import com.trenako.test.Benchmarks;
+import com.trenako.web.infrastructure.ActorsResolver;
+
+/**
+ * It compares the time to inject the collaborators in the custom tags
+ * with the bean factory autowiring and with the cached injection plans.
+ * <p>
+ * The tags are injected as many times as a results page would do for a
+ * number of requests; the collaborators are simple mocks.
+ * It is not a unit test, run it with {@code main}.
+ * </p>
+ *
+ * @author Carlo Micieli
+ */
+public class TagInjectionBenchmark {
+
+	private static final int TAGS = 100000;
+	private static final int ROUNDS = 5;
+
+	public static void main(String[] args) throws Exception {
+		StaticWebApplicationContext wac = new StaticWebApplicationContext();
+		wac.setServletContext(new MockServletContext());
+		AnnotationConfigUtils.registerAnnotationConfigProcessors(wac);
+
+		// the static context provides its own message source
+		ConfigurableListableBeanFactory bf = wac.getBeanFactory();
+		bf.registerSingleton("scalesService", mock(ScalesService.class));
+		bf.registerSingleton("browseService", mock(BrowseService.class));
+		bf.registerSingleton("facetCounts", mock(FacetCounts.class));
+		bf.registerSingleton("actorsResolver", mock(ActorsResolver.class));
+		wac.refresh();
+
+		final AutowireCapableBeanFactory acbf = wac.getAutowireCapableBeanFactory();
+		final TagInjector injector = TagInjector.forContext(wac);
+
+		Benchmarks.compare(ROUNDS, TAGS, "tag", new Benchmarks.Task("autowireBean") {
+			@Override
+			public long run(int i) {
+				acbf.autowireBean(tag(i));
+				return 0;
+			}
+		}, new Benchmarks.Task("cached plan") {
+			@Override
+			public long run(int i) {
+				injector.inject(tag(i));
+				return 0;
+			}
+		});
+
+		wac.close();
+	}
+
+	// a mix of the tags rendered by the results pages
+	private static SpringTagSupport tag(int i) {
+		switch (i % 4) {
+			case 0:
+				return new CategoriesListTags();
+			case 1:
+				return new ActivityTags();
+			case 2:
+				return new PagerTags();
+			default:
+				return new PeriodTags();
+		}
+	}
+}
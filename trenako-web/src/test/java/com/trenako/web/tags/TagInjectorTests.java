@@ -0,0 +1,134 @@
+/*
+ * Copyright 2012 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.trenako.web.tags;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import javax.servlet.jsp.JspException;
+import javax.servlet.jsp.JspWriter;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.beans.factory.config.DependencyDescriptor;
+import org.springframework.context.MessageSource;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.trenako.services.BrowseService;
+
+/**
+ * 
+ * @author Carlo Micieli
+ *
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class TagInjectorTests {
+
+	@Mock WebApplicationContext wac;
+	@Mock AutowireCapableBeanFactory beanFactory;
+	@Mock MessageSource messageSource;
+	@Mock BrowseService browseService;
+	
+	@Before
+	public void setUp() {
+		MockitoAnnotations.initMocks(this);
+		when(wac.getServletContext()).thenReturn(new MockServletContext());
+		when(wac.getAutowireCapableBeanFactory()).thenReturn(beanFactory);
+		when(beanFactory.resolveDependency(isA(DependencyDescriptor.class), (String) isNull())).thenAnswer(new Answer<Object>() {
+			@Override
+			public Object answer(InvocationOnMock invocation) throws Throwable {
+				DependencyDescriptor descriptor = (DependencyDescriptor) invocation.getArguments()[0];
+				if (descriptor.getDependencyType().equals(MessageSource.class)) {
+					return messageSource;
+				}
+				if (descriptor.getDependencyType().equals(BrowseService.class)) {
+					return browseService;
+				}
+				return null;
+			}
+		});
+	}
+	
+	@Test
+	public void shouldReturnTheSameInjectorForTheContext() {
+		TagInjector injector = TagInjector.forContext(wac);
+		assertSame(injector, TagInjector.forContext(wac));
+	}
+	
+	@Test
+	public void shouldInjectFieldsAndMethods() {
+		TestTags tag = new TestTags();
+		
+		TagInjector.forContext(wac).inject(tag);
+		
+		assertSame(messageSource, tag.messageSource);
+		assertSame(browseService, tag.service);
+		assertNull(tag.optional);
+	}
+	
+	@Test
+	public void shouldResolveTheCollaboratorsOnlyOnceForEveryTagClass() {
+		TagInjector injector = TagInjector.forContext(wac);
+		TestTags first = new TestTags();
+		TestTags second = new TestTags();
+		
+		injector.inject(first);
+		injector.inject(second);
+		
+		assertSame(messageSource, second.messageSource);
+		assertSame(browseService, second.service);
+		verify(beanFactory, times(3)).resolveDependency(isA(DependencyDescriptor.class), (String) isNull());
+		verify(beanFactory, never()).autowireBean(any());
+	}
+	
+	@Test
+	public void shouldNotOverwriteTheCollaboratorsThatCannotBeResolved() {
+		TestTags tag = new TestTags();
+		Runnable optional = mock(Runnable.class);
+		tag.optional = optional;
+		
+		TagInjector.forContext(wac).inject(tag);
+		
+		assertSame(optional, tag.optional);
+	}
+	
+	@SuppressWarnings("serial")
+	static class TestTags extends SpringTagSupport {
+		private @Autowired MessageSource messageSource;
+		private @Autowired(required = false) Runnable optional;
+		private BrowseService service;
+		
+		@Autowired
+		protected void setService(BrowseService service) {
+			this.service = service;
+		}
+		
+		@Override
+		protected int writeTagContent(JspWriter jspWriter, String contextPath)
+				throws JspException {
+			return SKIP_BODY;
+		}
+	}
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2012 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.trenako.web.tags.html;
+
+import static com.trenako.web.tags.html.HtmlBuilder.*;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.trenako.test.Benchmarks;
+
+/**
+ * It compares the memory allocated to render a brand categories page
+ * with the {@link HtmlBuilder} tags and with the streaming {@link HtmlWriter}.
+ * <p>
+ * The markup is the one produced by the categories list tag for a brand with
+ * six scales; the output is discarded, therefore only the rendering is measured.
+ * It is not a unit test, run it with {@code main}.
+ * </p>
+ *
+ * @author Carlo Micieli
+ */
+public class HtmlWriterBenchmark {
+
+	private static final String[] SCALES = { "H0", "N", "TT", "Z", "0", "1" };
+	private static final int CATEGORIES = 14;
+	private static final int PAGES = 10000;
+	private static final int ROUNDS = 5;
+
+	public static void main(String[] args) throws Exception {
+		final Writer out = new NullWriter();
+
+		Benchmarks.compare(ROUNDS, PAGES, "page", new Benchmarks.Task("tags") {
+			@Override
+			public long run(int i) throws IOException {
+				out.write(tree().build());
+				return 0;
+			}
+		}, new Benchmarks.Task("writer") {
+			@Override
+			public long run(int i) throws IOException {
+				stream(new HtmlWriter(out));
+				return 0;
+			}
+		});
+	}
+
+	private static HtmlTag tree() {
+		List<HtmlTag> cols = new ArrayList<HtmlTag>();
+		for (String scale : SCALES) {
+			List<HtmlTag> items = new ArrayList<HtmlTag>();
+			for (int c = 0; c < CATEGORIES; c++) {
+				items.add(li(a(label(c)).href("/trenako-web", url(scale, c)), 
+						plain(" "), span("(" + c + ")").cssClass("muted")));
+			}
+			cols.add(div(snippet(h2(scale), ul(tags(items)).cssClass("unstyled"))).cssClass("span4"));
+		}
+		return snippet(div(tags(cols)).cssClass("row-fluid"));
+	}
+
+	private static void stream(HtmlWriter html) throws IOException {
+		html.newLine().start("div").attr("class", "row-fluid");
+		for (String scale : SCALES) {
+			html.newLine().start("div").attr("class", "span4")
+				.newLine().newLine().element("h2", scale)
+				.newLine().start("ul").attr("class", "unstyled");
+			for (int c = 0; c < CATEGORIES; c++) {
+				html.newLine().start("li")
+					.newLine().start("a").attr("href", "/trenako-web", url(scale, c)).text(label(c)).end("a")
+					.newLine().raw(" ")
+					.newLine().start("span").attr("class", "muted").raw("(").number(c).raw(")").end("span")
+					.end("li");
+			}
+			html.end("ul").end("div");
+		}
+		html.end("div");
+	}
+
+	// the urls and labels are computed by the tags in both cases
+	private static final String[][] URLS = new String[SCALES.length][CATEGORIES];
+	static {
+		for (int s = 0; s < SCALES.length; s++) {
+			for (int c = 0; c < CATEGORIES; c++) {
+				URLS[s][c] = "/rs/brand/acme/scale/" + SCALES[s].toLowerCase() + "/cat/dc-category-" + c;
+			}
+		}
+	}
+
+	private static String url(String scale, int c) {
+		for (int s = 0; s < SCALES.length; s++) {
+			if (SCALES[s].equals(scale)) {
+				return URLS[s][c];
+			}
+		}
+		return null;
+	}
+
+	private static final String[] LABELS = new String[CATEGORIES];
+	static {
+		for (int c = 0; c < CATEGORIES; c++) {
+			LABELS[c] = "dc category " + c;
+		}
+	}
+
+	private static String label(int c) {
+		return LABELS[c];
+	}
+
+	private static class NullWriter extends Writer {
+		@Override
+		public void write(char[] cbuf, int off, int len) {
+		}
+
+		@Override
+		public void write(String str, int off, int len) {
+		}
+
+		@Override
+		public void write(int c) {
+		}
+
+		@Override
+		public void flush() {
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2012 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.trenako.web.tags.html;
+
+import static com.trenako.web.tags.html.HtmlBuilder.*;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * 
+ * @author Carlo Micieli
+ *
+ */
+public class HtmlWriterTests {
+
+	private StringWriter out;
+	private HtmlWriter html;
+	
+	@Before
+	public void setUp() {
+		out = new StringWriter();
+		html = new HtmlWriter(out);
+	}
+	
+	@Test
+	public void shouldWriteEmptyTags() throws IOException {
+		html.start("div").attr("class", "row-fluid").end("div");
+		assertEquals(div().cssClass("row-fluid").build(), out.toString());
+	}
+	
+	@Test
+	public void shouldWriteTagsWithTextBody() throws IOException {
+		html.element("h2", "text");
+		assertEquals(h2("text").build(), out.toString());
+	}
+	
+	@Test
+	public void shouldWriteTheSameMarkupAsTheHtmlTags() throws IOException {
+		html.newLine().start("ul").attr("class", "unstyled")
+			.newLine().start("li")
+				.newLine().start("a").attr("href", "/trenako-web", "/rs/scale/h0").text("H0").end("a")
+				.newLine().raw(" ")
+				.newLine().start("span").attr("class", "muted").raw("(").number(42).raw(")").end("span")
+			.end("li")
+			.end("ul");
+		
+		HtmlTag expected = snippet(ul(
+				li(a("H0").href("/trenako-web", "/rs/scale/h0"), plain(" "), span("(42)").cssClass("muted"))
+				).cssClass("unstyled"));
+		assertEquals(expected.build(), out.toString());
+	}
+	
+	@Test
+	public void shouldEscapeTextAndAttributes() throws IOException {
+		html.start("a").attr("href", "/rs?q=\"a\"&b").text("<Fleischmann & Co's>").end("a");
+		assertEquals("<a href=\"/rs?q=&quot;a&quot;&amp;b\">&lt;Fleischmann &amp; Co&#39;s&gt;</a>", out.toString());
+	}
+	
+	@Test
+	public void shouldNotEscapeRawMarkup() throws IOException {
+		html.start("li").raw("&larr; Older").end("li");
+		assertEquals("<li>&larr; Older</li>", out.toString());
+	}
+	
+	@Test
+	public void shouldWriteNumbers() throws IOException {
+		html.number(0).raw(" ").number(1234567890).raw(" ").number(-12);
+		assertEquals("0 1234567890 -12", out.toString());
+	}
+	
+	@Test
+	public void shouldIgnoreNullValues() throws IOException {
+		html.start("span").attr("title", null).text(null).raw(null).end("span");
+		assertEquals("<span title=\"\"></span>", out.toString());
+	}
+}
@@ -43,6 +43,7 @@ import com.trenako.entities.RollingStock;
 import com.trenako.criteria.SearchCriteria;
 import com.trenako.results.RangeRequest;
 import com.trenako.results.RollingStockResults;
+import com.trenako.results.RollingStockSummary;
 
 /**
  * Helper class to initialize all the infrastructure needed
@@ -123,9 +124,9 @@ public abstract class AbstractSpringTagsTest {
 	}
 	
 	protected RollingStockResults mockResults(int numberOfItems, SearchCriteria sc, RangeRequest range) {
-		List<RollingStock> results = new ArrayList<RollingStock>();
+		List<RollingStockSummary> results = new ArrayList<RollingStockSummary>();
 		for (int i=0; i<numberOfItems; i++) {
-			results.add(new RollingStock());
+			results.add(new RollingStockSummary(new RollingStock()));
 		}
 		return new RollingStockResults(results, sc, range);
 	}